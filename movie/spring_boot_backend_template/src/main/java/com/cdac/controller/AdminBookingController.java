@@ -1,10 +1,12 @@
 package com.cdac.controller;
 
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cdac.dto.AdminBookingPageDto;
+import com.cdac.dto.AdminBookingQueryDto;
 import com.cdac.dto.AdminBookingRespDto;
 import com.cdac.dto.BookingByShowRespDto;
 import com.cdac.dto.BookingFilterRespDto;
@@ -22,7 +26,10 @@ import com.cdac.dto.BookingRespDto;
 import com.cdac.dto.BookingStatusUpdateDto;
 import com.cdac.dto.NewBookRespDto;
 import com.cdac.service.BookingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 
 
@@ -31,12 +38,52 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 	public class AdminBookingController {
 
+	    // keyset pages the unpaged list is written in
+	    private static final int ALL_BOOKINGS_PAGE_SIZE = 200;
+
 	    private final BookingService bookingService;
+	    private final ObjectMapper objectMapper;
 
+	    // the whole list (original unpaged contract) - a json array written page by page ,
+	    // each page read in its own transaction , so neither memory nor a connection is held for all of it.
+	    // The first page is read before anything is written , so a failure there still gets an error status ;
+	    // once the 200 is out a failure leaves the array unclosed - a broken body , never a short valid list
 	    @GetMapping
 	    @PreAuthorize("hasRole('ADMIN')")
-	    public ResponseEntity<List<AdminBookingRespDto>> getAllBookings() {
-	        return ResponseEntity.ok(bookingService.getAllBookingsForAdmin());
+	    public void getAllBookings(HttpServletResponse response) throws IOException {
+	        AdminBookingQueryDto query = new AdminBookingQueryDto();
+	        query.setSize(ALL_BOOKINGS_PAGE_SIZE);
+	        AdminBookingPageDto page = bookingService.getBookingsPageForAdmin(query);
+	        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+	        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream());
+	        try {
+	            json.writeStartArray();
+	            while (true) {
+	                for (AdminBookingRespDto booking : page.getBookings()) {
+	                    json.writeObject(booking);
+	                }
+	                json.flush();
+	                if (page.getNextCursor() == null) {
+	                    break;
+	                }
+	                query.setAfter(page.getNextCursor());
+	                page = bookingService.getBookingsPageForAdmin(query);
+	            }
+	            json.writeEndArray();
+	        } catch (IOException | RuntimeException e) {
+	            // close() would otherwise write the missing ] and make the truncated list look complete
+	            json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+	            throw e;
+	        } finally {
+	            json.close();
+	        }
+	    }
+
+	    // keyset paged : ?sort=bookingId|bookingTime&size=50&after=<nextCursor> plus optional filters
+	    @GetMapping("/page")
+	    @PreAuthorize("hasRole('ADMIN')")
+	    public ResponseEntity<AdminBookingPageDto> getBookingsPage(AdminBookingQueryDto query) {
+	        return ResponseEntity.ok(bookingService.getBookingsPageForAdmin(query));
 	    }
 	    
 	    @GetMapping("/show/{showId}")
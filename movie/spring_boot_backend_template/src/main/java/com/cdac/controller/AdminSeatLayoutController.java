@@ -0,0 +1,39 @@
+package com.cdac.controller;
+
+import com.cdac.dto.SeatGenerationReqDto;
+import com.cdac.dto.SeatGenerationRespDto;
+import com.cdac.dto.SeatLayoutReqDto;
+import com.cdac.dto.SeatLayoutRespDto;
+import com.cdac.service.SeatLayoutService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminSeatLayoutController {
+
+    private final SeatLayoutService seatLayoutService;
+
+    @PutMapping("/theaters/{theaterId}/layout")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SeatLayoutRespDto> saveLayout(@PathVariable Long theaterId,
+                                                        @RequestBody SeatLayoutReqDto dto) {
+        return ResponseEntity.ok(seatLayoutService.saveLayout(theaterId, dto));
+    }
+    
+    @GetMapping("/theaters/{theaterId}/layout")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SeatLayoutRespDto> getLayout(@PathVariable Long theaterId) {
+        return ResponseEntity.ok(seatLayoutService.getLayout(theaterId));
+    }
+    
+    @PostMapping("/seats/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SeatGenerationRespDto> generateSeats(@RequestBody SeatGenerationReqDto dto) {
+        return ResponseEntity.ok(seatLayoutService.generateSeats(dto.getShowIds()));
+    }
+}
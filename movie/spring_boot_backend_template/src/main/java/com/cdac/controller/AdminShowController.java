@@ -1,7 +1,10 @@
 package com.cdac.controller;
 
+import com.cdac.dto.ScheduleValidationRespDto;
 import com.cdac.dto.ShowReqDto;
 import com.cdac.dto.ShowRespDto;
+import com.cdac.dto.ShowScheduleReqDto;
+import com.cdac.dto.ShowScheduleRespDto;
 import com.cdac.service.ShowService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
@@ -25,6 +28,20 @@ public class AdminShowController {
         return ResponseEntity.ok(showService.addShow(dto));
     }
     
+    // recurring shows of one movie (theaters x days x time slots) created in one transaction
+    @PostMapping("/schedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ShowScheduleRespDto> scheduleShows(@Valid @RequestBody ShowScheduleReqDto dto) {
+        return ResponseEntity.ok(showService.scheduleShows(dto));
+    }
+    
+    // checks a whole proposed schedule (e.g. next week) for overlapping shows , nothing is saved
+    @PostMapping("/schedule/validate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ScheduleValidationRespDto> validateSchedule(@RequestBody List<ShowReqDto> shows) {
+        return ResponseEntity.ok(showService.validateSchedule(shows));
+    }
+    
     @PutMapping("/update/{showId}")
     public ResponseEntity<ShowRespDto> updateShow(@PathVariable("showId") Long showId,
                                                   @RequestBody ShowReqDto dto) {
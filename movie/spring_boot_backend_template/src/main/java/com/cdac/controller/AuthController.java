@@ -4,8 +4,10 @@ import com.cdac.dto.*;
 import com.cdac.entities.User;
 import com.cdac.security.CustomUserDetailsService;
 import com.cdac.security.JWTUtils;
+import com.cdac.security.LoginRateLimiter;
 import com.cdac.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +34,9 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody RegisterRequestDto request) {
         return ResponseEntity.ok(userService.register(request));
@@ -44,15 +49,15 @@ public class AuthController {
 //    }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequestDto request) {
+    public ResponseEntity<?> login(@RequestBody LoginRequestDto request, HttpServletRequest httpRequest) {
+        loginRateLimiter.check(httpRequest.getRemoteAddr(), request.getEmail());
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtUtils.generateToken(userDetails.getUsername());
-        
         User user = userService.getUserByEmail(userDetails.getUsername());
+        String token = jwtUtils.generateToken(user.getEmail(), user.getRole().name());
         
         return ResponseEntity.ok(new AuthResponseDto(token,user.getRole().name()));
     }
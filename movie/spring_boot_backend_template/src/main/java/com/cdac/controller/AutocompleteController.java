@@ -0,0 +1,40 @@
+package com.cdac.controller;
+
+import com.cdac.dto.AutocompleteSuggestionDto;
+import com.cdac.service.AutocompleteIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// search box suggestions - served from memory , meant to be called on every keystroke
+@RestController
+@RequestMapping("/api/autocomplete")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteIndex autocomplete;
+
+    // type = movie / theater , both when absent
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<AutocompleteSuggestionDto>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+        AutocompleteIndex.Kind kind = null;
+        if (type != null) {
+            try {
+                kind = AutocompleteIndex.Kind.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("type must be movie or theater");
+            }
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be >= 1");
+        }
+        return ResponseEntity.ok(autocomplete.suggest(q, kind, limit));
+    }
+}
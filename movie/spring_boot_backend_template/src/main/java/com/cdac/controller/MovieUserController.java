@@ -36,8 +36,10 @@ public class MovieUserController {
     public ResponseEntity<List<MovieRespDto>> searchMovies(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String genre,
-            @RequestParam(required = false) String language) {
-        List<MovieRespDto> list = movieService.searchMovies(name, genre, language);
+            @RequestParam(required = false) String language,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size) {
+        List<MovieRespDto> list = movieService.searchMovies(name, genre, language, page, size);
         return ResponseEntity.ok(list);
     }
     
@@ -1,6 +1,7 @@
 package com.cdac.controller;
 
 import com.cdac.service.ReceiptService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,7 +16,8 @@ public class ReceiptController {
 
     @PreAuthorize("hasRole('USER')")
     @GetMapping("/{bookingId}")
-    public void downloadReceipt(@PathVariable Long bookingId, HttpServletResponse response) {
-        receiptService.downloadInvoice(bookingId, response);
+    public void downloadReceipt(@PathVariable Long bookingId, HttpServletRequest request,
+                                HttpServletResponse response) {
+        receiptService.downloadInvoice(bookingId, request, response);
     }
 }
@@ -8,7 +8,9 @@ import com.cdac.dto.BookingRespDto;
 import com.cdac.dto.BookingUserReqDto;
 import com.cdac.dto.NewBookRespDto;
 import com.cdac.dto.SeatAvailableRespDto;
+import com.cdac.service.BookingSequencer;
 import com.cdac.service.BookingService;
+import com.cdac.service.IdempotencyService;
 import lombok.AllArgsConstructor;
 
 import java.util.List;
@@ -26,6 +28,8 @@ import org.springframework.web.bind.annotation.*;
 public class UserBookingController {
 
     private final BookingService bookingService;
+    private final BookingSequencer bookingSequencer;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public ResponseEntity<BookingRespDto> bookSeats(
@@ -45,9 +49,13 @@ public class UserBookingController {
     
     @PostMapping("/shows")
     public ResponseEntity<BookingRespDto> bookShow(@RequestBody BookingUserReqDto bookingDto,
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                    Authentication authentication) {
         String username = authentication.getName(); // from JWT token
-        BookingRespDto booked = bookingService.bookShow(bookingDto, username);
+        // a retried request with the same Idempotency-Key gets the original booking back
+        // the key is recorded in the booking's own transaction (the sequencer's shard when that is on)
+        BookingRespDto booked = idempotencyService.execute("bookShow", username, idempotencyKey, bookingDto,
+                BookingRespDto.class, recorded -> bookingSequencer.bookShow(bookingDto, username, recorded));
         return ResponseEntity.ok(booked);
     }
     
@@ -66,7 +74,7 @@ public class UserBookingController {
     @DeleteMapping("/{bookingId}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<BookingCancelRespDto> cancelBooking(@PathVariable Long bookingId) {
-        BookingCancelRespDto response = bookingService.cancelBooking(bookingId);
+        BookingCancelRespDto response = bookingSequencer.cancelBooking(bookingId);
         return ResponseEntity.ok(response);
     }
     
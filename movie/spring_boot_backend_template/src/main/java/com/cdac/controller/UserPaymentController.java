@@ -5,6 +5,7 @@ import com.cdac.dto.PaymentReqDto;
 import com.cdac.dto.PaymentRespDto;
 import com.cdac.dto.RetryPaymentRequestDto;
 import com.cdac.dto.RetryPaymentResponseDto;
+import com.cdac.service.IdempotencyService;
 import com.cdac.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,10 +24,15 @@ import java.util.List;
 public class UserPaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    public ResponseEntity<NewPaymentRespDto> makePayment(@RequestBody PaymentReqDto dto) {
-        return ResponseEntity.ok(paymentService.makePayment(dto));
+    public ResponseEntity<NewPaymentRespDto> makePayment(@RequestBody PaymentReqDto dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication auth) {
+        // a retried request with the same Idempotency-Key gets the original payment back
+        return ResponseEntity.ok(idempotencyService.execute("makePayment", auth.getName(), idempotencyKey, dto,
+                NewPaymentRespDto.class, () -> paymentService.makePayment(dto)));
     }
     
     @GetMapping
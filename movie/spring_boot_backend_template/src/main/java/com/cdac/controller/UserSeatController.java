@@ -1,12 +1,15 @@
 package com.cdac.controller;
 
 import com.cdac.dto.SeatUserRespDto;
+import com.cdac.service.SeatMapStream;
 import com.cdac.service.SeatService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,6 +20,9 @@ public class UserSeatController {
     @Autowired
     private SeatService seatService;
 
+    @Autowired
+    private SeatMapStream seatMapStream;
+
     @GetMapping("/user/shows/{showId}/seats/available")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<SeatUserRespDto>> getAvailableSeats(@PathVariable Long showId) {
@@ -24,4 +30,11 @@ public class UserSeatController {
         return ResponseEntity.ok(availableSeats);
     }
     
+    // live seat map - one "snapshot" event , then "delta" events as seats are booked / released
+    @GetMapping(path = "/user/shows/{showId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamSeatMap(@PathVariable Long showId) {
+        return seatMapStream.subscribe(showId, () -> seatService.getSeatMap(showId));
+    }
+    
 }
@@ -0,0 +1,66 @@
+package com.cdac.controller;
+
+import com.cdac.dto.BookingRespDto;
+import com.cdac.dto.SeatHoldConfirmDto;
+import com.cdac.dto.SeatHoldReqDto;
+import com.cdac.dto.SeatHoldRespDto;
+import com.cdac.service.BookingService;
+import com.cdac.service.SeatHold;
+import com.cdac.service.SeatHoldService;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/user/bookings/holds")
+@AllArgsConstructor
+public class UserSeatHoldController {
+
+    private final SeatHoldService seatHoldService;
+    private final BookingService bookingService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SeatHoldRespDto> holdSeats(@RequestBody SeatHoldReqDto dto,
+                                                     Authentication authentication) {
+        SeatHold hold = seatHoldService.hold(dto.getShowId(), dto.getSeatNos(), authentication.getName());
+        return ResponseEntity.ok(toDto(hold));
+    }
+    
+    @PutMapping("/{holdId}/extend")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SeatHoldRespDto> extendHold(@PathVariable String holdId,
+                                                      Authentication authentication) {
+        return ResponseEntity.ok(toDto(seatHoldService.extend(holdId, authentication.getName())));
+    }
+    
+    @DeleteMapping("/{holdId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<String> releaseHold(@PathVariable String holdId, Authentication authentication) {
+        seatHoldService.release(holdId, authentication.getName());
+        return ResponseEntity.ok("Hold released successfully");
+    }
+    
+    @PostMapping("/{holdId}/confirm")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BookingRespDto> confirmHold(@PathVariable String holdId,
+                                                      @RequestBody SeatHoldConfirmDto dto,
+                                                      Authentication authentication) {
+        return ResponseEntity.ok(bookingService.confirmHold(holdId, dto.getPaymentMode(), authentication.getName()));
+    }
+
+    private SeatHoldRespDto toDto(SeatHold hold) {
+        return new SeatHoldRespDto(
+                hold.getHoldId(),
+                hold.getShowId(),
+                hold.getSeatNos(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAt()), ZoneId.systemDefault()));
+    }
+}
@@ -38,8 +38,10 @@ public class UserShowController {
     
     @GetMapping("/by-date")
     @PreAuthorize("hasRole('USER')")
-    public List<ShowRespDto> getShowsByDate(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return showService.searchShowsByDate(date);
+    public List<ShowRespDto> getShowsByDate(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                            @RequestParam(required = false) Long theaterId,
+                                            @RequestParam(required = false) String location) {
+        return showService.searchShowsByDate(date, theaterId, location);
     }
 
     @GetMapping("/search/by-start-datetime")
@@ -1,16 +1,26 @@
 package com.cdac.custom_exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex) {
+    public ResponseEntity<ErrorResponse> handleRuntimeException(RuntimeException ex, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (statusOnly(request, response)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
         ErrorResponse err = new ErrorResponse();
         err.setTimestamp(LocalDateTime.now());
         err.setStatus(HttpStatus.BAD_REQUEST.value());
@@ -19,4 +29,37 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(err, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex, HttpServletRequest request,
+            HttpServletResponse response) {
+        if (statusOnly(request, response)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                    .build();
+        }
+        ErrorResponse err = new ErrorResponse();
+        err.setTimestamp(LocalDateTime.now());
+        err.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        err.setError("Too Many Requests");
+        err.setMessage(ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(err);
+    }
+
+    // an event stream has no converter for a json body , and a committed response (a streamed
+    // list failing part way) must not get one appended to what was sent - only the status goes out
+    private static boolean statusOnly(HttpServletRequest request, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return true;
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return true;
+        }
+        Object producible = request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+        return producible instanceof Collection<?> types && types.contains(MediaType.TEXT_EVENT_STREAM);
+    }
 }
@@ -0,0 +1,16 @@
+package com.cdac.custom_exception;
+
+// the server is shedding load - answered with 429 and a Retry-After header
+public class TooManyRequestsException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public TooManyRequestsException(String mesg, long retryAfterSeconds) {
+		super(mesg);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,14 @@
+package com.cdac.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminBookingPageDto {
+    private List<AdminBookingRespDto> bookings;
+    private String nextCursor;   // null on the last page
+}
@@ -0,0 +1,25 @@
+package com.cdac.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+// query params of the admin booking list - every filter is optional
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminBookingQueryDto {
+    private String sort = "bookingId";   // bookingId or bookingTime , newest first
+    private String after;                // nextCursor of the previous page
+    private Integer size;
+    private Long showId;
+    private Long userId;
+    private String status;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;            // inclusive
+}
@@ -0,0 +1,14 @@
+package com.cdac.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteSuggestionDto {
+    private String type;      // MOVIE or THEATER
+    private Long id;
+    private String text;      // movie title / theater name
+    private String detail;    // movie language / theater location
+}
@@ -0,0 +1,61 @@
+package com.cdac.dto;
+
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+import com.cdac.entities.Booking;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Payment;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+
+/*
+ * Entity <-> DTO conversions , generated by MapStruct at compile time (DtoMapperImpl) -
+ * plain getter / setter calls , no reflection and no type map lookups on the response
+ * path (replaces the ModelMapper bean).
+ * Mirrors what the STRICT ModelMapper config copied : same named properties , plus the
+ * flattened movie / theater / show fields the services used to set by hand. A target
+ * property left unmapped fails the build. The update method skips nulls , so a PUT
+ * leaves the fields it does not send alone.
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface DtoMapper {
+
+    MovieRespDto toMovieResp(Movie movie);
+
+    @Mapping(target = "movieId", ignore = true)
+    Movie toMovie(MovieReqDto dto);
+
+    // copies only the non null fields of the request
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "movieId", ignore = true)
+    void updateMovie(MovieReqDto dto, @MappingTarget Movie movie);
+
+    TheaterRespDto toTheaterResp(Theater theater);
+
+    @Mapping(target = "theaterId", ignore = true)
+    Theater toTheater(TheaterReqDto dto);
+
+    @Mapping(target = "movieTitle", source = "movie.title")
+    @Mapping(target = "theaterName", source = "theater.name")
+    @Mapping(target = "theaterLocation", source = "theater.location")
+    ShowRespDto toShowResp(Show show);
+
+    @Mapping(target = "showId", source = "show.showId")
+    SeatRespDto toSeatResp(Seat seat);
+
+    SeatAvailableRespDto toSeatAvailableResp(Seat seat);
+
+    // booked seats are filled in by the caller , it already has them
+    @Mapping(target = "showId", source = "show.showId")
+    @Mapping(target = "bookedSeats", ignore = true)
+    BookingRespDto toBookingResp(Booking booking);
+
+    @Mapping(target = "bookingReference", ignore = true)
+    NewPaymentRespDto toNewPaymentResp(Payment payment);
+}
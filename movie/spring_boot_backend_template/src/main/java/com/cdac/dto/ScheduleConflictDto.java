@@ -0,0 +1,18 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflictDto {
+    private int index;                  // position of the proposed show in the request
+    private Long theaterId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Long conflictingShowId;     // existing show it overlaps , or null
+    private Integer conflictingIndex;   // earlier proposed show it overlaps , or null
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleValidationRespDto {
+    private boolean valid;
+    private int showsChecked;
+    private int cleaningBufferMinutes;
+    private List<ScheduleConflictDto> conflicts;
+}
@@ -0,0 +1,12 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatGenerationReqDto {
+    private List<Long> showIds;
+}
@@ -0,0 +1,16 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatGenerationRespDto {
+    private int showsProcessed;
+    private long seatsInserted;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<Long> skippedShowIds; // shows that already had seats
+}
@@ -0,0 +1,11 @@
+package com.cdac.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldConfirmDto {
+    private String paymentMode;
+}
@@ -0,0 +1,13 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldReqDto {
+    private Long showId;
+    private List<String> seatNos;
+}
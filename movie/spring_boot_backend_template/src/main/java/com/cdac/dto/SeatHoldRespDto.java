@@ -0,0 +1,16 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRespDto {
+    private String holdId;
+    private Long showId;
+    private List<String> seatNos;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,25 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatLayoutReqDto {
+    private int rowCount;
+    private int seatsPerRow;
+    private List<Integer> aisleColumns;
+    private List<PriceTierData> priceTiers;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceTierData {
+        private int fromRow;
+        private int toRow;
+        private double price;
+    }
+}
@@ -0,0 +1,17 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatLayoutRespDto {
+    private Long theaterId;
+    private int rowCount;
+    private int seatsPerRow;
+    private List<Integer> aisleColumns;
+    private List<SeatLayoutReqDto.PriceTierData> priceTiers;
+    private int totalSeats;
+}
@@ -0,0 +1,14 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDeltaDto {
+    private Long showId;
+    private List<String> booked;   // seats that became unavailable (booked or held)
+    private List<String> released; // seats that became available again
+}
@@ -0,0 +1,46 @@
+package com.cdac.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+// recurring shows of one movie : every theater x every matching day in [fromDate , toDate] x every slot
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowScheduleReqDto {
+
+    @NotNull(message = "Movie ID is required")
+    private Long movieId;
+
+    @NotEmpty(message = "At least one theater is required")
+    private List<Long> theaterIds;
+
+    @NotNull(message = "From date is required")
+    private LocalDate fromDate;
+
+    @NotNull(message = "To date is required")
+    private LocalDate toDate;
+
+    private Set<DayOfWeek> daysOfWeek;  // null / empty = every day
+
+    @NotEmpty(message = "At least one time slot is required")
+    private List<LocalTime> startTimes;
+
+    @NotNull(message = "Duration is required")
+    @Positive(message = "Duration must be positive")
+    private Integer durationMinutes;
+
+    @NotNull(message = "Price per seat is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be positive")
+    private BigDecimal pricePerSeat;
+
+    private String title;               // null = "<movie title> - <start time>"
+
+    private boolean generateSeats;      // also create the seats from each theater's layout
+}
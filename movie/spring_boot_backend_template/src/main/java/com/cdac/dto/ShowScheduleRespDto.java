@@ -0,0 +1,15 @@
+package com.cdac.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowScheduleRespDto {
+    private int showsCreated;
+    private long seatsCreated;
+    private long elapsedMillis;
+    private List<Long> showIds;
+}
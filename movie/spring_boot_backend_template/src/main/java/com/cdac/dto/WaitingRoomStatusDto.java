@@ -0,0 +1,14 @@
+package com.cdac.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingRoomStatusDto {
+    private Long showId;
+    private boolean admitted;
+    private long position;            // users ahead in the queue , 0 once admitted
+    private long retryAfterSeconds;   // suggested wait before polling again
+}
@@ -11,7 +11,8 @@ import java.util.List;
 import com.cdac.entities.Show;
 
 @Entity
-@Table(name = "bookings")
+// (booking_time , booking_id) backs the keyset paging of the admin booking list
+@Table(name = "bookings", indexes = @Index(name = "idx_bookings_time_id", columnList = "booking_time, booking_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +20,9 @@ import com.cdac.entities.Show;
 public class Booking {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "bookings_id")
+	@TableGenerator(name = "bookings_id", table = "id_generators", pkColumnName = "gen_name",
+			valueColumnName = "gen_value", pkColumnValue = "bookings", allocationSize = 50)
 	@Column(name = "booking_id")
 	private Long bookingId;
 
@@ -17,7 +17,9 @@ import lombok.*;
 public class BookingSeat {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_seats_id")
+    @TableGenerator(name = "booking_seats_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "booking_seats", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -0,0 +1,93 @@
+package com.cdac.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Denormalised read model of a booking - everything the "my bookings" / bookings by
+ * show lists print, in one row, so those lists are a single indexed select instead of
+ * walking show -> movie , seats and payment per booking.
+ * Written in the same transaction as the booking / payment it mirrors (BookingSummaryService).
+ */
+@Entity
+@Table(name = "booking_summaries", indexes = {
+		@Index(name = "idx_booking_summaries_user", columnList = "user_id, booking_id"),
+		@Index(name = "idx_booking_summaries_show", columnList = "show_id, booking_id") })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummary implements Persistable<Long> {
+
+	// same id as the booking
+	@Id
+	@Column(name = "booking_id")
+	private Long bookingId;
+
+	@Column(name = "user_id", nullable = false)
+	private Long userId;
+
+	@Column(name = "show_id", nullable = false)
+	private Long showId;
+
+	@Column(length = 100)
+	private String userName;
+
+	@Column(nullable = false)
+	private LocalDateTime bookingTime;
+
+	@Column(length = 100)
+	private String showTitle;
+
+	@Column(length = 100)
+	private String theaterName;
+
+	private LocalDateTime showStartTime;
+
+	// seat numbers , comma separated
+	@Column(length = 2000)
+	private String seatNos;
+
+	private String status;
+
+	// payment side - null until the booking has a payment
+	private Double totalAmount;
+
+	private String paymentMode;
+
+	private String paymentStatus;
+
+	// the id is the booking's , so save() cannot tell a new summary from its id - saves insert without a select first
+	@Transient
+	private boolean fresh = true;
+
+	@Override
+	public Long getId() {
+		return bookingId;
+	}
+
+	@Override
+	public boolean isNew() {
+		return fresh;
+	}
+
+	@PostLoad
+	@PostPersist
+	void markStored() {
+		fresh = false;
+	}
+
+	public List<String> getSeatList() {
+		return seatNos == null || seatNos.isEmpty() ? List.of() : Arrays.asList(seatNos.split(","));
+	}
+
+	public void setSeatList(List<String> seats) {
+		this.seatNos = String.join(",", seats);
+	}
+}
@@ -0,0 +1,33 @@
+package com.cdac.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// stored response of a request made with an Idempotency-Key header
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+	// endpoint + user + client key
+	@Id
+	@Column(name = "record_key", length = 255)
+	private String recordKey;
+
+	// sha-256 of the request body , a reused key with another body is rejected
+	@Column(nullable = false, length = 64)
+	private String fingerprint;
+
+	// empty while the claiming transaction runs , never committed empty
+	@Lob
+	@Column(nullable = false, columnDefinition = "TEXT")
+	private String responseBody;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+}
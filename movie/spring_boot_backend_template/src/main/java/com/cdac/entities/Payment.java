@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 public class Payment {
 
 	    @Id
-	    @GeneratedValue(strategy = GenerationType.IDENTITY)
+	    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payments_id")
+	    @TableGenerator(name = "payments_id", table = "id_generators", pkColumnName = "gen_name",
+	            valueColumnName = "gen_value", pkColumnValue = "payments", allocationSize = 50)
 	    private Long paymentId;
 
 	    
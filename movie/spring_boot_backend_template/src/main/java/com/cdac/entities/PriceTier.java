@@ -0,0 +1,22 @@
+package com.cdac.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// price of a band of rows in a SeatLayout , rows are 1 based and inclusive
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTier {
+
+	@Column(nullable = false)
+	private int fromRow;
+
+	@Column(nullable = false)
+	private int toRow;
+
+	@Column(nullable = false)
+	private double price;
+}
@@ -14,7 +14,9 @@ import lombok.*;
 public class Seat {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "seats_id")
+	@TableGenerator(name = "seats_id", table = "id_generators", pkColumnName = "gen_name",
+			valueColumnName = "gen_value", pkColumnValue = "seats", allocationSize = 50)
 	private Long id;
 
 	@Column(name = "seat_no", nullable = false, length = 10)
@@ -28,6 +30,11 @@ public class Seat {
 	private Show show;
 
 	private Double price;
+
+	// bumped by every seat write , including the bulk claim / release in SeatRepository
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private Long version = 0L;
 	
 	public String getSeatNumber() {
 	    return seatNo;
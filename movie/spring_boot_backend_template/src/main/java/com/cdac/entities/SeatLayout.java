@@ -0,0 +1,53 @@
+package com.cdac.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Seat layout template of a theater - a grid of rows x seatsPerRow with some
+ * columns left empty as aisles. Seats of a show are materialised from it
+ * (SeatLayoutService) ; rows not covered by a price tier use the show's pricePerSeat.
+ */
+@Entity
+@Table(name = "seat_layouts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatLayout {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long layoutId;
+
+	@OneToOne(optional = false)
+	@JoinColumn(name = "theater_id", nullable = false, unique = true)
+	private Theater theater;
+
+	@Column(nullable = false)
+	private int rowCount;
+
+	@Column(nullable = false)
+	private int seatsPerRow;
+
+	// 1 based column positions that are aisles (no seat)
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "seat_layout_aisles", joinColumns = @JoinColumn(name = "layout_id"))
+	@Column(name = "column_no")
+	private Set<Integer> aisleColumns = new LinkedHashSet<>();
+
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "seat_layout_price_tiers", joinColumns = @JoinColumn(name = "layout_id"))
+	private List<PriceTier> priceTiers = new ArrayList<>();
+
+	public int getSeatCount() {
+		return rowCount * (seatsPerRow - (int) aisleColumns.stream()
+				.filter(c -> c >= 1 && c <= seatsPerRow)
+				.count());
+	}
+}
@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 public class Show {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "shows_id")
+	@TableGenerator(name = "shows_id", table = "id_generators", pkColumnName = "gen_name",
+			valueColumnName = "gen_value", pkColumnValue = "shows", allocationSize = 50)
 	private Long showId;
 
 	@ManyToOne
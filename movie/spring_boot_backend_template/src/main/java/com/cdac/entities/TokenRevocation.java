@@ -0,0 +1,24 @@
+package com.cdac.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// tokens of a subject (email) no user row is keyed by any more - the user changed the email
+@Entity
+@Table(name = "token_revocations", indexes = @Index(name = "idx_token_revocations_at", columnList = "revoked_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+	@Id
+	@Column(length = 255)
+	private String subject;
+
+	// tokens of the subject issued up to this time are void
+	@Column(name = "revoked_at", nullable = false)
+	private LocalDateTime revokedAt;
+}
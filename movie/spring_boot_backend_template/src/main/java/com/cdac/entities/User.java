@@ -5,8 +5,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_tokens_revoked_at", columnList = "tokens_revoked_at"))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class User {
 
@@ -35,6 +37,10 @@ public class User {
 
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    // tokens issued up to this time are void (deactivation , password change) - polled by other nodes
+    @Column(name = "tokens_revoked_at")
+    private LocalDateTime tokensRevokedAt;
 }
 
 
@@ -1,8 +1,11 @@
 package com.cdac.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,13 +18,41 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
 	List<Booking> findByUser(User user);
 	
+	// admin listing , phase 1 - one page of ids after the (bookingId) cursor , newest first.
+	// cursor and time bounds are always bound (no "IS NULL OR") so they stay index range seeks
+	@Query("SELECT b.bookingId FROM Booking b " +
+		       "WHERE b.bookingId < :afterId " +
+		       "AND b.bookingTime >= :from AND b.bookingTime < :to " +
+		       "AND (:showId IS NULL OR b.show.showId = :showId) " +
+		       "AND (:userId IS NULL OR b.user.userId = :userId) " +
+		       "AND (:status IS NULL OR b.status = :status) " +
+		       "ORDER BY b.bookingId DESC")
+		List<Long> findAdminPageIdsById(@Param("afterId") Long afterId, @Param("showId") Long showId,
+				@Param("userId") Long userId, @Param("status") String status,
+				@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+
+	// admin listing , phase 1 - one page of ids after the (bookingTime , bookingId) cursor , newest first
+	@Query("SELECT b.bookingId FROM Booking b " +
+		       "WHERE b.bookingTime <= :afterTime " +
+		       "AND (b.bookingTime < :afterTime OR b.bookingId < :afterId) " +
+		       "AND b.bookingTime >= :from AND b.bookingTime < :to " +
+		       "AND (:showId IS NULL OR b.show.showId = :showId) " +
+		       "AND (:userId IS NULL OR b.user.userId = :userId) " +
+		       "AND (:status IS NULL OR b.status = :status) " +
+		       "ORDER BY b.bookingTime DESC, b.bookingId DESC")
+		List<Long> findAdminPageIdsByTime(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+				@Param("showId") Long showId, @Param("userId") Long userId, @Param("status") String status,
+				@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Limit limit);
+
+	// admin listing , phase 2 - the page's bookings with their to-one associations
 	@Query("SELECT b FROM Booking b " +
 		       "JOIN FETCH b.user " +
 		       "JOIN FETCH b.show s " +
-		       "JOIN FETCH b.bookingSeats bs " +
-		       "JOIN FETCH bs.seat " +
-		       "LEFT JOIN FETCH b.payment")
-		List<Booking> findAllWithUserAndSeats();
+		       "JOIN FETCH s.movie " +
+		       "JOIN FETCH s.theater " +
+		       "LEFT JOIN FETCH b.payment " +
+		       "WHERE b.bookingId IN :ids")
+		List<Booking> findAdminViewsByIds(@Param("ids") Collection<Long> ids);
 
 	List<Booking> findByShowShowId(Long showId);
 	
@@ -29,4 +60,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 	
 	 @Query("SELECT b FROM Booking b WHERE b.bookingTime BETWEEN :start AND :end")
 	    List<Booking> findByBookingTimeBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	 @Query("SELECT b.show.showId FROM Booking b WHERE b.bookingId = :bookingId")
+	    Optional<Long> findShowIdByBookingId(@Param("bookingId") Long bookingId);
+
+	// [movieId , bookings] / [theaterId , bookings] - popularity weights of the autocomplete suggestions
+	@Query("SELECT s.movie.movieId, COUNT(b) FROM Booking b JOIN b.show s GROUP BY s.movie.movieId")
+	List<Object[]> countBookingsByMovie();
+
+	@Query("SELECT s.theater.theaterId, COUNT(b) FROM Booking b JOIN b.show s GROUP BY s.theater.theaterId")
+	List<Object[]> countBookingsByTheater();
 }
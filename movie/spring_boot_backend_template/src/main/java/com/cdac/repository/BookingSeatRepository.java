@@ -1,8 +1,11 @@
 package com.cdac.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.entities.BookingSeat;
 
@@ -10,4 +13,9 @@ public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long>
 
 	List<BookingSeat> findByBookingBookingId(Long bookingId);
 
+	// [bookingId , seatNumber] of a page of bookings (seats in booking order) - one query instead of one per booking
+	@Query("SELECT bs.booking.bookingId, s.seatNo FROM BookingSeat bs JOIN bs.seat s " +
+	       "WHERE bs.booking.bookingId IN :bookingIds ORDER BY bs.id")
+	List<Object[]> findSeatNumbersByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
 }
@@ -0,0 +1,51 @@
+package com.cdac.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.entities.BookingSummary;
+
+public interface BookingSummaryRepository extends JpaRepository<BookingSummary, Long> {
+
+	List<BookingSummary> findByUserIdOrderByBookingId(Long userId);
+
+	List<BookingSummary> findByShowIdOrderByBookingId(Long showId);
+
+	// resolves the user inside the same statement - one round trip for "my bookings"
+	@Query("SELECT s FROM BookingSummary s WHERE s.userId = "
+			+ "(SELECT u.userId FROM User u WHERE u.email = :email) ORDER BY s.bookingId")
+	List<BookingSummary> findByUserEmail(@Param("email") String email);
+
+	// backfill - next batch of bookings (by id) that have no summary yet
+	@Query("SELECT b.bookingId FROM Booking b WHERE b.bookingId > :afterId AND NOT EXISTS "
+			+ "(SELECT 1 FROM BookingSummary s WHERE s.bookingId = b.bookingId) ORDER BY b.bookingId")
+	List<Long> findUnsummarisedBookingIds(@Param("afterId") Long afterId, Limit limit);
+
+	// the copied show / theater / user columns follow later edits of the rows they were copied from
+
+	@Modifying
+	@Query("UPDATE BookingSummary s SET s.showTitle = :title WHERE s.showId IN "
+			+ "(SELECT sh.showId FROM Show sh WHERE sh.movie.movieId = :movieId)")
+	int updateShowTitleForMovie(@Param("movieId") Long movieId, @Param("title") String title);
+
+	@Modifying
+	@Query("UPDATE BookingSummary s SET s.theaterName = :name WHERE s.showId IN "
+			+ "(SELECT sh.showId FROM Show sh WHERE sh.theater.theaterId = :theaterId)")
+	int updateTheaterNameForTheater(@Param("theaterId") Long theaterId, @Param("name") String name);
+
+	@Modifying
+	@Query("UPDATE BookingSummary s SET s.showTitle = :title , s.theaterName = :theaterName , "
+			+ "s.showStartTime = :startTime WHERE s.showId = :showId")
+	int updateShow(@Param("showId") Long showId, @Param("title") String title,
+			@Param("theaterName") String theaterName, @Param("startTime") LocalDateTime startTime);
+
+	@Modifying
+	@Query("UPDATE BookingSummary s SET s.userName = :name WHERE s.userId = :userId")
+	int updateUserName(@Param("userId") Long userId, @Param("name") String name);
+}
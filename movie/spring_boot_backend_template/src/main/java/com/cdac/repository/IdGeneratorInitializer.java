@@ -0,0 +1,58 @@
+package com.cdac.repository;
+
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Shows , seats , booking seats , bookings and payments take their ids from the pooled
+ * id_generators table (see @TableGenerator on the entities) so Hibernate can batch
+ * their inserts - IDENTITY ids force one INSERT round trip per row.
+ * Rows written before the switch used AUTO_INCREMENT , so at startup each
+ * generator row is moved past the highest existing id of its table.
+ * Depends on the EntityManagerFactory so that ddl-auto has created the table first.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+	// must match allocationSize of the @TableGenerator mappings
+	private static final int ALLOCATION_SIZE = 50;
+
+	// generator row -> table , id column
+	private static final Map<String, String[]> GENERATORS = Map.of(
+			"shows", new String[] { "shows", "show_id" },
+			"seats", new String[] { "seats", "id" },
+			"booking_seats", new String[] { "booking_seats", "id" },
+			"bookings", new String[] { "bookings", "booking_id" },
+			"payments", new String[] { "payments", "payment_id" });
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public IdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@PostConstruct
+	void alignGenerators() {
+		GENERATORS.forEach((name, target) -> {
+			Long maxId = jdbcTemplate.queryForObject(
+					"SELECT COALESCE(MAX(" + target[1] + "), 0) FROM " + target[0], Long.class);
+			long floor = maxId + ALLOCATION_SIZE + 1;
+
+			int updated = jdbcTemplate.update(
+					"UPDATE id_generators SET gen_value = ? WHERE gen_name = ? AND gen_value < ?",
+					floor, name, floor);
+			if (updated == 0) {
+				Integer rows = jdbcTemplate.queryForObject(
+						"SELECT COUNT(*) FROM id_generators WHERE gen_name = ?", Integer.class, name);
+				if (rows == 0) {
+					jdbcTemplate.update("INSERT INTO id_generators (gen_name, gen_value) VALUES (?, ?)", name, floor);
+				}
+			}
+		});
+	}
+}
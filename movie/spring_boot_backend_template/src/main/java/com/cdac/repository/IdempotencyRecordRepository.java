@@ -0,0 +1,19 @@
+package com.cdac.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.cdac.entities.IdempotencyRecord;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+	// bulk purge of expired records (idx_idempotency_created)
+	@Modifying
+	@Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :oldest")
+	int deleteByCreatedAtBefore(@Param("oldest") LocalDateTime oldest);
+
+}
@@ -0,0 +1,197 @@
+package com.cdac.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Semaphore bulkhead in front of the connection pool.
+ * Request threads are tagged with a lane (BulkheadLaneFilter) and every connection
+ * checkout takes a permit of that lane until the connection is closed , so slow admin
+ * reports can never take the connections user bookings need and vice versa.
+ * Nested checkouts on a thread that already holds a permit (pooled id generators ,
+ * REQUIRES_NEW) do not take a second one. Untagged threads (schedulers , the booking
+ * sequencer) are not limited. Meant for virtual thread mode , where request
+ * concurrency is no longer capped by the Tomcat pool.
+ * Wraps after NestedConnectionPool , so nested checkouts pass the bulkhead without a
+ * permit and then go to the nested pool.
+ */
+@Component
+public class JdbcBulkhead implements BeanPostProcessor, SmartInitializingSingleton, Ordered {
+
+	public enum Lane {
+		USER, ADMIN
+	}
+
+	private static final ThreadLocal<Lane> LANE = new ThreadLocal<>();
+	private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+	private final Map<Lane, Semaphore> permits = new EnumMap<>(Lane.class);
+	private final Map<Lane, LongAdder> rejected = new EnumMap<>(Lane.class);
+	private final ObjectProvider<MeterRegistry> registry;
+
+	@Value("${jdbc.bulkhead.enabled:${spring.threads.virtual.enabled:false}}")
+	private boolean enabled;
+
+	@Value("${jdbc.bulkhead.acquire-timeout-ms:2000}")
+	private long acquireTimeoutMs;
+
+	public JdbcBulkhead(ObjectProvider<MeterRegistry> registry,
+			@Value("${jdbc.bulkhead.user-permits:7}") int userPermits,
+			@Value("${jdbc.bulkhead.admin-permits:3}") int adminPermits) {
+		this.registry = registry;
+		permits.put(Lane.USER, new Semaphore(userPermits, true));
+		permits.put(Lane.ADMIN, new Semaphore(adminPermits, true));
+		for (Lane lane : Lane.values()) {
+			rejected.put(lane, new LongAdder());
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void enter(Lane lane) {
+		LANE.set(lane);
+	}
+
+	public static void exit() {
+		LANE.remove();
+		DEPTH.remove();
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (enabled && bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+			return new BulkheadDataSource(dataSource);
+		}
+		return bean;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		MeterRegistry meters = registry.getIfAvailable();
+		if (!enabled || meters == null) {
+			return;
+		}
+		for (Lane lane : Lane.values()) {
+			String tag = lane.name().toLowerCase();
+			Semaphore semaphore = permits.get(lane);
+			Gauge.builder("jdbc.bulkhead.available", semaphore, Semaphore::availablePermits).tag("lane", tag)
+					.register(meters);
+			Gauge.builder("jdbc.bulkhead.waiting", semaphore, Semaphore::getQueueLength).tag("lane", tag)
+					.register(meters);
+			FunctionCounter.builder("jdbc.bulkhead.rejected", rejected.get(lane), LongAdder::sum).tag("lane", tag)
+					.register(meters);
+		}
+	}
+
+	private class BulkheadDataSource extends DelegatingDataSource {
+
+		BulkheadDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Semaphore semaphore = acquire();
+			try {
+				return guard(super.getConnection(), semaphore);
+			} catch (SQLException | RuntimeException e) {
+				release(semaphore);
+				throw e;
+			}
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			Semaphore semaphore = acquire();
+			try {
+				return guard(super.getConnection(username, password), semaphore);
+			} catch (SQLException | RuntimeException e) {
+				release(semaphore);
+				throw e;
+			}
+		}
+
+		// null when this checkout takes no permit (untagged thread / nested checkout)
+		private Semaphore acquire() throws SQLException {
+			Lane lane = LANE.get();
+			int[] depth = DEPTH.get();
+			depth[0]++;
+			if (lane == null || depth[0] > 1) {
+				return null;
+			}
+			Semaphore semaphore = permits.get(lane);
+			try {
+				if (semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+					return semaphore;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			depth[0]--;
+			rejected.get(lane).increment();
+			throw new SQLTransientConnectionException("Server busy (" + lane.name().toLowerCase() + " db capacity), please retry");
+		}
+
+		private void release(Semaphore semaphore) {
+			int[] depth = DEPTH.get();
+			if (depth[0] > 0) {
+				depth[0]--;
+			}
+			if (semaphore != null) {
+				semaphore.release();
+			}
+		}
+
+		// releases the permit exactly once , when the connection goes back to the pool
+		private Connection guard(Connection connection, Semaphore semaphore) {
+			AtomicBoolean closed = new AtomicBoolean();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+							try {
+								return method.invoke(connection, args);
+							} catch (InvocationTargetException e) {
+								throw e.getCause();
+							} finally {
+								release(semaphore);
+							}
+						}
+						try {
+							return method.invoke(connection, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					});
+		}
+	}
+}
@@ -14,9 +14,6 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
 	List<Movie> findByReleaseDateAfterOrReleaseDate(LocalDate dateAfter, LocalDate dateOn);
 
 	
-	List<Movie> findByTitleContainingIgnoreCaseAndGenreContainingIgnoreCaseAndLanguageContainingIgnoreCase(
-	        String title, String genre, String language);
-	
 	List<Movie> findByReleaseDateBeforeOrReleaseDateEquals(LocalDate before, LocalDate equals);
 	
 	List<Movie> findByReleaseDateBetween(LocalDate fromDate, LocalDate toDate);
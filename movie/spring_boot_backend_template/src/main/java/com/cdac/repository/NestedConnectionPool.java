@@ -0,0 +1,128 @@
+package com.cdac.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Small second pool for connections a thread checks out while it already holds one -
+ * the pooled id generators fetch their next id block that way (in a transaction of
+ * their own) in the middle of a booking transaction.
+ * Taken from the main pool , that checkout can wait until a timeout fires : when every
+ * connection is held by a booking blocked on the seat rows this transaction claimed ,
+ * or on the id generator it is refilling , none comes back. Nested checkouts therefore
+ * never queue on the main pool. The pool is opened on the first nested checkout and
+ * holds up to jdbc.nested-pool.size connections on top of the main pool's maximum
+ * (0 = no nested pool , nested checkouts queue on the main pool again).
+ * Runs ahead of the other DataSource wrappers (JdbcBulkhead) so it sits right on top
+ * of Hikari , and still finds Hikari behind a wrapper applied before it.
+ */
+@Component
+public class NestedConnectionPool implements BeanPostProcessor, Ordered {
+
+	// connections of the main pool this thread holds
+	private static final ThreadLocal<int[]> HELD = ThreadLocal.withInitial(() -> new int[1]);
+
+	@Value("${jdbc.nested-pool.size:4}")
+	private int size;
+
+	private volatile HikariDataSource nested;
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (size > 0 && bean instanceof DataSource dataSource) {
+			try {
+				if (dataSource.isWrapperFor(HikariDataSource.class) && !dataSource.isWrapperFor(NestingDataSource.class)) {
+					return new NestingDataSource(dataSource, dataSource.unwrap(HikariDataSource.class));
+				}
+			} catch (SQLException e) {
+				throw new IllegalStateException("Cannot unwrap DataSource " + beanName, e);
+			}
+		}
+		return bean;
+	}
+
+	@PreDestroy
+	void close() {
+		if (nested != null) {
+			nested.close();
+		}
+	}
+
+	private HikariDataSource nested(HikariDataSource main) {
+		HikariDataSource pool = nested;
+		if (pool == null) {
+			synchronized (this) {
+				pool = nested;
+				if (pool == null) {
+					HikariConfig config = new HikariConfig();
+					main.copyStateTo(config);
+					config.setPoolName(main.getPoolName() + "-nested");
+					config.setMaximumPoolSize(size);
+					config.setMinimumIdle(0);
+					pool = new HikariDataSource(config);
+					nested = pool;
+				}
+			}
+		}
+		return pool;
+	}
+
+	private class NestingDataSource extends DelegatingDataSource {
+
+		private final HikariDataSource main;
+
+		// target is main itself , or a wrapper of it that top level checkouts still go through
+		NestingDataSource(DataSource target, HikariDataSource main) {
+			super(target);
+			this.main = main;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			int[] held = HELD.get();
+			if (held[0] > 0) {
+				return nested(main).getConnection();
+			}
+			Connection connection = super.getConnection();
+			held[0]++;
+			return counted(connection, held);
+		}
+
+		// counts the connection as held by this thread until it goes back to the pool
+		private Connection counted(Connection connection, int[] held) {
+			AtomicBoolean closed = new AtomicBoolean();
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+							held[0]--;
+						}
+						try {
+							return method.invoke(connection, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					});
+		}
+	}
+}
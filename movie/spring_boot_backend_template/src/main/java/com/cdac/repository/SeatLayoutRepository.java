@@ -0,0 +1,17 @@
+package com.cdac.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.cdac.entities.SeatLayout;
+
+public interface SeatLayoutRepository extends JpaRepository<SeatLayout, Long> {
+
+	Optional<SeatLayout> findByTheaterTheaterId(Long theaterId);
+
+	List<SeatLayout> findByTheaterTheaterIdIn(Collection<Long> theaterIds);
+
+}
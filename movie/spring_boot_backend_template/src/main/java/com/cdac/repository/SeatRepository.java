@@ -1,8 +1,12 @@
 package com.cdac.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.entities.Seat;
 
@@ -14,6 +18,27 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
 
 	List<Seat> findByShowShowIdAndSeatNoIn(Long showId, List<String> seatNos);
 
+	boolean existsByShowShowId(Long showId);
+
+	/*
+	 * Conditional bulk claim - flips only the seats that are still free.
+	 * Caller compares the returned count with the requested count and rolls back
+	 * the transaction on a mismatch , so either all seats are claimed or none.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Seat s SET s.isBooked = true, s.version = s.version + 1 " +
+		       "WHERE s.show.showId = :showId AND s.seatNo IN :seatNos AND s.isBooked = false")
+	int claimSeatsBySeatNo(@Param("showId") Long showId, @Param("seatNos") Collection<String> seatNos);
+
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Seat s SET s.isBooked = true, s.version = s.version + 1 " +
+		       "WHERE s.show.showId = :showId AND s.id IN :seatIds AND s.isBooked = false")
+	int claimSeatsById(@Param("showId") Long showId, @Param("seatIds") Collection<Long> seatIds);
+
+	@Modifying(flushAutomatically = true)
+	@Query("UPDATE Seat s SET s.isBooked = false, s.version = s.version + 1 WHERE s.id IN :seatIds")
+	int releaseSeats(@Param("seatIds") Collection<Long> seatIds);
+
 
 
 
@@ -3,9 +3,13 @@ package com.cdac.repository;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.cdac.dto.ShowRespDto;
 import com.cdac.entities.Show;
 
 public interface ShowRepository extends JpaRepository<Show, Long> {
@@ -22,4 +26,34 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
 	 
 	 List<Show> findByStartTime(LocalDateTime startTime);
 
+	 // read side of the show listings - ShowRespDto built straight from one joined select , no entities loaded
+	 String SHOW_VIEW = "SELECT new com.cdac.dto.ShowRespDto(s.showId, m.title, t.name, t.location, "
+	 		+ "s.startTime, s.endTime, s.pricePerSeat) FROM Show s JOIN s.movie m JOIN s.theater t ";
+
+	 @Query(SHOW_VIEW + "ORDER BY s.showId")
+	 List<ShowRespDto> findAllViews();
+
+	 @Query(SHOW_VIEW + "WHERE s.showId = :showId")
+	 Optional<ShowRespDto> findViewById(@Param("showId") Long showId);
+
+	 @Query(SHOW_VIEW + "WHERE t.theaterId = :theaterId ORDER BY s.showId")
+	 List<ShowRespDto> findViewsByTheaterId(@Param("theaterId") Long theaterId);
+
+	 @Query(SHOW_VIEW + "WHERE m.movieId = :movieId ORDER BY s.showId")
+	 List<ShowRespDto> findViewsByMovieId(@Param("movieId") Long movieId);
+
+	 @Query(SHOW_VIEW + "WHERE UPPER(m.title) = UPPER(:title) ORDER BY s.showId")
+	 List<ShowRespDto> findViewsByMovieTitle(@Param("title") String title);
+
+	 @Query(SHOW_VIEW + "WHERE UPPER(t.name) = UPPER(:theaterName) ORDER BY s.showId")
+	 List<ShowRespDto> findViewsByTheaterName(@Param("theaterName") String theaterName);
+
+	 // every show with its movie and theater in one select - the startup load of ShowCalendar
+	 @Query("SELECT s FROM Show s JOIN FETCH s.movie JOIN FETCH s.theater")
+	 List<Show> findAllWithMovieAndTheater();
+
+	 // [showId , theaterId , startTime , endTime] of every show - the startup load of ShowSchedule
+	 @Query("SELECT s.showId, s.theater.theaterId, s.startTime, s.endTime FROM Show s")
+	 List<Object[]> findScheduleSlots();
+
 }
@@ -0,0 +1,24 @@
+package com.cdac.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cdac.entities.TokenRevocation;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+	List<TokenRevocation> findByRevokedAtAfter(LocalDateTime since);
+
+	// revocations whose tokens have all expired (idx_token_revocations_at)
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM TokenRevocation r WHERE r.revokedAt < :oldest")
+	int deleteByRevokedAtBefore(@Param("oldest") LocalDateTime oldest);
+
+}
@@ -1,8 +1,12 @@
 package com.cdac.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.cdac.entities.User;
 
@@ -10,4 +14,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
 	
 	Optional<User> findByEmail(String email);
 
+	// [email , tokensRevokedAt] of users whose tokens may still be revoked - recent revocations and inactive users
+	@Query("SELECT u.email, u.tokensRevokedAt FROM User u WHERE u.tokensRevokedAt > :since "
+			+ "OR u.status = com.cdac.entities.Status.INACTIVE")
+	List<Object[]> findTokenRevocations(@Param("since") LocalDateTime since);
+
+	// [email , tokensRevokedAt] of users revoked after since - deactivation stamps tokensRevokedAt too
+	@Query("SELECT u.email, u.tokensRevokedAt FROM User u WHERE u.tokensRevokedAt > :since")
+	List<Object[]> findTokenRevocationsAfter(@Param("since") LocalDateTime since);
+
 }
@@ -0,0 +1,48 @@
+package com.cdac.security;
+
+import com.cdac.repository.JdbcBulkhead;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+ * Tags the request thread with its JdbcBulkhead lane - admin endpoints use the
+ * admin lane , everything else the user lane. Runs ahead of the security chain so
+ * the user lookup of JwtFilter is counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadLaneFilter extends OncePerRequestFilter {
+
+    private final JdbcBulkhead bulkhead;
+
+    public BulkheadLaneFilter(JdbcBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkhead.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+        JdbcBulkhead.enter(path.startsWith("/api/admin/") ? JdbcBulkhead.Lane.ADMIN : JdbcBulkhead.Lane.USER);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            JdbcBulkhead.exit();
+        }
+    }
+}
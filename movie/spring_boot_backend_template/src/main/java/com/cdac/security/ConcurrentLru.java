@@ -0,0 +1,120 @@
+package com.cdac.security;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Bounded map behind the per request caches of the security filters (verified tokens ,
+ * principals) - every request reads it , so it must not have a global lock.
+ * A ConcurrentHashMap whose entries carry the time of their last read ; once the map
+ * is an eighth over max-entries , the thread whose put noticed it drops the least
+ * recently read entries down to max-entries while the others carry on. Should that
+ * thread stall mid trim , puts beyond twice max-entries are skipped (a miss only
+ * costs the caller a reload) , so the map stays bounded.
+ * Approximate LRU : read times have ~1 ms resolution (a hot entry is not rewritten on
+ * every hit) and an entry read during a trim may still be dropped by it.
+ */
+final class ConcurrentLru<K, V> {
+
+    private static final long TOUCH_RESOLUTION_NANOS = 1_000_000;
+
+    private static final class Node<V> {
+        final V value;
+        volatile long lastRead;
+
+        Node(V value, long now) {
+            this.value = value;
+            this.lastRead = now;
+        }
+    }
+
+    private final Map<K, Node<V>> map = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final int maxEntries;
+    private final int trimAt;
+    private final int hardLimit;
+
+    ConcurrentLru(int maxEntries) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.trimAt = this.maxEntries + Math.max(1, this.maxEntries / 8);
+        this.hardLimit = Math.max(trimAt + 1, this.maxEntries * 2);
+    }
+
+    V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - node.lastRead > TOUCH_RESOLUTION_NANOS) {
+            node.lastRead = now;
+        }
+        return node.value;
+    }
+
+    // returns the number of entries the put trimmed , for the callers' eviction metrics
+    int put(K key, V value) {
+        if (map.size() >= hardLimit && trimming.get()) {
+            return 0;
+        }
+        map.put(key, new Node<>(value, System.nanoTime()));
+        return map.size() > trimAt ? trim() : 0;
+    }
+
+    V remove(K key) {
+        Node<V> node = map.remove(key);
+        return node == null ? null : node.value;
+    }
+
+    // removes the entry only if it still maps to this value
+    boolean remove(K key, V value) {
+        Node<V> node = map.get(key);
+        return node != null && node.value == value && map.remove(key, node);
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    private int trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            // puts racing with a pass can leave the map over the mark again - a few more passes catch up
+            int dropped = 0;
+            for (int pass = 0; pass < 3 && map.size() > trimAt; pass++) {
+                dropped += trimPass();
+            }
+            return dropped;
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private int trimPass() {
+        long[] reads = new long[map.size() + 16];
+        int n = 0;
+        for (Node<V> node : map.values()) {
+            if (n == reads.length) {
+                break;
+            }
+            reads[n++] = node.lastRead;
+        }
+        int excess = n - maxEntries;
+        if (excess <= 0) {
+            return 0;
+        }
+        Arrays.sort(reads, 0, n);
+        long cutoff = reads[excess - 1];
+        int dropped = 0;
+        for (Map.Entry<K, Node<V>> e : map.entrySet()) {
+            if (dropped < excess && e.getValue().lastRead <= cutoff && map.remove(e.getKey(), e.getValue())) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
+
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
@@ -18,25 +20,39 @@ public class JWTUtils {
 	
 	@Value("${jwt.secret}")
 	private String secret;
+
+	// role of the user at login - lets JwtFilter authorize without loading the user
+	public static final String ROLE_CLAIM = "role";
+
+	public static final long EXPIRATION_MILLIS = 86400000; // 1 day
+
+	// built once - key derivation and parser setup are not free and both are immutable
+	private SecretKey key;
+	private JwtParser parser;
+
+	@PostConstruct
+	void init() {
+		key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+		parser = Jwts.parserBuilder().setSigningKey(key).build();
+	}
 	 
-	public String generateToken(String email) {
-	    SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+	public String generateToken(String email, String role) {
 	    return Jwts.builder()
 	            .setSubject(email)
+	            .claim(ROLE_CLAIM, role)
 	            .setIssuedAt(new Date())
-	            .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 day
+	            .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MILLIS))
 	            .signWith(key, SignatureAlgorithm.HS256)
 	            .compact();
 	}
 
+	// verifies signature + expiry , throws JwtException otherwise
+	public Claims parseClaims(String token) {
+	    return parser.parseClaimsJws(token).getBody();
+	}
+
 	public String extractUsername(String token) {
-	    SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-	    return Jwts.parserBuilder()
-	            .setSigningKey(key)
-	            .build()
-	            .parseClaimsJws(token)
-	            .getBody()
-	            .getSubject();
+	    return parseClaims(token).getSubject();
 	}
 
     public boolean validateToken(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
@@ -0,0 +1,97 @@
+package com.cdac.security;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cdac.custom_exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Token buckets for /api/auth/login , one per client ip and one per email - a client
+ * spraying passwords , or many clients hammering one account , get 429 before any
+ * bcrypt work is spent on them.
+ * Buckets refill continuously ; idle ones fall out of a bounded LRU (a missing bucket
+ * is a full one , so dropping it only ever forgives).
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final class Bucket {
+        private final double capacity;
+        private final double perNano;
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double capacity, double perMinute, long now) {
+            this.capacity = capacity;
+            this.perNano = perMinute / 60_000_000_000d;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        // seconds to wait , 0 when a token was taken
+        synchronized long take(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * perNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / perNano / 1_000_000_000d));
+        }
+    }
+
+    private final Map<String, Bucket> buckets;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    @Value("${auth.login.rate.per-ip-per-minute:30}")
+    private int perIp;
+
+    @Value("${auth.login.rate.per-email-per-minute:10}")
+    private int perEmail;
+
+    public LoginRateLimiter(MeterRegistry registry,
+                            @Value("${auth.login.rate.max-tracked:100000}") int maxTracked) {
+        this.buckets = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxTracked;
+            }
+        });
+        this.ipRejected = Counter.builder("auth.login.rejected").tag("reason", "ip_rate").register(registry);
+        this.emailRejected = Counter.builder("auth.login.rejected").tag("reason", "email_rate").register(registry);
+        Gauge.builder("auth.login.rate.tracked", buckets, Map::size).register(registry);
+    }
+
+    // throws TooManyRequestsException when the ip or the account is over its rate ; 0 per minute = no limit
+    public void check(String ip, String email) {
+        long now = System.nanoTime();
+        if (perIp > 0 && ip != null) {
+            long wait = bucket("ip:" + ip, perIp, now).take(now);
+            if (wait > 0) {
+                ipRejected.increment();
+                throw new TooManyRequestsException("Too many login attempts from this address, retry in " + wait + "s", wait);
+            }
+        }
+        if (perEmail > 0 && email != null) {
+            long wait = bucket("email:" + email.trim().toLowerCase(Locale.ROOT), perEmail, now).take(now);
+            if (wait > 0) {
+                emailRejected.increment();
+                throw new TooManyRequestsException("Too many login attempts for this account, retry in " + wait + "s", wait);
+            }
+        }
+    }
+
+    private Bucket bucket(String key, int perMinute, long now) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(perMinute, perMinute, now));
+    }
+}
@@ -0,0 +1,91 @@
+package com.cdac.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Principals of authenticated requests by email - without it every request with a
+ * token runs a users lookup (CustomUserDetailsService) although users rarely change.
+ * Bounded (approximate LRU without a global lock , see ConcurrentLru) and aged out , and dropped by UserService as soon as a user's
+ * profile , password or status changes. Credentials are erased before caching , so
+ * this never serves a login - logins still go to the db.
+ * Negative results (unknown / inactive user) are not cached.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(UserDetails principal, long loadedAt) {
+    }
+
+    private final ConcurrentLru<String, Entry> entries;
+    private final CustomUserDetailsService userDetailsService;
+    // bumped by every invalidation - a load that raced with a user update is not stored
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final MeterRegistry registry;
+
+    @Value("${security.principal.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService, MeterRegistry registry,
+                          @Value("${security.principal.cache.max-entries:10000}") int maxEntries) {
+        this.userDetailsService = userDetailsService;
+        this.registry = registry;
+        this.entries = new ConcurrentLru<>(maxEntries);
+        this.hits = Counter.builder("security.principal.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("security.principal.cache.requests").tag("result", "miss").register(registry);
+        Gauge.builder("security.principal.cache.size", entries, ConcurrentLru::size).register(registry);
+    }
+
+    // principal of an active user , loaded on a miss ; throws UsernameNotFoundException like the loader
+    public UserDetails get(String email) {
+        Entry entry = entries.get(email);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt() < ttlSeconds * 1000) {
+            hits.increment();
+            return entry.principal();
+        }
+        if (entry != null && entries.remove(email, entry)) {
+            evicted("ttl");
+        }
+        misses.increment();
+
+        long startGeneration = generation.get();
+        UserDetails principal = userDetailsService.loadUserByUsername(email);
+        if (principal instanceof CredentialsContainer credentials) {
+            credentials.eraseCredentials();
+        }
+        if (generation.get() == startGeneration) {
+            evicted("size", entries.put(email, new Entry(principal, System.currentTimeMillis())));
+        }
+        return principal;
+    }
+
+    // the user changed - its next request reloads it
+    public void invalidate(String... emails) {
+        generation.incrementAndGet();
+        for (String email : emails) {
+            if (email != null && entries.remove(email) != null) {
+                evicted("invalidation");
+            }
+        }
+    }
+
+    private void evicted(String cause) {
+        evicted(cause, 1);
+    }
+
+    private void evicted(String cause, int count) {
+        if (count > 0) {
+            registry.counter("security.principal.cache.evictions", "cause", cause).increment(count);
+        }
+    }
+}
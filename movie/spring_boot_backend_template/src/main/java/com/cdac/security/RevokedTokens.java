@@ -0,0 +1,268 @@
+package com.cdac.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.entities.TokenRevocation;
+import com.cdac.repository.TokenRevocationRepository;
+import com.cdac.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Tokens that are still signed and unexpired but must not be honoured any more - the
+ * user was deactivated or changed the password. Keyed by user (token subject) and
+ * issued-at : a revocation voids every token of the user issued up to that second ,
+ * tokens from a later login stay valid.
+ * A Bloom filter over the subjects sits in front , so the common case (user never
+ * revoked) is a few bit reads ; a hit is confirmed in the exact map , a false positive
+ * then costs one map lookup and never rejects a token.
+ * Entries are useless once every token they void has expired - they are dropped when
+ * the filter is rebuilt. Rebuilt at startup from the users table and , for emails a
+ * user changed away from , the token_revocations table.
+ * Revocations made on another node reach this one by polling both tables for rows
+ * stamped since the last load / poll (every poll-seconds) - until then this node still
+ * accepts the tokens they void.
+ */
+@Component
+public class RevokedTokens {
+
+    /*
+     * Bits of k double hashed positions per key - no removal , rebuilt instead.
+     * Readers need no lock (AtomicLongArray reads are volatile).
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            int n = Math.max(1, expectedEntries);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        }
+
+        void add(String key) {
+            long h = hash(key);
+            int h1 = (int) h, h2 = (int) (h >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    // lost a race with another bit of the word - retry
+                }
+            }
+        }
+
+        boolean mightContain(String key) {
+            long h = hash(key);
+            int h1 = (int) h, h2 = (int) (h >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        // 64 bit string hash with a murmur3 finaliser - String.hashCode alone clusters
+        private static long hash(String key) {
+            long h = 1125899906842597L;
+            for (int i = 0; i < key.length(); i++) {
+                h = 31 * h + key.charAt(i);
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private static final long POLL_OVERLAP_SECONDS = 60;
+
+    private final UserRepository userRepo;
+    private final TokenRevocationRepository revocationRepo;
+    private final double falsePositiveRate;
+    // subject -> epoch second ; tokens issued at or before it are revoked
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final Counter clear;
+    private final Counter falsePositives;
+    private final Counter reissued;
+    private final Counter revoked;
+    private final long pollSeconds;
+    private final ScheduledExecutorService poller;
+
+    private volatile BloomFilter filter;
+    private volatile int capacity;
+    private volatile boolean loaded;
+    // rows stamped after this (less the overlap) are read by the next poll
+    private volatile LocalDateTime polledUpTo;
+
+    public RevokedTokens(UserRepository userRepo, TokenRevocationRepository revocationRepo, MeterRegistry registry,
+                         @Value("${jwt.revocation.expected-entries:10000}") int expectedEntries,
+                         @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${jwt.revocation.poll-seconds:5}") long pollSeconds) {
+        this.userRepo = userRepo;
+        this.revocationRepo = revocationRepo;
+        this.falsePositiveRate = falsePositiveRate;
+        this.capacity = Math.max(16, expectedEntries);
+        this.filter = new BloomFilter(capacity, falsePositiveRate);
+        this.clear = Counter.builder("jwt.revocation.checks").tag("result", "clear").register(registry);
+        this.falsePositives = Counter.builder("jwt.revocation.checks").tag("result", "false_positive").register(registry);
+        this.reissued = Counter.builder("jwt.revocation.checks").tag("result", "reissued").register(registry);
+        this.revoked = Counter.builder("jwt.revocation.checks").tag("result", "revoked").register(registry);
+        Gauge.builder("jwt.revocation.entries", revokedUntil, Map::size).register(registry);
+        Gauge.builder("jwt.revocation.filter.bytes", this, r -> r.filter.sizeInBytes()).register(registry);
+        this.pollSeconds = pollSeconds;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "revocation-poll");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        if (pollSeconds > 0) {
+            poller.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.shutdownNow();
+    }
+
+    // token of this subject issued at issuedAtMillis (0 = unknown) must be refused
+    public boolean isRevoked(String subject, long issuedAtMillis) {
+        if (!loaded) {
+            ensureLoaded();
+        }
+        if (!filter.mightContain(subject)) {
+            clear.increment();
+            return false;
+        }
+        Long until = revokedUntil.get(subject);
+        if (until == null) {
+            falsePositives.increment();
+            return false;
+        }
+        if (issuedAtMillis / 1000 > until) {
+            reissued.increment();
+            return false;
+        }
+        revoked.increment();
+        return true;
+    }
+
+    /*
+     * Voids every token the user holds now. The cutoff is whole seconds , like a token's
+     * issued-at , so a login within the same second as the revocation is voided too.
+     */
+    public void revoke(String subject) {
+        add(subject, System.currentTimeMillis() / 1000);
+    }
+
+    public int size() {
+        return revokedUntil.size();
+    }
+
+    // built at startup , so revoked tokens are refused from the first request
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        long now = System.currentTimeMillis() / 1000;
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(JWTUtils.EXPIRATION_MILLIS));
+        for (Object[] row : userRepo.findTokenRevocations(since)) {
+            LocalDateTime at = (LocalDateTime) row[1];
+            // inactive users without a (recent) revocation - nothing they hold now is valid
+            long until = at == null || at.isBefore(since) ? now : at.atZone(ZoneId.systemDefault()).toEpochSecond();
+            add((String) row[0], until);
+        }
+        // old emails of users who changed theirs - no user row carries them any more
+        revocationRepo.deleteByRevokedAtBefore(since);
+        for (TokenRevocation revocation : revocationRepo.findByRevokedAtAfter(since)) {
+            add(revocation.getSubject(), revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+        polledUpTo = started;
+        loaded = true;
+    }
+
+    /*
+     * Revocations other nodes stored since the last load / poll - password changes and
+     * deactivations (both stamp users.tokens_revoked_at) and changed emails. Reads from a
+     * minute before the last poll , so rows of transactions that committed late or were
+     * stamped by a node whose clock is behind are not missed ; re-adding one is harmless.
+     */
+    void poll() {
+        try {
+            if (!loaded) {
+                ensureLoaded();
+                return;
+            }
+            LocalDateTime started = LocalDateTime.now();
+            LocalDateTime since = polledUpTo.minusSeconds(POLL_OVERLAP_SECONDS);
+            for (Object[] row : userRepo.findTokenRevocationsAfter(since)) {
+                add((String) row[0], ((LocalDateTime) row[1]).atZone(ZoneId.systemDefault()).toEpochSecond());
+            }
+            for (TokenRevocation revocation : revocationRepo.findByRevokedAtAfter(since)) {
+                add(revocation.getSubject(), revocation.getRevokedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+            }
+            polledUpTo = started;
+        } catch (RuntimeException e) {
+            // next run retries from the same point - a failing poll must not kill the poll thread
+        }
+    }
+
+    private synchronized void add(String subject, long until) {
+        revokedUntil.merge(subject, until, Math::max);
+        if (revokedUntil.size() > capacity) {
+            rebuild();
+        } else {
+            filter.add(subject);
+        }
+    }
+
+    // drops entries whose tokens have all expired , grows the filter if still too full
+    private void rebuild() {
+        long expired = (System.currentTimeMillis() - JWTUtils.EXPIRATION_MILLIS) / 1000;
+        revokedUntil.values().removeIf(until -> until < expired);
+        while (revokedUntil.size() * 2 > capacity) {
+            capacity *= 2;
+        }
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        revokedUntil.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
@@ -0,0 +1,89 @@
+package com.cdac.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+
+/*
+ * Verifies the bearer token of a request once - WaitingRoomFilter and JwtFilter both
+ * ask for it , the first call parses (signature + expiry) and leaves the result on
+ * the request for the second.
+ * Recently verified tokens are also memoised (bounded , approximate LRU without a
+ * global lock - see ConcurrentLru - keyed by the whole token so a signature can not be
+ * replayed with another payload , dropped at expiry) - a user sends the same token on
+ * every request , so most requests skip the HMAC.
+ */
+@Component
+public class TokenVerifier {
+
+    // what a valid token says - role is null for tokens issued before the role claim
+    public record VerifiedToken(String subject, String role, long issuedAtMillis, long expiresAtMillis) {
+    }
+
+    private static final String ATTRIBUTE = TokenVerifier.class.getName() + ".token";
+    private static final VerifiedToken INVALID = new VerifiedToken(null, null, 0, 0);
+
+    private final JWTUtils jwtUtils;
+    private final ConcurrentLru<String, VerifiedToken> verified;
+    private final int maxEntries;
+    private final Timer parseTimer;
+    private final Counter memoHits;
+    private final Counter rejected;
+
+    public TokenVerifier(JWTUtils jwtUtils, MeterRegistry registry,
+                         @Value("${jwt.verify-cache.max-entries:10000}") int maxEntries) {
+        this.jwtUtils = jwtUtils;
+        this.maxEntries = maxEntries;
+        this.verified = new ConcurrentLru<>(maxEntries);
+        this.parseTimer = Timer.builder("jwt.verify.parse").register(registry);
+        this.memoHits = Counter.builder("jwt.verify.memo.hits").register(registry);
+        this.rejected = Counter.builder("jwt.verify.rejected").register(registry);
+    }
+
+    // token of the request's Authorization header , null when there is none or it does not verify
+    public VerifiedToken verify(HttpServletRequest request) {
+        Object done = request.getAttribute(ATTRIBUTE);
+        if (done != null) {
+            return done == INVALID ? null : (VerifiedToken) done;
+        }
+        String authHeader = request.getHeader("Authorization");
+        VerifiedToken token = null;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                token = verify(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                rejected.increment();
+            }
+        }
+        request.setAttribute(ATTRIBUTE, token == null ? INVALID : token);
+        return token;
+    }
+
+    // throws JwtException for a bad signature / expired token
+    public VerifiedToken verify(String token) {
+        if (maxEntries > 0) {
+            VerifiedToken known = verified.get(token);
+            if (known != null && known.expiresAtMillis() > System.currentTimeMillis()) {
+                memoHits.increment();
+                return known;
+            }
+            if (known != null) {
+                verified.remove(token, known); // expired - the parse below rejects it
+            }
+        }
+        Claims claims = parseTimer.record(() -> jwtUtils.parseClaims(token));
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), claims.get(JWTUtils.ROLE_CLAIM, String.class),
+                claims.getIssuedAt() == null ? 0 : claims.getIssuedAt().getTime(),
+                claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime());
+        if (maxEntries > 0) {
+            verified.put(token, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,192 @@
+package com.cdac.security;
+
+import com.cdac.custom_exception.ErrorResponse;
+import com.cdac.dto.WaitingRoomStatusDto;
+import com.cdac.service.WaitingRoom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Admission control for the booking flow - runs before JwtFilter , so a queued user
+ * costs no user lookup and no database work at all.
+ * Gated : the seat endpoints of a show and the booking / hold POSTs (showId read from
+ * the body). A user over the show's admission rate gets 429 with a queue position ;
+ * GET /api/user/waiting-room/shows/{showId} is the cheap poll , answered right here.
+ * Booking bodies are buffered to read the showId ; one over MAX_BODY_BYTES gets 413
+ * (a real booking / hold body is a few hundred bytes).
+ */
+@Component
+public class WaitingRoomFilter extends OncePerRequestFilter {
+
+    private static final Pattern SEAT_PATH = Pattern.compile("^/api/user/shows/(\\d+)/seats(/.*)?$");
+    private static final Pattern POLL_PATH = Pattern.compile("^/api/user/waiting-room/shows/(\\d+)$");
+    private static final Set<String> BOOKING_POSTS = Set.of(
+            "/api/user/bookings", "/api/user/bookings/shows", "/api/user/bookings/holds");
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final WaitingRoom waitingRoom;
+    private final TokenVerifier tokenVerifier;
+    private final ObjectMapper objectMapper;
+
+    public WaitingRoomFilter(WaitingRoom waitingRoom, TokenVerifier tokenVerifier, ObjectMapper objectMapper) {
+        this.waitingRoom = waitingRoom;
+        this.tokenVerifier = tokenVerifier;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !waitingRoom.isEnabled() || !request.getServletPath().startsWith("/api/user/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+        String username = usernameOf(request);
+        if (username == null) {
+            // no / bad token - left to JwtFilter and the authorization rules
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Matcher poll = POLL_PATH.matcher(path);
+        if (poll.matches() && "GET".equals(request.getMethod())) {
+            write(response, HttpStatus.OK, waitingRoom.enter(Long.valueOf(poll.group(1)), username));
+            return;
+        }
+
+        Long showId = null;
+        Matcher seats = SEAT_PATH.matcher(path);
+        if (seats.matches()) {
+            showId = Long.valueOf(seats.group(1));
+        } else if ("POST".equals(request.getMethod()) && BOOKING_POSTS.contains(path)) {
+            byte[] body = readBody(request);
+            if (body == null) {
+                write(response, HttpStatus.PAYLOAD_TOO_LARGE, new ErrorResponse(LocalDateTime.now(),
+                        HttpStatus.PAYLOAD_TOO_LARGE.value(), "Payload Too Large",
+                        "Request body must be at most " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+            CachedBodyRequest cached = new CachedBodyRequest(request, body);
+            request = cached;
+            showId = cached.showId(objectMapper);
+        }
+
+        if (showId != null) {
+            WaitingRoomStatusDto status = waitingRoom.enter(showId, username);
+            if (!status.isAdmitted()) {
+                response.setHeader("Retry-After", String.valueOf(status.getRetryAfterSeconds()));
+                write(response, HttpStatus.TOO_MANY_REQUESTS, status);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // subject of a validly signed token - no user lookup , and JwtFilter reuses the parse
+    private String usernameOf(HttpServletRequest request) {
+        TokenVerifier.VerifiedToken token = tokenVerifier.verify(request);
+        return token == null ? null : token.subject();
+    }
+
+    // the whole body , or null if it is larger than MAX_BODY_BYTES
+    private static byte[] readBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private void write(HttpServletResponse response, HttpStatus status, Object body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // reads the (small) json body once so the showId can be checked and the controller can still read it
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        Long showId(ObjectMapper objectMapper) {
+            try {
+                JsonNode showId = objectMapper.readTree(body).path("showId");
+                return showId.canConvertToLong() ? showId.asLong() : null;
+            } catch (IOException e) {
+                return null; // malformed body - the controller reports it
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // the body is already in memory - all of it is available , and then all read
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
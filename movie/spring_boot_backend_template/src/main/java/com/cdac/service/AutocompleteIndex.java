@@ -0,0 +1,497 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.AutocompleteSuggestionDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.BookingRepository;
+import com.cdac.repository.MovieRepository;
+import com.cdac.repository.TheaterRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Search box autocomplete over movie titles and theater names / locations - no
+ * database access per keystroke.
+ * One compressed prefix trie per kind ; every word of a title / name / location starts
+ * a key , so "knig" finds "The Dark Knight". Each trie node keeps the top-k entries of
+ * its subtree by popularity (number of bookings) , so a lookup is a walk down the
+ * prefix and a copy of that list. Built at startup ; movie / theater writes keep it
+ * current after commit. Bookings only add to a per movie / theater counter (no lock) ;
+ * the counters are applied under one write lock every popularity-flush-millis , so
+ * rankings trail bookings by up to that long.
+ */
+@Component
+public class AutocompleteIndex {
+
+	public enum Kind {
+		MOVIE, THEATER
+	}
+
+	private static final int MAX_KEY_LENGTH = 64;
+	private static final Entry[] NONE = new Entry[0];
+
+	// one movie / theater - indexed under several keys
+	private static final class Entry {
+		final Kind kind;
+		final Long id;
+		final String text;
+		final String detail;
+		final List<String> keys;
+		long weight;
+
+		Entry(Kind kind, Long id, String text, String detail, List<String> keys, long weight) {
+			this.kind = kind;
+			this.id = id;
+			this.text = text;
+			this.detail = detail;
+			this.keys = keys;
+			this.weight = weight;
+		}
+	}
+
+	private static final Comparator<Entry> BY_POPULARITY = Comparator.<Entry>comparingLong(e -> -e.weight)
+			.thenComparing(e -> e.text).thenComparing(e -> e.id);
+
+	private static final class Node {
+		String label;
+		Map<Character, Node> children;
+		List<Entry> terminals;
+		Entry[] top = NONE;
+
+		Node(String label) {
+			this.label = label;
+		}
+	}
+
+	private final MovieRepository movieRepo;
+	private final TheaterRepository theaterRepo;
+	private final BookingRepository bookingRepo;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Timer queryTimer;
+	// bookings committed since the last flush , by kind and id
+	private final Map<Kind, Map<Long, LongAdder>> pending = new HashMap<>();
+	private final ScheduledExecutorService flusher;
+
+	// guarded by lock
+	private final Map<Kind, Node> roots = new HashMap<>();
+	private final Map<Kind, Map<Long, Entry>> entries = new HashMap<>();
+	private boolean loaded;
+
+	@Value("${autocomplete.top-k:10}")
+	private int topK;
+
+	@Value("${autocomplete.popularity-flush-millis:1000}")
+	private long flushMillis;
+
+	public AutocompleteIndex(MovieRepository movieRepo, TheaterRepository theaterRepo, BookingRepository bookingRepo,
+			MeterRegistry registry) {
+		this.movieRepo = movieRepo;
+		this.theaterRepo = theaterRepo;
+		this.bookingRepo = bookingRepo;
+		for (Kind kind : Kind.values()) {
+			roots.put(kind, new Node(""));
+			entries.put(kind, new HashMap<>());
+			pending.put(kind, new ConcurrentHashMap<>());
+		}
+		this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "autocomplete-popularity");
+			t.setDaemon(true);
+			return t;
+		});
+		this.queryTimer = Timer.builder("autocomplete.query").register(registry);
+		Gauge.builder("autocomplete.entries", this, AutocompleteIndex::size).register(registry);
+	}
+
+	@PostConstruct
+	void start() {
+		flusher.scheduleWithFixedDelay(() -> {
+			try {
+				applyBookings();
+			} catch (RuntimeException e) {
+				// keep the flusher alive - the counters are drained again next time
+			}
+		}, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		flusher.shutdownNow();
+	}
+
+	/*
+	 * Most booked movies / theaters having a word that starts with the prefix.
+	 * kind null = both kinds , merged by popularity.
+	 */
+	public List<AutocompleteSuggestionDto> suggest(String prefix, Kind kind, int limit) {
+		String key = prefix == null ? "" : fold(prefix.stripLeading());
+		if (key.isEmpty()) {
+			return List.of();
+		}
+		return queryTimer.record(() -> {
+			List<Entry> found = new ArrayList<>();
+			lock.readLock().lock();
+			try {
+				for (Kind k : Kind.values()) {
+					if (kind == null || kind == k) {
+						found.addAll(Arrays.asList(find(roots.get(k), key)));
+					}
+				}
+				if (kind == null) {
+					found.sort(BY_POPULARITY);
+				}
+				return found.stream().limit(Math.min(limit, topK))
+						.map(e -> new AutocompleteSuggestionDto(e.kind.name(), e.id, e.text, e.detail))
+						.toList();
+			} finally {
+				lock.readLock().unlock();
+			}
+		});
+	}
+
+	public void putMovie(Movie movie) {
+		put(Kind.MOVIE, movie.getMovieId(), movie.getTitle(), movie.getLanguage(), movie.getTitle());
+	}
+
+	public void putTheater(Theater theater) {
+		put(Kind.THEATER, theater.getTheaterId(), theater.getName(), theater.getLocation(),
+				theater.getName() + " " + theater.getLocation());
+	}
+
+	public void removeMovie(Long movieId) {
+		afterCommitLocked(() -> remove(Kind.MOVIE, movieId));
+	}
+
+	public void removeTheater(Long theaterId) {
+		afterCommitLocked(() -> remove(Kind.THEATER, theaterId));
+	}
+
+	// a booking was made (+1) or cancelled (-1) for the show - moves its movie and theater up / down at the next flush
+	public void booked(Show show, int delta) {
+		Long movieId = show.getMovie().getMovieId();
+		Long theaterId = show.getTheater().getTheaterId();
+		TransactionHooks.afterCommit(() -> {
+			pending.get(Kind.MOVIE).computeIfAbsent(movieId, id -> new LongAdder()).add(delta);
+			pending.get(Kind.THEATER).computeIfAbsent(theaterId, id -> new LongAdder()).add(delta);
+		});
+	}
+
+	/*
+	 * Applies the bookings counted since the last call - one write lock for the batch ,
+	 * one re-ranking per movie / theater however many bookings it had. Counters stay
+	 * in the map (one per movie / theater) so a booking never races a removal.
+	 */
+	void applyBookings() {
+		Map<Kind, Map<Long, Long>> deltas = new HashMap<>();
+		for (Kind kind : Kind.values()) {
+			Map<Long, Long> byId = new HashMap<>();
+			pending.get(kind).forEach((id, adder) -> {
+				long delta = adder.sumThenReset();
+				if (delta != 0) {
+					byId.put(id, delta);
+				}
+			});
+			deltas.put(kind, byId);
+		}
+		if (deltas.values().stream().allMatch(Map::isEmpty)) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			// before the startup load , the load itself counts these bookings
+			if (loaded) {
+				deltas.forEach((kind, byId) -> byId.forEach((id, delta) -> reweigh(entries.get(kind).get(id), delta)));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return entries.values().stream().mapToInt(Map::size).sum();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// bulk build - entries are inserted first , then every top-k list is computed in one bottom up pass
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		Map<Long, Long> movieBookings = counts(bookingRepo.countBookingsByMovie());
+		Map<Long, Long> theaterBookings = counts(bookingRepo.countBookingsByTheater());
+		lock.writeLock().lock();
+		try {
+			for (Movie m : movieRepo.findAll()) {
+				insert(entry(Kind.MOVIE, m.getMovieId(), m.getTitle(), m.getLanguage(), m.getTitle(),
+						movieBookings.getOrDefault(m.getMovieId(), 0L)), false);
+			}
+			for (Theater t : theaterRepo.findAll()) {
+				insert(entry(Kind.THEATER, t.getTheaterId(), t.getName(), t.getLocation(),
+						t.getName() + " " + t.getLocation(), theaterBookings.getOrDefault(t.getTheaterId(), 0L)), false);
+			}
+			roots.values().forEach(this::computeTops);
+			loaded = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void put(Kind kind, Long id, String text, String detail, String words) {
+		afterCommitLocked(() -> {
+			Entry old = entries.get(kind).get(id);
+			long weight = old == null ? 0 : old.weight;
+			remove(kind, id);
+			insert(entry(kind, id, text, detail, words, weight), true);
+		});
+	}
+
+	private void afterCommitLocked(Runnable action) {
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				// before the startup load , the load itself picks the change up
+				if (loaded) {
+					action.run();
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	private static Entry entry(Kind kind, Long id, String text, String detail, String words, long weight) {
+		// a key per word start : "the dark knight" , "dark knight" , "knight"
+		Set<String> keys = new LinkedHashSet<>();
+		String folded = fold(words == null ? "" : words.strip());
+		for (int i = 0; i < folded.length(); i++) {
+			if (Character.isLetterOrDigit(folded.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)))) {
+				keys.add(folded.substring(i, Math.min(folded.length(), i + MAX_KEY_LENGTH)));
+			}
+		}
+		return new Entry(kind, id, text, detail, List.copyOf(keys), weight);
+	}
+
+	// ---- trie ----
+
+	private static Entry[] find(Node root, String key) {
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			Node child = node.children == null ? null : node.children.get(key.charAt(i));
+			if (child == null) {
+				return NONE;
+			}
+			int common = commonPrefix(child.label, key, i);
+			if (i + common == key.length()) {
+				return child.top; // the prefix ends on or inside this edge
+			}
+			if (common < child.label.length()) {
+				return NONE;
+			}
+			node = child;
+			i += common;
+		}
+		return node.top;
+	}
+
+	private void insert(Entry entry, boolean updateTops) {
+		entries.get(entry.kind).put(entry.id, entry);
+		for (String key : entry.keys) {
+			List<Node> path = new ArrayList<>();
+			Node node = roots.get(entry.kind);
+			int i = 0;
+			while (i < key.length()) {
+				if (node.children == null) {
+					node.children = new HashMap<>(4);
+				}
+				Node child = node.children.get(key.charAt(i));
+				if (child == null) {
+					child = new Node(key.substring(i));
+					node.children.put(key.charAt(i), child);
+				} else {
+					int common = commonPrefix(child.label, key, i);
+					if (common < child.label.length()) {
+						// split the edge at the end of the common part
+						Node mid = new Node(child.label.substring(0, common));
+						child.label = child.label.substring(common);
+						mid.children = new HashMap<>(4);
+						mid.children.put(child.label.charAt(0), child);
+						mid.top = child.top;
+						node.children.put(key.charAt(i), mid);
+						child = mid;
+					}
+				}
+				path.add(child);
+				i += child.label.length();
+				node = child;
+			}
+			if (node.terminals == null) {
+				node.terminals = new ArrayList<>(1);
+			}
+			node.terminals.add(entry);
+			if (updateTops) {
+				// a new entry can only push into the lists on its path
+				for (Node n : path) {
+					n.top = withEntry(n.top, entry);
+				}
+			}
+		}
+	}
+
+	private void remove(Kind kind, Long id) {
+		Entry entry = entries.get(kind).remove(id);
+		if (entry == null) {
+			return;
+		}
+		for (String key : entry.keys) {
+			removeKey(roots.get(kind), key, 0, entry);
+		}
+	}
+
+	// removes the entry under the key , prunes / re-merges emptied nodes and recomputes the lists on the way up
+	private void removeKey(Node node, String key, int i, Entry entry) {
+		if (i == key.length()) {
+			if (node.terminals != null) {
+				node.terminals.remove(entry);
+				if (node.terminals.isEmpty()) {
+					node.terminals = null;
+				}
+			}
+		} else {
+			Node child = node.children == null ? null : node.children.get(key.charAt(i));
+			if (child == null || !key.startsWith(child.label, i)) {
+				return;
+			}
+			removeKey(child, key, i + child.label.length(), entry);
+			if (child.terminals == null && child.children == null) {
+				node.children.remove(key.charAt(i));
+				if (node.children.isEmpty()) {
+					node.children = null;
+				}
+			} else if (child.terminals == null && child.children.size() == 1) {
+				Node only = child.children.values().iterator().next();
+				only.label = child.label + only.label;
+				node.children.put(key.charAt(i), only);
+			}
+		}
+		if (node.label.isEmpty()) {
+			return; // the root keeps no list - an empty prefix suggests nothing
+		}
+		node.top = top(node);
+	}
+
+	private void reweigh(Entry entry, long delta) {
+		if (entry == null) {
+			return;
+		}
+		entry.weight = Math.max(0, entry.weight + delta);
+		for (String key : entry.keys) {
+			Node node = roots.get(entry.kind);
+			int i = 0;
+			List<Node> path = new ArrayList<>();
+			while (i < key.length()) {
+				node = node.children.get(key.charAt(i));
+				path.add(node);
+				i += node.label.length();
+			}
+			// going up , an entry can only join / move up a list ; going down , only a full list it is in
+			// has to be recomputed (something below may now beat it)
+			for (int n = path.size() - 1; n >= 0; n--) {
+				Node p = path.get(n);
+				boolean listed = Arrays.asList(p.top).contains(entry);
+				if (delta > 0 || (listed && p.top.length < topK)) {
+					p.top = withEntry(p.top, entry);
+				} else if (listed) {
+					p.top = top(p);
+				}
+			}
+		}
+	}
+
+	// the list with the entry added / re-sorted , cut to k
+	private Entry[] withEntry(Entry[] top, Entry entry) {
+		List<Entry> list = new ArrayList<>(top.length + 1);
+		for (Entry e : top) {
+			if (e != entry) {
+				list.add(e);
+			}
+		}
+		list.add(entry);
+		list.sort(BY_POPULARITY);
+		return list.subList(0, Math.min(list.size(), topK)).toArray(NONE);
+	}
+
+	// best k of the node's own entries and its children's lists
+	private Entry[] top(Node node) {
+		List<Entry> candidates = new ArrayList<>();
+		if (node.terminals != null) {
+			candidates.addAll(node.terminals);
+		}
+		if (node.children != null) {
+			node.children.values().forEach(c -> candidates.addAll(Arrays.asList(c.top)));
+		}
+		candidates.sort(BY_POPULARITY);
+		List<Entry> best = new ArrayList<>(topK);
+		for (Entry e : candidates) {
+			// one entry can reach a node under several keys ("star star")
+			if (best.size() < topK && !best.contains(e)) {
+				best.add(e);
+			}
+		}
+		return best.toArray(NONE);
+	}
+
+	private void computeTops(Node node) {
+		if (node.children != null) {
+			node.children.values().forEach(this::computeTops);
+		}
+		node.top = node.label.isEmpty() ? NONE : top(node);
+	}
+
+	private static int commonPrefix(String label, String key, int from) {
+		int n = 0;
+		while (n < label.length() && from + n < key.length() && label.charAt(n) == key.charAt(from + n)) {
+			n++;
+		}
+		return n;
+	}
+
+	private static Map<Long, Long> counts(List<Object[]> rows) {
+		Map<Long, Long> counts = new HashMap<>();
+		for (Object[] row : rows) {
+			counts.put((Long) row[0], (Long) row[1]);
+		}
+		return counts;
+	}
+
+	private static String fold(String s) {
+		return s.toLowerCase(Locale.ROOT);
+	}
+}
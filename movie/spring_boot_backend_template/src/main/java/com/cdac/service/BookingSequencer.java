@@ -0,0 +1,316 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.BookingCancelRespDto;
+import com.cdac.dto.BookingRespDto;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.repository.BookingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Optional single writer booking mode (booking.sequencer.enabled).
+ * Every booking / cancellation of a show is routed to one shard (showId mod shards),
+ * and each shard has exactly one thread , so a show's seat rows only ever have one
+ * writer and never wait on row locks. Shows spread over the shards run in parallel.
+ * A shard drains up to batch-size commands , validates bookings against the in memory
+ * seat bitmap (and against seats claimed earlier in the same batch) and commits the
+ * batch in one transaction. If that transaction fails the batch is replayed one
+ * command per transaction , so only the offending command fails.
+ * A batch shares one transaction and so one persistence context across the commands
+ * of different users : entities loaded by one command are the same managed instances
+ * for the next , and pending changes of every command are flushed together. Commands
+ * must not rely on a fresh EntityManager nor leave changes meant only for themselves.
+ * A caller waits timeout-seconds ; a command still queued by then is cancelled and
+ * never runs , so a timed out booking has not been made. One already running is
+ * waited for once more , then reported as unknown.
+ * With the switch off every call goes straight to BookingService.
+ */
+@Service
+public class BookingSequencer {
+
+	private final BookingService bookingService;
+	private final BookingRepository bookingRepo;
+	private final SeatInventory seatInventory;
+	private final TransactionTemplate transactionTemplate;
+	private final MeterRegistry registry;
+
+	@Value("${booking.sequencer.enabled:false}")
+	private boolean enabled;
+
+	@Value("${booking.sequencer.shards:0}")
+	private int shardCount;
+
+	@Value("${booking.sequencer.batch-size:16}")
+	private int batchSize;
+
+	@Value("${booking.sequencer.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${booking.sequencer.timeout-seconds:10}")
+	private long timeoutSeconds;
+
+	private Shard[] shards;
+
+	public BookingSequencer(BookingService bookingService, BookingRepository bookingRepo, SeatInventory seatInventory,
+			TransactionTemplate transactionTemplate, MeterRegistry registry) {
+		this.bookingService = bookingService;
+		this.bookingRepo = bookingRepo;
+		this.seatInventory = seatInventory;
+		this.transactionTemplate = transactionTemplate;
+		this.registry = registry;
+	}
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		int n = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+		shards = new Shard[n];
+		for (int i = 0; i < n; i++) {
+			shards[i] = new Shard(i);
+			shards[i].thread.start();
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		if (shards != null) {
+			for (Shard shard : shards) {
+				shard.thread.interrupt();
+			}
+		}
+	}
+
+	public BookingRespDto bookShow(BookingUserReqDto dto, String username) {
+		return bookShow(dto, username, UnaryOperator.identity());
+	}
+
+	/*
+	 * Books with the action wrapped by the caller (IdempotencyService) - the wrapped
+	 * action runs in the booking's own transaction , here or on the shard.
+	 */
+	public BookingRespDto bookShow(BookingUserReqDto dto, String username,
+			UnaryOperator<Supplier<BookingRespDto>> wrap) {
+		Supplier<BookingRespDto> action = wrap.apply(() -> bookingService.bookShow(dto, username));
+		if (!enabled) {
+			return transactionTemplate.execute(status -> action.get());
+		}
+		return submit(dto.getShowId(), claimed -> validate(dto, claimed), action);
+	}
+
+	public BookingCancelRespDto cancelBooking(Long bookingId) {
+		if (!enabled) {
+			return bookingService.cancelBooking(bookingId);
+		}
+		Long showId = bookingRepo.findShowIdByBookingId(bookingId)
+				.orElseThrow(() -> new RuntimeException("Booking not found"));
+		return submit(showId, claimed -> {
+		}, () -> bookingService.cancelBooking(bookingId));
+	}
+
+	// rejects seats that are unknown , already booked or claimed by an earlier command of this batch
+	private void validate(BookingUserReqDto dto, Set<String> claimed) {
+		List<String> seatNos = dto.getSeatNos();
+		if (seatNos == null || seatNos.isEmpty()) {
+			throw new RuntimeException("Seat numbers must not be null or empty.");
+		}
+		ShowSeatMap seatMap = seatInventory.get(dto.getShowId());
+		for (String seatNo : seatNos) {
+			if (!seatMap.contains(seatNo)) {
+				throw new ResourceNotFoundException("Selected seats not found");
+			}
+		}
+		for (String seatNo : seatNos) {
+			if (seatMap.isBooked(seatNo) || claimed.contains(seatNo)) {
+				throw new IllegalArgumentException("One or more seats are already booked");
+			}
+		}
+		claimed.addAll(seatNos);
+	}
+
+	private <T> T submit(Long showId, Consumer<Set<String>> validation, Supplier<T> action) {
+		Command<T> command = new Command<>(showId, validation, action, SecurityContextHolder.getContext());
+		Shard shard = shards[(int) Math.floorMod(showId, (long) shards.length)];
+		if (!shard.queue.offer(command)) {
+			throw new RuntimeException("Booking queue is full, please retry");
+		}
+		try {
+			return await(command);
+		} catch (TimeoutException e) {
+			if (command.cancel()) {
+				shard.cancelled.increment();
+				throw new RuntimeException("Booking timed out before it was processed, nothing was booked, please retry");
+			}
+			// already running - its transaction is about to finish , give it one more timeout
+			try {
+				return await(command);
+			} catch (TimeoutException stillRunning) {
+				throw new RuntimeException("Booking timed out, please check your bookings before retrying");
+			}
+		}
+	}
+
+	private <T> T await(Command<T> command) throws TimeoutException {
+		try {
+			return command.future.get(timeoutSeconds, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new RuntimeException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			// interrupted callers withdraw their command too , if it has not started
+			if (command.cancel()) {
+				throw new RuntimeException("Booking interrupted, nothing was booked");
+			}
+			throw new RuntimeException("Booking interrupted, please check your bookings before retrying");
+		}
+	}
+
+	private static class Command<T> {
+		static final int QUEUED = 0;
+		static final int STARTED = 1;
+		static final int CANCELLED = 2;
+
+		final Long showId;
+		final Consumer<Set<String>> validation;
+		final Supplier<T> action;
+		final SecurityContext securityContext;
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		// queued -> started by the shard , or queued -> cancelled by a caller that gave up
+		final AtomicInteger state = new AtomicInteger(QUEUED);
+		T result;
+
+		Command(Long showId, Consumer<Set<String>> validation, Supplier<T> action, SecurityContext securityContext) {
+			this.showId = showId;
+			this.validation = validation;
+			this.action = action;
+			this.securityContext = securityContext;
+		}
+
+		boolean start() {
+			return state.compareAndSet(QUEUED, STARTED);
+		}
+
+		boolean cancel() {
+			return state.compareAndSet(QUEUED, CANCELLED);
+		}
+
+		// runs the action as the user who submitted it (cancelBooking reads the security context)
+		void run() {
+			SecurityContextHolder.setContext(securityContext);
+			try {
+				result = action.get();
+			} finally {
+				SecurityContextHolder.clearContext();
+			}
+		}
+	}
+
+	private class Shard implements Runnable {
+		final BlockingQueue<Command<?>> queue = new ArrayBlockingQueue<>(queueCapacity);
+		final Thread thread;
+		final Counter commands;
+		final Counter batches;
+		final Counter cancelled;
+		final Timer commitTimer;
+
+		Shard(int index) {
+			String shard = String.valueOf(index);
+			this.thread = new Thread(this, "booking-sequencer-" + index);
+			this.thread.setDaemon(true);
+			this.commands = Counter.builder("booking.sequencer.commands").tag("shard", shard).register(registry);
+			this.batches = Counter.builder("booking.sequencer.batches").tag("shard", shard).register(registry);
+			this.cancelled = Counter.builder("booking.sequencer.cancelled").tag("shard", shard).register(registry);
+			this.commitTimer = Timer.builder("booking.sequencer.batch.commit").tag("shard", shard).register(registry);
+			Gauge.builder("booking.sequencer.queue.depth", queue, BlockingQueue::size).tag("shard", shard)
+					.register(registry);
+		}
+
+		@Override
+		public void run() {
+			List<Command<?>> drained = new ArrayList<>(batchSize);
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					drained.add(queue.take());
+				} catch (InterruptedException e) {
+					return;
+				}
+				queue.drainTo(drained, batchSize - 1);
+				process(drained);
+				drained.clear();
+			}
+		}
+
+		private void process(List<Command<?>> drained) {
+			Map<Long, Set<String>> claimed = new HashMap<>();
+			List<Command<?>> batch = new ArrayList<>(drained.size());
+			for (Command<?> c : drained) {
+				if (!c.start()) {
+					continue; // its caller timed out while it was queued
+				}
+				try {
+					c.validation.accept(claimed.computeIfAbsent(c.showId, id -> new HashSet<>()));
+					batch.add(c);
+				} catch (RuntimeException e) {
+					c.future.completeExceptionally(e);
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+
+			try {
+				commitTimer.record(() -> transactionTemplate.executeWithoutResult(status -> batch.forEach(Command::run)));
+				batch.forEach(Shard::complete);
+			} catch (RuntimeException batchFailure) {
+				// replay one by one so a single bad command does not fail its neighbours
+				for (Command<?> c : batch) {
+					try {
+						transactionTemplate.executeWithoutResult(status -> c.run());
+						complete(c);
+					} catch (RuntimeException e) {
+						c.future.completeExceptionally(e);
+					}
+				}
+			}
+			batches.increment();
+			commands.increment(batch.size());
+		}
+
+		private static <T> void complete(Command<T> c) {
+			c.future.complete(c.result);
+		}
+	}
+}
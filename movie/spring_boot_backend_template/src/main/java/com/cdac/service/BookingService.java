@@ -4,7 +4,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 
-import com.cdac.dto.AdminBookingRespDto;
+import com.cdac.dto.AdminBookingPageDto;
+import com.cdac.dto.AdminBookingQueryDto;
 import com.cdac.dto.BookedSeatsRespDto;
 import com.cdac.dto.BookingByShowRespDto;
 import com.cdac.dto.BookingCancelRespDto;
@@ -29,7 +30,7 @@ public interface BookingService {
     
     BookingCancelRespDto cancelBooking(Long bookingId); //cancel ticket by user
     
-    List<AdminBookingRespDto> getAllBookingsForAdmin();//get all bookings for admin
+    AdminBookingPageDto getBookingsPageForAdmin(AdminBookingQueryDto query);//get one keyset page of bookings for admin
     
     List<BookingByShowRespDto> getBookingsByShow(Long showId);//get bookings by show by admin
     
@@ -39,6 +40,8 @@ public interface BookingService {
     
     BookingRespDto updateBookingStatus(Long bookingId, BookingStatusUpdateDto dto);//update status by admin(pending,cancelled,completed)
     
+    BookingRespDto confirmHold(String holdId, String paymentMode, String username);//turn a seat hold into a paid booking
+    
    
     
 }
@@ -2,6 +2,8 @@ package com.cdac.service;
 
 import com.cdac.custom_exception.ResourceNotFoundException;
 
+import com.cdac.dto.AdminBookingPageDto;
+import com.cdac.dto.AdminBookingQueryDto;
 import com.cdac.dto.AdminBookingRespDto;
 import com.cdac.dto.BookedSeatsRespDto;
 import com.cdac.dto.BookingByShowRespDto;
@@ -22,7 +24,8 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -38,13 +41,27 @@ import java.util.stream.Collectors;
 @Setter
 public class BookingServiceImpl implements BookingService {
 
+    // admin booking list page size (default / cap)
+    private static final int DEFAULT_ADMIN_PAGE_SIZE = 50;
+    private static final int MAX_ADMIN_PAGE_SIZE = 200;
+    // open ends of the admin list's time range / cursor (valid DATETIME values)
+    private static final LocalDateTime MIN_BOOKING_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_BOOKING_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final UserRepository userRepo;
     private final ShowRepository showRepo;
     private final SeatRepository seatRepo;
     private final BookingRepository bookingRepo;
     private final BookingSeatRepository bookingSeatRepo;
     private final PaymentRepository paymentRepo;
-    private final ModelMapper modelMapper;
+    private final DtoMapper dtoMapper;
+    private final SeatInventory seatInventory;
+    private final SeatHoldService seatHoldService;
+    private final SeatMapStream seatMapStream;
+    private final BookingSummaryService bookingSummaryService;
+    private final AutocompleteIndex autocomplete;
+    private final ReceiptStore receiptStore;
+    private final ReceiptService receiptService;
     
 
     @Transactional
@@ -56,9 +73,20 @@ public class BookingServiceImpl implements BookingService {
         Show show = showRepo.findById(dto.getShowId())
                 .orElseThrow(() -> new ResourceNotFoundException("Show not found"));
 
-        List<Seat> selectedSeats = seatRepo.findAllById(dto.getSeatIds());
+        Set<Long> seatIds = new LinkedHashSet<>(dto.getSeatIds());
+
+        // the seat numbers are needed for the hold check , which like bookShow's runs before the claim
+        List<Seat> selectedSeats = seatRepo.findAllById(seatIds).stream()
+                .filter(s -> s.getShow().getShowId().equals(show.getShowId()))
+                .toList();
+        if (selectedSeats.size() != seatIds.size()) {
+            throw new ResourceNotFoundException("Selected seats not found");
+        }
+        seatHoldService.checkNotHeldByOthers(show.getShowId(),
+                selectedSeats.stream().map(Seat::getSeatNo).toList(), username);
 
-        if (selectedSeats.stream().anyMatch(Seat::isBooked)) {
+        // single conditional UPDATE - all requested seats go free -> booked, or none do
+        if (seatRepo.claimSeatsById(show.getShowId(), seatIds) != seatIds.size()) {
             throw new IllegalArgumentException("One or more seats are already booked");
         }
 
@@ -74,18 +102,14 @@ public class BookingServiceImpl implements BookingService {
         booking.setPaymentMode(dto.getPaymentMode());
         bookingRepo.save(booking);
 
-        for (Seat seat : selectedSeats) {
-            seat.setBooked(true);
-            seatRepo.save(seat);
-
-            BookingSeat bs = new BookingSeat();
-            bs.setBooking(booking);
-            bs.setSeat(seat);
-            bs.setShow(show);
-            bookingSeatRepo.save(bs);
-        }
+        bookingSeatRepo.saveAll(toBookingSeats(booking, show, selectedSeats));
+        List<String> bookedNos = selectedSeats.stream().map(Seat::getSeatNo).toList();
+        seatInventory.markBooked(show.getShowId(), bookedNos);
+        seatMapStream.seatsBooked(show.getShowId(), bookedNos);
+        bookingSummaryService.bookingCreated(booking, bookedNos, null);
+        autocomplete.booked(show, 1);
 
-        BookingRespDto respDto = modelMapper.map(booking, BookingRespDto.class);
+        BookingRespDto respDto = dtoMapper.toBookingResp(booking);
         respDto.setShowId(show.getShowId());
         respDto.setBookedSeats(  // <-- correct setter method
             selectedSeats.stream()
@@ -109,7 +133,7 @@ public class BookingServiceImpl implements BookingService {
         List<BookingSeat> bookedSeats = bookingSeatRepo.findByBookingBookingId(bookingId);
 
         return bookedSeats.stream()
-                .map(bs -> modelMapper.map(bs.getSeat(), SeatAvailableRespDto.class))
+                .map(bs -> dtoMapper.toSeatAvailableResp(bs.getSeat()))
                 .toList();
     }
     
@@ -127,16 +151,20 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Seat numbers must not be null or empty.");
         }
 
-        List<Seat> selectedSeats = seatRepo.findByShowShowIdAndSeatNoIn(dto.getShowId(), seatNos);
+        Set<String> requested = new LinkedHashSet<>(seatNos);
+        seatHoldService.checkNotHeldByOthers(show.getShowId(), requested, username);
 
-        if (selectedSeats.isEmpty()) {
-            throw new ResourceNotFoundException("Selected seats not found");
-        }
-
-        if (selectedSeats.stream().anyMatch(Seat::isBooked)) {
+        // single conditional UPDATE - all requested seats go free -> booked, or none do
+        if (seatRepo.claimSeatsBySeatNo(show.getShowId(), requested) != requested.size()) {
+            // short claim - unknown seat numbers keep their own error , only then is it a conflict
+            if (seatRepo.findByShowShowIdAndSeatNoIn(show.getShowId(), seatNos).size() != requested.size()) {
+                throw new ResourceNotFoundException("Selected seats not found");
+            }
             throw new IllegalArgumentException("One or more seats are already booked");
         }
 
+        List<Seat> selectedSeats = seatRepo.findByShowShowIdAndSeatNoIn(show.getShowId(), seatNos);
+
         double totalAmount = selectedSeats.stream().mapToDouble(Seat::getPrice).sum();
 
         Booking booking = new Booking();
@@ -149,16 +177,9 @@ public class BookingServiceImpl implements BookingService {
 
         bookingRepo.save(booking);
 
-        for (Seat seat : selectedSeats) {
-            seat.setBooked(true);
-            seatRepo.save(seat);
-
-            BookingSeat bs = new BookingSeat();
-            bs.setBooking(booking);
-            bs.setSeat(seat);
-            bs.setShow(show);
-            bookingSeatRepo.save(bs);
-        }
+        bookingSeatRepo.saveAll(toBookingSeats(booking, show, selectedSeats));
+        seatInventory.markBooked(show.getShowId(), seatNos);
+        seatMapStream.seatsBooked(show.getShowId(), seatNos);
         
         Payment payment = new Payment();
         payment.setBooking(booking);
@@ -168,46 +189,27 @@ public class BookingServiceImpl implements BookingService {
         payment.setTime(LocalDateTime.now());
 
         paymentRepo.save(payment);
+        receiptService.prerender(booking.getBookingId());
+        bookingSummaryService.bookingCreated(booking,
+                selectedSeats.stream().map(Seat::getSeatNo).toList(), payment);
+        autocomplete.booked(show, 1);
 
-        BookingRespDto resp = modelMapper.map(booking, BookingRespDto.class);
+        BookingRespDto resp = dtoMapper.toBookingResp(booking);
         resp.setShowId(show.getShowId());
         resp.setBookedSeats(selectedSeats.stream().map(Seat::getSeatNo).collect(Collectors.toList()));
         resp.setTotalAmount(totalAmount);
         return resp;
     }
     
-    @Transactional
+    // served from the booking summary read model - one indexed select , whatever the number of bookings
+    @Transactional(readOnly = true)
     @Override
     public List<NewBookRespDto> getBookingsForUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
 
-        var user = userRepo.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Booking> bookings = bookingRepo.findByUser(user);
-
-        return bookings.stream().map(b -> {
-            NewBookRespDto dto = new NewBookRespDto();
-            dto.setBookingId(b.getBookingId());
-            dto.setBookingTime(b.getBookingTime());
-
-            if (b.getPayment() != null) {
-                dto.setPaymentMode(b.getPayment().getMethod());
-                dto.setTotalAmount(b.getPayment().getAmount());
-            }
-
-            if (b.getShow() != null) {
-                dto.setShowTitle(b.getShow().getMovie().getTitle());
-            }
-
-            dto.setBookedSeats(
-                b.getBookingSeats().stream()
-                    .map(seat -> seat.getSeat().getSeatNumber())
-                    .collect(Collectors.toList())
-            );
-
-            return dto;
-        }).collect(Collectors.toList());
+        return bookingSummaryService.forUser(email).stream()
+                .map(this::toNewBookResp)
+                .collect(Collectors.toList());
     }
     
     @Override
@@ -248,13 +250,20 @@ public class BookingServiceImpl implements BookingService {
                 .map(bs -> bs.getSeat().getSeatNumber())
                 .collect(Collectors.toList());
 
-        // Mark seats as not booked
-        bookingSeats.forEach(bs -> {
-            bs.getSeat().setBooked(false);
-            seatRepo.save(bs.getSeat());
-        });
+        // Mark seats as not booked - one bulk UPDATE for all seats of the booking
+        if (!bookingSeats.isEmpty()) {
+            seatRepo.releaseSeats(bookingSeats.stream()
+                    .map(bs -> bs.getSeat().getId())
+                    .toList());
+        }
 
         bookingRepo.delete(booking); // Delete the booking
+        bookingSummaryService.bookingRemoved(bookingId);
+        autocomplete.booked(booking.getShow(), -1);
+        seatInventory.markReleased(booking.getShow().getShowId(), seatNumbers);
+        seatMapStream.seatsReleased(booking.getShow().getShowId(), seatNumbers);
+        // its receipt must not be served any more - once the delete is final
+        TransactionHooks.afterCommit(() -> receiptStore.remove(bookingId));
 
         return new BookingCancelRespDto(
                 bookingId,
@@ -264,12 +273,70 @@ public class BookingServiceImpl implements BookingService {
         );
     }
     
+    /*
+     * Admin booking list , one keyset page at a time (newest first) - memory and
+     * latency depend on the page size only , never on the size of the table.
+     * Phase 1 reads just the page's ids from the index , phase 2 loads those bookings
+     * with their to-one associations in one query and their seat numbers in another.
+     */
     @Transactional(readOnly = true)
     @Override
-    public List<AdminBookingRespDto> getAllBookingsForAdmin() {
-        List<Booking> bookings = bookingRepo.findAllWithUserAndSeats();
+    public AdminBookingPageDto getBookingsPageForAdmin(AdminBookingQueryDto query) {
+        int size = query.getSize() == null ? DEFAULT_ADMIN_PAGE_SIZE
+                : Math.min(Math.max(query.getSize(), 1), MAX_ADMIN_PAGE_SIZE);
+        boolean byTime = "bookingTime".equals(query.getSort());
+        if (!byTime && query.getSort() != null && !"bookingId".equals(query.getSort())) {
+            throw new IllegalArgumentException("sort must be bookingId or bookingTime");
+        }
+        LocalDateTime from = query.getFromDate() == null ? MIN_BOOKING_TIME : query.getFromDate().atStartOfDay();
+        LocalDateTime to = query.getToDate() == null ? MAX_BOOKING_TIME : query.getToDate().plusDays(1).atStartOfDay();
+
+        // one extra id tells whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<Long> ids;
+        if (byTime) {
+            LocalDateTime afterTime = MAX_BOOKING_TIME;
+            Long afterId = Long.MAX_VALUE;
+            if (query.getAfter() != null) {
+                String[] cursor = query.getAfter().split("_", 2);
+                try {
+                    afterTime = LocalDateTime.parse(cursor[0]);
+                    afterId = Long.valueOf(cursor[1]);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + query.getAfter());
+                }
+            }
+            ids = bookingRepo.findAdminPageIdsByTime(afterTime, afterId, query.getShowId(), query.getUserId(),
+                    query.getStatus(), from, to, limit);
+        } else {
+            Long afterId = Long.MAX_VALUE;
+            if (query.getAfter() != null) {
+                try {
+                    afterId = Long.valueOf(query.getAfter());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + query.getAfter());
+                }
+            }
+            ids = bookingRepo.findAdminPageIdsById(afterId, query.getShowId(), query.getUserId(),
+                    query.getStatus(), from, to, limit);
+        }
 
-        return bookings.stream().map(b -> {
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        if (pageIds.isEmpty()) {
+            return new AdminBookingPageDto(List.of(), null);
+        }
+
+        Map<Long, Booking> bookings = new HashMap<>();
+        bookingRepo.findAdminViewsByIds(pageIds).forEach(b -> bookings.put(b.getBookingId(), b));
+        Map<Long, List<String>> seatNumbers = new HashMap<>();
+        for (Object[] row : bookingSeatRepo.findSeatNumbersByBookingIds(pageIds)) {
+            seatNumbers.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        List<AdminBookingRespDto> page = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Booking b = bookings.get(id);
             AdminBookingRespDto dto = new AdminBookingRespDto();
             dto.setBookingId(b.getBookingId());
             dto.setBookingTime(b.getBookingTime());
@@ -293,68 +360,39 @@ public class BookingServiceImpl implements BookingService {
             }
 
             // SEATS
-            dto.setBookedSeats(
-                b.getBookingSeats()
-                 .stream()
-                 .map(bs -> bs.getSeat().getSeatNumber())
-                 .collect(Collectors.toList())
-            );
+            dto.setBookedSeats(seatNumbers.getOrDefault(id, List.of()));
+            page.add(dto);
+        }
 
-            return dto;
-        }).collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            AdminBookingRespDto last = page.get(page.size() - 1);
+            nextCursor = byTime ? last.getBookingTime() + "_" + last.getBookingId() : String.valueOf(last.getBookingId());
+        }
+        return new AdminBookingPageDto(page, nextCursor);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public List<BookingByShowRespDto> getBookingsByShow(Long showId) {
-        List<Booking> bookings = bookingRepo.findByShowShowId(showId);
-
-        return bookings.stream().map(booking -> {
-            List<String> seats = bookingSeatRepo.findByBookingBookingId(booking.getBookingId())
-                    .stream()
-                    .map(bs -> bs.getSeat().getSeatNumber())
-                    .collect(Collectors.toList());
-
-            return new BookingByShowRespDto(
-                    booking.getBookingId(),
-                    booking.getBookingTime(),
-                    booking.getPayment().getPaymentMode(),
-                    booking.getPayment().getTotalAmount(),
-                    booking.getPayment().getStatus(),
-                    booking.getUser().getName(),
-                    seats
-            );
-        }).collect(Collectors.toList());
+        return bookingSummaryService.forShow(showId).stream()
+                .map(s -> new BookingByShowRespDto(
+                        s.getBookingId(),
+                        s.getBookingTime(),
+                        s.getPaymentMode(),
+                        s.getTotalAmount(),
+                        s.getPaymentStatus(),
+                        s.getUserName(),
+                        s.getSeatList()))
+                .collect(Collectors.toList());
     }
     
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
     public List<NewBookRespDto> getBookingsByUserId(Long userId) {
-        List<Booking> bookings = bookingRepo.findByUserUserId(userId);
-
-        return bookings.stream().map(booking -> {
-            NewBookRespDto dto = new NewBookRespDto();
-            dto.setBookingId(booking.getBookingId());
-            dto.setBookingTime(booking.getBookingTime());
-            dto.setShowTitle(booking.getShow().getMovie().getTitle());
-
-            dto.setBookedSeats(
-                booking.getBookingSeats()
-                       .stream()
-                       .map(bs -> bs.getSeat().getSeatNumber())
-                       .collect(Collectors.toList())
-            );
-
-            if (booking.getPayment() != null) {
-                dto.setPaymentMode(booking.getPayment().getPaymentMode());
-                dto.setTotalAmount(booking.getPayment().getTotalAmount());
-            } else {
-                dto.setPaymentMode(null);
-                dto.setTotalAmount(null);
-            }
-
-            return dto;
-        }).collect(Collectors.toList());
+        return bookingSummaryService.forUserId(userId).stream()
+                .map(this::toNewBookResp)
+                .collect(Collectors.toList());
     }
     
     @Transactional
@@ -414,6 +452,7 @@ public class BookingServiceImpl implements BookingService {
         }).toList();
     }
     
+    @Transactional
     @Override
     public BookingRespDto updateBookingStatus(Long bookingId, BookingStatusUpdateDto dto) {
         Booking booking = bookingRepo.findById(bookingId)
@@ -421,8 +460,45 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(dto.getStatus());
         Booking updatedBooking = bookingRepo.save(booking);
+        bookingSummaryService.statusChanged(bookingId, dto.getStatus());
+
+        return dtoMapper.toBookingResp(updatedBooking);
+    }
+
+    @Transactional
+    @Override
+    public BookingRespDto confirmHold(String holdId, String paymentMode, String username) {
+        SeatHold hold = seatHoldService.getOwnedHold(holdId, username);
 
-        return modelMapper.map(updatedBooking, BookingRespDto.class);
+        BookingUserReqDto dto = new BookingUserReqDto();
+        dto.setShowId(hold.getShowId());
+        dto.setSeatNos(hold.getSeatNos());
+        dto.setPaymentMode(paymentMode);
+
+        BookingRespDto resp = bookShow(dto, username);
+        seatHoldService.confirmed(hold);
+        return resp;
+    }
+
+    private NewBookRespDto toNewBookResp(BookingSummary summary) {
+        NewBookRespDto dto = new NewBookRespDto();
+        dto.setBookingId(summary.getBookingId());
+        dto.setBookingTime(summary.getBookingTime());
+        dto.setPaymentMode(summary.getPaymentMode());
+        dto.setTotalAmount(summary.getTotalAmount());
+        dto.setShowTitle(summary.getShowTitle());
+        dto.setBookedSeats(summary.getSeatList());
+        return dto;
+    }
+
+    private List<BookingSeat> toBookingSeats(Booking booking, Show show, List<Seat> seats) {
+        return seats.stream().map(seat -> {
+            BookingSeat bs = new BookingSeat();
+            bs.setBooking(booking);
+            bs.setSeat(seat);
+            bs.setShow(show);
+            return bs;
+        }).toList();
     }
 
 
@@ -0,0 +1,86 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.entities.Booking;
+import com.cdac.entities.BookingSummary;
+import com.cdac.repository.BookingRepository;
+import com.cdac.repository.BookingSeatRepository;
+import com.cdac.repository.BookingSummaryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * One-off migration of existing bookings into booking_summaries.
+ * Runs at startup , walks the bookings that have no summary yet in id order and
+ * writes them batch-size at a time , one transaction per batch - so it resumes where
+ * it stopped after a restart and is a no-op once everything is summarised.
+ */
+@Component
+public class BookingSummaryBackfill {
+
+	private final BookingSummaryRepository summaryRepo;
+	private final BookingRepository bookingRepo;
+	private final BookingSeatRepository bookingSeatRepo;
+	private final BookingSummaryService summaryService;
+	private final TransactionTemplate transactionTemplate;
+	private final Counter backfilled;
+
+	@Value("${booking.summary.backfill.enabled:true}")
+	private boolean enabled;
+
+	@Value("${booking.summary.backfill.batch-size:500}")
+	private int batchSize;
+
+	public BookingSummaryBackfill(BookingSummaryRepository summaryRepo, BookingRepository bookingRepo,
+			BookingSeatRepository bookingSeatRepo, BookingSummaryService summaryService,
+			TransactionTemplate transactionTemplate, MeterRegistry registry) {
+		this.summaryRepo = summaryRepo;
+		this.bookingRepo = bookingRepo;
+		this.bookingSeatRepo = bookingSeatRepo;
+		this.summaryService = summaryService;
+		this.transactionTemplate = transactionTemplate;
+		this.backfilled = Counter.builder("booking.summary.backfilled").register(registry);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfill() {
+		if (!enabled) {
+			return;
+		}
+		long afterId = 0;
+		while (true) {
+			List<Long> ids = summaryRepo.findUnsummarisedBookingIds(afterId, Limit.of(batchSize));
+			if (ids.isEmpty()) {
+				return;
+			}
+			transactionTemplate.executeWithoutResult(status -> summariseBatch(ids));
+			backfilled.increment(ids.size());
+			afterId = ids.get(ids.size() - 1);
+		}
+	}
+
+	// the same two queries as the admin list : bookings with their to-one associations , then all their seats
+	private void summariseBatch(List<Long> ids) {
+		Map<Long, List<String>> seatNos = new HashMap<>();
+		for (Object[] row : bookingSeatRepo.findSeatNumbersByBookingIds(ids)) {
+			seatNos.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+		}
+		List<BookingSummary> summaries = new ArrayList<>(ids.size());
+		for (Booking b : bookingRepo.findAdminViewsByIds(ids)) {
+			summaries.add(summaryService.build(b, seatNos.getOrDefault(b.getBookingId(), List.of()), b.getPayment()));
+		}
+		summaryRepo.saveAll(summaries);
+	}
+}
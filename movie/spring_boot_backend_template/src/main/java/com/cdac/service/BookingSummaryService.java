@@ -0,0 +1,103 @@
+package com.cdac.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.cdac.entities.Booking;
+import com.cdac.entities.BookingSummary;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Payment;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.entities.User;
+import com.cdac.repository.BookingSummaryRepository;
+
+/*
+ * Keeps the booking_summaries read model in step with bookings and payments.
+ * Every write runs inside the caller's transaction , so a summary never disagrees
+ * with the booking it describes ; reads are one indexed select.
+ */
+@Service
+public class BookingSummaryService {
+
+	private final BookingSummaryRepository summaryRepo;
+
+	public BookingSummaryService(BookingSummaryRepository summaryRepo) {
+		this.summaryRepo = summaryRepo;
+	}
+
+	public void bookingCreated(Booking booking, List<String> seatNos, Payment payment) {
+		summaryRepo.save(build(booking, seatNos, payment));
+	}
+
+	public void paymentChanged(Payment payment) {
+		summaryRepo.findById(payment.getBooking().getBookingId()).ifPresent(s -> applyPayment(s, payment));
+	}
+
+	public void statusChanged(Long bookingId, String status) {
+		summaryRepo.findById(bookingId).ifPresent(s -> s.setStatus(status));
+	}
+
+	public void bookingRemoved(Long bookingId) {
+		summaryRepo.deleteById(bookingId);
+	}
+
+	/*
+	 * Renames / reschedules - one bulk UPDATE of the summaries that copied the old
+	 * value , in the caller's transaction like every other summary write.
+	 */
+	public void movieRenamed(Movie movie) {
+		summaryRepo.updateShowTitleForMovie(movie.getMovieId(), movie.getTitle());
+	}
+
+	public void theaterRenamed(Theater theater) {
+		summaryRepo.updateTheaterNameForTheater(theater.getTheaterId(), theater.getName());
+	}
+
+	public void showChanged(Show show) {
+		summaryRepo.updateShow(show.getShowId(), show.getMovie().getTitle(), show.getTheater().getName(),
+				show.getStartTime());
+	}
+
+	public void userRenamed(User user) {
+		summaryRepo.updateUserName(user.getUserId(), user.getName());
+	}
+
+	public List<BookingSummary> forUser(String email) {
+		return summaryRepo.findByUserEmail(email);
+	}
+
+	public List<BookingSummary> forUserId(Long userId) {
+		return summaryRepo.findByUserIdOrderByBookingId(userId);
+	}
+
+	public List<BookingSummary> forShow(Long showId) {
+		return summaryRepo.findByShowIdOrderByBookingId(showId);
+	}
+
+	BookingSummary build(Booking booking, List<String> seatNos, Payment payment) {
+		Show show = booking.getShow();
+		BookingSummary s = new BookingSummary();
+		s.setBookingId(booking.getBookingId());
+		s.setUserId(booking.getUser().getUserId());
+		s.setUserName(booking.getUser().getName());
+		s.setShowId(show.getShowId());
+		s.setBookingTime(booking.getBookingTime());
+		s.setShowTitle(show.getMovie().getTitle());
+		s.setTheaterName(show.getTheater().getName());
+		s.setShowStartTime(show.getStartTime());
+		s.setSeatList(seatNos);
+		s.setStatus(booking.getStatus());
+		if (payment != null) {
+			applyPayment(s, payment);
+		}
+		return s;
+	}
+
+	private static void applyPayment(BookingSummary s, Payment payment) {
+		s.setTotalAmount(payment.getTotalAmount());
+		s.setPaymentMode(payment.getPaymentMode());
+		s.setPaymentStatus(payment.getStatus());
+	}
+}
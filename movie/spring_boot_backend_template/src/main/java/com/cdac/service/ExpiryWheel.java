@@ -0,0 +1,88 @@
+package com.cdac.service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/*
+ * Hashed timing wheel - deadlines are hashed into a ring of lock free buckets by
+ * tick number , one ticker thread drains the bucket(s) that became due.
+ * Scheduling is O(1) with no locking ; an entry whose deadline is more than one
+ * rotation away is simply put back when its bucket comes round early.
+ * Entries go in the bucket of the first tick that starts at or after their deadline
+ * so an entry is always due by the time its bucket is drained , whatever the
+ * phase of the ticker.
+ * The wheel never cancels entries - the expiry callback gets the deadline the entry
+ * was scheduled with and decides whether it is still current (e.g. hold extended).
+ */
+public class ExpiryWheel<K> {
+
+	private record Entry<K>(K key, long deadline) {
+	}
+
+	private final ConcurrentLinkedQueue<Entry<K>>[] buckets;
+	private final int mask;
+	private final long tickMillis;
+	private final BiConsumer<K, Long> onExpire;
+	private final ScheduledExecutorService ticker;
+	private volatile long processedTick;
+
+	@SuppressWarnings("unchecked")
+	public ExpiryWheel(String name, int wheelSize, long tickMillis, BiConsumer<K, Long> onExpire) {
+		int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1; // round up to a power of 2
+		this.buckets = new ConcurrentLinkedQueue[size];
+		for (int i = 0; i < size; i++) {
+			buckets[i] = new ConcurrentLinkedQueue<>();
+		}
+		this.mask = size - 1;
+		this.tickMillis = tickMillis;
+		this.onExpire = onExpire;
+		this.processedTick = System.currentTimeMillis() / tickMillis;
+		this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, name);
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	public void start() {
+		ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	public void stop() {
+		ticker.shutdownNow();
+	}
+
+	public void schedule(K key, long deadlineMillis) {
+		long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), processedTick + 1);
+		buckets[(int) (tick & mask)].add(new Entry<>(key, deadlineMillis));
+	}
+
+	// drains every bucket between the last processed tick and now
+	void advance() {
+		long now = System.currentTimeMillis();
+		long nowTick = now / tickMillis;
+		for (long tick = processedTick + 1; tick <= nowTick; tick++) {
+			ConcurrentLinkedQueue<Entry<K>> bucket = buckets[(int) (tick & mask)];
+			// only the entries present now - re-added ones (a later rotation) wait for it
+			for (int n = bucket.size(); n > 0; n--) {
+				Entry<K> e = bucket.poll();
+				if (e == null) {
+					break;
+				}
+				if (e.deadline() <= now) {
+					try {
+						onExpire.accept(e.key(), e.deadline());
+					} catch (RuntimeException ex) {
+						// a failing callback must not kill the ticker thread
+					}
+				} else {
+					bucket.add(e);
+				}
+			}
+			processedTick = tick;
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package com.cdac.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.entities.IdempotencyRecord;
+import com.cdac.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+/*
+ * Idempotency-Key support for non idempotent POSTs (bookings , payments).
+ * The first request with a key runs normally and its response is stored - in a
+ * bounded LRU map and in the idempotency_keys table - then a replay with the same key
+ * gets the stored response back without running the transaction again.
+ * The key row is inserted (primary key = scope + user + key) before the action and
+ * its response filled in after it , in the same transaction as the booking / payment ,
+ * so the record commits with the work or not at all. A duplicate on another node
+ * blocks on that row and then replays it ; a duplicate on this node waits for the
+ * first one's result. Failed requests are not stored , so the client may retry them
+ * with the same key. Records older than ttl-hours are purged hourly.
+ */
+@Service
+public class IdempotencyService {
+
+	private record Stored(String fingerprint, String body) {
+	}
+
+	// the key row already exists - committed by another request with the same key
+	private static class KeyTaken extends RuntimeException {
+		KeyTaken(Throwable cause) {
+			super("Idempotency-Key already claimed", cause);
+		}
+	}
+
+	private final IdempotencyRecordRepository recordRepo;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transactionTemplate;
+	private final Map<String, Stored> recent;
+	private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService purger;
+	private final Counter executed;
+	private final Counter memoryReplays;
+	private final Counter dbReplays;
+	private final Counter waitedReplays;
+	private final MeterRegistry registry;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${idempotency.ttl-hours:24}")
+	private long ttlHours;
+
+	@Value("${idempotency.wait-seconds:15}")
+	private long waitSeconds;
+
+	public IdempotencyService(IdempotencyRecordRepository recordRepo, ObjectMapper objectMapper,
+			TransactionTemplate transactionTemplate, MeterRegistry registry,
+			@Value("${idempotency.cache-size:10000}") int cacheSize) {
+		this.recordRepo = recordRepo;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = transactionTemplate;
+		this.registry = registry;
+		this.recent = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+				return size() > cacheSize;
+			}
+		});
+		this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "idempotency-purge");
+			t.setDaemon(true);
+			return t;
+		});
+		this.executed = counter(registry, "executed");
+		this.memoryReplays = counter(registry, "replay_memory");
+		this.dbReplays = counter(registry, "replay_db");
+		this.waitedReplays = counter(registry, "replay_waited");
+	}
+
+	@PostConstruct
+	void start() {
+		purger.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+	}
+
+	@PreDestroy
+	void stop() {
+		purger.shutdownNow();
+	}
+
+	/*
+	 * Runs the action once per (scope , user , key) - for actions that run on the
+	 * calling thread. Without a key the action just runs.
+	 */
+	public <T> T execute(String scope, String username, String idempotencyKey, Object request,
+			Class<T> responseType, Supplier<T> action) {
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			return action.get();
+		}
+		return execute(scope, username, idempotencyKey, request, responseType,
+				recorded -> transactionTemplate.execute(status -> recorded.apply(action).get()));
+	}
+
+	/*
+	 * Same , for callers that run the action in a transaction of their own (the booking
+	 * sequencer's shard) : the runner gets a wrapper for its action and must call the
+	 * wrapped action inside that transaction. Without a key the wrapper adds nothing.
+	 */
+	public <T> T execute(String scope, String username, String idempotencyKey, Object request,
+			Class<T> responseType, Function<UnaryOperator<Supplier<T>>, T> runner) {
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			return runner.apply(UnaryOperator.identity());
+		}
+		if (idempotencyKey.length() > 100) {
+			throw new IllegalArgumentException("Idempotency-Key must be at most 100 characters");
+		}
+		String recordKey = scope + ":" + username + ":" + idempotencyKey;
+		String fingerprint = fingerprint(request);
+
+		Stored stored = recent.get(recordKey);
+		if (stored != null) {
+			memoryReplays.increment();
+			return replay(stored, fingerprint, responseType);
+		}
+
+		CompletableFuture<Stored> mine = new CompletableFuture<>();
+		CompletableFuture<Stored> running = inFlight.putIfAbsent(recordKey, mine);
+		if (running != null) {
+			waitedReplays.increment();
+			return replay(await(running), fingerprint, responseType);
+		}
+
+		try {
+			Optional<Stored> persisted = findPersisted(recordKey);
+			if (persisted.isEmpty()) {
+				try {
+					Stored[] result = new Stored[1];
+					T response = runner.apply(action -> () -> claimAndRun(recordKey, fingerprint, action, result));
+					executed.increment();
+					recent.put(recordKey, result[0]);
+					mine.complete(result[0]);
+					return response;
+				} catch (KeyTaken e) {
+					// another node committed this key first - its record is readable now
+					persisted = findPersisted(recordKey);
+					if (persisted.isEmpty()) {
+						throw new RuntimeException("A request with this Idempotency-Key is still in progress");
+					}
+				}
+			}
+			dbReplays.increment();
+			recent.put(recordKey, persisted.get());
+			mine.complete(persisted.get());
+			return replay(persisted.get(), fingerprint, responseType);
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(recordKey, mine);
+		}
+	}
+
+	/*
+	 * Runs inside the caller's transaction : the insert takes the key (a concurrent
+	 * insert of the same key waits for this transaction , then fails) , the response
+	 * is written to the same row before commit.
+	 */
+	private <T> T claimAndRun(String recordKey, String fingerprint, Supplier<T> action, Stored[] result) {
+		IdempotencyRecord record = new IdempotencyRecord(recordKey, fingerprint, "", LocalDateTime.now());
+		try {
+			entityManager.persist(record);
+			entityManager.flush();
+		} catch (PersistenceException e) {
+			throw new KeyTaken(e);
+		}
+		T response = action.get();
+		result[0] = new Stored(fingerprint, toJson(response));
+		record.setResponseBody(result[0].body());
+		return response;
+	}
+
+	// drops records past their ttl - they would no longer be replayed anyway
+	void purge() {
+		try {
+			LocalDateTime oldest = LocalDateTime.now().minusHours(ttlHours);
+			Integer purged = transactionTemplate.execute(status -> recordRepo.deleteByCreatedAtBefore(oldest));
+			registry.counter("idempotency.purged").increment(purged == null ? 0 : purged);
+		} catch (RuntimeException e) {
+			// next run retries - a failing purge must not kill the purge thread
+		}
+	}
+
+	private Optional<Stored> findPersisted(String recordKey) {
+		LocalDateTime oldest = LocalDateTime.now().minusHours(ttlHours);
+		return recordRepo.findById(recordKey)
+				.filter(r -> r.getCreatedAt().isAfter(oldest) && !r.getResponseBody().isEmpty())
+				.map(r -> new Stored(r.getFingerprint(), r.getResponseBody()));
+	}
+
+	private Stored await(CompletableFuture<Stored> running) {
+		try {
+			return running.get(waitSeconds, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			// the original request failed - the duplicate fails the same way
+			if (e.getCause() instanceof RuntimeException re) {
+				throw re;
+			}
+			throw new RuntimeException(e.getCause());
+		} catch (TimeoutException e) {
+			throw new RuntimeException("A request with this Idempotency-Key is still in progress");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while waiting for the original request");
+		}
+	}
+
+	private <T> T replay(Stored stored, String fingerprint, Class<T> responseType) {
+		if (!stored.fingerprint().equals(fingerprint)) {
+			throw new IllegalArgumentException("Idempotency-Key was already used with a different request");
+		}
+		try {
+			return objectMapper.readValue(stored.body(), responseType);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException("Error while reading stored response: " + e.getMessage());
+		}
+	}
+
+	private String fingerprint(Object request) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException("Error while serializing response: " + e.getMessage());
+		}
+	}
+
+	private static Counter counter(MeterRegistry registry, String result) {
+		return Counter.builder("idempotency.requests").tag("result", result).register(registry);
+	}
+}
@@ -0,0 +1,149 @@
+package com.cdac.service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Cache of the user facing movie catalog queries (all movies , now showing , upcoming ,
+ * movie by id) - the catalog changes a few times a day but is read on every page.
+ * Entries are bounded by count (LRU) and by age , and each one records which release
+ * dates it covers , so a movie write only drops the entries that can contain that
+ * movie. Date window entries are keyed by day ; the first read of a new day drops the
+ * previous day's windows , so they are recomputed once at rollover.
+ */
+@Component
+public class MovieCatalogCache {
+
+	private record Entry(Object value, long loadedAt, LocalDate day, LocalDate from, LocalDate to, Long movieId) {
+
+		boolean covers(LocalDate releaseDate) {
+			return releaseDate == null
+					|| ((from == null || !releaseDate.isBefore(from)) && (to == null || !releaseDate.isAfter(to)));
+		}
+	}
+
+	private final Map<String, Entry> entries;
+	// bumped by every invalidation - a load that raced with a write is not stored
+	private final AtomicLong generation = new AtomicLong();
+	private volatile LocalDate currentDay = LocalDate.now();
+	private final Counter hits;
+	private final Counter misses;
+	private final Timer loadTimer;
+	private final MeterRegistry registry;
+
+	@Value("${movie.catalog.cache.ttl-minutes:60}")
+	private long ttlMinutes;
+
+	public MovieCatalogCache(MeterRegistry registry, @Value("${movie.catalog.cache.max-entries:256}") int maxEntries) {
+		this.registry = registry;
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > maxEntries) {
+					evicted("size");
+					return true;
+				}
+				return false;
+			}
+		});
+		this.hits = Counter.builder("movie.catalog.cache.requests").tag("result", "hit").register(registry);
+		this.misses = Counter.builder("movie.catalog.cache.requests").tag("result", "miss").register(registry);
+		this.loadTimer = Timer.builder("movie.catalog.cache.load").register(registry);
+		Gauge.builder("movie.catalog.cache.size", entries, Map::size).register(registry);
+	}
+
+	// query over the release date range [from , to] (null = open) , recomputed daily
+	@SuppressWarnings("unchecked")
+	public <T> T window(String name, LocalDate from, LocalDate to, Supplier<T> loader) {
+		LocalDate today = today();
+		return (T) get(name + ":" + today, today, from, to, null, loader);
+	}
+
+	// query over the whole catalog
+	@SuppressWarnings("unchecked")
+	public <T> T all(String name, Supplier<T> loader) {
+		return (T) get(name, null, null, null, null, loader);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> T movie(Long movieId, Supplier<T> loader) {
+		return (T) get("movie:" + movieId, null, null, null, movieId, loader);
+	}
+
+	/*
+	 * Drops every entry that contains , or would now contain , the movie - its own
+	 * entry and the lists covering any of the given release dates (old and new).
+	 * Runs after the write commits.
+	 */
+	public void invalidate(Long movieId, LocalDate... releaseDates) {
+		TransactionHooks.afterCommit(() -> {
+			generation.incrementAndGet();
+			synchronized (entries) {
+				entries.values().removeIf(e -> {
+					boolean stale = Objects.equals(e.movieId(), movieId);
+					for (LocalDate date : releaseDates) {
+						stale |= e.movieId() == null && e.covers(date);
+					}
+					if (stale) {
+						evicted("invalidation");
+					}
+					return stale;
+				});
+			}
+		});
+	}
+
+	private Object get(String key, LocalDate day, LocalDate from, LocalDate to, Long movieId, Supplier<?> loader) {
+		Entry entry = entries.get(key);
+		if (entry != null && System.currentTimeMillis() - entry.loadedAt() < ttlMinutes * 60_000) {
+			hits.increment();
+			return entry.value();
+		}
+		if (entry != null && entries.remove(key, entry)) {
+			evicted("ttl");
+		}
+		misses.increment();
+
+		long startGeneration = generation.get();
+		Object value = loadTimer.record(loader);
+		if (generation.get() == startGeneration) {
+			entries.put(key, new Entry(value, System.currentTimeMillis(), day, from, to, movieId));
+		}
+		return value;
+	}
+
+	// on the first read of a new day the windows of the previous day are dropped
+	private LocalDate today() {
+		LocalDate today = LocalDate.now();
+		if (!today.equals(currentDay)) {
+			currentDay = today;
+			synchronized (entries) {
+				entries.values().removeIf(e -> {
+					boolean old = e.day() != null && !e.day().equals(today);
+					if (old) {
+						evicted("rollover");
+					}
+					return old;
+				});
+			}
+		}
+		return today;
+	}
+
+	private void evicted(String cause) {
+		registry.counter("movie.catalog.cache.evictions", "cause", cause).increment();
+	}
+}
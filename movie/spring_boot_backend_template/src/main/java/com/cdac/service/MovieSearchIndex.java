@@ -0,0 +1,332 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.DtoMapper;
+import com.cdac.dto.MovieRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.repository.MovieRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * In memory inverted index behind the movie search - replaces three leading wildcard
+ * LIKEs (a full table scan per search). Same "substring , ignore case" semantics.
+ * Titles : every 1 , 2 and 3 character gram of the case folded title points to the
+ * movies containing it (sorted slot lists). A term of up to 3 characters is one list ;
+ * a longer one intersects the lists of its trigrams and checks what is left with
+ * contains(). Genre / language have few distinct values , so those are indexed as
+ * value -> bitset of movies and a term ORs the bitsets of the values containing it.
+ * Title matches are ranked : exact title , title prefix , word prefix , anywhere.
+ * Loaded from the db at startup , then kept current by the movie writes (after
+ * commit). Removed movies leave a dead slot until the next compaction.
+ */
+@Component
+public class MovieSearchIndex {
+
+	private static final int MAX_GRAM = 3;
+
+	private record Doc(MovieRespDto movie, String title, String genre, String language) {
+	}
+
+	private record Hit(MovieRespDto movie, int rank, long movieId) {
+	}
+
+	private static final Comparator<Hit> BY_RANK = (a, b) -> a.rank() != b.rank()
+			? Integer.compare(a.rank(), b.rank()) : Long.compare(a.movieId(), b.movieId());
+
+	// growable int list - the posting list of one title gram (doc slots , ascending)
+	private static final class Postings {
+		int[] slots = new int[4];
+		int size;
+
+		void add(int slot) {
+			if (size == slots.length) {
+				slots = Arrays.copyOf(slots, size * 2);
+			}
+			slots[size++] = slot;
+		}
+	}
+
+	private final MovieRepository movieRepo;
+	private final DtoMapper dtoMapper;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Timer queryTimer;
+
+	// guarded by lock
+	private final Map<String, Postings> titleGrams = new HashMap<>();
+	private final Map<String, BitSet> genres = new HashMap<>();
+	private final Map<String, BitSet> languages = new HashMap<>();
+	private final Map<Long, Integer> slotOf = new HashMap<>();
+	private final List<Doc> docs = new ArrayList<>();
+	private int dead;
+	private boolean loaded;
+
+	public MovieSearchIndex(MovieRepository movieRepo, DtoMapper dtoMapper, MeterRegistry registry) {
+		this.movieRepo = movieRepo;
+		this.dtoMapper = dtoMapper;
+		this.queryTimer = Timer.builder("movie.search.query").register(registry);
+		Gauge.builder("movie.search.index.movies", this, MovieSearchIndex::size).register(registry);
+	}
+
+	/*
+	 * Movies whose title , genre and language contain the given terms (null / empty =
+	 * any) , best title matches first , then by id. page / size select a slice of the
+	 * ranked list ; size null returns all of it.
+	 */
+	public List<MovieRespDto> search(String title, String genre, String language, int page, Integer size) {
+		ensureLoaded();
+		return queryTimer.record(() -> {
+			String titleTerm = fold(title), genreTerm = fold(genre), languageTerm = fold(language);
+			List<Hit> hits = new ArrayList<>();
+			lock.readLock().lock();
+			try {
+				BitSet allowed = and(valuesContaining(genres, genreTerm), valuesContaining(languages, languageTerm));
+				int[] slots = titleCandidates(titleTerm);
+				if (slots == null && allowed == null) {
+					slots = new int[docs.size()];
+					Arrays.setAll(slots, i -> i);
+				} else if (slots == null) {
+					slots = allowed.stream().toArray();
+					allowed = null;
+				}
+				for (int slot : slots) {
+					Doc doc = docs.get(slot);
+					if (doc != null && (allowed == null || allowed.get(slot))
+							&& matches(doc, titleTerm, genreTerm, languageTerm)) {
+						hits.add(new Hit(doc.movie(), rank(doc.title(), titleTerm), doc.movie().getMovieId()));
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			hits.sort(BY_RANK);
+
+			int from = size == null ? 0 : (int) Math.min((long) page * size, hits.size());
+			int to = size == null ? hits.size() : Math.min(from + size, hits.size());
+			return hits.subList(from, to).stream().map(Hit::movie).toList();
+		});
+	}
+
+	// added or updated movie
+	public void put(Movie movie) {
+		MovieRespDto dto = dtoMapper.toMovieResp(movie);
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				if (loaded) {
+					removeSlot(dto.getMovieId());
+					index(dto);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void remove(Long movieId) {
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				if (loaded) {
+					removeSlot(movieId);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotOf.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// built at startup , so the first search does not pay for it
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureLoaded() {
+		lock.readLock().lock();
+		try {
+			if (loaded) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		// the write lock is held across the read , so a write committing meanwhile is applied after it
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				movieRepo.findAll().forEach(m -> index(dtoMapper.toMovieResp(m)));
+				loaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*
+	 * Slots having every gram of the title term - the posting lists intersected
+	 * shortest first. Null for an empty term.
+	 */
+	private int[] titleCandidates(String term) {
+		if (term.isEmpty()) {
+			return null;
+		}
+		int n = Math.min(term.length(), MAX_GRAM);
+		List<Postings> lists = new ArrayList<>();
+		for (int i = 0; i + n <= term.length(); i++) {
+			Postings p = titleGrams.get(term.substring(i, i + n));
+			if (p == null) {
+				return new int[0]; // a gram no title has
+			}
+			lists.add(p);
+		}
+		lists.sort(Comparator.comparingInt(p -> p.size));
+		int[] slots = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+		int count = slots.length;
+		for (int l = 1; l < lists.size() && count > 0; l++) {
+			Postings p = lists.get(l);
+			int kept = 0;
+			if (p.size > count * 16) {
+				// much longer list - binary search it
+				for (int i = 0, from = 0; i < count && from < p.size; i++) {
+					int at = Arrays.binarySearch(p.slots, from, p.size, slots[i]);
+					if (at >= 0) {
+						slots[kept++] = slots[i];
+					}
+					from = at >= 0 ? at + 1 : -at - 1;
+				}
+			} else {
+				for (int i = 0, j = 0; i < count && j < p.size;) {
+					if (slots[i] == p.slots[j]) {
+						slots[kept++] = slots[i++];
+						j++;
+					} else if (slots[i] < p.slots[j]) {
+						i++;
+					} else {
+						j++;
+					}
+				}
+			}
+			count = kept;
+		}
+		return Arrays.copyOf(slots, count);
+	}
+
+	// movies whose value contains the term , null for an empty term
+	private static BitSet valuesContaining(Map<String, BitSet> values, String term) {
+		if (term.isEmpty()) {
+			return null;
+		}
+		BitSet union = new BitSet();
+		values.forEach((value, slots) -> {
+			if (value.contains(term)) {
+				union.or(slots);
+			}
+		});
+		return union;
+	}
+
+	private static BitSet and(BitSet a, BitSet b) {
+		if (a == null || b == null) {
+			return a == null ? b : a;
+		}
+		a.and(b);
+		return a;
+	}
+
+	// a movie without a genre / language never matched the LIKE query , even for an empty term - kept that way
+	private static boolean matches(Doc doc, String title, String genre, String language) {
+		return doc.title() != null && doc.title().contains(title)
+				&& doc.genre() != null && doc.genre().contains(genre)
+				&& doc.language() != null && doc.language().contains(language);
+	}
+
+	private static int rank(String title, String term) {
+		if (term.isEmpty() || title.equals(term)) {
+			return 0;
+		}
+		if (title.startsWith(term)) {
+			return 1;
+		}
+		for (int i = title.indexOf(term); i > 0; i = title.indexOf(term, i + 1)) {
+			if (!Character.isLetterOrDigit(title.charAt(i - 1))) {
+				return 2;
+			}
+		}
+		return 3;
+	}
+
+	private void index(MovieRespDto movie) {
+		Doc doc = new Doc(movie, foldOrNull(movie.getTitle()), foldOrNull(movie.getGenre()),
+				foldOrNull(movie.getLanguage()));
+		int slot = docs.size();
+		docs.add(doc);
+		slotOf.put(movie.getMovieId(), slot);
+		if (doc.title() != null) {
+			Set<String> seen = new HashSet<>();
+			for (int n = 1; n <= MAX_GRAM; n++) {
+				for (int i = 0; i + n <= doc.title().length(); i++) {
+					String gram = doc.title().substring(i, i + n);
+					if (seen.add(gram)) {
+						titleGrams.computeIfAbsent(gram, g -> new Postings()).add(slot);
+					}
+				}
+			}
+		}
+		if (doc.genre() != null) {
+			genres.computeIfAbsent(doc.genre(), g -> new BitSet()).set(slot);
+		}
+		if (doc.language() != null) {
+			languages.computeIfAbsent(doc.language(), l -> new BitSet()).set(slot);
+		}
+	}
+
+	private void removeSlot(Long movieId) {
+		Integer slot = slotOf.remove(movieId);
+		if (slot == null) {
+			return;
+		}
+		docs.set(slot, null);
+		// dead slots are skipped by every search - rebuild once they are a quarter of the index
+		if (++dead > 1024 && dead * 4 > docs.size()) {
+			List<Doc> live = docs.stream().filter(d -> d != null).toList();
+			docs.clear();
+			slotOf.clear();
+			titleGrams.clear();
+			genres.clear();
+			languages.clear();
+			dead = 0;
+			live.forEach(d -> index(d.movie()));
+		}
+	}
+
+	private static String fold(String term) {
+		return term == null ? "" : term.toLowerCase(Locale.ROOT);
+	}
+
+	private static String foldOrNull(String value) {
+		return value == null ? null : value.toLowerCase(Locale.ROOT);
+	}
+}
@@ -21,8 +21,8 @@ public interface MovieService {
 	
 	MovieRespDto getMovieByIdForUser(Long movieId); //user get a movie by id - details of one movie
 	
-	List<MovieRespDto> searchMovies(String title, String genre, String language); 
-	//user search a movie by name or genre or language
+	List<MovieRespDto> searchMovies(String title, String genre, String language, int page, Integer size); 
+	//user search a movie by name or genre or language - ranked , size null = all results
 	
 	List<MovieRespDto> getNowShowingMovies(); // user - now showing
 	
@@ -8,11 +8,13 @@ import com.cdac.service.MovieService;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MovieServiceImpl implements MovieService {
@@ -21,23 +23,51 @@ public class MovieServiceImpl implements MovieService {
     private MovieRepository movieRepo;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private MovieCatalogCache catalogCache;
+
+    @Autowired
+    private MovieSearchIndex searchIndex;
+
+    @Autowired
+    private AutocompleteIndex autocomplete;
+
+    @Autowired
+    private ShowCalendar showCalendar;
+
+    @Autowired
+    private BookingSummaryService summaryService;
 
     @Override
     public MovieRespDto addMovie(MovieReqDto dto) {
-        Movie movie = modelMapper.map(dto, Movie.class);
+        Movie movie = dtoMapper.toMovie(dto);
         movie = movieRepo.save(movie);
-        return modelMapper.map(movie, MovieRespDto.class);
+        catalogCache.invalidate(movie.getMovieId(), movie.getReleaseDate());
+        searchIndex.put(movie);
+        autocomplete.putMovie(movie);
+        return dtoMapper.toMovieResp(movie);
     }
     
     @Override
+    @Transactional
     public String updateMovie(Long movieId, MovieReqDto dto) {
         Movie movie = movieRepo.findById(movieId)
                 .orElseThrow(() -> new RuntimeException("Movie not found with ID: " + movieId));
+        LocalDate oldReleaseDate = movie.getReleaseDate();
+        String oldTitle = movie.getTitle();
 
-        modelMapper.map(dto, movie); // this will update only matching fields
+        dtoMapper.updateMovie(dto, movie); // this will update only the non null fields
 
         movieRepo.save(movie);
+        if (!Objects.equals(oldTitle, movie.getTitle())) {
+            summaryService.movieRenamed(movie);
+        }
+        catalogCache.invalidate(movieId, oldReleaseDate, movie.getReleaseDate());
+        searchIndex.put(movie);
+        autocomplete.putMovie(movie);
+        showCalendar.movieChanged(movie);
 
         return "Movie updated successfully.";
     }
@@ -47,6 +77,9 @@ public class MovieServiceImpl implements MovieService {
         Movie movie = movieRepo.findById(movieId)
                 .orElseThrow(() -> new RuntimeException("Movie not found with ID: " + movieId));
         movieRepo.delete(movie);
+        catalogCache.invalidate(movieId, movie.getReleaseDate());
+        searchIndex.remove(movieId);
+        autocomplete.removeMovie(movieId);
         return "Movie deleted successfully.";
     }
     
@@ -54,7 +87,7 @@ public class MovieServiceImpl implements MovieService {
     public List<MovieRespDto> getAllMovies() {
         List<Movie> movies = movieRepo.findAll();
         return movies.stream()
-                .map(movie -> modelMapper.map(movie, MovieRespDto.class))
+                .map(dtoMapper::toMovieResp)
                 .collect(Collectors.toList());
     }
     
@@ -63,55 +96,58 @@ public class MovieServiceImpl implements MovieService {
         Movie movie = movieRepo.findById(movieId)
                 .orElseThrow(() -> new RuntimeException("Movie not found with ID: " + movieId));
 
-        return modelMapper.map(movie, MovieRespDto.class);
+        return dtoMapper.toMovieResp(movie);
     }
     
     @Override
     public List<MovieRespDto> getAllMoviesForUsers() {
-        List<Movie> movies = movieRepo.findAll(); // ← make sure this is not filtered
-        return movies.stream()
-                     .map(movie -> modelMapper.map(movie, MovieRespDto.class))
-                     .toList();
+        return catalogCache.all("allMovies", () -> {
+            List<Movie> movies = movieRepo.findAll(); // ← make sure this is not filtered
+            return movies.stream()
+                         .map(dtoMapper::toMovieResp)
+                         .toList();
+        });
     }
     
     @Override
     public MovieRespDto getMovieByIdForUser(Long movieId) {
-        Movie movie = movieRepo.findById(movieId)
-                .orElseThrow(() -> new RuntimeException("Movie not found with ID: " + movieId));
+        return catalogCache.movie(movieId, () -> {
+            Movie movie = movieRepo.findById(movieId)
+                    .orElseThrow(() -> new RuntimeException("Movie not found with ID: " + movieId));
 
-        return modelMapper.map(movie, MovieRespDto.class);
+            return dtoMapper.toMovieResp(movie);
+        });
     }
     
     @Override
-    public List<MovieRespDto> searchMovies(String title, String genre, String language) {
-        List<Movie> movies = movieRepo.findByTitleContainingIgnoreCaseAndGenreContainingIgnoreCaseAndLanguageContainingIgnoreCase(
-                title == null ? "" : title,
-                genre == null ? "" : genre,
-                language == null ? "" : language
-        );
-
-        return movies.stream()
-                .map(movie -> modelMapper.map(movie, MovieRespDto.class))
-                .toList();
+    public List<MovieRespDto> searchMovies(String title, String genre, String language, int page, Integer size) {
+        if (page < 0 || (size != null && size < 1)) {
+            throw new IllegalArgumentException("page must be >= 0 and size >= 1");
+        }
+        return searchIndex.search(title, genre, language, page, size);
     }
     
     @Override
     public List<MovieRespDto> getNowShowingMovies() {
         LocalDate today = LocalDate.now();
         LocalDate fromDate = today.minusDays(30);
-        List<Movie> movies = movieRepo.findByReleaseDateBetween(fromDate, today);
-        return movies.stream()
-                .map(m -> modelMapper.map(m, MovieRespDto.class))
-                .toList();
+        return catalogCache.window("nowShowing", fromDate, today, () -> {
+            List<Movie> movies = movieRepo.findByReleaseDateBetween(fromDate, today);
+            return movies.stream()
+                    .map(dtoMapper::toMovieResp)
+                    .toList();
+        });
     }
     
     @Override
     public List<MovieRespDto> getUpcomingMovies() {
         LocalDate today = LocalDate.now();
-        List<Movie> movies = movieRepo.findByReleaseDateAfter(today);
-        return movies.stream()
-                .map(m -> modelMapper.map(m, MovieRespDto.class))
-                .toList();
+        return catalogCache.window("upcoming", today.plusDays(1), null, () -> {
+            List<Movie> movies = movieRepo.findByReleaseDateAfter(today);
+            return movies.stream()
+                    .map(dtoMapper::toMovieResp)
+                    .toList();
+        });
     }
 
 
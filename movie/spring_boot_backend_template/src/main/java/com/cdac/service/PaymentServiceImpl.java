@@ -19,7 +19,7 @@ import com.cdac.security.JWTUtils;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -36,7 +36,9 @@ public class PaymentServiceImpl implements PaymentService {
     private final JWTUtils jwtUtils;
     private final UserRepository userRepo;
     private final BookingRepository bookingRepo;
-    private final ModelMapper modelMapper;
+    private final DtoMapper dtoMapper;
+    private final BookingSummaryService bookingSummaryService;
+    private final ReceiptService receiptService;
     
     @Override
     public NewPaymentRespDto makePayment(PaymentReqDto dto) {
@@ -51,8 +53,10 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setTime(LocalDateTime.now());
 
         Payment saved = paymentRepo.save(payment);
+        bookingSummaryService.paymentChanged(saved);
+        receiptService.prerender(booking.getBookingId());
 
-        NewPaymentRespDto resp = modelMapper.map(saved, NewPaymentRespDto.class);
+        NewPaymentRespDto resp = dtoMapper.toNewPaymentResp(saved);
         resp.setBookingReference(booking.getShow().getMovie().getTitle());
 
         return resp;
@@ -130,6 +134,8 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setTime(LocalDateTime.now());
         payment.setStatus("PAID");
         paymentRepo.save(payment);
+        bookingSummaryService.paymentChanged(payment);
+        receiptService.prerender(booking.getBookingId()); // payment mode changed - re-rendered
 
         // ✅ Prepare and return response
         RetryPaymentResponseDto resp = new RetryPaymentResponseDto();
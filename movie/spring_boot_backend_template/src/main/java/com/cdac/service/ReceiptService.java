@@ -1,8 +1,12 @@
 package com.cdac.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 public interface ReceiptService {
 
-	void downloadInvoice(Long bookingId, HttpServletResponse response);
+	void downloadInvoice(Long bookingId, HttpServletRequest request, HttpServletResponse response);
+
+	// renders the receipt in the background once the current transaction commits
+	void prerender(Long bookingId);
 }
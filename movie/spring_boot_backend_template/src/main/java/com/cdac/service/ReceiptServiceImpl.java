@@ -3,53 +3,167 @@ package com.cdac.service;
 import com.cdac.dto.ReceiptDownloadDto;
 import com.cdac.entities.Booking;
 import com.cdac.repository.BookingRepository;
+import com.cdac.service.ReceiptStore.Receipt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.transaction.Transactional;
-import lombok.AllArgsConstructor;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 
+/*
+ * A receipt never changes once paid , so it is rendered once - in the background right
+ * after the payment commits - and kept in ReceiptStore. Downloads are then a file send
+ * (sendfile where the connector supports it) with ETag / Last-Modified , and no db work.
+ * A receipt that is not stored yet (pre-render still queued , dropped , or from before
+ * the store existed) is rendered on demand and stored. The store serializes both per
+ * booking ; the pre-render renders after any earlier on-demand store and replaces it ,
+ * so a payment retry's receipt always ends up stored.
+ */
 @Service
-@Transactional
-@AllArgsConstructor
 public class ReceiptServiceImpl implements ReceiptService {
 
+    // Tomcat's sendfile request attributes - the connector copies the file straight to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final BookingRepository bookingRepo;
+    private final ReceiptStore receiptStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor renderer;
+    private final boolean prerenderEnabled;
+    private final MeterRegistry registry;
+    private final Timer renderTimer;
+    private final Counter bytesServed;
+
+    public ReceiptServiceImpl(BookingRepository bookingRepo, ReceiptStore receiptStore,
+                              TransactionTemplate transactionTemplate, MeterRegistry registry,
+                              @Value("${receipt.render.threads:1}") int threads,
+                              @Value("${receipt.render.queue-size:1000}") int queueSize,
+                              @Value("${receipt.prerender.enabled:true}") boolean prerenderEnabled) {
+        this.bookingRepo = bookingRepo;
+        this.receiptStore = receiptStore;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.prerenderEnabled = prerenderEnabled;
+        int poolSize = Math.max(1, threads);
+        this.renderer = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread t = new Thread(r, "receipt-render");
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.renderTimer = Timer.builder("receipt.render").register(registry);
+        this.bytesServed = Counter.builder("receipt.bytes.served").baseUnit("bytes").register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderer.shutdownNow();
+    }
+
+    @Override
+    public void downloadInvoice(Long bookingId, HttpServletRequest request, HttpServletResponse response) {
+        Receipt receipt = receiptStore.find(bookingId).orElse(null);
+        if (receipt == null) {
+            count("miss");
+            // a pre-render storing meanwhile wins - its receipt is served , no second render
+            receipt = receiptStore.findOrStore(bookingId, () -> render(bookingId));
+        } else {
+            count("hit");
+        }
+
+        if (new ServletWebRequest(request, response).checkNotModified(receipt.hash(), receipt.storedAt())) {
+            count("not_modified");
+            return;
+        }
+        response.setContentType("application/pdf");
+        response.setHeader("Content-Disposition", "attachment; filename=Invoice_Booking_" + bookingId + ".pdf");
+        response.setContentLengthLong(receipt.size());
+        try {
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, receipt.file().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, receipt.size());
+            } else {
+                Files.copy(receipt.file(), response.getOutputStream());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error while sending invoice: " + e.getMessage());
+        }
+        bytesServed.increment(receipt.size());
+    }
 
     @Override
-    public void downloadInvoice(Long bookingId, HttpServletResponse response) {
-        Booking booking = bookingRepo.findById(bookingId)
-            .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-        ReceiptDownloadDto dto = new ReceiptDownloadDto();
-        dto.setBookingId(booking.getBookingId());
-        dto.setUserName(booking.getUser().getName());
-        dto.setMovieTitle(booking.getShow().getMovie().getTitle());
-        dto.setTheaterName(booking.getShow().getTheater().getName());
-        dto.setShowTime(booking.getShow().getStartTime()
-                .format(DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a")));
-        dto.setBookedSeats(booking.getBookingSeats().stream()
-                .map(bs -> bs.getSeat().getSeatNumber())
-                .collect(Collectors.toList()));
-        dto.setPaymentMode(booking.getPayment().getPaymentMode());
-        dto.setTotalAmount(booking.getPayment().getTotalAmount());
-        dto.setBookingTime(booking.getBookingTime());
-
-        generatePdf(dto, response);
+    public void prerender(Long bookingId) {
+        if (!prerenderEnabled) {
+            return; // rendered by the first download instead
+        }
+        TransactionHooks.afterCommit(() -> {
+            try {
+                renderer.execute(() -> {
+                    try {
+                        receiptStore.store(bookingId, () -> render(bookingId));
+                        prerendered("done");
+                    } catch (RuntimeException e) {
+                        prerendered("failed"); // the download renders it instead
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                prerendered("dropped");
+            }
+        });
+    }
+
+    private byte[] render(Long bookingId) {
+        return renderTimer.record(() -> transactionTemplate.execute(status -> {
+            Booking booking = bookingRepo.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+            ReceiptDownloadDto dto = new ReceiptDownloadDto();
+            dto.setBookingId(booking.getBookingId());
+            dto.setUserName(booking.getUser().getName());
+            dto.setMovieTitle(booking.getShow().getMovie().getTitle());
+            dto.setTheaterName(booking.getShow().getTheater().getName());
+            dto.setShowTime(booking.getShow().getStartTime()
+                    .format(DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a")));
+            dto.setBookedSeats(booking.getBookingSeats().stream()
+                    .map(bs -> bs.getSeat().getSeatNumber())
+                    .collect(Collectors.toList()));
+            dto.setPaymentMode(booking.getPayment().getPaymentMode());
+            dto.setTotalAmount(booking.getPayment().getTotalAmount());
+            dto.setBookingTime(booking.getBookingTime());
+
+            return generatePdf(dto);
+        }));
     }
 
-    private void generatePdf(ReceiptDownloadDto dto, HttpServletResponse response) {
+    private byte[] generatePdf(ReceiptDownloadDto dto) {
         try {
             Document document = new Document();
-            response.setContentType("application/pdf");
-            response.setHeader("Content-Disposition", "attachment; filename=Invoice_Booking_" + dto.getBookingId() + ".pdf");
-            PdfWriter.getInstance(document, response.getOutputStream());
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            PdfWriter.getInstance(document, out);
             document.open();
 
             Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20);
@@ -71,8 +185,17 @@ public class ReceiptServiceImpl implements ReceiptService {
             document.add(new Paragraph("Booking Time: " + dto.getBookingTime().format(DateTimeFormatter.ofPattern("dd-MMM-yyyy hh:mm a")), contentFont));
 
             document.close();
-        } catch (IOException | DocumentException e) {
+            return out.toByteArray();
+        } catch (DocumentException e) {
             throw new RuntimeException("Error while generating invoice: " + e.getMessage());
         }
     }
+
+    private void count(String result) {
+        registry.counter("receipt.requests", "result", result).increment();
+    }
+
+    private void prerendered(String result) {
+        registry.counter("receipt.prerender", "result", result).increment();
+    }
 }
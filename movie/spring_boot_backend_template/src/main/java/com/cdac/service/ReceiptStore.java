@@ -0,0 +1,203 @@
+package com.cdac.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Rendered receipt PDFs on local disk - a PDF is named by its sha-256
+ * (objects/ab/abcd...pdf) and a booking points at it through a small ref file
+ * (bookings/<id>.ref). The hash doubles as the ETag , the ref's write time as
+ * Last-Modified. Not a dedup : iText stamps each render with its creation time and a
+ * fresh document id , so two renders of one booking are two objects.
+ * Files are written to a temp file and moved into place , so a reader never sees a
+ * half written PDF. Refs are memoised (bounded LRU) so a hit reads no ref file.
+ * Renders and ref updates of a booking run under its lock stripe - a download that
+ * misses and the background pre-render never both store. A cancelled booking's ref is
+ * removed , but an object is never deleted once written : a send in flight (or a
+ * stale memo) may still point at it ; replaced receipts (payment retries) leave a few
+ * KB behind each. A store marked temporary (test runs) is deleted when the context closes.
+ */
+@Component
+public class ReceiptStore {
+
+	// a stored receipt - file is ready to be sent as is
+	public record Receipt(String hash, Path file, long size, long storedAt) {
+	}
+
+	private static final int LOCK_STRIPES = 64;
+
+	private final Path root;
+	private final boolean temporary;
+	private final Path objects;
+	private final Path refs;
+	private final Map<Long, Receipt> known;
+	private final Object[] locks = new Object[LOCK_STRIPES];
+
+	public ReceiptStore(String dir, int indexEntries) throws IOException {
+		this(dir, indexEntries, false);
+	}
+
+	@Autowired
+	public ReceiptStore(@Value("${receipt.store.dir:${java.io.tmpdir}/receipts}") String dir,
+			@Value("${receipt.store.index-entries:100000}") int indexEntries,
+			@Value("${receipt.store.temporary:false}") boolean temporary) throws IOException {
+		this.root = Paths.get(dir).toAbsolutePath();
+		this.temporary = temporary;
+		this.objects = Files.createDirectories(root.resolve("objects"));
+		this.refs = Files.createDirectories(root.resolve("bookings"));
+		this.known = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Receipt> eldest) {
+				return size() > indexEntries;
+			}
+		});
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	@PreDestroy
+	void deleteIfTemporary() throws IOException {
+		if (!temporary) {
+			return;
+		}
+		// deepest paths first , so every directory is empty by the time it is deleted
+		try (Stream<Path> paths = Files.walk(root)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	public Optional<Receipt> find(Long bookingId) {
+		Receipt receipt = known.get(bookingId);
+		if (receipt != null) {
+			return Optional.of(receipt);
+		}
+		// under the lock , so a ref read just before a store cannot memoise the old receipt after it
+		synchronized (lockOf(bookingId)) {
+			receipt = known.get(bookingId);
+			if (receipt != null) {
+				return Optional.of(receipt);
+			}
+			Path ref = refOf(bookingId);
+			try {
+				String hash = Files.readString(ref, StandardCharsets.US_ASCII).trim();
+				Path file = objectOf(hash);
+				receipt = new Receipt(hash, file, Files.size(file), Files.getLastModifiedTime(ref).toMillis());
+			} catch (NoSuchFileException e) {
+				return Optional.empty();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			known.put(bookingId, receipt);
+			return Optional.of(receipt);
+		}
+	}
+
+	// the stored receipt of a booking , rendered and stored first if there is none
+	public Receipt findOrStore(Long bookingId, Supplier<byte[]> render) {
+		Optional<Receipt> stored = find(bookingId);
+		if (stored.isPresent()) {
+			return stored.get();
+		}
+		synchronized (lockOf(bookingId)) {
+			stored = find(bookingId);
+			return stored.isPresent() ? stored.get() : write(bookingId, render.get());
+		}
+	}
+
+	// renders and stores the receipt of a booking , replacing the stored one
+	public Receipt store(Long bookingId, Supplier<byte[]> render) {
+		synchronized (lockOf(bookingId)) {
+			return write(bookingId, render.get());
+		}
+	}
+
+	/*
+	 * Forgets the receipt of a booking that no longer exists - the ref and the memo entry
+	 * go , the object stays (a send in flight may still be reading it). Under the lock , so
+	 * a render that read the booking before it was deleted has stored by now.
+	 */
+	public void remove(Long bookingId) {
+		synchronized (lockOf(bookingId)) {
+			known.remove(bookingId);
+			try {
+				Files.deleteIfExists(refOf(bookingId));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	// caller holds the booking's lock
+	private Receipt write(Long bookingId, byte[] pdf) {
+		String hash = sha256(pdf);
+		Path file = objectOf(hash);
+		Path ref = refOf(bookingId);
+		try {
+			if (!Files.exists(file)) {
+				Files.createDirectories(file.getParent());
+				writeAtomically(file, pdf);
+			}
+			writeAtomically(ref, hash.getBytes(StandardCharsets.US_ASCII));
+			Receipt receipt = new Receipt(hash, file, pdf.length, Files.getLastModifiedTime(ref).toMillis());
+			known.put(bookingId, receipt);
+			return receipt;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Object lockOf(Long bookingId) {
+		return locks[(int) Math.floorMod(bookingId, (long) LOCK_STRIPES)];
+	}
+
+	private void writeAtomically(Path target, byte[] content) throws IOException {
+		Path tmp = Files.createTempFile(target.getParent(), "tmp-", ".part");
+		try {
+			Files.write(tmp, content);
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	private Path objectOf(String hash) {
+		return objects.resolve(hash.substring(0, 2)).resolve(hash + ".pdf");
+	}
+
+	private Path refOf(Long bookingId) {
+		return refs.resolve(bookingId + ".ref");
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
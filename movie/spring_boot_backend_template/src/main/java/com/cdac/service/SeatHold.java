@@ -0,0 +1,33 @@
+package com.cdac.service;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/*
+ * A time boxed hold on some seats of one show , owned by one user.
+ * Lives only in memory (SeatHoldService) until it is confirmed into a booking.
+ */
+@Getter
+public class SeatHold {
+
+	private final String holdId;
+	private final Long showId;
+	private final String username;
+	private final List<String> seatNos;
+	private volatile long expiresAt;
+	private volatile int extensions;
+
+	public SeatHold(String holdId, Long showId, String username, List<String> seatNos, long expiresAt) {
+		this.holdId = holdId;
+		this.showId = showId;
+		this.username = username;
+		this.seatNos = List.copyOf(seatNos);
+		this.expiresAt = expiresAt;
+	}
+
+	synchronized void extendTo(long newExpiry) {
+		this.expiresAt = newExpiry;
+		this.extensions++;
+	}
+}
@@ -0,0 +1,187 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cdac.custom_exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Seat holds - reserves seats of a show for a user while the payment is made.
+ * Holds live only in memory : seat ownership is claimed with putIfAbsent on a
+ * concurrent map (no locks , no db writes) and expiry is driven by an ExpiryWheel.
+ * A hold turns into a booking through BookingService.confirmHold.
+ */
+@Service
+public class SeatHoldService {
+
+	private final SeatInventory seatInventory;
+	private final SeatMapStream seatMapStream;
+	private final Map<String, SeatHold> holds = new ConcurrentHashMap<>();
+	// "showId:seatNo" -> holdId
+	private final Map<String, String> heldSeats = new ConcurrentHashMap<>();
+	private final ExpiryWheel<String> wheel;
+	private final Counter created;
+	private final Counter expired;
+	private final Counter confirmed;
+
+	@Value("${booking.hold.ttl-seconds:300}")
+	private long ttlSeconds;
+
+	@Value("${booking.hold.max-seats:10}")
+	private int maxSeats;
+
+	@Value("${booking.hold.max-extensions:2}")
+	private int maxExtensions;
+
+	public SeatHoldService(SeatInventory seatInventory, SeatMapStream seatMapStream, MeterRegistry registry) {
+		this.seatInventory = seatInventory;
+		this.seatMapStream = seatMapStream;
+		this.wheel = new ExpiryWheel<>("seat-hold-wheel", 512, 1000, this::expire);
+		this.created = Counter.builder("seat.holds.created").register(registry);
+		this.expired = Counter.builder("seat.holds.expired").register(registry);
+		this.confirmed = Counter.builder("seat.holds.confirmed").register(registry);
+		Gauge.builder("seat.holds.active", holds, Map::size).register(registry);
+		Gauge.builder("seat.holds.seats", heldSeats, Map::size).register(registry);
+	}
+
+	@PostConstruct
+	void startWheel() {
+		wheel.start();
+	}
+
+	@PreDestroy
+	void stopWheel() {
+		wheel.stop();
+	}
+
+	public SeatHold hold(Long showId, List<String> seatNos, String username) {
+		if (seatNos == null || seatNos.isEmpty()) {
+			throw new IllegalArgumentException("Seat numbers must not be null or empty.");
+		}
+		List<String> requested = new ArrayList<>(new LinkedHashSet<>(seatNos));
+		if (requested.size() > maxSeats) {
+			throw new IllegalArgumentException("Cannot hold more than " + maxSeats + " seats");
+		}
+
+		ShowSeatMap seatMap = seatInventory.get(showId);
+		for (String seatNo : requested) {
+			if (!seatMap.contains(seatNo)) {
+				throw new ResourceNotFoundException("Seat not found: " + seatNo);
+			}
+			if (seatMap.isBooked(seatNo)) {
+				throw new IllegalArgumentException("One or more seats are already booked");
+			}
+		}
+
+		String holdId = UUID.randomUUID().toString();
+		List<String> acquired = new ArrayList<>(requested.size());
+		for (String seatNo : requested) {
+			if (heldSeats.putIfAbsent(key(showId, seatNo), holdId) != null) {
+				acquired.forEach(no -> heldSeats.remove(key(showId, no), holdId));
+				throw new IllegalArgumentException("One or more seats are already held");
+			}
+			acquired.add(seatNo);
+		}
+
+		SeatHold hold = new SeatHold(holdId, showId, username, requested, deadline());
+		holds.put(holdId, hold);
+		wheel.schedule(holdId, hold.getExpiresAt());
+		created.increment();
+		seatMapStream.seatsBooked(showId, requested);
+		return hold;
+	}
+
+	public SeatHold extend(String holdId, String username) {
+		SeatHold hold = getOwnedHold(holdId, username);
+		if (hold.getExtensions() >= maxExtensions) {
+			throw new IllegalArgumentException("Hold cannot be extended more than " + maxExtensions + " times");
+		}
+		hold.extendTo(deadline());
+		wheel.schedule(holdId, hold.getExpiresAt());
+		return hold;
+	}
+
+	public void release(String holdId, String username) {
+		remove(getOwnedHold(holdId, username));
+	}
+
+	// releases the hold once the booking made from it commits
+	public void confirmed(SeatHold hold) {
+		TransactionHooks.afterCommit(() -> {
+			if (remove(hold)) {
+				confirmed.increment();
+			}
+		});
+	}
+
+	public SeatHold getOwnedHold(String holdId, String username) {
+		SeatHold hold = holds.get(holdId);
+		if (hold == null || hold.getExpiresAt() <= System.currentTimeMillis()) {
+			throw new ResourceNotFoundException("Hold not found or expired");
+		}
+		if (!hold.getUsername().equals(username)) {
+			throw new RuntimeException("Access denied: Not your hold");
+		}
+		return hold;
+	}
+
+	// rejects a direct booking of seats that someone else is holding
+	public void checkNotHeldByOthers(Long showId, Collection<String> seatNos, String username) {
+		for (String seatNo : seatNos) {
+			String holdId = heldSeats.get(key(showId, seatNo));
+			SeatHold hold = holdId == null ? null : holds.get(holdId);
+			if (hold != null && !hold.getUsername().equals(username)) {
+				throw new IllegalArgumentException("One or more seats are held by another user");
+			}
+		}
+	}
+
+	public boolean isHeld(Long showId, String seatNo) {
+		return heldSeats.containsKey(key(showId, seatNo));
+	}
+
+	private void expire(String holdId, Long scheduledDeadline) {
+		SeatHold hold = holds.get(holdId);
+		// an extended hold has a later deadline - its new wheel entry will handle it
+		if (hold != null && hold.getExpiresAt() <= scheduledDeadline && remove(hold)) {
+			expired.increment();
+		}
+	}
+
+	private boolean remove(SeatHold hold) {
+		if (!holds.remove(hold.getHoldId(), hold)) {
+			return false;
+		}
+		hold.getSeatNos().forEach(no -> heldSeats.remove(key(hold.getShowId(), no), hold.getHoldId()));
+
+		// a confirmed hold's seats are booked by now - only announce the ones that came free
+		ShowSeatMap seatMap = seatInventory.get(hold.getShowId());
+		List<String> freed = hold.getSeatNos().stream().filter(no -> !seatMap.isBooked(no)).toList();
+		if (!freed.isEmpty()) {
+			seatMapStream.seatsReleased(hold.getShowId(), freed);
+		}
+		return true;
+	}
+
+	private long deadline() {
+		return System.currentTimeMillis() + ttlSeconds * 1000;
+	}
+
+	private static String key(Long showId, String seatNo) {
+		return showId + ":" + seatNo;
+	}
+}
@@ -0,0 +1,195 @@
+package com.cdac.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.entities.Seat;
+import com.cdac.repository.SeatRepository;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * In memory seat inventory - keeps a ShowSeatMap per show , loaded from the db on
+ * first access and then kept current by the booking / seat write paths, so seat map
+ * reads never touch the database.
+ * Writes are applied after the surrounding transaction commits , so a rolled back
+ * booking never leaks into the bitmap.
+ * Every committed write bumps a per show write counter (striped) before it looks for
+ * the map. A cold load compares that counter before and after reading the rows ; if a
+ * write landed in between - it found no map yet and was dropped - the load is thrown
+ * away and redone. Maps not read for idle-minutes are dropped , and the inventory
+ * keeps at most max-shows maps (least recently read go first).
+ */
+@Component
+public class SeatInventory {
+
+	private final SeatRepository seatRepository;
+	private final ShowRepository showRepository;
+	private static final int WRITE_STRIPES = 1024;
+	private static final int MAX_LOAD_ATTEMPTS = 3;
+
+	private final Map<Long, ShowSeatMap> shows = new ConcurrentHashMap<>();
+	// committed writes per show stripe - a load that overlapped a write is redone
+	private final AtomicLongArray writes = new AtomicLongArray(WRITE_STRIPES);
+	private final ScheduledExecutorService sweeper;
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter reloads;
+	private final MeterRegistry registry;
+
+	@Value("${seat.inventory.idle-minutes:60}")
+	private long idleMinutes;
+
+	@Value("${seat.inventory.max-shows:5000}")
+	private int maxShows;
+
+	public SeatInventory(SeatRepository seatRepository, ShowRepository showRepository, MeterRegistry registry) {
+		this.seatRepository = seatRepository;
+		this.showRepository = showRepository;
+		this.hits = Counter.builder("seat.inventory.requests").tag("result", "hit").register(registry);
+		this.misses = Counter.builder("seat.inventory.requests").tag("result", "miss").register(registry);
+		this.reloads = Counter.builder("seat.inventory.reloads").register(registry);
+		this.registry = registry;
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "seat-inventory-sweeper");
+			t.setDaemon(true);
+			return t;
+		});
+		Gauge.builder("seat.inventory.shows", shows, Map::size).register(registry);
+		Gauge.builder("seat.inventory.bytes", this, SeatInventory::totalBytes).baseUnit("bytes").register(registry);
+	}
+
+	@PostConstruct
+	void start() {
+		sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+	}
+
+	@PreDestroy
+	void stop() {
+		sweeper.shutdownNow();
+	}
+
+	// returns the seat map of a show , loading it from the db on a miss
+	public ShowSeatMap get(Long showId) {
+		ShowSeatMap map = shows.get(showId);
+		if (map != null) {
+			hits.increment();
+			map.touch();
+			return map;
+		}
+		misses.increment();
+		for (int attempt = 1; ; attempt++) {
+			long before = writes.get(stripe(showId));
+			map = shows.computeIfAbsent(showId, this::load);
+			if (writes.get(stripe(showId)) == before) {
+				return map;
+			}
+			// a booking committed while the rows were read - the map may have missed it
+			reloads.increment();
+			shows.remove(showId, map);
+			if (attempt == MAX_LOAD_ATTEMPTS) {
+				// still racing with writes - serve this read from a fresh load , cache nothing
+				return load(showId);
+			}
+		}
+	}
+
+	public void markBooked(Long showId, Collection<String> seatNos) {
+		TransactionHooks.afterCommit(() -> {
+			ShowSeatMap map = written(showId);
+			if (map != null) {
+				map.markBooked(seatNos);
+			}
+		});
+	}
+
+	public void markReleased(Long showId, Collection<String> seatNos) {
+		TransactionHooks.afterCommit(() -> {
+			ShowSeatMap map = written(showId);
+			if (map != null) {
+				map.markReleased(seatNos);
+			}
+		});
+	}
+
+	// drops the cached map (seat added / deleted / repriced , show deleted) - reloaded on next read
+	public void evict(Long showId) {
+		TransactionHooks.afterCommit(() -> {
+			written(showId);
+			shows.remove(showId);
+		});
+	}
+
+	public Map<Long, ShowSeatMap> snapshot() {
+		return Map.copyOf(shows);
+	}
+
+	public long totalBytes() {
+		return shows.values().stream().mapToLong(ShowSeatMap::estimatedBytes).sum();
+	}
+
+	/*
+	 * Drops maps not read for idle-minutes , then the least recently read ones while
+	 * the inventory holds more than max-shows.
+	 */
+	void sweep() {
+		long idleBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+		shows.values().removeIf(map -> {
+			boolean idle = map.getLastAccess() < idleBefore;
+			if (idle) {
+				evicted("idle");
+			}
+			return idle;
+		});
+		int excess = shows.size() - maxShows;
+		if (excess > 0) {
+			shows.values().stream()
+					.sorted(Comparator.comparingLong(ShowSeatMap::getLastAccess))
+					.limit(excess)
+					.toList()
+					.forEach(map -> {
+						if (shows.remove(map.getShowId(), map)) {
+							evicted("size");
+						}
+					});
+		}
+	}
+
+	// records a committed write before looking up the map , see get
+	private ShowSeatMap written(Long showId) {
+		writes.incrementAndGet(stripe(showId));
+		return shows.get(showId);
+	}
+
+	private static int stripe(Long showId) {
+		return (Long.hashCode(showId) & 0x7fffffff) % WRITE_STRIPES;
+	}
+
+	private void evicted(String cause) {
+		registry.counter("seat.inventory.evictions", "cause", cause).increment();
+	}
+
+	private ShowSeatMap load(Long showId) {
+		List<Seat> seats = seatRepository.findByShowShowId(showId);
+		if (seats.isEmpty() && !showRepository.existsById(showId)) {
+			throw new ResourceNotFoundException("Show not found");
+		}
+		return new ShowSeatMap(showId, seats);
+	}
+}
@@ -0,0 +1,39 @@
+package com.cdac.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/*
+ * Actuator endpoint (/actuator/seatinventory) - per show seat counts and memory
+ * of the in memory seat inventory , used for heap sizing.
+ * Hit / miss counts are published as the seat.inventory.requests metric.
+ */
+@Component
+@Endpoint(id = "seatinventory")
+@RequiredArgsConstructor
+public class SeatInventoryEndpoint {
+
+	private final SeatInventory seatInventory;
+
+	@ReadOperation
+	public Map<String, Object> inventory() {
+		Map<Long, Object> perShow = new TreeMap<>();
+		seatInventory.snapshot().forEach((showId, map) -> perShow.put(showId, Map.of(
+				"seats", map.size(),
+				"available", map.availableCount(),
+				"bytes", map.estimatedBytes())));
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("shows", perShow.size());
+		body.put("totalBytes", seatInventory.totalBytes());
+		body.put("perShow", perShow);
+		return body;
+	}
+}
@@ -0,0 +1,20 @@
+package com.cdac.service;
+
+import java.util.List;
+
+import com.cdac.dto.SeatGenerationRespDto;
+import com.cdac.dto.SeatLayoutReqDto;
+import com.cdac.dto.SeatLayoutRespDto;
+import com.cdac.entities.Show;
+
+public interface SeatLayoutService {
+	
+    SeatLayoutRespDto saveLayout(Long theaterId, SeatLayoutReqDto dto); //admin create / replace layout of a theater
+    
+    SeatLayoutRespDto getLayout(Long theaterId); //admin get layout of a theater
+    
+    SeatGenerationRespDto generateSeats(List<Long> showIds); //admin create all seats of shows from their theater layout
+    
+    long generateSeatsForNewShows(List<Show> shows); //seats of shows created in the current transaction , returns seats inserted
+
+}
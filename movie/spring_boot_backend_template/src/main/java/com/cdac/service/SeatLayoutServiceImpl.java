@@ -0,0 +1,254 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.SeatGenerationRespDto;
+import com.cdac.dto.SeatLayoutReqDto;
+import com.cdac.dto.SeatLayoutRespDto;
+import com.cdac.entities.PriceTier;
+import com.cdac.entities.Seat;
+import com.cdac.entities.SeatLayout;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.SeatLayoutRepository;
+import com.cdac.repository.SeatRepository;
+import com.cdac.repository.ShowRepository;
+import com.cdac.repository.TheaterRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SeatLayoutServiceImpl implements SeatLayoutService {
+
+    // seats persisted between flush + detach , keeps the persistence context small
+    private static final int FLUSH_EVERY = 500;
+    private static final int MAX_SEATS = 20000;
+
+    private final SeatLayoutRepository layoutRepo;
+    private final TheaterRepository theaterRepo;
+    private final ShowRepository showRepo;
+    private final SeatRepository seatRepo;
+    private final SeatInventory seatInventory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public SeatLayoutRespDto saveLayout(Long theaterId, SeatLayoutReqDto dto) {
+        Theater theater = theaterRepo.findById(theaterId)
+                .orElseThrow(() -> new ResourceNotFoundException("Theater not found with ID: " + theaterId));
+
+        if (dto.getRowCount() <= 0 || dto.getSeatsPerRow() <= 0) {
+            throw new IllegalArgumentException("Rows and seats per row must be positive");
+        }
+
+        SeatLayout layout = layoutRepo.findByTheaterTheaterId(theaterId).orElseGet(SeatLayout::new);
+        layout.setTheater(theater);
+        layout.setRowCount(dto.getRowCount());
+        layout.setSeatsPerRow(dto.getSeatsPerRow());
+
+        layout.getAisleColumns().clear();
+        if (dto.getAisleColumns() != null) {
+            for (Integer col : dto.getAisleColumns()) {
+                if (col == null || col < 1 || col > dto.getSeatsPerRow()) {
+                    throw new IllegalArgumentException("Aisle column out of range: " + col);
+                }
+                layout.getAisleColumns().add(col);
+            }
+        }
+
+        layout.getPriceTiers().clear();
+        if (dto.getPriceTiers() != null) {
+            for (SeatLayoutReqDto.PriceTierData tier : dto.getPriceTiers()) {
+                if (tier.getFromRow() < 1 || tier.getToRow() > dto.getRowCount() || tier.getFromRow() > tier.getToRow()) {
+                    throw new IllegalArgumentException("Price tier rows out of range: " + tier.getFromRow() + "-" + tier.getToRow());
+                }
+                layout.getPriceTiers().add(new PriceTier(tier.getFromRow(), tier.getToRow(), tier.getPrice()));
+            }
+        }
+
+        if (layout.getSeatCount() <= 0 || layout.getSeatCount() > MAX_SEATS) {
+            throw new IllegalArgumentException("Layout must have between 1 and " + MAX_SEATS + " seats");
+        }
+
+        // the layout is now the source of truth for the auditorium size
+        theater.setTotalSeats(layout.getSeatCount());
+
+        return toDto(layoutRepo.save(layout));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatLayoutRespDto getLayout(Long theaterId) {
+        SeatLayout layout = layoutRepo.findByTheaterTheaterId(theaterId)
+                .orElseThrow(() -> new ResourceNotFoundException("No seat layout for theater ID: " + theaterId));
+        return toDto(layout);
+    }
+
+    @Override
+    @Transactional
+    public SeatGenerationRespDto generateSeats(List<Long> showIds) {
+        if (showIds == null || showIds.isEmpty()) {
+            throw new IllegalArgumentException("Show ids must not be null or empty.");
+        }
+        long start = System.nanoTime();
+
+        Set<Long> ids = new LinkedHashSet<>(showIds);
+        List<Show> shows = showRepo.findAllById(ids);
+        if (shows.size() != ids.size()) {
+            throw new ResourceNotFoundException("One or more shows not found");
+        }
+
+        Map<Long, SeatPlan> plans = plansFor(shows);
+        Map<Long, Show> byId = shows.stream().collect(Collectors.toMap(Show::getShowId, Function.identity()));
+
+        List<Long> skipped = new ArrayList<>();
+        List<Seat> pending = new ArrayList<>();
+        long inserted = 0;
+        int processed = 0;
+        for (Long showId : ids) {
+            Show show = byId.get(showId);
+            SeatPlan plan = planOf(plans, show);
+            if (seatRepo.existsByShowShowId(showId)) {
+                skipped.add(showId);
+                continue;
+            }
+
+            inserted = insertSeats(show, plan, pending, inserted);
+            seatInventory.evict(showId);
+            processed++;
+        }
+        flushSeats(pending);
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        return new SeatGenerationRespDto(processed, inserted, elapsedMillis,
+                inserted * 1000.0 / elapsedMillis, skipped);
+    }
+
+    /*
+     * Shows just created in this transaction have no seats yet - no existence check per show.
+     * Only the seats persisted here are detached , the caller's entities stay managed.
+     */
+    @Override
+    @Transactional
+    public long generateSeatsForNewShows(List<Show> shows) {
+        Map<Long, SeatPlan> plans = plansFor(shows);
+        List<Seat> pending = new ArrayList<>();
+        long inserted = 0;
+        for (Show show : shows) {
+            inserted = insertSeats(show, planOf(plans, show), pending, inserted);
+        }
+        flushSeats(pending);
+        return inserted;
+    }
+
+    // one layout lookup + one seat plan per theater , shared by all its shows
+    private Map<Long, SeatPlan> plansFor(List<Show> shows) {
+        Set<Long> theaterIds = shows.stream().map(s -> s.getTheater().getTheaterId()).collect(Collectors.toSet());
+        return layoutRepo.findByTheaterTheaterIdIn(theaterIds).stream()
+                .collect(Collectors.toMap(l -> l.getTheater().getTheaterId(), SeatPlan::new));
+    }
+
+    private static SeatPlan planOf(Map<Long, SeatPlan> plans, Show show) {
+        SeatPlan plan = plans.get(show.getTheater().getTheaterId());
+        if (plan == null) {
+            throw new ResourceNotFoundException("No seat layout for theater: " + show.getTheater().getName());
+        }
+        return plan;
+    }
+
+    // persists the seats of one show , flushing every FLUSH_EVERY seats ; returns the running count
+    private long insertSeats(Show show, SeatPlan plan, List<Seat> pending, long inserted) {
+        double defaultPrice = show.getPricePerSeat().doubleValue();
+        for (int i = 0; i < plan.seatNos.length; i++) {
+            Seat seat = new Seat();
+            seat.setSeatNo(plan.seatNos[i]);
+            seat.setPrice(Double.isNaN(plan.prices[i]) ? defaultPrice : plan.prices[i]);
+            seat.setShow(show);
+            entityManager.persist(seat);
+            pending.add(seat);
+            if (++inserted % FLUSH_EVERY == 0) {
+                flushSeats(pending);
+            }
+        }
+        return inserted;
+    }
+
+    // writes the pending seats and detaches just them - not a clear() of the whole context
+    private void flushSeats(List<Seat> pending) {
+        entityManager.flush();
+        pending.forEach(entityManager::detach);
+        pending.clear();
+    }
+
+    private SeatLayoutRespDto toDto(SeatLayout layout) {
+        return new SeatLayoutRespDto(
+                layout.getTheater().getTheaterId(),
+                layout.getRowCount(),
+                layout.getSeatsPerRow(),
+                layout.getAisleColumns().stream().sorted().toList(),
+                layout.getPriceTiers().stream()
+                        .map(t -> new SeatLayoutReqDto.PriceTierData(t.getFromRow(), t.getToRow(), t.getPrice()))
+                        .toList(),
+                layout.getSeatCount());
+    }
+
+    /*
+     * Seat numbers + tier prices of a layout , computed once so the insert loop does
+     * no per seat work beyond building the entity. NaN price = use the show's price.
+     */
+    private static class SeatPlan {
+        final String[] seatNos;
+        final double[] prices;
+
+        SeatPlan(SeatLayout layout) {
+            Set<Integer> aisles = new HashSet<>(layout.getAisleColumns());
+            int count = layout.getSeatCount();
+            seatNos = new String[count];
+            prices = new double[count];
+            int i = 0;
+            for (int row = 1; row <= layout.getRowCount(); row++) {
+                String label = rowLabel(row);
+                double price = Double.NaN;
+                for (PriceTier tier : layout.getPriceTiers()) {
+                    if (row >= tier.getFromRow() && row <= tier.getToRow()) {
+                        price = tier.getPrice();
+                        break;
+                    }
+                }
+                // seats are numbered by position , so aisles leave gaps (A1 A2 | A4 ...)
+                for (int col = 1; col <= layout.getSeatsPerRow(); col++) {
+                    if (!aisles.contains(col)) {
+                        seatNos[i] = label + col;
+                        prices[i] = price;
+                        i++;
+                    }
+                }
+            }
+        }
+
+        // 1 -> A , 26 -> Z , 27 -> AA ...
+        static String rowLabel(int row) {
+            StringBuilder sb = new StringBuilder();
+            for (int n = row; n > 0; n = (n - 1) / 26) {
+                sb.append((char) ('A' + (n - 1) % 26));
+            }
+            return sb.reverse().toString();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.cdac.service;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cdac.dto.SeatMapDeltaDto;
+import com.cdac.dto.SeatUserRespDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Live seat map over server sent events.
+ * A subscriber gets one "snapshot" event (full seat map) and then small "delta"
+ * events (seat numbers booked / released) as bookings , cancellations and holds commit.
+ * Emitters are async - they hold no request thread. Fan out runs on a fixed set of
+ * single thread executors picked by showId , so deltas of one show stay in order and
+ * each delta is serialized once no matter how many subscribers the show has.
+ * The fan out thread only queues an event per subscriber (bounded , never blocks) ;
+ * the socket writes run on the sender pool , one drain at a time per subscriber , so a
+ * slow client only holds up itself. A subscriber whose queue overflows is disconnected
+ * (its client reconnects and gets a fresh snapshot). Idle streams get a comment line
+ * every heartbeat-seconds so proxies do not drop them.
+ */
+@Service
+public class SeatMapStream {
+
+	private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+	private final SeatInventory seatInventory;
+	private final ObjectMapper objectMapper;
+	private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final ExecutorService[] fanOut;
+	private final ExecutorService senders;
+	private final ScheduledExecutorService heartbeat;
+	private final Counter deltasSent;
+	private final Counter overflows;
+
+	@Value("${seatmap.stream.timeout-minutes:30}")
+	private long timeoutMinutes;
+
+	@Value("${seatmap.stream.queue-size:64}")
+	private int queueSize;
+
+	@Value("${seatmap.stream.heartbeat-seconds:15}")
+	private long heartbeatSeconds;
+
+	public SeatMapStream(SeatInventory seatInventory, ObjectMapper objectMapper, MeterRegistry registry,
+			@Value("${seatmap.stream.threads:2}") int threads,
+			@Value("${seatmap.stream.send-threads:16}") int sendThreads) {
+		this.seatInventory = seatInventory;
+		this.objectMapper = objectMapper;
+		this.fanOut = new ExecutorService[Math.max(1, threads)];
+		for (int i = 0; i < fanOut.length; i++) {
+			fanOut[i] = Executors.newSingleThreadExecutor(daemon("seatmap-fanout-" + i));
+		}
+		AtomicInteger senderIndex = new AtomicInteger();
+		this.senders = Executors.newFixedThreadPool(Math.max(1, sendThreads),
+				r -> daemon("seatmap-sender-" + senderIndex.getAndIncrement()).newThread(r));
+		this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("seatmap-heartbeat"));
+		this.deltasSent = Counter.builder("seatmap.stream.events").register(registry);
+		this.overflows = Counter.builder("seatmap.stream.overflows").register(registry);
+		Gauge.builder("seatmap.stream.connections", connections, AtomicInteger::get).register(registry);
+	}
+
+	@PostConstruct
+	void start() {
+		if (heartbeatSeconds > 0) {
+			heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		heartbeat.shutdownNow();
+		for (ExecutorService executor : fanOut) {
+			executor.shutdownNow();
+		}
+		senders.shutdownNow();
+	}
+
+	/*
+	 * Registers a subscriber of a show. The snapshot is taken on the fan out thread
+	 * after registration , so no delta committed in between can be missed.
+	 * The snapshot is sent on the request thread before the emitter is returned - MVC
+	 * buffers it and writes it as it initializes the emitter , so the response is
+	 * committed by the container thread. A sender thread writing first raced that commit.
+	 */
+	public SseEmitter subscribe(Long showId, Supplier<List<SeatUserRespDto>> snapshot) {
+		seatInventory.get(showId); // validates the show before anything is registered
+
+		Subscriber subscriber = new Subscriber(showId, newEmitter());
+		// held by the request thread until the snapshot is in the emitter
+		subscriber.draining.set(true);
+		subscribers.compute(showId, (id, set) -> {
+			Set<Subscriber> s = set != null ? set : ConcurrentHashMap.newKeySet();
+			s.add(subscriber);
+			return s;
+		});
+		connections.incrementAndGet();
+
+		SseEmitter emitter = subscriber.emitter;
+		emitter.onCompletion(subscriber::remove);
+		emitter.onTimeout(subscriber::remove);
+		emitter.onError(ex -> subscriber.remove());
+
+		// snapshot goes through the show's fan out thread , so it is ordered with deltas
+		try {
+			executorFor(showId).submit(() -> subscriber.enqueue(
+					SseEmitter.event().name("snapshot").data(snapshot.get(), MediaType.APPLICATION_JSON).build()))
+					.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			subscriber.remove();
+			throw new RuntimeException("Interrupted while subscribing to the seat map");
+		} catch (ExecutionException e) {
+			subscriber.remove();
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new RuntimeException("Error while loading the seat map: " + e.getCause().getMessage());
+		}
+		subscriber.drain();
+		return emitter;
+	}
+
+	public void seatsBooked(Long showId, Collection<String> seatNos) {
+		TransactionHooks.afterCommit(() -> publish(new SeatMapDeltaDto(showId, List.copyOf(seatNos), List.of())));
+	}
+
+	public void seatsReleased(Long showId, Collection<String> seatNos) {
+		TransactionHooks.afterCommit(() -> publish(new SeatMapDeltaDto(showId, List.of(), List.copyOf(seatNos))));
+	}
+
+	public int connectionCount() {
+		return connections.get();
+	}
+
+	SseEmitter newEmitter() {
+		return new SseEmitter(timeoutMinutes * 60_000);
+	}
+
+	private void publish(SeatMapDeltaDto delta) {
+		Set<Subscriber> subs = subscribers.get(delta.getShowId());
+		if (subs == null || subs.isEmpty()) {
+			return;
+		}
+		String json;
+		try {
+			json = objectMapper.writeValueAsString(delta);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException("Error while serializing seat map delta: " + e.getMessage());
+		}
+		// built once , the same frames go to every subscriber
+		Set<DataWithMediaType> event = SseEmitter.event().name("delta").data(json, MediaType.APPLICATION_JSON).build();
+		executorFor(delta.getShowId()).execute(() -> {
+			for (Subscriber subscriber : subs) {
+				subscriber.enqueue(event);
+			}
+		});
+	}
+
+	// a comment line to every subscriber with nothing queued
+	void sendHeartbeats() {
+		for (Set<Subscriber> subs : subscribers.values()) {
+			for (Subscriber subscriber : subs) {
+				if (subscriber.queue.isEmpty()) {
+					subscriber.enqueue(HEARTBEAT);
+				}
+			}
+		}
+	}
+
+	private ExecutorService executorFor(Long showId) {
+		return fanOut[(int) Math.floorMod(showId, (long) fanOut.length)];
+	}
+
+	private static ThreadFactory daemon(String name) {
+		return r -> {
+			Thread t = new Thread(r, name);
+			t.setDaemon(true);
+			return t;
+		};
+	}
+
+	private final class Subscriber {
+		final Long showId;
+		final SseEmitter emitter;
+		final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+		final AtomicBoolean draining = new AtomicBoolean();
+		final AtomicBoolean removed = new AtomicBoolean();
+		volatile boolean closed;
+
+		Subscriber(Long showId, SseEmitter emitter) {
+			this.showId = showId;
+			this.emitter = emitter;
+		}
+
+		// never blocks - a full queue means the client stopped reading
+		void enqueue(Set<DataWithMediaType> event) {
+			if (closed) {
+				return;
+			}
+			if (!queue.offer(event)) {
+				overflows.increment();
+				close(null);
+				return;
+			}
+			if (draining.compareAndSet(false, true)) {
+				senders.execute(this::drain);
+			}
+		}
+
+		// one drain per subscriber at a time , so its events stay in order
+		void drain() {
+			Throwable error = null;
+			try {
+				Set<DataWithMediaType> event;
+				while (!closed && (event = queue.poll()) != null) {
+					emitter.send(event);
+					if (event != HEARTBEAT) {
+						deltasSent.increment();
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				// client went away - drop it , the container completes the async request
+				error = e;
+				closed = true;
+				remove();
+			}
+			if (closed) {
+				finish(error);
+				return;
+			}
+			draining.set(false);
+			// an event queued or a close after the last poll - whoever wins the flag handles it
+			if ((closed || !queue.isEmpty()) && draining.compareAndSet(false, true)) {
+				if (closed) {
+					finish(null);
+				} else {
+					senders.execute(this::drain);
+				}
+			}
+		}
+
+		/*
+		 * Unregisters at once. The emitter is completed by whoever holds the drain flag -
+		 * here if no send is running , else by the drain once its send returns - so the
+		 * fan out thread never waits on a stalled socket.
+		 */
+		void close(Throwable error) {
+			closed = true;
+			remove();
+			queue.clear();
+			if (draining.compareAndSet(false, true)) {
+				finish(error);
+			}
+		}
+
+		private void finish(Throwable error) {
+			queue.clear();
+			if (error != null) {
+				emitter.completeWithError(error);
+			} else {
+				emitter.complete();
+			}
+		}
+
+		void remove() {
+			if (removed.compareAndSet(false, true)) {
+				closed = true;
+				connections.decrementAndGet();
+				subscribers.computeIfPresent(showId, (id, set) -> {
+					set.remove(this);
+					return set.isEmpty() ? null : set;
+				});
+			}
+		}
+	}
+}
@@ -18,5 +18,7 @@ public interface SeatService {
     
     List<SeatUserRespDto> getAvailableSeatsByShowId(Long showId); //get seats by user
     
+    List<SeatUserRespDto> getSeatMap(Long showId); //all seats of a show for user , held seats shown as booked
+    
     
 }
@@ -12,7 +12,7 @@ import com.cdac.custom_exception.*;
 import com.cdac.repository.SeatRepository;
 import com.cdac.repository.ShowRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,7 +24,9 @@ public class SeatServiceImpl implements SeatService {
 
     private final SeatRepository seatRepository;
     private final ShowRepository showRepository;
-    private final ModelMapper modelMapper;
+    private final DtoMapper dtoMapper;
+    private final SeatInventory seatInventory;
+    private final SeatHoldService seatHoldService;
 
     @Override
     public List<SeatRespDto> addSeats(SeatReqDto dto) {
@@ -42,12 +44,10 @@ public class SeatServiceImpl implements SeatService {
             }).toList();
 
         List<Seat> saved = seatRepository.saveAll(seats);
+        seatInventory.evict(show.getShowId());
         return saved.stream()
-                .map(seat -> {
-                    SeatRespDto resp = modelMapper.map(seat, SeatRespDto.class);
-                    resp.setShowId(seat.getShow().getShowId());
-                    return resp;
-                }).collect(Collectors.toList());
+                .map(dtoMapper::toSeatResp)
+                .collect(Collectors.toList());
     }
     
     @Override
@@ -63,9 +63,8 @@ public class SeatServiceImpl implements SeatService {
         }
 
         Seat updated = seatRepository.save(seat);
-        SeatRespDto resp = modelMapper.map(updated, SeatRespDto.class);
-        resp.setShowId(seat.getShow().getShowId());
-        return resp;
+        seatInventory.evict(seat.getShow().getShowId());
+        return dtoMapper.toSeatResp(updated);
     }
     
     @Override
@@ -73,41 +72,43 @@ public class SeatServiceImpl implements SeatService {
         Seat seat = seatRepository.findById(seatId)
             .orElseThrow(() -> new ResourceNotFoundException("Seat not found"));
         seatRepository.delete(seat);
+        seatInventory.evict(seat.getShow().getShowId());
     }
     
     @Override
     public List getSeatsByShowId(Long showId) {
-        Show show = showRepository.findById(showId)
-            .orElseThrow(() -> new ResourceNotFoundException("Show not found"));
-
-        List<Seat> seats = seatRepository.findByShowShowId(showId);
-
-        return seats.stream()
+        // served from the in memory seat bitmap - no db access once the show is loaded
+        return seatInventory.get(showId).allSeats().stream()
                 .map(seat -> new SeatAvailableRespDto(
-                        seat.getId(),
-                        seat.getSeatNo(),
-                        seat.isBooked(),
-                        seat.getPrice()))
+                        seat.id(),
+                        seat.seatNo(),
+                        seat.booked(),
+                        seat.price()))
                 .toList();
     }
     
     @Override
     public List getAvailableSeatsByShowId(Long showId) {
-        // Optional: Validate show exists
-        showRepository.findById(showId)
-            .orElseThrow(() -> new ResourceNotFoundException("Show not found"));
-
-        List<Seat> availableSeats = seatRepository.findByShowShowIdAndIsBookedFalse(showId);
-
-        return availableSeats.stream()
+        // seats held by someone who is still paying are not offered
+        return seatInventory.get(showId).availableSeats().stream()
+                .filter(seat -> !seatHoldService.isHeld(showId, seat.seatNo()))
                 .map(seat -> new SeatUserRespDto(
-                        seat.getId(),
-                        seat.getSeatNo(),
-                        seat.isBooked(),
-                        seat.getPrice()))
+                        seat.id(),
+                        seat.seatNo(),
+                        seat.booked(),
+                        seat.price()))
+                .toList();
+    }
+    
+    @Override
+    public List<SeatUserRespDto> getSeatMap(Long showId) {
+        return seatInventory.get(showId).allSeats().stream()
+                .map(seat -> new SeatUserRespDto(
+                        seat.id(),
+                        seat.seatNo(),
+                        seat.booked() || seatHoldService.isHeld(showId, seat.seatNo()),
+                        seat.price()))
                 .toList();
     }
-
-
 
 }
@@ -0,0 +1,314 @@
+package com.cdac.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.DtoMapper;
+import com.cdac.dto.ShowRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * In memory showtime calendar behind the date / start time show searches - the
+ * frontend asks for the same few days over and over , each one a range select on
+ * shows joined to movies and theaters.
+ * Shows are bucketed by the day they start on ; a day holds its shows sorted by start
+ * time , split by theater and by city , so "what is playing on date X (in city Y)" is
+ * a map lookup and a start time interval is a binary search per day. Days are
+ * immutable and rebuilt when one of their shows changes.
+ * Loaded from the db at startup , then kept current by the show writes (after commit)
+ * and by movie / theater renames.
+ */
+@Component
+public class ShowCalendar {
+
+	private record Slot(ShowRespDto show, long movieId, long theaterId) {
+
+		LocalDate day() {
+			return show.getStartTime().toLocalDate();
+		}
+	}
+
+	private static final Comparator<Slot> BY_START = Comparator.comparing((Slot s) -> s.show().getStartTime())
+			.thenComparing(s -> s.show().getShowId());
+
+	private record Day(List<Slot> slots, List<ShowRespDto> shows, Map<Long, List<ShowRespDto>> byTheater,
+			Map<String, List<ShowRespDto>> byCity) {
+
+		static Day of(List<Slot> slots) {
+			List<Slot> sorted = new ArrayList<>(slots);
+			sorted.sort(BY_START);
+			return new Day(List.copyOf(sorted), sorted.stream().map(Slot::show).toList(),
+					sorted.stream().collect(Collectors.groupingBy(Slot::theaterId,
+							Collectors.mapping(Slot::show, Collectors.toUnmodifiableList()))),
+					sorted.stream().filter(s -> s.show().getTheaterLocation() != null)
+							.collect(Collectors.groupingBy(s -> fold(s.show().getTheaterLocation()),
+									Collectors.mapping(Slot::show, Collectors.toUnmodifiableList()))));
+		}
+
+		// index of the first show starting at or after the given time
+		int firstFrom(LocalDateTime from) {
+			int lo = 0, hi = slots.size();
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (slots.get(mid).show().getStartTime().isBefore(from)) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+	}
+
+	private final ShowRepository showRepo;
+	private final DtoMapper dtoMapper;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Timer queryTimer;
+
+	// guarded by lock
+	private final TreeMap<LocalDate, Day> days = new TreeMap<>();
+	private final Map<Long, Slot> slotOf = new HashMap<>();
+	private boolean loaded;
+
+	public ShowCalendar(ShowRepository showRepo, DtoMapper dtoMapper, MeterRegistry registry) {
+		this.showRepo = showRepo;
+		this.dtoMapper = dtoMapper;
+		this.queryTimer = Timer.builder("show.calendar.query").register(registry);
+		Gauge.builder("show.calendar.shows", this, ShowCalendar::size).register(registry);
+		Gauge.builder("show.calendar.days", this, ShowCalendar::dayCount).register(registry);
+	}
+
+	/*
+	 * Shows starting on the given day , by start time. theaterId / city (case
+	 * insensitive) narrow it to one theater / the theaters of one city , null = any.
+	 */
+	public List<ShowRespDto> onDate(LocalDate date, Long theaterId, String city) {
+		ensureLoaded();
+		return queryTimer.record(() -> {
+			Day day;
+			lock.readLock().lock();
+			try {
+				day = days.get(date);
+			} finally {
+				lock.readLock().unlock();
+			}
+			if (day == null) {
+				return List.<ShowRespDto>of();
+			}
+			List<ShowRespDto> shows = theaterId != null ? day.byTheater().getOrDefault(theaterId, List.of())
+					: city != null ? day.byCity().getOrDefault(fold(city), List.of())
+					: day.shows();
+			if (theaterId != null && city != null) {
+				String folded = fold(city);
+				shows = shows.stream()
+						.filter(s -> s.getTheaterLocation() != null && fold(s.getTheaterLocation()).equals(folded))
+						.toList();
+			}
+			return shows;
+		});
+	}
+
+	// shows starting in [from , to] , by start time
+	public List<ShowRespDto> startingBetween(LocalDateTime from, LocalDateTime to) {
+		ensureLoaded();
+		return queryTimer.record(() -> {
+			List<ShowRespDto> shows = new ArrayList<>();
+			if (to.isBefore(from)) {
+				return shows;
+			}
+			lock.readLock().lock();
+			try {
+				for (Day day : days.subMap(from.toLocalDate(), true, to.toLocalDate(), true).values()) {
+					for (int i = day.firstFrom(from); i < day.slots().size(); i++) {
+						ShowRespDto show = day.slots().get(i).show();
+						if (show.getStartTime().isAfter(to)) {
+							break;
+						}
+						shows.add(show);
+					}
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+			return shows;
+		});
+	}
+
+	// added or updated show
+	public void put(Show show) {
+		putAll(List.of(show));
+	}
+
+	// added / updated shows - each touched day is rebuilt once
+	public void putAll(List<Show> shows) {
+		List<Slot> added = shows.stream().map(show -> new Slot(dtoMapper.toShowResp(show),
+				show.getMovie().getMovieId(), show.getTheater().getTheaterId())).toList();
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				if (loaded) {
+					added.forEach(slot -> removeSlot(slot.show().getShowId()));
+					Map<LocalDate, List<Slot>> byDay = new HashMap<>();
+					for (Slot slot : added) {
+						slotOf.put(slot.show().getShowId(), slot);
+						byDay.computeIfAbsent(slot.day(), d -> new ArrayList<>(slotsOn(d))).add(slot);
+					}
+					byDay.forEach(this::rebuild);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	public void remove(Long showId) {
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				if (loaded) {
+					removeSlot(showId);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	// the listed movie title of its shows
+	public void movieChanged(Movie movie) {
+		long movieId = movie.getMovieId();
+		String title = movie.getTitle();
+		rewrite(s -> s.movieId() == movieId, s -> new Slot(new ShowRespDto(s.show().getShowId(), title,
+				s.show().getTheaterName(), s.show().getTheaterLocation(), s.show().getStartTime(),
+				s.show().getEndTime(), s.show().getPricePerSeat()), s.movieId(), s.theaterId()));
+	}
+
+	// the listed theater name / city of its shows
+	public void theaterChanged(Theater theater) {
+		long theaterId = theater.getTheaterId();
+		String name = theater.getName(), location = theater.getLocation();
+		rewrite(s -> s.theaterId() == theaterId, s -> new Slot(new ShowRespDto(s.show().getShowId(),
+				s.show().getMovieTitle(), name, location, s.show().getStartTime(), s.show().getEndTime(),
+				s.show().getPricePerSeat()), s.movieId(), s.theaterId()));
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotOf.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int dayCount() {
+		lock.readLock().lock();
+		try {
+			return days.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// built at startup , so the first search does not pay for it
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureLoaded() {
+		lock.readLock().lock();
+		try {
+			if (loaded) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		// the write lock is held across the read , so a write committing meanwhile is applied after it
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				Map<LocalDate, List<Slot>> byDay = new HashMap<>();
+				for (Show show : showRepo.findAllWithMovieAndTheater()) {
+					Slot slot = new Slot(dtoMapper.toShowResp(show), show.getMovie().getMovieId(),
+							show.getTheater().getTheaterId());
+					slotOf.put(show.getShowId(), slot);
+					byDay.computeIfAbsent(slot.day(), d -> new ArrayList<>()).add(slot);
+				}
+				byDay.forEach(this::rebuild);
+				loaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void rewrite(Predicate<Slot> affected, UnaryOperator<Slot> change) {
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				if (!loaded) {
+					return;
+				}
+				Set<LocalDate> changedDays = new HashSet<>();
+				for (Slot slot : slotOf.values()) {
+					if (affected.test(slot)) {
+						changedDays.add(slot.day());
+					}
+				}
+				changedDays.forEach(day -> {
+					List<Slot> slots = slotsOn(day).stream().map(s -> affected.test(s) ? change.apply(s) : s).toList();
+					slots.forEach(s -> slotOf.put(s.show().getShowId(), s));
+					rebuild(day, slots);
+				});
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	private void removeSlot(Long showId) {
+		Slot old = slotOf.remove(showId);
+		if (old != null) {
+			rebuild(old.day(), slotsOn(old.day()).stream().filter(s -> !s.show().getShowId().equals(showId)).toList());
+		}
+	}
+
+	private List<Slot> slotsOn(LocalDate date) {
+		Day day = days.get(date);
+		return day == null ? List.of() : day.slots();
+	}
+
+	private void rebuild(LocalDate date, List<Slot> slots) {
+		if (slots.isEmpty()) {
+			days.remove(date);
+		} else {
+			days.put(date, Day.of(slots));
+		}
+	}
+
+	private static String fold(String value) {
+		return value.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,359 @@
+package com.cdac.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cdac.dto.ScheduleConflictDto;
+import com.cdac.dto.ScheduleValidationRespDto;
+import com.cdac.dto.ShowReqDto;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Screen time of every theater , one interval tree per theater - a show may not start
+ * before the previous one (plus the cleaning buffer) has ended. A check is one tree
+ * search , O(log n) , instead of an overlap query per insert.
+ * A show creation / update claims its slot inside its transaction (so two admins can
+ * not both take the same screen time) and the claim is undone if the transaction rolls
+ * back ; deletes free the slot after commit. Loaded from the db at startup.
+ */
+@Component
+public class ShowSchedule {
+
+	private static final long NONE = Long.MIN_VALUE;
+
+	private record Slot(long theaterId, long start, long end) {
+	}
+
+	/*
+	 * Treap ordered by (start , id) , every node also holding the latest end in its
+	 * subtree , so a search skips each subtree ending before the probe starts.
+	 */
+	static final class IntervalTree {
+
+		private static final class Node {
+			final long start, end, id;
+			final int priority = ThreadLocalRandom.current().nextInt();
+			long maxEnd;
+			Node left, right;
+
+			Node(long start, long end, long id) {
+				this.start = start;
+				this.end = end;
+				this.id = id;
+				this.maxEnd = end;
+			}
+		}
+
+		private Node root;
+		private int size;
+
+		void insert(long start, long end, long id) {
+			root = insert(root, new Node(start, end, id));
+			size++;
+		}
+
+		void remove(long start, long id) {
+			root = remove(root, start, id);
+		}
+
+		int size() {
+			return size;
+		}
+
+		// id of an interval overlapping [from , to) other than ignoreId , NONE if there is none
+		long overlapping(long from, long to, long ignoreId) {
+			return find(root, from, to, ignoreId);
+		}
+
+		private static long find(Node t, long from, long to, long ignoreId) {
+			if (t == null || t.maxEnd <= from) {
+				return NONE;
+			}
+			long hit = find(t.left, from, to, ignoreId);
+			if (hit != NONE) {
+				return hit;
+			}
+			// this node and the whole right subtree start too late
+			if (t.start >= to) {
+				return NONE;
+			}
+			if (t.end > from && t.id != ignoreId) {
+				return t.id;
+			}
+			return find(t.right, from, to, ignoreId);
+		}
+
+		private static Node insert(Node t, Node n) {
+			if (t == null) {
+				return n;
+			}
+			if (compare(n.start, n.id, t) < 0) {
+				t.left = insert(t.left, n);
+				if (t.left.priority > t.priority) {
+					return rotateRight(t);
+				}
+			} else {
+				t.right = insert(t.right, n);
+				if (t.right.priority > t.priority) {
+					return rotateLeft(t);
+				}
+			}
+			return update(t);
+		}
+
+		private Node remove(Node t, long start, long id) {
+			if (t == null) {
+				return null;
+			}
+			int c = compare(start, id, t);
+			if (c == 0) {
+				size--;
+				return merge(t.left, t.right);
+			}
+			if (c < 0) {
+				t.left = remove(t.left, start, id);
+			} else {
+				t.right = remove(t.right, start, id);
+			}
+			return update(t);
+		}
+
+		// every key of a is below every key of b
+		private static Node merge(Node a, Node b) {
+			if (a == null || b == null) {
+				return a == null ? b : a;
+			}
+			if (a.priority > b.priority) {
+				a.right = merge(a.right, b);
+				return update(a);
+			}
+			b.left = merge(a, b.left);
+			return update(b);
+		}
+
+		private static Node rotateRight(Node t) {
+			Node l = t.left;
+			t.left = l.right;
+			l.right = update(t);
+			return update(l);
+		}
+
+		private static Node rotateLeft(Node t) {
+			Node r = t.right;
+			t.right = r.left;
+			r.left = update(t);
+			return update(r);
+		}
+
+		private static Node update(Node t) {
+			t.maxEnd = t.end;
+			if (t.left != null && t.left.maxEnd > t.maxEnd) {
+				t.maxEnd = t.left.maxEnd;
+			}
+			if (t.right != null && t.right.maxEnd > t.maxEnd) {
+				t.maxEnd = t.right.maxEnd;
+			}
+			return t;
+		}
+
+		private static int compare(long start, long id, Node t) {
+			return start != t.start ? Long.compare(start, t.start) : Long.compare(id, t.id);
+		}
+	}
+
+	private final ShowRepository showRepo;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Timer checkTimer;
+	private final Counter conflicts;
+
+	// guarded by lock
+	private final Map<Long, IntervalTree> trees = new HashMap<>();
+	private final Map<Long, Slot> slotOf = new HashMap<>();
+	private boolean loaded;
+
+	@Value("${show.schedule.cleaning-buffer-minutes:15}")
+	private int bufferMinutes;
+
+	public ShowSchedule(ShowRepository showRepo, MeterRegistry registry) {
+		this.showRepo = showRepo;
+		this.checkTimer = Timer.builder("show.schedule.check").register(registry);
+		this.conflicts = Counter.builder("show.schedule.conflicts").register(registry);
+		Gauge.builder("show.schedule.shows", this, ShowSchedule::size).register(registry);
+	}
+
+	/*
+	 * Takes the screen time of a new / updated show , or throws if it overlaps another
+	 * show of the theater. Call inside the transaction saving the show - the claim is
+	 * undone if that transaction does not commit.
+	 */
+	public void claim(Long showId, Long theaterId, LocalDateTime start, LocalDateTime end) {
+		if (!end.isAfter(start)) {
+			throw new IllegalArgumentException("End time must be after start time");
+		}
+		ensureLoaded();
+		Slot slot = new Slot(theaterId, seconds(start), seconds(end));
+		Slot previous;
+		lock.writeLock().lock();
+		try {
+			long hit = check(trees.get(theaterId), slot, showId);
+			if (hit != NONE) {
+				conflicts.increment();
+				throw new IllegalArgumentException("Show time " + start + " - " + end + " overlaps show " + hit
+						+ " in theater " + theaterId + " (shows need " + bufferMinutes + " min between them)");
+			}
+			previous = slotOf.get(showId);
+			unindex(showId);
+			index(showId, slot);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		TransactionHooks.afterRollback(() -> {
+			lock.writeLock().lock();
+			try {
+				if (slotOf.get(showId) == slot) {
+					unindex(showId);
+					if (previous != null) {
+						index(showId, previous);
+					}
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	// deleted show
+	public void release(Long showId) {
+		TransactionHooks.afterCommit(() -> {
+			lock.writeLock().lock();
+			try {
+				unindex(showId);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		});
+	}
+
+	/*
+	 * Checks a proposed schedule (a week of new shows , say) without saving anything -
+	 * every show against the existing ones and against the shows before it in the list.
+	 * Reports the first conflict of each show.
+	 */
+	public ScheduleValidationRespDto validate(List<ShowReqDto> shows) {
+		ensureLoaded();
+		List<ScheduleConflictDto> found = new ArrayList<>();
+		Map<Long, IntervalTree> proposed = new HashMap<>();
+		lock.readLock().lock();
+		try {
+			for (int i = 0; i < shows.size(); i++) {
+				ShowReqDto dto = shows.get(i);
+				if (dto.getTheaterId() == null || dto.getStartTime() == null || dto.getEndTime() == null) {
+					found.add(conflict(i, dto, null, null, "theaterId, startTime and endTime are required"));
+					continue;
+				}
+				if (!dto.getEndTime().isAfter(dto.getStartTime())) {
+					found.add(conflict(i, dto, null, null, "End time must be after start time"));
+					continue;
+				}
+				Slot slot = new Slot(dto.getTheaterId(), seconds(dto.getStartTime()), seconds(dto.getEndTime()));
+				IntervalTree batch = proposed.computeIfAbsent(dto.getTheaterId(), t -> new IntervalTree());
+				long existing = check(trees.get(dto.getTheaterId()), slot, NONE);
+				long earlier = existing == NONE ? check(batch, slot, NONE) : NONE;
+				if (existing != NONE) {
+					found.add(conflict(i, dto, existing, null, "Overlaps an existing show"));
+				} else if (earlier != NONE) {
+					found.add(conflict(i, dto, null, (int) earlier, "Overlaps another show of this schedule"));
+				}
+				batch.insert(slot.start(), slot.end(), i);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return new ScheduleValidationRespDto(found.isEmpty(), shows.size(), bufferMinutes, found);
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotOf.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// built at startup , so the first check does not pay for it
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureLoaded() {
+		lock.readLock().lock();
+		try {
+			if (loaded) {
+				return;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		lock.writeLock().lock();
+		try {
+			if (!loaded) {
+				for (Object[] row : showRepo.findScheduleSlots()) {
+					index((Long) row[0], new Slot((Long) row[1], seconds((LocalDateTime) row[2]),
+							seconds((LocalDateTime) row[3])));
+				}
+				loaded = true;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// a show overlapping the slot widened by the cleaning buffer on both sides
+	private long check(IntervalTree tree, Slot slot, long ignoreId) {
+		if (tree == null) {
+			return NONE;
+		}
+		long buffer = bufferMinutes * 60L;
+		return checkTimer.record(() -> tree.overlapping(slot.start() - buffer, slot.end() + buffer, ignoreId));
+	}
+
+	private void index(long showId, Slot slot) {
+		slotOf.put(showId, slot);
+		trees.computeIfAbsent(slot.theaterId(), t -> new IntervalTree()).insert(slot.start(), slot.end(), showId);
+	}
+
+	private void unindex(long showId) {
+		Slot slot = slotOf.remove(showId);
+		if (slot != null) {
+			IntervalTree tree = trees.get(slot.theaterId());
+			tree.remove(slot.start(), showId);
+			if (tree.size() == 0) {
+				trees.remove(slot.theaterId());
+			}
+		}
+	}
+
+	private static ScheduleConflictDto conflict(int index, ShowReqDto dto, Long showId, Integer otherIndex,
+			String reason) {
+		return new ScheduleConflictDto(index, dto.getTheaterId(), dto.getStartTime(), dto.getEndTime(), showId,
+				otherIndex, reason);
+	}
+
+	private static long seconds(LocalDateTime time) {
+		return time.toEpochSecond(ZoneOffset.UTC);
+	}
+}
@@ -0,0 +1,135 @@
+package com.cdac.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.cdac.entities.Seat;
+
+/*
+ * Compact seat state of one show : one bit per seat (set = booked) plus
+ * a seatNo -> index table. Seat ids, numbers and prices are held in plain arrays
+ * so a 400 seat auditorium costs a few KB instead of 400 hydrated entities.
+ */
+public class ShowSeatMap {
+
+	public record SeatView(Long id, String seatNo, boolean booked, Double price) {
+	}
+
+	private final long showId;
+	private final long[] ids;
+	private final String[] seatNos;
+	private final double[] prices;
+	private final Map<String, Integer> index;
+	private final BitSet booked;
+	// last read through SeatInventory.get , idle maps are dropped by the inventory sweep
+	private volatile long lastAccess = System.currentTimeMillis();
+
+	public ShowSeatMap(long showId, List<Seat> seats) {
+		this.showId = showId;
+		int n = seats.size();
+		this.ids = new long[n];
+		this.seatNos = new String[n];
+		this.prices = new double[n];
+		this.index = new HashMap<>(Math.max(16, n * 2));
+		this.booked = new BitSet(n);
+		for (int i = 0; i < n; i++) {
+			Seat seat = seats.get(i);
+			ids[i] = seat.getId();
+			seatNos[i] = seat.getSeatNo();
+			prices[i] = seat.getPrice() == null ? Double.NaN : seat.getPrice();
+			index.put(seat.getSeatNo(), i);
+			if (seat.isBooked()) {
+				booked.set(i);
+			}
+		}
+	}
+
+	public long getShowId() {
+		return showId;
+	}
+
+	public long getLastAccess() {
+		return lastAccess;
+	}
+
+	void touch() {
+		lastAccess = System.currentTimeMillis();
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public synchronized int availableCount() {
+		return ids.length - booked.cardinality();
+	}
+
+	// all seats of the show, in load order
+	public synchronized List<SeatView> allSeats() {
+		List<SeatView> views = new ArrayList<>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			views.add(view(i));
+		}
+		return views;
+	}
+
+	// only seats whose bit is clear
+	public synchronized List<SeatView> availableSeats() {
+		List<SeatView> views = new ArrayList<>(availableCount());
+		for (int i = booked.nextClearBit(0); i < ids.length; i = booked.nextClearBit(i + 1)) {
+			views.add(view(i));
+		}
+		return views;
+	}
+
+	public synchronized boolean isBooked(String seatNo) {
+		Integer i = index.get(seatNo);
+		return i != null && booked.get(i);
+	}
+
+	public boolean contains(String seatNo) {
+		return index.containsKey(seatNo);
+	}
+
+	// sets the bits of the given seats, unknown seat numbers are ignored
+	public synchronized void markBooked(Collection<String> nos) {
+		for (String no : nos) {
+			Integer i = index.get(no);
+			if (i != null) {
+				booked.set(i);
+			}
+		}
+	}
+
+	// clears the bits of the given seats, unknown seat numbers are ignored
+	public synchronized void markReleased(Collection<String> nos) {
+		for (String no : nos) {
+			Integer i = index.get(no);
+			if (i != null) {
+				booked.clear(i);
+			}
+		}
+	}
+
+	/*
+	 * Rough retained heap size : arrays + strings + index entries + bitmap.
+	 * Good enough for sizing the heap, not an exact object graph walk.
+	 */
+	public long estimatedBytes() {
+		long bytes = 16L * 4 + 8L * ids.length + 8L * prices.length + 4L * seatNos.length;
+		for (String no : seatNos) {
+			bytes += 40 + 2L * no.length();
+		}
+		bytes += 48L * index.size() + 4L * Math.max(16, ids.length * 2);
+		bytes += 16 + booked.size() / 8;
+		return bytes;
+	}
+
+	private SeatView view(int i) {
+		return new SeatView(ids[i], seatNos[i], booked.get(i), Double.isNaN(prices[i]) ? null : prices[i]);
+	}
+}
@@ -5,8 +5,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
+import com.cdac.dto.ScheduleValidationRespDto;
 import com.cdac.dto.ShowReqDto;
 import com.cdac.dto.ShowRespDto;
+import com.cdac.dto.ShowScheduleReqDto;
+import com.cdac.dto.ShowScheduleRespDto;
 
 public interface ShowService {
     ShowRespDto addShow(ShowReqDto dto); // add show by admin 
@@ -15,6 +18,10 @@ public interface ShowService {
     
     String deleteShow(Long showId); // delete show by admin 
     
+    ShowScheduleRespDto scheduleShows(ShowScheduleReqDto dto); // create recurring shows in bulk by admin
+    
+    ScheduleValidationRespDto validateSchedule(List<ShowReqDto> shows); // check a proposed schedule for overlaps by admin
+    
     List<ShowRespDto> getAllShows(); // get all  show by admin 
     
     ShowRespDto getShowById(Long showId); // get show by id by admin 
@@ -29,7 +36,7 @@ public interface ShowService {
      
     List<ShowRespDto> getShowsByTheaterName(String theaterName); // get show by theater name by user
     
-    List<ShowRespDto> searchShowsByDate(LocalDate date); //get show by date
+    List<ShowRespDto> searchShowsByDate(LocalDate date, Long theaterId, String location); //get show by date , optionally in one theater / city
     
     List<ShowRespDto> searchShowsByStartTime(LocalDateTime datetime); //get show by start time
 
@@ -1,34 +1,55 @@
 package com.cdac.service;
 
 import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.ScheduleConflictDto;
+import com.cdac.dto.ScheduleValidationRespDto;
 import com.cdac.dto.ShowReqDto;
 import com.cdac.dto.ShowRespDto;
+import com.cdac.dto.ShowScheduleReqDto;
+import com.cdac.dto.ShowScheduleRespDto;
 import com.cdac.entities.Movie;
 import com.cdac.entities.Show;
 import com.cdac.entities.Theater;
 import com.cdac.repository.MovieRepository;
 import com.cdac.repository.ShowRepository;
 import com.cdac.repository.TheaterRepository;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ShowServiceImpl implements ShowService {
 
+    // shows persisted between flush + clear in a bulk schedule , keeps the persistence context small
+    private static final int FLUSH_EVERY = 500;
+    private static final int MAX_SCHEDULED_SHOWS = 20000;
+
     private final ShowRepository showRepo;
     private final MovieRepository movieRepo;
     private final TheaterRepository theaterRepo;
-    private final ModelMapper mapper;
+    private final DtoMapper dtoMapper;
+    private final ShowCalendar calendar;
+    private final ShowSchedule schedule;
+    private final SeatLayoutService seatLayoutService;
+    private final SeatInventory seatInventory;
+    private final BookingSummaryService summaryService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
@@ -48,13 +69,10 @@ public class ShowServiceImpl implements ShowService {
         show.setTitle(dto.getTitle()); 
 
         Show saved = showRepo.save(show);
+        schedule.claim(saved.getShowId(), theater.getTheaterId(), saved.getStartTime(), saved.getEndTime());
+        calendar.put(saved);
 
-        ShowRespDto resp = mapper.map(saved, ShowRespDto.class);
-        resp.setMovieTitle(saved.getMovie().getTitle());
-        resp.setTheaterName(saved.getTheater().getName());
-        resp.setTheaterLocation(saved.getTheater().getLocation());
-
-        return resp;
+        return dtoMapper.toShowResp(saved);
     }
     
     @Override
@@ -77,13 +95,11 @@ public class ShowServiceImpl implements ShowService {
         show.setTitle(movie.getTitle() + " - " + show.getStartTime().toLocalTime());
 
         Show updated = showRepo.save(show);
+        schedule.claim(showId, theater.getTheaterId(), updated.getStartTime(), updated.getEndTime());
+        calendar.put(updated);
+        summaryService.showChanged(updated);
 
-        ShowRespDto resp = mapper.map(updated, ShowRespDto.class);
-        resp.setMovieTitle(movie.getTitle());
-        resp.setTheaterName(theater.getName());
-        resp.setTheaterLocation(theater.getLocation());
-
-        return resp;
+        return dtoMapper.toShowResp(updated);
     }
     
     @Override
@@ -93,133 +109,156 @@ public class ShowServiceImpl implements ShowService {
             throw new RuntimeException("Show not found with ID: " + showId);
         }
         showRepo.deleteById(showId);
+        calendar.remove(showId);
+        schedule.release(showId);
+        seatInventory.evict(showId);
         return "Show deleted successfully";
     }
     
+    /*
+     * Recurring shows in one transaction - movie and theaters looked up once , the whole
+     * set checked for overlaps up front , shows inserted in jdbc batches (pooled table
+     * ids) and optionally their seats from each theater's layout. All or nothing.
+     */
+    @Override
+    @Transactional
+    public ShowScheduleRespDto scheduleShows(ShowScheduleReqDto dto) {
+        long start = System.nanoTime();
+        if (dto.getToDate().isBefore(dto.getFromDate())) {
+            throw new IllegalArgumentException("To date must not be before from date");
+        }
+        Movie movie = movieRepo.findById(dto.getMovieId())
+                .orElseThrow(() -> new RuntimeException("Movie not found"));
+        Map<Long, Theater> theaters = theaterRepo.findAllById(dto.getTheaterIds()).stream()
+                .collect(Collectors.toMap(Theater::getTheaterId, Function.identity()));
+        for (Long theaterId : dto.getTheaterIds()) {
+            if (!theaters.containsKey(theaterId)) {
+                throw new RuntimeException("Theater not found with ID: " + theaterId);
+            }
+        }
+
+        // every theater x matching day x slot
+        List<ShowReqDto> proposed = new ArrayList<>();
+        List<Theater> theaterOf = new ArrayList<>();
+        for (LocalDate day = dto.getFromDate(); !day.isAfter(dto.getToDate()); day = day.plusDays(1)) {
+            if (dto.getDaysOfWeek() != null && !dto.getDaysOfWeek().isEmpty()
+                    && !dto.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+            for (Long theaterId : dto.getTheaterIds().stream().distinct().toList()) {
+                for (LocalTime time : dto.getStartTimes()) {
+                    LocalDateTime startTime = day.atTime(time);
+                    proposed.add(new ShowReqDto(movie.getMovieId(), theaterId, dto.getTitle(), startTime,
+                            startTime.plusMinutes(dto.getDurationMinutes()), dto.getPricePerSeat()));
+                    theaterOf.add(theaters.get(theaterId));
+                }
+            }
+            if (proposed.size() > MAX_SCHEDULED_SHOWS) {
+                throw new IllegalArgumentException("A schedule may create at most " + MAX_SCHEDULED_SHOWS + " shows");
+            }
+        }
+        if (proposed.isEmpty()) {
+            throw new IllegalArgumentException("The schedule matches no show times");
+        }
+
+        ScheduleValidationRespDto check = schedule.validate(proposed);
+        if (!check.isValid()) {
+            ScheduleConflictDto first = check.getConflicts().get(0);
+            throw new IllegalArgumentException(check.getConflicts().size() + " of " + proposed.size()
+                    + " shows conflict , first : theater " + first.getTheaterId() + " at " + first.getStartTime()
+                    + " - " + first.getReason() + " (see /api/admin/shows/schedule/validate)");
+        }
+
+        List<Show> created = new ArrayList<>(proposed.size());
+        for (int i = 0; i < proposed.size(); i++) {
+            ShowReqDto p = proposed.get(i);
+            Show show = new Show();
+            show.setMovie(movie);
+            show.setTheater(theaterOf.get(i));
+            show.setStartTime(p.getStartTime());
+            show.setEndTime(p.getEndTime());
+            show.setPricePerSeat(p.getPricePerSeat());
+            show.setTitle(p.getTitle() != null ? p.getTitle() : movie.getTitle() + " - " + p.getStartTime().toLocalTime());
+            entityManager.persist(show);
+            schedule.claim(show.getShowId(), p.getTheaterId(), p.getStartTime(), p.getEndTime());
+            created.add(show);
+            if (created.size() % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        long seats = dto.isGenerateSeats() ? seatLayoutService.generateSeatsForNewShows(created) : 0;
+        calendar.putAll(created);
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        return new ShowScheduleRespDto(created.size(), seats, elapsedMillis,
+                created.stream().map(Show::getShowId).toList());
+    }
+
+    @Override
+    public ScheduleValidationRespDto validateSchedule(List<ShowReqDto> shows) {
+        return schedule.validate(shows);
+    }
+    
+    // read paths below run one projection query each (ShowRepository.SHOW_VIEW) - no entities , no mapping
+
     @Override
     @Transactional(readOnly = true)
     public List<ShowRespDto> getAllShows() {
-        List<Show> shows = showRepo.findAll();
-        return shows.stream().map(show -> {
-            ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-            dto.setMovieTitle(show.getMovie().getTitle());
-            dto.setTheaterName(show.getTheater().getName());
-            dto.setTheaterLocation(show.getTheater().getLocation());
-            return dto;
-        }).collect(Collectors.toList());
+        return showRepo.findAllViews();
     }
     
     @Override
     @Transactional(readOnly = true)
     public ShowRespDto getShowById(Long showId) {
-        Show show = showRepo.findById(showId)
+        return showRepo.findViewById(showId)
                 .orElseThrow(() -> new RuntimeException("Show not found"));
-
-        ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-        dto.setMovieTitle(show.getMovie().getTitle());
-        dto.setTheaterName(show.getTheater().getName());
-        dto.setTheaterLocation(show.getTheater().getLocation());
-        
-
-        return dto;
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<ShowRespDto> getShowsByTheater(Long theaterId) {
-        List<Show> shows = showRepo.findByTheaterTheaterId(theaterId);
-
-        return shows.stream().map(show -> {
-            ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-            dto.setMovieTitle(show.getMovie().getTitle());
-            dto.setTheaterName(show.getTheater().getName());
-            dto.setTheaterLocation(show.getTheater().getLocation());
-            return dto;
-        }).collect(Collectors.toList());
+        return showRepo.findViewsByTheaterId(theaterId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ShowRespDto> getShowsByMovie(Long movieId) {
-        List<Show> shows = showRepo.findByMovieMovieId(movieId);
-        
-        return shows.stream().map(show -> {
-            ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-            dto.setMovieTitle(show.getMovie().getTitle());
-            dto.setTheaterName(show.getTheater().getName());
-            return dto;
-        }).toList();
+        return showRepo.findViewsByMovieId(movieId);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public ShowRespDto getShowDetails(Long showId) {
-        Show show = showRepo.findById(showId)
+        return showRepo.findViewById(showId)
                 .orElseThrow(() -> new ResourceNotFoundException("Show not found with ID: " + showId));
-
-        ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-        dto.setMovieTitle(show.getMovie().getTitle());
-        dto.setTheaterName(show.getTheater().getName());
-        dto.setTheaterLocation(show.getTheater().getLocation());
-        return dto;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ShowRespDto> getShowsByMovieTitle(String title) {
-        List<Show> shows = showRepo.findByMovieTitleIgnoreCase(title);
-
-        return shows.stream()
-            .map(show -> {
-                ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-                dto.setMovieTitle(show.getMovie().getTitle());
-                dto.setTheaterName(show.getTheater().getName());
-                return dto;
-            }).collect(Collectors.toList());
+        return showRepo.findViewsByMovieTitle(title);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<ShowRespDto> getShowsByTheaterName(String theaterName) {
-        List<Show> shows = showRepo.findByTheaterNameIgnoreCase(theaterName);
-
-        return shows.stream()
-            .map(show -> {
-                ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-                dto.setMovieTitle(show.getMovie().getTitle());
-                dto.setTheaterName(show.getTheater().getName());
-                return dto;
-            })
-            .collect(Collectors.toList());
+        return showRepo.findViewsByTheaterName(theaterName);
     }
     
+    // date / start time searches are answered by the in memory calendar (ShowCalendar) - no query
+
     @Override
-    public List<ShowRespDto> searchShowsByDate(LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(LocalTime.MAX);
-
-        List<Show> shows = showRepo.findByStartTimeBetween(startOfDay, endOfDay);
-
-        return shows.stream()
-            .map(show -> {
-                ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-                dto.setMovieTitle(show.getMovie().getTitle());
-                dto.setTheaterName(show.getTheater().getName());
-                return dto;
-            })
-            .collect(Collectors.toList());
+    public List<ShowRespDto> searchShowsByDate(LocalDate date, Long theaterId, String location) {
+        return calendar.onDate(date, theaterId, location);
     }
 
     @Override
     public List<ShowRespDto> searchShowsByStartTime(LocalDateTime datetime) {
-        List<Show> shows = showRepo.findByStartTime(datetime);
-        return shows.stream()
-                .map(show -> {
-                    ShowRespDto dto = mapper.map(show, ShowRespDto.class);
-                    dto.setMovieTitle(show.getMovie().getTitle());
-                    dto.setTheaterName(show.getTheater().getName());
-                    dto.setTheaterLocation(show.getTheater().getLocation());
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return calendar.startingBetween(datetime, datetime);
     }
 
 }
-
@@ -1,11 +1,13 @@
 package com.cdac.service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import com.cdac.dto.DtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cdac.custom_exception.ResourceNotFoundException;
 import com.cdac.dto.TheaterReqDto;
@@ -20,25 +22,42 @@ public class TheaterServiceImpl implements TheaterService {
     private TheaterRepository theaterRepo;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private AutocompleteIndex autocomplete;
+
+    @Autowired
+    private ShowCalendar showCalendar;
+
+    @Autowired
+    private BookingSummaryService summaryService;
 
     @Override
     public TheaterRespDto addTheater(TheaterReqDto dto) {
-        Theater t = modelMapper.map(dto, Theater.class);
+        Theater t = dtoMapper.toTheater(dto);
         Theater saved = theaterRepo.save(t);
-        return modelMapper.map(saved, TheaterRespDto.class);
+        autocomplete.putTheater(saved);
+        return dtoMapper.toTheaterResp(saved);
     }
     
     @Override
+    @Transactional
     public String updateTheater(Long id, TheaterReqDto dto) {
         Theater theater = theaterRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Theater not found with ID: " + id));
+        String oldName = theater.getName();
 
         theater.setName(dto.getName());
         theater.setLocation(dto.getLocation());
         theater.setTotalSeats(dto.getTotalSeats());
 
         theaterRepo.save(theater);
+        if (!Objects.equals(oldName, theater.getName())) {
+            summaryService.theaterRenamed(theater);
+        }
+        autocomplete.putTheater(theater);
+        showCalendar.theaterChanged(theater);
         return "Theater updated successfully.";
     }
     
@@ -47,6 +66,7 @@ public class TheaterServiceImpl implements TheaterService {
         Theater t = theaterRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Theater not found with ID: " + id));
         theaterRepo.delete(t);
+        autocomplete.removeTheater(id);
         return "Theater deleted successfully.";
     }
     
@@ -54,7 +74,7 @@ public class TheaterServiceImpl implements TheaterService {
     public List<TheaterRespDto> getAllTheaters() {
         List<Theater> list = theaterRepo.findAll();
         return list.stream()
-                .map(t -> modelMapper.map(t, TheaterRespDto.class))
+                .map(dtoMapper::toTheaterResp)
                 .collect(Collectors.toList());
     }
     
@@ -62,14 +82,14 @@ public class TheaterServiceImpl implements TheaterService {
     public TheaterRespDto getTheaterById(Long id) {
         Theater t = theaterRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Theater not found with ID: " + id));
-        return modelMapper.map(t, TheaterRespDto.class);
+        return dtoMapper.toTheaterResp(t);
     }
     
     @Override
     public List<TheaterRespDto> getAllTheatersForUser() {
         List<Theater> theaters = theaterRepo.findAll();
         return theaters.stream()
-                .map(t -> modelMapper.map(t, TheaterRespDto.class))
+                .map(dtoMapper::toTheaterResp)
                 .collect(Collectors.toList());
     }
     
@@ -77,14 +97,14 @@ public class TheaterServiceImpl implements TheaterService {
     public TheaterRespDto getTheaterByIdForUser(Long id) {
         Theater theater = theaterRepo.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Theater not found with ID: " + id));
-        return modelMapper.map(theater, TheaterRespDto.class);
+        return dtoMapper.toTheaterResp(theater);
     }
     
     @Override
     public List<TheaterRespDto> getTheatersByLocation(String location) {
         List<Theater> list = theaterRepo.findByLocationIgnoreCase(location);
         return list.stream()
-                .map(t -> modelMapper.map(t, TheaterRespDto.class))
+                .map(dtoMapper::toTheaterResp)
                 .collect(Collectors.toList());
     }
     
@@ -92,7 +112,7 @@ public class TheaterServiceImpl implements TheaterService {
     public List<TheaterRespDto> getTheatersByName(String name) {
         List<Theater> theaters = theaterRepo.findByNameContainingIgnoreCase(name);
         return theaters.stream()
-                .map(t -> modelMapper.map(t, TheaterRespDto.class))
+                .map(dtoMapper::toTheaterResp)
                 .collect(Collectors.toList());
     }
 
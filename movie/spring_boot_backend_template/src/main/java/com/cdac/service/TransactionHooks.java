@@ -0,0 +1,44 @@
+package com.cdac.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*
+ * Post transaction hooks of the in memory read models (seat inventory , seat holds ,
+ * seat map stream , catalog cache , search / autocomplete indexes , show schedule and
+ * calendar , receipts) - their state only changes once the db write it mirrors is final.
+ */
+final class TransactionHooks {
+
+	private TransactionHooks() {
+	}
+
+	// runs the action once the current transaction commits , or right away without one
+	static void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	// runs the action if the current transaction does not commit ; nothing to undo without one
+	static void afterRollback(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					action.run();
+				}
+			}
+		});
+	}
+}
@@ -1,12 +1,19 @@
 package com.cdac.service;
 
 import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.custom_exception.TooManyRequestsException;
 import com.cdac.dto.*;
 import com.cdac.entities.*;
+import com.cdac.repository.TokenRevocationRepository;
 import com.cdac.repository.UserRepository;
 import com.cdac.security.JWTUtils;
+import com.cdac.security.PrincipalCache;
+import com.cdac.security.RevokedTokens;
+
+import java.time.LocalDateTime;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
@@ -32,6 +40,18 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RevokedTokens revokedTokens;
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private BookingSummaryService summaryService;
+
     public String register(RegisterRequestDto request) {
         User user = new User();
         user.setName(request.getName());
@@ -59,6 +79,9 @@ public class UserService {
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
     	    }
+    	    catch(TooManyRequestsException ex) {
+    	    	throw ex; // password checks are saturated - not a wrong password
+    	    }
     	    catch(Exception ex) {
     	    	 throw new RuntimeException("Invalid username or password");
     	    	
@@ -67,7 +90,7 @@ public class UserService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        String token = jwtUtil.generateToken(user.getEmail());
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
         return new AuthResponseDto(token, user.getRole().name());
     }
 
@@ -91,16 +114,37 @@ public class UserService {
 
    }
     
+    @Transactional
     public String updateUserProfile(Authentication auth, UpdateUserProfileRequestDTO dto) {
         User user = userRepository.findByEmail(auth.getName()).orElseThrow();
+        String oldEmail = user.getEmail();
+        String oldName = user.getName();
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
         user.setPhone(dto.getPhone());
+        boolean emailChanged = !oldEmail.equals(user.getEmail());
+        if (emailChanged) {
+            // tokens name the old email - it may be registered again. Persisted , so the
+            // revocation survives a restart (claims-auth never looks the user up)
+            LocalDateTime now = LocalDateTime.now();
+            user.setTokensRevokedAt(now);
+            revocationRepository.save(new TokenRevocation(oldEmail, now));
+        }
         userRepository.save(user);
+        if (!Objects.equals(oldName, user.getName())) {
+            summaryService.userRenamed(user);
+        }
+        // after commit - a principal reloaded before then would still be the old one
+        String newEmail = user.getEmail();
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(oldEmail, newEmail));
+        if (emailChanged) {
+            // a rolled back update (e.g. the new email is taken) leaves the sessions alone
+            TransactionHooks.afterCommit(() -> revokedTokens.revoke(oldEmail));
+        }
         return "Profile updated successfully";
     }
 
-   
+    @Transactional
     public String updatePassword(Authentication auth, UpdateUserPasswordRequestDTO dto) {
         User user = userRepository.findByEmail(auth.getName()).orElseThrow();
 
@@ -109,11 +153,17 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
+        user.setTokensRevokedAt(LocalDateTime.now());
         userRepository.save(user);
+        String userEmail = user.getEmail();
+        // after commit - a principal reloaded before then would still be the old one
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(userEmail));
+        // signs out every session once the new password is stored , a new login is needed
+        TransactionHooks.afterCommit(() -> revokedTokens.revoke(userEmail));
         return "Password updated successfully";
     }
     
-   
+    @Transactional
     public String deactivateUser(DeactivateUserRequestDto dto) {
         User user = userRepository.findByEmail(dto.getEmail())
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -123,11 +173,15 @@ public class UserService {
         }
 
         user.setStatus(Status.INACTIVE);
+        user.setTokensRevokedAt(LocalDateTime.now());
         userRepository.save(user);
+        String userEmail = user.getEmail();
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(userEmail));
+        TransactionHooks.afterCommit(() -> revokedTokens.revoke(userEmail));
         return "User account deactivated successfully.";
     }
     
-  
+    @Transactional
     public String deactivateOwnAccount(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
@@ -137,7 +191,11 @@ public class UserService {
         }
 
         user.setStatus(Status.INACTIVE);
+        user.setTokensRevokedAt(LocalDateTime.now());
         userRepository.save(user);
+        String userEmail = user.getEmail();
+        TransactionHooks.afterCommit(() -> principalCache.invalidate(userEmail));
+        TransactionHooks.afterCommit(() -> revokedTokens.revoke(userEmail));
 
         return "Your account has been deactivated successfully.";
     }
@@ -0,0 +1,212 @@
+package com.cdac.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cdac.dto.WaitingRoomStatusDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/*
+ * Virtual waiting room for on-sale spikes.
+ * Every show has a room that admits at most admits-per-second users into its booking
+ * flow ; a user arriving over that rate gets a numbered ticket and polls for it.
+ * A room is just two counters (tickets issued , tickets admitted so far) - admission
+ * moves the admitted counter forward once a second , so a position check is O(1)
+ * and touches no database. An admitted user gets a pass for the show that lasts
+ * pass-minutes. Rooms with nobody waiting are dropped.
+ * A ticket lives while its holder keeps polling - it is dropped only once it has not
+ * been polled for ticket-ttl-seconds , however long the queue in front of it is.
+ */
+@Service
+public class WaitingRoom {
+
+	private static class Room {
+		final AtomicLong issued = new AtomicLong();
+		final AtomicLong admittedUpTo;
+
+		Room(long burst) {
+			this.admittedUpTo = new AtomicLong(burst);
+		}
+
+		long waiting() {
+			return Math.max(0, issued.get() - admittedUpTo.get());
+		}
+	}
+
+	private static class Ticket {
+		final Room room;
+		final long number;
+		final long issuedAt;
+		volatile long lastPolled;
+
+		Ticket(Room room, long number, long issuedAt) {
+			this.room = room;
+			this.number = number;
+			this.issuedAt = issuedAt;
+			this.lastPolled = issuedAt;
+		}
+	}
+
+	private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+	// "showId:username" -> ticket / pass expiry
+	private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+	private final Map<String, Long> passes = new ConcurrentHashMap<>();
+	private final ExpiryWheel<String> wheel;
+	private final ScheduledExecutorService ticker;
+	private final Counter admitted;
+	private final Counter queued;
+	private final Timer waitTimer;
+
+	@Value("${booking.waiting-room.enabled:true}")
+	private boolean enabled;
+
+	@Value("${booking.waiting-room.admits-per-second:50}")
+	private long admitsPerSecond;
+
+	@Value("${booking.waiting-room.pass-minutes:15}")
+	private long passMinutes;
+
+	@Value("${booking.waiting-room.ticket-ttl-seconds:120}")
+	private long ticketTtlSeconds;
+
+	public WaitingRoom(MeterRegistry registry) {
+		this.wheel = new ExpiryWheel<>("waiting-room-wheel", 512, 1000, this::expire);
+		this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "waiting-room-ticker");
+			t.setDaemon(true);
+			return t;
+		});
+		this.admitted = Counter.builder("waiting.room.admitted").register(registry);
+		this.queued = Counter.builder("waiting.room.queued").register(registry);
+		this.waitTimer = Timer.builder("waiting.room.wait").register(registry);
+		Gauge.builder("waiting.room.queue.length", this, WaitingRoom::queueLength).register(registry);
+		Gauge.builder("waiting.room.rooms", rooms, Map::size).register(registry);
+		Gauge.builder("waiting.room.passes", passes, Map::size).register(registry);
+	}
+
+	@PostConstruct
+	void start() {
+		if (enabled) {
+			wheel.start();
+			ticker.scheduleAtFixedRate(this::admitNext, 1, 1, TimeUnit.SECONDS);
+		}
+	}
+
+	@PreDestroy
+	void stop() {
+		ticker.shutdownNow();
+		wheel.stop();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/*
+	 * Admission check of one request. Admits the user right away while the show is
+	 * under its rate , otherwise returns the user's place in the queue (the same
+	 * ticket on every poll).
+	 */
+	public WaitingRoomStatusDto enter(Long showId, String username) {
+		String key = key(showId, username);
+		long now = System.currentTimeMillis();
+		Long passExpiry = passes.get(key);
+		if (passExpiry != null && passExpiry > now) {
+			return new WaitingRoomStatusDto(showId, true, 0, 0);
+		}
+
+		Ticket ticket = tickets.get(key);
+		if (ticket == null) {
+			ticket = tickets.computeIfAbsent(key, k -> issue(showId, k, now));
+		} else {
+			ticket.lastPolled = now; // keeps the ticket alive , see expire
+		}
+		long position = ticket.number - ticket.room.admittedUpTo.get();
+		if (position <= 0) {
+			if (tickets.remove(key, ticket)) {
+				grantPass(key, now);
+				admitted.increment();
+				waitTimer.record(now - ticket.issuedAt, TimeUnit.MILLISECONDS);
+			}
+			return new WaitingRoomStatusDto(showId, true, 0, 0);
+		}
+		return new WaitingRoomStatusDto(showId, false, position, (position + admitsPerSecond - 1) / admitsPerSecond);
+	}
+
+	public long queueLength() {
+		return rooms.values().stream().mapToLong(Room::waiting).sum();
+	}
+
+	private Ticket issue(Long showId, String key, long now) {
+		Room[] room = new Room[1];
+		long[] number = new long[1];
+		// issuing inside compute keeps the idle room sweep from dropping a room mid issue
+		rooms.compute(showId, (id, r) -> {
+			room[0] = r != null ? r : new Room(admitsPerSecond);
+			number[0] = room[0].issued.incrementAndGet();
+			return room[0];
+		});
+		if (number[0] > room[0].admittedUpTo.get()) {
+			queued.increment();
+		}
+		// an abandoned ticket (no poll for ticket-ttl-seconds) is dropped
+		wheel.schedule(key, now + ticketTtlSeconds * 1000);
+		return new Ticket(room[0], number[0], now);
+	}
+
+	// moves every room forward by one second of admissions , never more than one second ahead of demand
+	void admitNext() {
+		for (Long showId : rooms.keySet()) {
+			rooms.computeIfPresent(showId, (id, room) -> {
+				long issued = room.issued.get();
+				long next = Math.min(room.admittedUpTo.get() + admitsPerSecond, issued + admitsPerSecond);
+				room.admittedUpTo.set(Math.max(room.admittedUpTo.get(), next));
+				return room.admittedUpTo.get() >= issued + admitsPerSecond ? null : room;
+			});
+		}
+	}
+
+	private void grantPass(String key, long now) {
+		long expiry = now + passMinutes * 60_000;
+		passes.put(key, expiry);
+		wheel.schedule(key, expiry);
+	}
+
+	/*
+	 * Passes and tickets share the key - a pass is dropped only if this entry is still
+	 * its current deadline. A ticket polled since this entry was scheduled is pushed
+	 * back to its last poll + ttl (one wheel entry per ticket , however often it polls).
+	 */
+	void expire(String key, Long deadline) {
+		Long expiry = passes.get(key);
+		if (expiry != null && expiry <= deadline) {
+			passes.remove(key, expiry);
+		}
+		Ticket ticket = tickets.get(key);
+		if (ticket != null) {
+			long idleUntil = ticket.lastPolled + ticketTtlSeconds * 1000;
+			if (idleUntil <= deadline) {
+				tickets.remove(key, ticket);
+			} else {
+				wheel.schedule(key, idleUntil);
+			}
+		}
+	}
+
+	private static String key(Long showId, String username) {
+		return showId + ":" + username;
+	}
+}
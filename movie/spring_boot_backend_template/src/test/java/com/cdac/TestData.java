@@ -0,0 +1,103 @@
+package com.cdac;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.ApplicationContext;
+
+import com.cdac.entities.Movie;
+import com.cdac.entities.Role;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.entities.Status;
+import com.cdac.entities.Theater;
+import com.cdac.entities.User;
+import com.cdac.repository.MovieRepository;
+import com.cdac.repository.SeatRepository;
+import com.cdac.repository.ShowRepository;
+import com.cdac.repository.TheaterRepository;
+import com.cdac.repository.UserRepository;
+
+/*
+ * Saved fixtures of the db backed tests - movies , theaters , shows with their seats and
+ * active users , each saved through its repository. Built over the test's context (or the
+ * one a load harness boots) ; names and emails are the caller's , so it keeps them unique.
+ */
+public final class TestData {
+
+	private final MovieRepository movieRepo;
+	private final TheaterRepository theaterRepo;
+	private final ShowRepository showRepo;
+	private final SeatRepository seatRepo;
+	private final UserRepository userRepo;
+
+	public TestData(ApplicationContext context) {
+		movieRepo = context.getBean(MovieRepository.class);
+		theaterRepo = context.getBean(TheaterRepository.class);
+		showRepo = context.getBean(ShowRepository.class);
+		seatRepo = context.getBean(SeatRepository.class);
+		userRepo = context.getBean(UserRepository.class);
+	}
+
+	// a movie titled title , a theater of seats seats and a show of it tomorrow with seats A1..An
+	public Show showWithSeats(String title, int seats) {
+		Show show = show(movie(title), theater("Hall " + title, seats), LocalDateTime.now().plusDays(1));
+		seats(show, seats);
+		return show;
+	}
+
+	public Movie movie(String title) {
+		return movieRepo.save(new Movie(null, title, LocalDate.now(), "UA", "English", "Drama", "2h"));
+	}
+
+	public Theater theater(String name, int capacity) {
+		return theater(name, "Pune", capacity);
+	}
+
+	public Theater theater(String name, String location, int capacity) {
+		return theaterRepo.save(new Theater(null, name, location, capacity));
+	}
+
+	// two hours long , 200 a seat , titled after the movie
+	public Show show(Movie movie, Theater theater, LocalDateTime start) {
+		Show s = new Show();
+		s.setMovie(movie);
+		s.setTheater(theater);
+		s.setStartTime(start);
+		s.setEndTime(start.plusHours(2));
+		s.setPricePerSeat(BigDecimal.valueOf(200));
+		s.setTitle(movie.getTitle());
+		return showRepo.save(s);
+	}
+
+	// seats A1..A<count> at 200 , in one saveAll
+	public List<Seat> seats(Show show, int count) {
+		List<Seat> seats = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			Seat seat = new Seat();
+			seat.setSeatNo("A" + i);
+			seat.setShow(show);
+			seat.setPrice(200.0);
+			seats.add(seat);
+		}
+		return seatRepo.saveAll(seats);
+	}
+
+	public User user(String email) {
+		return user(email, Role.USER);
+	}
+
+	public User user(String email, Role role) {
+		User u = new User();
+		u.setName("Test User");
+		u.setEmail(email);
+		u.setPassword("secret");
+		u.setPhone("9000000000");
+		u.setRole(role);
+		u.setStatus(Status.ACTIVE);
+		return userRepo.save(u);
+	}
+}
@@ -0,0 +1,123 @@
+package com.cdac.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.cdac.entities.Booking;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+
+/*
+ * Entity -> DTO mapping cost per object , the ModelMapper bean DtoMapper replaced
+ * (configured as it was : STRICT , nulls skipped) against DtoMapper.
+ *   movie*   - MovieRespDto , flat same named properties
+ *   show*    - ShowRespDto , ModelMapper plus the three setters the services patched it with
+ *   booking* - BookingRespDto
+ * Run : mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt , then
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" com.cdac.dto.DtoMapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+	private ModelMapper modelMapper;
+	private DtoMapper dtoMapper;
+	private Movie movie;
+	private Show show;
+	private Booking booking;
+
+	@Setup
+	public void setUp() {
+		modelMapper = legacyModelMapper();
+		dtoMapper = Mappers.getMapper(DtoMapper.class);
+
+		movie = new Movie(1L, "Benchmark", LocalDate.of(2025, 1, 1), "UA", "English", "Drama", "2h");
+		Theater theater = new Theater(2L, "Hall", "Pune", 120);
+		show = new Show();
+		show.setShowId(3L);
+		show.setMovie(movie);
+		show.setTheater(theater);
+		show.setTitle(movie.getTitle());
+		show.setStartTime(LocalDateTime.of(2025, 1, 2, 18, 0));
+		show.setEndTime(LocalDateTime.of(2025, 1, 2, 20, 0));
+		show.setPricePerSeat(BigDecimal.valueOf(200));
+		booking = new Booking();
+		booking.setBookingId(4L);
+		booking.setShow(show);
+		booking.setTotalAmount(400);
+		booking.setStatus("CONFIRMED");
+		booking.setPaymentMode("UPI");
+	}
+
+	// the bean Application used to declare
+	static ModelMapper legacyModelMapper() {
+		ModelMapper mapper = new ModelMapper();
+		mapper.getConfiguration()
+				.setMatchingStrategy(MatchingStrategies.STRICT)
+				.setPropertyCondition(Conditions.isNotNull());
+		return mapper;
+	}
+
+	@Benchmark
+	public MovieRespDto movieModelMapper() {
+		return modelMapper.map(movie, MovieRespDto.class);
+	}
+
+	@Benchmark
+	public MovieRespDto movieDtoMapper() {
+		return dtoMapper.toMovieResp(movie);
+	}
+
+	@Benchmark
+	public ShowRespDto showModelMapper() {
+		ShowRespDto resp = modelMapper.map(show, ShowRespDto.class);
+		resp.setMovieTitle(show.getMovie().getTitle());
+		resp.setTheaterName(show.getTheater().getName());
+		resp.setTheaterLocation(show.getTheater().getLocation());
+		return resp;
+	}
+
+	@Benchmark
+	public ShowRespDto showDtoMapper() {
+		return dtoMapper.toShowResp(show);
+	}
+
+	@Benchmark
+	public BookingRespDto bookingModelMapper() {
+		return modelMapper.map(booking, BookingRespDto.class);
+	}
+
+	@Benchmark
+	public BookingRespDto bookingDtoMapper() {
+		return dtoMapper.toBookingResp(booking);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DtoMapperBenchmark.class.getSimpleName()).build()).run();
+	}
+}
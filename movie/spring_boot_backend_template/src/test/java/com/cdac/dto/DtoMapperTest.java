@@ -0,0 +1,163 @@
+package com.cdac.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import com.cdac.entities.Booking;
+import com.cdac.entities.BookingSeat;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/*
+ * The generated DtoMapper field by field , and against the ModelMapper bean it
+ * replaced - the json a client sees must not change , nor what a partial PUT leaves alone.
+ */
+class DtoMapperTest {
+
+	private final DtoMapper dtoMapper = Mappers.getMapper(DtoMapper.class);
+	private final ModelMapper modelMapper = DtoMapperBenchmark.legacyModelMapper();
+	private final ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@Test
+	void movieRespMatchesModelMapper() throws Exception {
+		Movie movie = movie();
+
+		MovieRespDto resp = dtoMapper.toMovieResp(movie);
+
+		assertEquals(1L, resp.getMovieId());
+		assertEquals("Dune", resp.getTitle());
+		assertEquals(LocalDate.of(2024, 3, 1), resp.getReleaseDate());
+		assertEquals("2h 46m", resp.getDuration());
+		assertEquals(json.writeValueAsString(modelMapper.map(movie, MovieRespDto.class)), json.writeValueAsString(resp));
+	}
+
+	@Test
+	void updateMovieSkipsNullFields() throws Exception {
+		MovieReqDto put = new MovieReqDto("Dune Part Two", null, null, null, "Sci-Fi", null);
+		Movie updated = movie();
+		Movie legacy = movie();
+
+		dtoMapper.updateMovie(put, updated);
+		modelMapper.map(put, legacy);
+
+		assertEquals("Dune Part Two", updated.getTitle());
+		assertEquals("Sci-Fi", updated.getGenre());
+		// the fields the request left out keep their values
+		assertEquals(1L, updated.getMovieId());
+		assertEquals(LocalDate.of(2024, 3, 1), updated.getReleaseDate());
+		assertEquals("UA", updated.getRating());
+		assertEquals("English", updated.getLanguage());
+		assertEquals("2h 46m", updated.getDuration());
+		assertEquals(json.writeValueAsString(legacy), json.writeValueAsString(updated));
+	}
+
+	@Test
+	void toMovieLeavesTheIdAndMissingFieldsUnset() {
+		Movie movie = dtoMapper.toMovie(new MovieReqDto("Dune", LocalDate.of(2024, 3, 1), "UA", null, null, "2h"));
+
+		assertNull(movie.getMovieId());
+		assertEquals("Dune", movie.getTitle());
+		assertNull(movie.getLanguage());
+		assertEquals("2h", movie.getDuration());
+	}
+
+	@Test
+	void showRespFlattensMovieAndTheater() throws Exception {
+		Show show = show();
+
+		ShowRespDto resp = dtoMapper.toShowResp(show);
+
+		assertEquals(new ShowRespDto(3L, "Dune", "Hall 1", "Pune", show.getStartTime(), show.getEndTime(),
+				BigDecimal.valueOf(250)), resp);
+		// what the services produced from ModelMapper plus their three setters
+		ShowRespDto legacy = modelMapper.map(show, ShowRespDto.class);
+		legacy.setMovieTitle(show.getMovie().getTitle());
+		legacy.setTheaterName(show.getTheater().getName());
+		legacy.setTheaterLocation(show.getTheater().getLocation());
+		assertEquals(legacy, resp);
+	}
+
+	@Test
+	void bookingRespLeavesTheSeatsToTheCaller() throws Exception {
+		Booking booking = new Booking();
+		booking.setBookingId(7L);
+		booking.setShow(show());
+		booking.setBookingSeats(List.of(bookingSeat(booking, "A1"), bookingSeat(booking, "A2")));
+		booking.setStatus("CONFIRMED");
+		booking.setPaymentMode("UPI");
+
+		BookingRespDto resp = dtoMapper.toBookingResp(booking);
+
+		assertEquals(7L, resp.getBookingId());
+		assertEquals(3L, resp.getShowId());
+		assertEquals(500, resp.getTotalAmount()); // Booking sums its seats' prices
+		assertEquals("CONFIRMED", resp.getStatus());
+		assertEquals("UPI", resp.getPaymentMode());
+		assertNull(resp.getBookedSeats());
+		// STRICT matching never filled showId - bookSeats / bookShow set it afterwards
+		BookingRespDto legacy = modelMapper.map(booking, BookingRespDto.class);
+		assertNull(legacy.getShowId());
+		legacy.setShowId(booking.getShow().getShowId());
+		assertEquals(json.writeValueAsString(legacy), json.writeValueAsString(resp));
+	}
+
+	@Test
+	void seatRespCarriesItsShowId() {
+		Seat seat = new Seat();
+		seat.setId(9L);
+		seat.setSeatNo("B4");
+		seat.setBooked(true);
+		seat.setPrice(250.0);
+		seat.setShow(show());
+
+		SeatRespDto resp = dtoMapper.toSeatResp(seat);
+		SeatAvailableRespDto available = dtoMapper.toSeatAvailableResp(seat);
+
+		assertEquals(3L, resp.getShowId());
+		assertEquals("B4", resp.getSeatNo());
+		assertEquals(true, resp.isBooked());
+		assertEquals(9L, available.getId());
+		assertEquals(250.0, available.getPrice());
+	}
+
+	private static BookingSeat bookingSeat(Booking booking, String seatNo) {
+		Seat seat = new Seat();
+		seat.setSeatNo(seatNo);
+		seat.setPrice(250.0);
+		seat.setShow(booking.getShow());
+		BookingSeat bs = new BookingSeat();
+		bs.setBooking(booking);
+		bs.setSeat(seat);
+		bs.setShow(booking.getShow());
+		return bs;
+	}
+
+	private static Movie movie() {
+		return new Movie(1L, "Dune", LocalDate.of(2024, 3, 1), "UA", "English", "Drama", "2h 46m");
+	}
+
+	private static Show show() {
+		Show show = new Show();
+		show.setShowId(3L);
+		show.setMovie(movie());
+		show.setTheater(new Theater(2L, "Hall 1", "Pune", 100));
+		show.setTitle("Dune");
+		show.setStartTime(LocalDateTime.of(2025, 1, 2, 18, 0));
+		show.setEndTime(LocalDateTime.of(2025, 1, 2, 21, 0));
+		show.setPricePerSeat(BigDecimal.valueOf(250));
+		return show;
+	}
+}
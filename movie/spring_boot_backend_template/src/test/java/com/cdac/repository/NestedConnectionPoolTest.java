@@ -0,0 +1,115 @@
+package com.cdac.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class NestedConnectionPoolTest {
+
+	private final HikariDataSource main = new HikariDataSource();
+	private final NestedConnectionPool pool = new NestedConnectionPool();
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+		main.close();
+	}
+
+	@Test
+	void aSecondConnectionOfAThreadNeverWaitsOnTheMainPool() throws Exception {
+		DataSource dataSource = wrap(1);
+
+		try (Connection outer = dataSource.getConnection()) {
+			// the main pool is empty now - this one comes from the nested pool
+			try (Connection inner = dataSource.getConnection()) {
+				assertEquals(1, query(inner));
+			}
+			assertEquals(1, query(outer));
+		}
+		// the outer connection was returned , the next one is a main pool checkout again
+		try (Connection again = dataSource.getConnection()) {
+			assertEquals(1, query(again));
+		}
+	}
+
+	@Test
+	void otherThreadsStillQueueOnTheMainPool() throws Exception {
+		DataSource dataSource = wrap(1);
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		try (Connection held = dataSource.getConnection()) {
+			Thread other = new Thread(() -> {
+				try (Connection c = dataSource.getConnection()) {
+					failure.set(new AssertionError("got a connection past a full main pool"));
+				} catch (SQLException e) {
+					failure.set(e);
+				}
+			});
+			other.start();
+			other.join();
+		}
+		assertInstanceOf(SQLException.class, failure.get());
+	}
+
+	@Test
+	void hikariIsFoundBehindAWrapperAppliedFirst() throws Exception {
+		AtomicInteger throughWrapper = new AtomicInteger();
+		DataSource wrapper = new DelegatingDataSource(main) {
+			@Override
+			public Connection getConnection() throws SQLException {
+				throughWrapper.incrementAndGet();
+				return super.getConnection();
+			}
+		};
+		DataSource dataSource = wrap(1, wrapper);
+
+		try (Connection outer = dataSource.getConnection()) {
+			try (Connection inner = dataSource.getConnection()) {
+				assertEquals(1, query(inner));
+			}
+		}
+		// the top level checkout still went through the wrapper , the nested one did not
+		assertEquals(1, throughWrapper.get());
+		assertSame(dataSource, pool.postProcessAfterInitialization(dataSource, "dataSource"));
+	}
+
+	@Test
+	void sizeZeroLeavesTheDataSourceAlone() {
+		ReflectionTestUtils.setField(pool, "size", 0);
+
+		assertSame(main, pool.postProcessAfterInitialization(main, "dataSource"));
+	}
+
+	private DataSource wrap(int mainSize) {
+		return wrap(mainSize, main);
+	}
+
+	private DataSource wrap(int mainSize, DataSource bean) {
+		main.setJdbcUrl("jdbc:h2:mem:nested-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+		main.setMaximumPoolSize(mainSize);
+		main.setConnectionTimeout(250);
+		ReflectionTestUtils.setField(pool, "size", 2);
+		return (DataSource) pool.postProcessAfterInitialization(bean, "dataSource");
+	}
+
+	private static int query(Connection connection) throws SQLException {
+		try (var rs = connection.createStatement().executeQuery("SELECT 1")) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+}
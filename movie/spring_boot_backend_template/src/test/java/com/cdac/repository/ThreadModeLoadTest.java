@@ -0,0 +1,146 @@
+package com.cdac.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cdac.Application;
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Role;
+import com.cdac.entities.Show;
+import com.cdac.entities.User;
+import com.cdac.security.JWTUtils;
+import com.cdac.service.BookingService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Platform vs virtual thread load harness - boots the app on a random port once per
+ * mode (own embedded db each) and sends REQUESTS http requests from CLIENTS client
+ * threads , three seat availability reads (user lane) to one admin bookings report.
+ * A third run uses virtual threads with a single admin permit. Prints req/s , user
+ * p99 and bulkhead rejections per run ; asserts only that every user request
+ * succeeded - the admin lane may shed load , the user lane must not.
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+
+	private static final int REQUESTS = 2000;
+	private static final int CLIENTS = 128;
+	private static final int BOOKINGS = 200;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void platformVersusVirtualThreads() throws Exception {
+		for (String mode : List.of("warmup", "platform", "virtual", "virtual admin-permits=1")) {
+			run(mode);
+		}
+	}
+
+	private void run(String mode) throws Exception {
+		boolean virtual = mode.startsWith("virtual");
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:load-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--spring.threads.virtual.enabled=" + virtual,
+						"--jdbc.bulkhead.admin-permits=" + (mode.endsWith("=1") ? 1 : 3),
+						"--booking.waiting-room.enabled=false",
+						"--spring.jmx.enabled=false")) {
+			int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+			Long showId = seed(ctx);
+			JWTUtils jwt = ctx.getBean(JWTUtils.class);
+			String userToken = jwt.generateToken("load.user@test.com", Role.USER.name());
+			String adminToken = jwt.generateToken("load.admin@test.com", Role.ADMIN.name());
+			URI seats = URI.create("http://localhost:" + port + "/api/user/shows/" + showId + "/seats/available");
+			URI report = URI.create("http://localhost:" + port + "/api/admin/bookings/page?size=200");
+
+			long[] userMillis = new long[REQUESTS];
+			AtomicInteger userCount = new AtomicInteger();
+			AtomicInteger userFailed = new AtomicInteger();
+			AtomicInteger adminFailed = new AtomicInteger();
+			AtomicInteger next = new AtomicInteger();
+			ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+			List<Future<?>> futures = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int c = 0; c < CLIENTS; c++) {
+				futures.add(clients.submit(() -> {
+					for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+						boolean admin = i % 4 == 3;
+						long t = System.nanoTime();
+						int status = get(admin ? report : seats, admin ? adminToken : userToken);
+						if (admin) {
+							if (status != 200) {
+								adminFailed.incrementAndGet();
+							}
+						} else {
+							userMillis[userCount.getAndIncrement()] = (System.nanoTime() - t) / 1_000_000;
+							if (status != 200) {
+								userFailed.incrementAndGet();
+							}
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get(5, TimeUnit.MINUTES);
+			}
+			long elapsedNanos = System.nanoTime() - start;
+			clients.shutdown();
+
+			MeterRegistry registry = ctx.getBean(MeterRegistry.class);
+			double rejected = registry.find("jdbc.bulkhead.rejected").tag("lane", "admin").functionCounters().stream()
+					.mapToDouble(c -> c.count()).sum();
+			long[] user = Arrays.copyOf(userMillis, userCount.get());
+			System.out.printf("thread mode %s : %d req/s , user p99 %d ms , admin failed %d , admin checkouts rejected %.0f%n",
+					mode, REQUESTS * 1_000_000_000L / elapsedNanos, p99(user), adminFailed.get(), rejected);
+
+			assertEquals(0, userFailed.get());
+		}
+	}
+
+	private int get(URI uri, String token) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token).GET().build();
+		return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	// one show , BOOKINGS one seat bookings for the admin report to page through
+	private static Long seed(ConfigurableApplicationContext ctx) {
+		TestData data = new TestData(ctx);
+		Show show = data.showWithSeats("Load", BOOKINGS * 2);
+		User u = data.user("load.user@test.com");
+
+		BookingService bookings = ctx.getBean(BookingService.class);
+		for (int i = 1; i <= BOOKINGS; i++) {
+			bookings.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A" + i), "UPI", 0), u.getEmail());
+		}
+		return show.getShowId();
+	}
+
+	private static long p99(long[] samples) {
+		long[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) (sorted.length * 0.99)];
+	}
+}
@@ -0,0 +1,114 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.cdac.custom_exception.TooManyRequestsException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Login storm load harness - p50 / p99 wall time of a request with some cpu work of
+ * its own (serializing 2000 booking rows) , idle , then while 16 threads log in with
+ * bcrypt on their own threads (the old behaviour) , then while the same 16 threads log
+ * in through the bounded pool (production defaults : half the cpus , queue 64 , 3 s
+ * wait ; a 429 backs off 50 ms like a client honouring Retry-After).
+ * Prints the latencies ; asserts only that both storms really hashed (the 429 path
+ * is covered by BoundedPasswordEncoderTest).
+ */
+@Tag("load")
+class BoundedPasswordEncoderLoadTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void requestLatencyDuringALoginStorm() throws Exception {
+		PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+		BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(bcrypt, 0, 64, 3000, registry);
+		ObjectMapper mapper = new ObjectMapper();
+		List<Object> page = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			page.add(List.of(i, "booking " + i, "show " + i % 7, "A" + i, 200.0 * i, "CONFIRMED"));
+		}
+		Runnable request = () -> {
+			try {
+				mapper.writeValueAsBytes(page);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		};
+
+		for (int i = 0; i < 500; i++) {
+			request.run(); // warm up
+		}
+		long[] idle = measure(request, null, null);
+		AtomicLong direct = new AtomicLong();
+		long[] unbounded = measure(request, bcrypt, direct);
+		AtomicLong pooled = new AtomicLong();
+		long[] withPool = measure(request, bounded, pooled);
+
+		assertTrue(direct.get() > 0 && pooled.get() > 0);
+		System.out.printf("request p50/p99 (us) : idle %d/%d , bcrypt on 16 request threads %d/%d (%d hashes) ,"
+				+ " bounded pool %d/%d (%d hashes , %d rejected)%n",
+				idle[0], idle[1], unbounded[0], unbounded[1], direct.get(), withPool[0], withPool[1], pooled.get(),
+				(long) registry.counter("auth.login.rejected", "reason", "hash_busy").count());
+	}
+
+	// {p50 , p99} in microseconds of `request` over ~3 s , with 16 threads calling encoder.matches meanwhile
+	private static long[] measure(Runnable request, PasswordEncoder encoder, AtomicLong hashes) throws Exception {
+		AtomicBoolean stop = new AtomicBoolean();
+		ExecutorService storm = Executors.newFixedThreadPool(16);
+		if (encoder != null) {
+			String hash = new BCryptPasswordEncoder().encode("secret");
+			for (int t = 0; t < 16; t++) {
+				storm.execute(() -> {
+					while (!stop.get()) {
+						try {
+							encoder.matches("secret", hash);
+							hashes.incrementAndGet();
+						} catch (TooManyRequestsException e) {
+							sleep(50);
+						}
+					}
+				});
+			}
+		}
+		List<Long> samples = new ArrayList<>();
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+		while (System.nanoTime() < end) {
+			long start = System.nanoTime();
+			request.run();
+			samples.add((System.nanoTime() - start) / 1000);
+			sleep(5);
+		}
+		stop.set(true);
+		storm.shutdown();
+		storm.awaitTermination(30, TimeUnit.SECONDS);
+
+		long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(sorted);
+		return new long[] { sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)] };
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
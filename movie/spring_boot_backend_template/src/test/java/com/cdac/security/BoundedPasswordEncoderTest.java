@@ -0,0 +1,153 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.cdac.custom_exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void hashesRunOnThePoolAndMatchTheDelegate() {
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 8, 5000, registry);
+
+		String hash = encoder.encode("secret");
+
+		assertTrue(encoder.matches("secret", hash));
+		assertFalse(encoder.matches("wrong", hash));
+		assertEquals(1, registry.timer("auth.password.hash", "op", "encode").count());
+		assertEquals(2, registry.timer("auth.password.hash", "op", "matches").count());
+	}
+
+	@Test
+	void neverRunsMoreHashesAtOnceThanItHasThreads() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		PasswordEncoder slow = new StubEncoder(() -> {
+			peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+			sleep(20);
+			running.decrementAndGet();
+		});
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 2, 64, 10_000, registry);
+
+		ExecutorService callers = Executors.newFixedThreadPool(16);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			results.add(callers.submit(() -> encoder.matches("p", "h")));
+		}
+		for (Future<Boolean> r : results) {
+			assertTrue(r.get());
+		}
+		callers.shutdown();
+
+		assertEquals(2, peak.get());
+	}
+
+	@Test
+	void aFullQueueIsRejectedWith429() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new StubEncoder(() -> await(release)),
+				1, 2, 10_000, registry);
+
+		// one hash on the thread , two in the queue - the fourth has no room
+		ExecutorService callers = Executors.newFixedThreadPool(3);
+		List<Future<Boolean>> admitted = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			admitted.add(callers.submit(() -> encoder.matches("p", "h")));
+		}
+		waitUntil(() -> registry.get("auth.password.queue").gauge().value() == 2);
+
+		TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> encoder.matches("p", "h"));
+		assertEquals(1, e.getRetryAfterSeconds());
+		assertEquals(1, registry.counter("auth.login.rejected", "reason", "hash_busy").count());
+
+		release.countDown();
+		for (Future<Boolean> r : admitted) {
+			assertTrue(r.get());
+		}
+		callers.shutdown();
+	}
+
+	@Test
+	void aHashThatWaitsTooLongIsRejectedWith429() {
+		CountDownLatch release = new CountDownLatch(1);
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new StubEncoder(() -> await(release)),
+				1, 8, 50, registry);
+
+		assertThrows(TooManyRequestsException.class, () -> encoder.matches("p", "h"));
+		assertEquals(1, registry.counter("auth.login.rejected", "reason", "hash_busy").count());
+		release.countDown();
+	}
+
+	@Test
+	void delegateFailuresReachTheCallerUnchanged() {
+		IllegalArgumentException failure = new IllegalArgumentException("bad hash");
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new StubEncoder(() -> {
+			throw failure;
+		}), 1, 8, 5000, registry);
+
+		assertSame(failure, assertThrows(IllegalArgumentException.class, () -> encoder.matches("p", "h")));
+		assertEquals(0, registry.counter("auth.login.rejected", "reason", "hash_busy").count());
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < end, "condition not reached in 5 s");
+			Thread.sleep(5);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// runs `work` on every call , then answers as if the password matched
+	private record StubEncoder(Runnable work) implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			work.run();
+			return "h";
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			work.run();
+			return true;
+		}
+	}
+}
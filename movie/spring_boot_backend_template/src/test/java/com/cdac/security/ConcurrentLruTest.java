@@ -0,0 +1,83 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrentLruTest {
+
+	@Test
+	void trimsToMaxEntriesDroppingTheLeastRecentlyRead() throws Exception {
+		ConcurrentLru<Integer, String> lru = new ConcurrentLru<>(80);
+		for (int i = 0; i < 80; i++) {
+			lru.put(i, "v" + i);
+		}
+		Thread.sleep(5);
+		for (int i = 0; i < 10; i++) {
+			lru.get(i); // the oldest ten are now the most recently read
+		}
+		Thread.sleep(5);
+
+		int trimmed = 0;
+		for (int i = 80; i < 91; i++) {
+			trimmed += lru.put(i, "v" + i);
+		}
+
+		assertEquals(11, trimmed);
+		assertEquals(80, lru.size());
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(lru.get(i), "recently read " + i);
+		}
+		for (int i = 80; i < 91; i++) {
+			assertNotNull(lru.get(i), "just put " + i);
+		}
+	}
+
+	@Test
+	void conditionalRemoveOnlyRemovesTheSameValue() {
+		ConcurrentLru<String, String> lru = new ConcurrentLru<>(10);
+		String first = new String("a");
+		lru.put("k", first);
+		lru.put("k", new String("a"));
+
+		assertFalse(lru.remove("k", first));
+		assertNotNull(lru.get("k"));
+		assertEquals("a", lru.remove("k"));
+		assertNull(lru.get("k"));
+		assertNull(lru.remove("k"));
+	}
+
+	@Test
+	void staysBoundedUnderConcurrentPuts() throws Exception {
+		ConcurrentLru<Integer, Integer> lru = new ConcurrentLru<>(1000);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			futures.add(pool.submit(() -> {
+				for (int i = 0; i < 100_000; i++) {
+					int key = ThreadLocalRandom.current().nextInt(50_000);
+					if (lru.get(key) == null) {
+						lru.put(key, key);
+					}
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+		// a trimming thread descheduled mid pass lets the map grow to twice max-entries , never more
+		assertTrue(lru.size() <= 2 * 1000 + 8, "size " + lru.size());
+	}
+}
@@ -0,0 +1,108 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PrincipalCacheTest {
+
+	private static final String EMAIL = "cached@test.com";
+
+	private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PrincipalCache cache = new PrincipalCache(userDetailsService, registry, 100);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+	}
+
+	@Test
+	void aPrincipalIsServedUntilItAges() {
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user("USER"), user("ADMIN"));
+
+		UserDetails first = cache.get(EMAIL);
+		assertSame(first, cache.get(EMAIL));
+		// cached without its password - it authorizes requests , it never checks a login
+		assertNull(first.getPassword());
+
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+		assertEquals("ROLE_ADMIN", cache.get(EMAIL).getAuthorities().iterator().next().getAuthority());
+		verify(userDetailsService, times(2)).loadUserByUsername(EMAIL);
+		assertEquals(1.0, registry.counter("security.principal.cache.evictions", "cause", "ttl").count());
+	}
+
+	@Test
+	void invalidationDropsEveryGivenEmail() {
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user("USER"), user("ADMIN"));
+		when(userDetailsService.loadUserByUsername("other@test.com")).thenReturn(user("other@test.com", "USER"));
+		cache.get(EMAIL);
+		cache.get("other@test.com");
+
+		cache.invalidate(EMAIL, null, "unknown@test.com");
+
+		assertEquals("ROLE_ADMIN", cache.get(EMAIL).getAuthorities().iterator().next().getAuthority());
+		cache.get("other@test.com");
+		verify(userDetailsService, times(1)).loadUserByUsername("other@test.com");
+		assertEquals(1.0, registry.counter("security.principal.cache.evictions", "cause", "invalidation").count());
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenThrow(new UsernameNotFoundException("User not found"))
+				.thenReturn(user("USER"));
+
+		assertThrows(UsernameNotFoundException.class, () -> cache.get(EMAIL));
+		// registered since
+		assertEquals(EMAIL, cache.get(EMAIL).getUsername());
+	}
+
+	@Test
+	void aLoadThatRacedWithAnInvalidationIsNotStored() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch updated = new CountDownLatch(1);
+		when(userDetailsService.loadUserByUsername(EMAIL)).thenAnswer(call -> {
+			loading.countDown();
+			updated.await(5, TimeUnit.SECONDS);
+			return user("USER");
+		}).thenReturn(user("ADMIN"));
+		CompletableFuture<UserDetails> stale = CompletableFuture.supplyAsync(() -> cache.get(EMAIL));
+
+		// the user is updated while the load is reading the old row
+		loading.await(5, TimeUnit.SECONDS);
+		cache.invalidate(EMAIL);
+		updated.countDown();
+
+		assertEquals("ROLE_USER", stale.get(5, TimeUnit.SECONDS).getAuthorities().iterator().next().getAuthority());
+		// the next request sees the update
+		assertEquals("ROLE_ADMIN", cache.get(EMAIL).getAuthorities().iterator().next().getAuthority());
+	}
+
+	private static UserDetails user(String role) {
+		return user(EMAIL, role);
+	}
+
+	private static UserDetails user(String email, String role) {
+		return new User(email, "{noop}secret", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+	}
+}
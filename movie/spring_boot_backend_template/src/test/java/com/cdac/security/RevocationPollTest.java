@@ -0,0 +1,102 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.entities.Role;
+import com.cdac.entities.Status;
+import com.cdac.entities.TokenRevocation;
+import com.cdac.entities.User;
+import com.cdac.repository.TokenRevocationRepository;
+import com.cdac.repository.UserRepository;
+
+/*
+ * Revocations written straight to the db , as another node does - this node never
+ * called revoke , yet JwtFilter refuses the tokens once the poll has run.
+ */
+@SpringBootTest(properties = "jwt.revocation.poll-seconds=1")
+@ActiveProfiles("test")
+class RevocationPollTest {
+
+	@Autowired
+	private JwtFilter jwtFilter;
+	@Autowired
+	private JWTUtils jwtUtils;
+	@Autowired
+	private UserRepository userRepo;
+	@Autowired
+	private TokenRevocationRepository revocationRepo;
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void deactivationOnAnotherNodeIsRefusedAfterThePoll() throws Exception {
+		String email = "elsewhere." + System.nanoTime() + "@test.com";
+		User u = new User();
+		u.setName("Elsewhere");
+		u.setEmail(email);
+		u.setPassword("secret");
+		u.setPhone("9000000000");
+		u.setRole(Role.USER);
+		u.setStatus(Status.ACTIVE);
+		userRepo.save(u);
+		String token = jwtUtils.generateToken(email, Role.USER.name());
+		assertNotNull(authenticate(token));
+
+		u.setStatus(Status.INACTIVE);
+		u.setTokensRevokedAt(LocalDateTime.now());
+		userRepo.save(u);
+
+		awaitRefused(token);
+	}
+
+	@Test
+	void emailChangeOnAnotherNodeIsRefusedAfterThePoll() throws Exception {
+		String oldEmail = "moved." + System.nanoTime() + "@test.com";
+		String token = jwtUtils.generateToken(oldEmail, Role.USER.name());
+		assertNotNull(authenticate(token));
+
+		revocationRepo.save(new TokenRevocation(oldEmail, LocalDateTime.now()));
+
+		awaitRefused(token);
+	}
+
+	private void awaitRefused(String token) throws Exception {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (authenticate(token) != null) {
+			assertTrue(System.nanoTime() < end, "revocation stored by another node was never picked up");
+			Thread.sleep(50);
+		}
+		assertNull(authenticate(token));
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/bookings");
+		request.setServletPath("/api/user/bookings");
+		request.addHeader("Authorization", "Bearer " + token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		jwtFilter.doFilter(request, response, new MockFilterChain());
+		assertEquals(200, response.getStatus());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
@@ -0,0 +1,182 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.cdac.entities.TokenRevocation;
+import com.cdac.repository.TokenRevocationRepository;
+import com.cdac.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RevokedTokensTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final UserRepository userRepo = mock(UserRepository.class);
+	private final TokenRevocationRepository revocationRepo = mock(TokenRevocationRepository.class);
+
+	@BeforeEach
+	void setUp() {
+		when(userRepo.findTokenRevocations(any())).thenReturn(List.of());
+		when(userRepo.findTokenRevocationsAfter(any())).thenReturn(List.of());
+		when(revocationRepo.findByRevokedAtAfter(any())).thenReturn(List.of());
+	}
+
+	@Test
+	void revokesTokensIssuedUpToTheRevocationOnly() {
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 100, 0.01, 0);
+		long now = System.currentTimeMillis();
+
+		revoked.revoke("a@x.com");
+
+		assertTrue(revoked.isRevoked("a@x.com", now - 60_000));
+		assertTrue(revoked.isRevoked("a@x.com", 0)); // no issued-at - treated as old
+		assertFalse(revoked.isRevoked("a@x.com", now + 2000)); // a later login
+		assertFalse(revoked.isRevoked("b@x.com", now - 60_000));
+	}
+
+	@Test
+	void aRevocationOnlyEverMovesForward() {
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 100, 0.01, 0);
+		long now = System.currentTimeMillis();
+		when(userRepo.findTokenRevocations(any())).thenReturn(List.<Object[]>of(
+				new Object[] { "a@x.com", LocalDateTime.now().minusHours(1) }));
+
+		revoked.revoke("a@x.com");
+		revoked.ensureLoaded(); // the older persisted cutoff must not replace the newer one
+
+		assertTrue(revoked.isRevoked("a@x.com", now - 1000));
+	}
+
+	@Test
+	void startupLoadsUsersAndChangedEmails() {
+		long now = System.currentTimeMillis();
+		when(userRepo.findTokenRevocations(any())).thenReturn(List.<Object[]>of(
+				new Object[] { "pw@x.com", LocalDateTime.now().minusMinutes(10) },
+				new Object[] { "inactive@x.com", null }));
+		when(revocationRepo.findByRevokedAtAfter(any())).thenReturn(List.of(
+				new TokenRevocation("old@x.com", LocalDateTime.now().minusMinutes(5))));
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 100, 0.01, 0);
+
+		revoked.ensureLoaded();
+
+		assertTrue(revoked.isRevoked("pw@x.com", now - 20 * 60_000));
+		assertFalse(revoked.isRevoked("pw@x.com", now - 60_000)); // logged in again since
+		assertTrue(revoked.isRevoked("inactive@x.com", now - 1000));
+		assertTrue(revoked.isRevoked("old@x.com", now - 10 * 60_000));
+		assertFalse(revoked.isRevoked("old@x.com", now - 60_000));
+		assertEquals(3, revoked.size());
+		verify(revocationRepo).deleteByRevokedAtBefore(any());
+	}
+
+	@Test
+	void pollPicksUpRevocationsStoredByAnotherNode() {
+		long now = System.currentTimeMillis();
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 100, 0.01, 0);
+		revoked.ensureLoaded();
+		when(userRepo.findTokenRevocationsAfter(any())).thenReturn(List.<Object[]>of(
+				new Object[] { "deactivated@x.com", LocalDateTime.now() }));
+		when(revocationRepo.findByRevokedAtAfter(any())).thenReturn(List.of(
+				new TokenRevocation("moved@x.com", LocalDateTime.now())));
+		assertFalse(revoked.isRevoked("deactivated@x.com", now - 1000));
+
+		revoked.poll();
+
+		assertTrue(revoked.isRevoked("deactivated@x.com", now - 1000));
+		assertTrue(revoked.isRevoked("moved@x.com", now - 1000));
+		// the next poll reads again from where this one started , less the overlap
+		ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+		revoked.poll();
+		verify(userRepo, times(2)).findTokenRevocationsAfter(since.capture());
+		assertTrue(since.getAllValues().get(1).isAfter(since.getAllValues().get(0)));
+		assertTrue(since.getAllValues().get(1).isAfter(LocalDateTime.now().minusSeconds(61)));
+	}
+
+	@Test
+	void aFailingPollIsRetriedFromTheSamePoint() {
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 100, 0.01, 0);
+		revoked.ensureLoaded();
+		when(userRepo.findTokenRevocationsAfter(any())).thenThrow(new IllegalStateException("db down"))
+				.thenReturn(List.<Object[]>of(new Object[] { "late@x.com", LocalDateTime.now() }));
+
+		revoked.poll();
+		revoked.poll();
+
+		ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(userRepo, times(2)).findTokenRevocationsAfter(since.capture());
+		assertEquals(since.getAllValues().get(0), since.getAllValues().get(1));
+		assertTrue(revoked.isRevoked("late@x.com", System.currentTimeMillis() - 1000));
+	}
+
+	@Test
+	void growsPastExpectedEntriesWithoutLosingRevocations() {
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 16, 0.01, 0);
+		long issued = System.currentTimeMillis() - 60_000;
+
+		for (int i = 0; i < 1000; i++) {
+			revoked.revoke("user" + i + "@x.com");
+		}
+
+		assertEquals(1000, revoked.size());
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(revoked.isRevoked("user" + i + "@x.com", issued));
+		}
+	}
+
+	/*
+	 * A filter sized for a 50% false positive rate - many clean users get past the
+	 * filter , the exact map must still clear every one of them and catch every
+	 * revoked one.
+	 */
+	@Test
+	void bloomFalsePositivesNeverRejectACleanUser() {
+		RevokedTokens revoked = new RevokedTokens(userRepo, revocationRepo, registry, 500, 0.5, 0);
+		long issued = System.currentTimeMillis() - 60_000;
+		for (int i = 0; i < 500; i++) {
+			revoked.revoke("revoked" + i + "@x.com");
+		}
+
+		for (int i = 0; i < 20_000; i++) {
+			assertFalse(revoked.isRevoked("clean" + i + "@x.com", issued), "clean" + i);
+		}
+		for (int i = 0; i < 500; i++) {
+			assertTrue(revoked.isRevoked("revoked" + i + "@x.com", issued), "revoked" + i);
+		}
+
+		double falsePositives = registry.counter("jwt.revocation.checks", "result", "false_positive").count();
+		assertTrue(falsePositives > 1000, "filter was not saturated : " + falsePositives);
+		assertEquals(500, registry.counter("jwt.revocation.checks", "result", "revoked").count());
+	}
+
+	@Test
+	void bloomFilterHasNoFalseNegatives() {
+		RevokedTokens.BloomFilter filter = new RevokedTokens.BloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.add("k" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(filter.mightContain("k" + i));
+		}
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2000, "false positive rate too high : " + falsePositives);
+	}
+}
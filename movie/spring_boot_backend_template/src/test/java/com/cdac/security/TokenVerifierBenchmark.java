@@ -0,0 +1,128 @@
+package com.cdac.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Token verification cost per request , before and after TokenVerifier.
+ *   legacyParseTwice - what JwtFilter did before : key + parser rebuilt , token parsed twice
+ *   parseOnce        - shared key and parser , one parse (memo off)
+ *   memoised         - TokenVerifier with the memo , 1000 users' tokens in rotation
+ *   memoLookup*      - just the memo lookup on 8 threads , the old synchronized LRU
+ *                      map against ConcurrentLru
+ * The memoLookup pair only shows contention on a machine with 8+ cores.
+ * Run : mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt , then
+ *   java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" com.cdac.security.TokenVerifierBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerifierBenchmark {
+
+	private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+	private static final int USERS = 1000;
+	private static final int MEMO_ENTRIES = 10_000;
+
+	private JWTUtils jwtUtils;
+	private TokenVerifier memoised;
+	private TokenVerifier unmemoised;
+	private String[] tokens;
+	private Map<String, TokenVerifier.VerifiedToken> synchronizedLru;
+	private ConcurrentLru<String, TokenVerifier.VerifiedToken> concurrentLru;
+
+	@Setup
+	public void setUp() {
+		jwtUtils = new JWTUtils();
+		ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+		jwtUtils.init();
+		memoised = new TokenVerifier(jwtUtils, new SimpleMeterRegistry(), MEMO_ENTRIES);
+		unmemoised = new TokenVerifier(jwtUtils, new SimpleMeterRegistry(), 0);
+
+		tokens = new String[USERS];
+		synchronizedLru = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, TokenVerifier.VerifiedToken> eldest) {
+				return size() > MEMO_ENTRIES;
+			}
+		});
+		concurrentLru = new ConcurrentLru<>(MEMO_ENTRIES);
+		for (int i = 0; i < USERS; i++) {
+			tokens[i] = jwtUtils.generateToken("user" + i + "@test.com", "USER");
+			TokenVerifier.VerifiedToken verified = memoised.verify(tokens[i]);
+			synchronizedLru.put(tokens[i], verified);
+			concurrentLru.put(tokens[i], verified);
+		}
+	}
+
+	@Benchmark
+	public String legacyParseTwice() {
+		String token = nextToken();
+		String subject = legacyExtractUsername(token);
+		return legacyExtractUsername(token).equals(subject) ? subject : null;
+	}
+
+	@Benchmark
+	public String parseOnce() {
+		return unmemoised.verify(nextToken()).subject();
+	}
+
+	@Benchmark
+	public String memoised() {
+		return memoised.verify(nextToken()).subject();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public TokenVerifier.VerifiedToken memoLookupSynchronizedLru() {
+		return synchronizedLru.get(nextToken());
+	}
+
+	@Benchmark
+	@Threads(8)
+	public TokenVerifier.VerifiedToken memoLookupConcurrentLru() {
+		return concurrentLru.get(nextToken());
+	}
+
+	// JWTUtils.extractUsername as it was before TokenVerifier
+	private static String legacyExtractUsername(String token) {
+		SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+		return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+	}
+
+	private String nextToken() {
+		return tokens[ThreadLocalRandom.current().nextInt(USERS)];
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(TokenVerifierBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,126 @@
+package com.cdac.security;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.cdac.dto.WaitingRoomStatusDto;
+import com.cdac.service.WaitingRoom;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+class WaitingRoomFilterTest {
+
+	private final WaitingRoom waitingRoom = mock(WaitingRoom.class);
+	private final TokenVerifier tokenVerifier = mock(TokenVerifier.class);
+	private WaitingRoomFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		filter = new WaitingRoomFilter(waitingRoom, tokenVerifier, new ObjectMapper().registerModule(new JavaTimeModule()));
+		when(waitingRoom.isEnabled()).thenReturn(true);
+		when(tokenVerifier.verify(any(HttpServletRequest.class)))
+				.thenReturn(new TokenVerifier.VerifiedToken("u@test.com", "USER", 0, Long.MAX_VALUE));
+		when(waitingRoom.enter(any(), anyString())).thenReturn(new WaitingRoomStatusDto(5L, true, 0, 0));
+	}
+
+	@Test
+	void bookingBodyReachesTheControllerIntact() throws Exception {
+		byte[] body = "{\"showId\":5,\"seatNos\":[\"A1\"]}".getBytes(StandardCharsets.UTF_8);
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(post(body), new MockHttpServletResponse(), chain);
+
+		verify(waitingRoom).enter(eq(5L), eq("u@test.com"));
+		assertArrayEquals(body, chain.getRequest().getInputStream().readAllBytes());
+	}
+
+	@Test
+	void oversizedBodyIsRejectedWith413() throws Exception {
+		byte[] body = new byte[64 * 1024 + 1];
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(post(body), response, chain);
+
+		assertEquals(413, response.getStatus());
+		assertTrue(response.getContentAsString().contains("at most"));
+		verify(waitingRoom, never()).enter(any(), anyString());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void readListenerGetsTheBufferedBody() throws Exception {
+		byte[] body = "{\"showId\":5}".getBytes(StandardCharsets.UTF_8);
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(post(body), new MockHttpServletResponse(), chain);
+
+		ServletInputStream in = chain.getRequest().getInputStream();
+		ByteArrayOutputStream read = new ByteArrayOutputStream();
+		AtomicBoolean done = new AtomicBoolean();
+		in.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() throws IOException {
+				while (in.isReady() && !in.isFinished()) {
+					read.write(in.read());
+				}
+			}
+
+			@Override
+			public void onAllDataRead() {
+				done.set(true);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				throw new AssertionError(t);
+			}
+		});
+
+		assertTrue(done.get());
+		assertArrayEquals(body, read.toByteArray());
+	}
+
+	@Test
+	void queuedUserGets429() throws Exception {
+		when(waitingRoom.enter(any(), anyString())).thenReturn(new WaitingRoomStatusDto(5L, false, 120, 3));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(post("{\"showId\":5}".getBytes(StandardCharsets.UTF_8)), response, new MockFilterChain());
+
+		assertEquals(429, response.getStatus());
+		assertNotNull(response.getHeader("Retry-After"));
+	}
+
+	private static MockHttpServletRequest post(byte[] body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/user/bookings/shows");
+		request.setServletPath("/api/user/bookings/shows");
+		request.setContentType("application/json");
+		request.setContent(body);
+		return request;
+	}
+}
@@ -0,0 +1,215 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cdac.Application;
+import com.cdac.TestData;
+import com.cdac.dto.AdminBookingPageDto;
+import com.cdac.dto.AdminBookingQueryDto;
+import com.cdac.dto.AdminBookingRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+
+/*
+ * Admin booking list load harness - boots the app on its own database , bulk inserts
+ * BOOKINGS bookings (each with a payment and one booked seat) through jdbc batches ,
+ * then walks PAGES consecutive keyset pages of PAGE_SIZE from the start , the middle
+ * and the end of the table , by bookingId and by bookingTime (booking times are
+ * jittered , so the two orders differ). Prints the insert rate and p50 / p99 / max per
+ * page of each walk ; asserts only that every page is full and in order. H2 keeps all
+ * 3M rows in the heap - about a GB of it (-Dadmin.load.bookings=N to run fewer).
+ */
+@Tag("load")
+class AdminBookingListLoadTest {
+
+	private static final int BOOKINGS = Integer.getInteger("admin.load.bookings", 1_000_000);
+	private static final int PAGE_SIZE = 50;
+	private static final int PAGES = 100;
+	private static final int WALKS = 3; // the first one warms up
+	private static final int SHOWS = 20;
+	private static final int SEATS_PER_SHOW = 200;
+	private static final int USERS = 500;
+	private static final int BATCH = 5_000;
+
+	@Test
+	void pageLatencyAcrossAMillionBookings() throws Exception {
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:admin-list-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--booking.waiting-room.enabled=false",
+						"--spring.jmx.enabled=false")) {
+			DataSource dataSource = ctx.getBean(DataSource.class);
+			long start = System.nanoTime();
+			insertBookings(dataSource, seed(ctx));
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("admin list : %d bookings , payments and booked seats inserted in %.1f s (%.0f bookings/s)%n",
+					BOOKINGS, seconds, BOOKINGS / seconds);
+
+			BookingService bookingService = ctx.getBean(BookingService.class);
+			int end = BOOKINGS - PAGES * PAGE_SIZE;
+			for (String sort : List.of("bookingId", "bookingTime")) {
+				walk(bookingService, dataSource, sort, "start", 0);
+				walk(bookingService, dataSource, sort, "middle", BOOKINGS / 2);
+				walk(bookingService, dataSource, sort, "end", end);
+			}
+		}
+	}
+
+	// PAGES pages from the rank-th booking of the sort on , WALKS times
+	private static void walk(BookingService bookingService, DataSource dataSource, String sort, String position,
+			int rank) throws SQLException {
+		String cursor = cursorBefore(dataSource, sort, rank);
+		long[] nanos = new long[(WALKS - 1) * PAGES];
+		for (int w = 0; w < WALKS; w++) {
+			AdminBookingQueryDto query = new AdminBookingQueryDto();
+			query.setSort(sort);
+			query.setSize(PAGE_SIZE);
+			query.setAfter(cursor);
+			AdminBookingRespDto previous = null;
+			for (int p = 0; p < PAGES; p++) {
+				long t = System.nanoTime();
+				AdminBookingPageDto page = bookingService.getBookingsPageForAdmin(query);
+				long took = System.nanoTime() - t;
+				if (w > 0) {
+					nanos[(w - 1) * PAGES + p] = took;
+				}
+				assertEquals(PAGE_SIZE, page.getBookings().size(), sort + " " + position + " page " + p);
+				for (AdminBookingRespDto b : page.getBookings()) {
+					if (previous != null) {
+						assertTrue(before(b, previous, sort), sort + " out of order at " + b.getBookingId());
+					}
+					previous = b;
+				}
+				query.setAfter(page.getNextCursor());
+			}
+		}
+		Arrays.sort(nanos);
+		System.out.printf("admin list : sort %-11s %-6s (rank %7d) %d pages of %d - p50 %.2f ms p99 %.2f ms max %.2f ms%n",
+				sort, position, rank, PAGES, PAGE_SIZE, percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.99) / 1e6,
+				nanos[nanos.length - 1] / 1e6);
+	}
+
+	// b comes after previous in the newest first order of sort
+	private static boolean before(AdminBookingRespDto b, AdminBookingRespDto previous, String sort) {
+		if ("bookingTime".equals(sort)) {
+			int byTime = b.getBookingTime().compareTo(previous.getBookingTime());
+			return byTime < 0 || (byTime == 0 && b.getBookingId() < previous.getBookingId());
+		}
+		return b.getBookingId() < previous.getBookingId();
+	}
+
+	// the nextCursor a page ending just above rank would have returned (null for the first page)
+	private static String cursorBefore(DataSource dataSource, String sort, int rank) throws SQLException {
+		if (rank == 0) {
+			return null;
+		}
+		String order = "bookingTime".equals(sort) ? "booking_time DESC, booking_id DESC" : "booking_id DESC";
+		try (Connection con = dataSource.getConnection();
+				PreparedStatement ps = con.prepareStatement(
+						"SELECT booking_time, booking_id FROM bookings ORDER BY " + order + " LIMIT 1 OFFSET ?")) {
+			ps.setInt(1, rank - 1);
+			try (ResultSet rs = ps.executeQuery()) {
+				rs.next();
+				long id = rs.getLong(2);
+				return "bookingTime".equals(sort) ? rs.getObject(1, LocalDateTime.class) + "_" + id : String.valueOf(id);
+			}
+		}
+	}
+
+	// shows , their seats and the users the bookings belong to ; returns [show ids , seat ids , user ids]
+	private static long[][] seed(ConfigurableApplicationContext ctx) {
+		TestData data = new TestData(ctx);
+		Movie movie = data.movie("Long Run");
+		Theater theater = data.theater("Hall", SEATS_PER_SHOW);
+		long[] showIds = new long[SHOWS];
+		long[] seatIds = new long[SHOWS * SEATS_PER_SHOW];
+		for (int s = 0; s < SHOWS; s++) {
+			Show show = data.show(movie, theater, LocalDateTime.now().plusDays(1).plusHours(3L * s));
+			showIds[s] = show.getShowId();
+			List<Seat> seats = data.seats(show, SEATS_PER_SHOW);
+			for (int i = 0; i < SEATS_PER_SHOW; i++) {
+				seatIds[s * SEATS_PER_SHOW + i] = seats.get(i).getId();
+			}
+		}
+		long[] userIds = new long[USERS];
+		for (int u = 0; u < USERS; u++) {
+			userIds[u] = data.user("buyer." + u + "@test.com").getUserId();
+		}
+		return new long[][] { showIds, seatIds, userIds };
+	}
+
+	// ids 1..BOOKINGS in insert order , times about a minute apart with up to an hour of jitter
+	private static void insertBookings(DataSource dataSource, long[][] seeded) throws SQLException {
+		long[] showIds = seeded[0];
+		long[] seatIds = seeded[1];
+		long[] userIds = seeded[2];
+		LocalDateTime base = LocalDateTime.now().minusYears(2);
+		Random random = new Random(12);
+		try (Connection con = dataSource.getConnection();
+				PreparedStatement booking = con.prepareStatement("INSERT INTO bookings (booking_id, user_id, show_id,"
+						+ " booking_time, total_amount, status, payment_mode) VALUES (?, ?, ?, ?, ?, ?, ?)");
+				PreparedStatement payment = con.prepareStatement("INSERT INTO payments (payment_id, booking_id,"
+						+ " method, status, time, total_amount) VALUES (?, ?, ?, ?, ?, ?)");
+				PreparedStatement seat = con.prepareStatement(
+						"INSERT INTO booking_seats (id, booking_id, seat_id, show_id) VALUES (?, ?, ?, ?)")) {
+			con.setAutoCommit(false);
+			for (int i = 1; i <= BOOKINGS; i++) {
+				int seatIndex = random.nextInt(seatIds.length);
+				Timestamp time = Timestamp.valueOf(base.plusSeconds(60L * i + random.nextInt(3600)));
+				booking.setLong(1, i);
+				booking.setLong(2, userIds[random.nextInt(userIds.length)]);
+				booking.setLong(3, showIds[seatIndex / SEATS_PER_SHOW]);
+				booking.setTimestamp(4, time);
+				booking.setDouble(5, 200.0);
+				booking.setString(6, "CONFIRMED");
+				booking.setString(7, "UPI");
+				booking.addBatch();
+				payment.setLong(1, i);
+				payment.setLong(2, i);
+				payment.setString(3, "UPI");
+				payment.setString(4, "SUCCESS");
+				payment.setTimestamp(5, time);
+				payment.setDouble(6, 200.0);
+				payment.addBatch();
+				seat.setLong(1, i);
+				seat.setLong(2, i);
+				seat.setLong(3, seatIds[seatIndex]);
+				seat.setLong(4, showIds[seatIndex / SEATS_PER_SHOW]);
+				seat.addBatch();
+				if (i % BATCH == 0 || i == BOOKINGS) {
+					booking.executeBatch();
+					payment.executeBatch();
+					seat.executeBatch();
+					con.commit();
+				}
+			}
+		}
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+	}
+}
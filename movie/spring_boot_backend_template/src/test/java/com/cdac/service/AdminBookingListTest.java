@@ -0,0 +1,171 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.controller.AdminBookingController;
+import com.cdac.dto.AdminBookingPageDto;
+import com.cdac.dto.AdminBookingQueryDto;
+import com.cdac.dto.AdminBookingRespDto;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Show;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * The admin booking list - the unpaged list keeps its contract (every booking , once)
+ * while streamed across more than one internal page , and the keyset pages chain through their cursors.
+ * A page failing mid stream must leave a body no client can read as a complete list.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdminBookingListTest {
+
+	private static final int BOOKINGS = 230; // more than one page of MAX_ADMIN_PAGE_SIZE
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private AdminBookingController adminBookingController;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private ApplicationContext context;
+
+	private Show show;
+	private final Set<Long> booked = new HashSet<>();
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		show = data.showWithSeats("List " + run, BOOKINGS);
+		String username = data.user("list." + run + "@test.com").getEmail();
+
+		booked.clear();
+		for (int i = 1; i <= BOOKINGS; i++) {
+			booked.add(bookingService
+					.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A" + i), "UPI", 0), username)
+					.getBookingId());
+		}
+	}
+
+	@Test
+	void unpagedListHasEveryBookingOnce() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null,
+				List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+		try {
+			adminBookingController.getAllBookings(response);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+		List<AdminBookingRespDto> all = objectMapper.readValue(response.getContentAsByteArray(),
+				new TypeReference<List<AdminBookingRespDto>>() {
+				});
+
+		Set<Long> ids = new HashSet<>();
+		for (AdminBookingRespDto b : all) {
+			assertTrue(ids.add(b.getBookingId()), "listed twice: " + b.getBookingId());
+		}
+		assertTrue(ids.containsAll(booked));
+		assertEquals(1, all.stream().filter(b -> booked.contains(b.getBookingId())).findFirst().get()
+				.getBookedSeats().size());
+	}
+
+	@Test
+	void pagesChainThroughTheirCursors() {
+		AdminBookingQueryDto query = new AdminBookingQueryDto();
+		query.setShowId(show.getShowId());
+		query.setSize(50);
+
+		List<Long> seen = new ArrayList<>();
+		int pages = 0;
+		do {
+			AdminBookingPageDto page = bookingService.getBookingsPageForAdmin(query);
+			page.getBookings().forEach(b -> seen.add(b.getBookingId()));
+			query.setAfter(page.getNextCursor());
+			pages++;
+		} while (query.getAfter() != null);
+
+		assertEquals(5, pages);
+		assertEquals(booked, new HashSet<>(seen));
+		assertEquals(BOOKINGS, seen.size());
+		List<Long> newestFirst = new ArrayList<>(seen);
+		newestFirst.sort(Comparator.reverseOrder());
+		assertEquals(newestFirst, seen);
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		AdminBookingQueryDto query = new AdminBookingQueryDto();
+		query.setShowId(show.getShowId());
+		query.setSize(200);
+		AdminBookingPageDto first = bookingService.getBookingsPageForAdmin(query);
+		assertNotNull(first.getNextCursor());
+
+		query.setAfter(first.getNextCursor());
+		AdminBookingPageDto last = bookingService.getBookingsPageForAdmin(query);
+		assertEquals(BOOKINGS - 200, last.getBookings().size());
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void failureOnTheFirstPageWritesNothing() {
+		BookingService failing = mock(BookingService.class);
+		when(failing.getBookingsPageForAdmin(any())).thenThrow(new RuntimeException("db down"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThrows(RuntimeException.class,
+				() -> new AdminBookingController(failing, objectMapper).getAllBookings(response));
+		assertFalse(response.isCommitted());
+		assertEquals(0, response.getContentLength());
+	}
+
+	@Test
+	void failureAfterTheFirstPageLeavesTheArrayOpen() throws Exception {
+		AdminBookingRespDto one = new AdminBookingRespDto();
+		one.setBookingId(1L);
+		BookingService failing = mock(BookingService.class);
+		when(failing.getBookingsPageForAdmin(any()))
+				.thenReturn(new AdminBookingPageDto(List.of(one), "cursor"))
+				.thenThrow(new RuntimeException("db down"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThrows(RuntimeException.class,
+				() -> new AdminBookingController(failing, objectMapper).getAllBookings(response));
+		assertTrue(response.isCommitted());
+		String body = response.getContentAsString();
+		assertTrue(body.startsWith("[{"), body);
+		assertFalse(body.endsWith("]"), body);
+		assertThrows(JsonProcessingException.class,
+				() -> objectMapper.readValue(body, new TypeReference<List<AdminBookingRespDto>>() {
+				}));
+	}
+}
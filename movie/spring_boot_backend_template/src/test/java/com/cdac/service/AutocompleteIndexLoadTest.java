@@ -0,0 +1,91 @@
+package com.cdac.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.entities.Movie;
+import com.cdac.entities.Theater;
+import com.cdac.repository.BookingRepository;
+import com.cdac.repository.MovieRepository;
+import com.cdac.repository.TheaterRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Autocomplete lookup harness - 20k movies and 500 theaters , 50k random prefixes (1 to
+ * 5 characters) timed one by one. Prints the build time and p50 / p99 / max. The same
+ * lookups over http at 5k requests / s are AutocompleteLoadTest.
+ */
+@Tag("load")
+class AutocompleteIndexLoadTest {
+
+	private static final int TOP_K = 10;
+	private static final int QUERIES = 50_000;
+	private static final String[] WORDS = { "star", "stars", "start", "dark", "darker", "knight", "night", "king",
+			"kingdom", "lost", "love", "lover", "city", "cinema", "pvr", "inox", "pune", "mumbai", "the", "return" };
+
+	@Test
+	void lookupLatency() {
+		Random random = new Random(3);
+		List<Movie> movies = new ArrayList<>();
+		for (int i = 1; i <= 20_000; i++) {
+			movies.add(new Movie((long) i, randomName(random), LocalDate.of(2024, 1, 1), "UA", "English", "Drama", "2h"));
+		}
+		List<Theater> theaters = new ArrayList<>();
+		for (int i = 1; i <= 500; i++) {
+			theaters.add(new Theater((long) i, randomName(random), WORDS[random.nextInt(WORDS.length)], 100));
+		}
+		List<Object[]> counts = new ArrayList<>();
+		for (int i = 1; i <= 20_000; i++) {
+			counts.add(new Object[] { (long) i, (long) random.nextInt(1000) });
+		}
+		MovieRepository movieRepo = mock(MovieRepository.class);
+		TheaterRepository theaterRepo = mock(TheaterRepository.class);
+		BookingRepository bookingRepo = mock(BookingRepository.class);
+		when(movieRepo.findAll()).thenReturn(movies);
+		when(theaterRepo.findAll()).thenReturn(theaters);
+		when(bookingRepo.countBookingsByMovie()).thenReturn(counts);
+		when(bookingRepo.countBookingsByTheater()).thenReturn(List.of());
+		AutocompleteIndex index = new AutocompleteIndex(movieRepo, theaterRepo, bookingRepo, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(index, "topK", TOP_K);
+
+		long buildStart = System.nanoTime();
+		index.load();
+		long buildNanos = System.nanoTime() - buildStart;
+
+		long[] nanos = new long[QUERIES];
+		for (int q = 0; q < QUERIES; q++) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			String prefix = word.substring(0, 1 + random.nextInt(Math.min(5, word.length())));
+			long t0 = System.nanoTime();
+			index.suggest(prefix, null, TOP_K);
+			nanos[q] = System.nanoTime() - t0;
+		}
+		Arrays.sort(nanos);
+		System.out.printf("autocomplete : built over %d entries in %d ms , lookup p50 %.1f us , p99 %.1f us , max %.1f us%n",
+				index.size(), buildNanos / 1_000_000, nanos[QUERIES / 2] / 1e3, nanos[QUERIES * 99 / 100] / 1e3,
+				nanos[QUERIES - 1] / 1e3);
+	}
+
+	private static String randomName(Random random) {
+		StringBuilder name = new StringBuilder();
+		for (int w = 1 + random.nextInt(3); w > 0; w--) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+			if (w > 1) {
+				name.append(' ');
+			}
+		}
+		return name.toString();
+	}
+}
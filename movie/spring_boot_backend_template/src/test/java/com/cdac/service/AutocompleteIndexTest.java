@@ -0,0 +1,266 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.dto.AutocompleteSuggestionDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.BookingRepository;
+import com.cdac.repository.MovieRepository;
+import com.cdac.repository.TheaterRepository;
+import com.cdac.service.AutocompleteIndex.Kind;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AutocompleteIndexTest {
+
+	private static final int TOP_K = 10;
+	private static final String[] WORDS = { "star", "stars", "start", "dark", "darker", "knight", "night", "king",
+			"kingdom", "lost", "love", "lover", "city", "cinema", "pvr", "inox", "pune", "mumbai", "the", "return" };
+
+	private final MovieRepository movieRepo = mock(MovieRepository.class);
+	private final TheaterRepository theaterRepo = mock(TheaterRepository.class);
+	private final BookingRepository bookingRepo = mock(BookingRepository.class);
+
+	@Test
+	void everyWordStartIsAKeyAndPopularityOrders() {
+		AutocompleteIndex index = load(
+				List.of(movie(1, "The Dark Knight"), movie(2, "Knight and Day"), movie(3, "Darkest Hour")),
+				List.of(theater(10, "PVR Phoenix", "Pune"), theater(11, "Inox", "Dadar Pune")),
+				List.<Object[]>of(new Object[] { 2L, 7L }, new Object[] { 1L, 3L }),
+				List.<Object[]>of(new Object[] { 11L, 4L }));
+
+		assertEquals(List.of(2L, 1L), ids(index.suggest("KNIG", Kind.MOVIE, 10)));
+		assertEquals(List.of(1L, 3L), ids(index.suggest("  dark", Kind.MOVIE, 10)));
+		assertEquals(List.of(), ids(index.suggest("ight", Kind.MOVIE, 10)));
+		assertEquals(List.of(), ids(index.suggest("", null, 10)));
+		// theaters are keyed by name and location
+		assertEquals(List.of(11L, 10L), ids(index.suggest("pun", Kind.THEATER, 10)));
+		// both kinds , merged by popularity
+		assertEquals(List.of(2L, 11L, 1L, 3L), ids(index.suggest("d", null, 10)));
+		assertEquals(List.of(2L), ids(index.suggest("knight", Kind.MOVIE, 1)));
+	}
+
+	@Test
+	void bookingsRenamesAndRemovalsMoveSuggestions() {
+		AutocompleteIndex index = load(List.of(movie(1, "Star Wars"), movie(2, "A Star Is Born")),
+				List.of(theater(10, "Star Cinema", "Pune")), List.of(), List.of());
+		assertEquals(List.of(2L, 1L), ids(index.suggest("star", Kind.MOVIE, 10)));
+
+		index.booked(show(1, 10), 1);
+		// counted , ranked at the next flush
+		assertEquals(List.of(2L, 1L), ids(index.suggest("star", Kind.MOVIE, 10)));
+		index.applyBookings();
+		assertEquals(List.of(1L, 2L), ids(index.suggest("star", Kind.MOVIE, 10)));
+		index.booked(show(1, 10), -1);
+		index.booked(show(1, 10), -1); // never below zero
+		index.applyBookings();
+		assertEquals(List.of(2L, 1L), ids(index.suggest("star", Kind.MOVIE, 10)));
+
+		index.putMovie(movie(2, "Born Free"));
+		assertEquals(List.of(1L), ids(index.suggest("star", Kind.MOVIE, 10)));
+		assertEquals(List.of(2L), ids(index.suggest("fr", Kind.MOVIE, 10)));
+
+		index.removeMovie(1L);
+		index.removeTheater(10L);
+		assertEquals(List.of(), ids(index.suggest("star", null, 10)));
+		assertEquals(1, index.size());
+	}
+
+	// random catalogue and random writes - every prefix gives what a scan of all entries gives
+	@Test
+	void matchesABruteForceRanking() {
+		Random random = new Random(11);
+		List<Movie> movies = new ArrayList<>();
+		for (int i = 1; i <= 2000; i++) {
+			movies.add(movie(i, randomName(random)));
+		}
+		List<Theater> theaters = new ArrayList<>();
+		for (int i = 1; i <= 200; i++) {
+			theaters.add(theater(i, randomName(random), WORDS[random.nextInt(WORDS.length)]));
+		}
+		AutocompleteIndex index = load(movies, theaters, List.of(), List.of());
+
+		Map<Long, Movie> liveMovies = new HashMap<>();
+		movies.forEach(m -> liveMovies.put(m.getMovieId(), m));
+		Map<Long, Theater> liveTheaters = new HashMap<>();
+		theaters.forEach(t -> liveTheaters.put(t.getTheaterId(), t));
+		Map<Long, Long> movieWeight = new HashMap<>();
+		Map<Long, Long> theaterWeight = new HashMap<>();
+
+		for (int round = 0; round < 5; round++) {
+			// a flush applies each id's net delta , clamped at zero once
+			Map<Long, Long> movieDelta = new HashMap<>();
+			Map<Long, Long> theaterDelta = new HashMap<>();
+			for (int i = 0; i < 5000; i++) {
+				long movieId = 1 + random.nextInt(2000);
+				long theaterId = 1 + random.nextInt(200);
+				int delta = random.nextInt(4) == 0 ? -1 : 1;
+				index.booked(show(movieId, theaterId), delta);
+				movieDelta.merge(movieId, (long) delta, Long::sum);
+				theaterDelta.merge(theaterId, (long) delta, Long::sum);
+			}
+			index.applyBookings();
+			movieDelta.forEach((id, delta) -> {
+				if (liveMovies.containsKey(id)) {
+					movieWeight.put(id, Math.max(0, movieWeight.getOrDefault(id, 0L) + delta));
+				}
+			});
+			theaterDelta.forEach((id, delta) -> {
+				if (liveTheaters.containsKey(id)) {
+					theaterWeight.put(id, Math.max(0, theaterWeight.getOrDefault(id, 0L) + delta));
+				}
+			});
+			for (int i = 0; i < 100; i++) {
+				long id = 1 + random.nextInt(2000);
+				if (random.nextBoolean()) {
+					Movie renamed = movie(id, randomName(random));
+					index.putMovie(renamed);
+					liveMovies.put(id, renamed);
+				} else {
+					index.removeMovie(id);
+					liveMovies.remove(id);
+					movieWeight.remove(id);
+				}
+			}
+			for (int q = 0; q < 600; q++) {
+				String word = WORDS[random.nextInt(WORDS.length)];
+				String prefix = word.substring(0, 1 + random.nextInt(word.length()));
+				Kind kind = random.nextInt(3) == 0 ? null : Kind.values()[random.nextInt(2)];
+				List<String> expected = scan(liveMovies, liveTheaters, movieWeight, theaterWeight, prefix, kind);
+				List<String> actual = index.suggest(prefix, kind, TOP_K).stream()
+						.map(s -> s.getType() + ":" + s.getId()).toList();
+				assertEquals(expected, actual, "prefix=" + prefix + " kind=" + kind);
+			}
+		}
+	}
+
+	// bookings from many threads while flushes run - none is lost or counted twice
+	@Test
+	void concurrentBookingsAreAllApplied() throws Exception {
+		AutocompleteIndex index = load(List.of(movie(1, "Star Wars"), movie(2, "Star Trek")),
+				List.of(theater(10, "Star Cinema", "Pune")), List.of(), List.of());
+		int threads = 8;
+		int bookings = 20_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				for (int i = 0; i < bookings; i++) {
+					index.booked(show(2, 10), 1);
+				}
+			}));
+		}
+		while (futures.stream().anyMatch(f -> !f.isDone())) {
+			index.applyBookings();
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+		index.applyBookings();
+		for (int i = 0; i < threads * bookings; i++) {
+			index.booked(show(1, 10), 1);
+		}
+		index.applyBookings();
+		// a tie ("Star Trek" sorts first) - movie 2 has no fewer bookings than movie 1
+		assertEquals(List.of(2L, 1L), ids(index.suggest("star", Kind.MOVIE, 10)));
+
+		// and no more
+		index.booked(show(1, 10), 1);
+		index.applyBookings();
+		assertEquals(List.of(1L, 2L), ids(index.suggest("star", Kind.MOVIE, 10)));
+	}
+
+	private AutocompleteIndex load(List<Movie> movies, List<Theater> theaters, List<Object[]> movieCounts,
+			List<Object[]> theaterCounts) {
+		when(movieRepo.findAll()).thenReturn(movies);
+		when(theaterRepo.findAll()).thenReturn(theaters);
+		when(bookingRepo.countBookingsByMovie()).thenReturn(movieCounts);
+		when(bookingRepo.countBookingsByTheater()).thenReturn(theaterCounts);
+		AutocompleteIndex index = new AutocompleteIndex(movieRepo, theaterRepo, bookingRepo, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(index, "topK", TOP_K);
+		index.load();
+		return index;
+	}
+
+	private record Ranked(String key, long weight, String text, long id) {
+	}
+
+	private static List<String> scan(Map<Long, Movie> movies, Map<Long, Theater> theaters, Map<Long, Long> movieWeight,
+			Map<Long, Long> theaterWeight, String prefix, Kind kind) {
+		List<Ranked> hits = new ArrayList<>();
+		if (kind != Kind.THEATER) {
+			movies.values().stream().filter(m -> hasWordStarting(m.getTitle(), prefix))
+					.forEach(m -> hits.add(new Ranked("MOVIE:" + m.getMovieId(),
+							movieWeight.getOrDefault(m.getMovieId(), 0L), m.getTitle(), m.getMovieId())));
+		}
+		if (kind != Kind.MOVIE) {
+			theaters.values().stream().filter(t -> hasWordStarting(t.getName() + " " + t.getLocation(), prefix))
+					.forEach(t -> hits.add(new Ranked("THEATER:" + t.getTheaterId(),
+							theaterWeight.getOrDefault(t.getTheaterId(), 0L), t.getName(), t.getTheaterId())));
+		}
+		return hits.stream()
+				.sorted(Comparator.comparingLong((Ranked r) -> -r.weight()).thenComparing(Ranked::text)
+						.thenComparingLong(Ranked::id))
+				.limit(TOP_K).map(Ranked::key).toList();
+	}
+
+	private static boolean hasWordStarting(String text, String prefix) {
+		for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{Alnum}]+")) {
+			if (word.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String randomName(Random random) {
+		StringBuilder name = new StringBuilder();
+		for (int w = 1 + random.nextInt(3); w > 0; w--) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+			if (w > 1) {
+				name.append(' ');
+			}
+		}
+		return name.toString();
+	}
+
+	private static Movie movie(long id, String title) {
+		return new Movie(id, title, LocalDate.of(2024, 1, 1), "UA", "English", "Drama", "2h");
+	}
+
+	private static Theater theater(long id, String name, String location) {
+		return new Theater(id, name, location, 100);
+	}
+
+	private static Show show(long movieId, long theaterId) {
+		Show show = new Show();
+		show.setMovie(movie(movieId, "x"));
+		show.setTheater(theater(theaterId, "x", "x"));
+		return show;
+	}
+
+	private static List<Long> ids(List<AutocompleteSuggestionDto> suggestions) {
+		return suggestions.stream().map(AutocompleteSuggestionDto::getId).toList();
+	}
+}
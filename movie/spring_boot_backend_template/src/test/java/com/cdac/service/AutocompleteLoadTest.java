@@ -0,0 +1,165 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cdac.Application;
+import com.cdac.TestData;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Role;
+import com.cdac.entities.Theater;
+import com.cdac.repository.MovieRepository;
+import com.cdac.repository.TheaterRepository;
+import com.cdac.security.JWTUtils;
+
+/*
+ * Autocomplete load harness - boots the app on a random port over MOVIES movies and
+ * THEATERS theaters , then sends GET /api/autocomplete at a fixed RATE per second
+ * (one request due every 1/RATE s , spread over CLIENTS keep-alive connections) for
+ * WARMUP_SECONDS plus SECONDS , as USERS users typing 1 to 5 character prefixes. Latency
+ * is taken from the moment a request was due , so a stalled server shows up in it
+ * instead of only slowing the sender. Prints the achieved rate and p50 / p99 / p99.9 /
+ * max of the measured part ; asserts only that every request got a 200. Client and
+ * server share this jvm , so the box needs the cpu for both (-Dautocomplete.load.rate=N
+ * to run at another rate).
+ */
+@Tag("load")
+class AutocompleteLoadTest {
+
+	private static final int RATE = Integer.getInteger("autocomplete.load.rate", 5000);
+	private static final int WARMUP_SECONDS = 3;
+	private static final int SECONDS = 10;
+	private static final int MOVIES = 20_000;
+	private static final int THEATERS = 500;
+	private static final int USERS = 100;
+	private static final int CLIENTS = 64;
+
+	private static final String[] WORDS = { "star", "stars", "start", "dark", "darker", "knight", "night", "king",
+			"kingdom", "lost", "love", "lover", "city", "cinema", "pvr", "inox", "pune", "mumbai", "the", "return" };
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void suggestionsAtFiveThousandRequestsPerSecond() throws Exception {
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:autocomplete-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--booking.waiting-room.enabled=false",
+						"--spring.jmx.enabled=false")) {
+			int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+			List<String> tokens = seed(ctx, new Random(5));
+			String base = "http://localhost:" + port + "/api/autocomplete?q=";
+
+			int warmup = RATE * WARMUP_SECONDS;
+			int total = warmup + RATE * SECONDS;
+			long interval = TimeUnit.SECONDS.toNanos(1) / RATE;
+			long[] nanos = new long[total];
+			List<String> failures = new CopyOnWriteArrayList<>();
+			ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+			List<Future<?>> senders = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int c = 0; c < CLIENTS; c++) {
+				int client = c;
+				senders.add(clients.submit(() -> {
+					Random random = new Random(client);
+					// every CLIENTS-th slot of the schedule
+					for (int r = client; r < total; r += CLIENTS) {
+						long due = start + r * interval;
+						long wait = due - System.nanoTime();
+						if (wait > 0) {
+							LockSupport.parkNanos(wait);
+						}
+						String word = WORDS[random.nextInt(WORDS.length)];
+						String prefix = word.substring(0, 1 + random.nextInt(Math.min(5, word.length())));
+						HttpRequest request = HttpRequest.newBuilder(URI.create(base + prefix))
+								.header("Authorization", "Bearer " + tokens.get(r % USERS)).GET().build();
+						HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+						nanos[r] = System.nanoTime() - due;
+						if (response.statusCode() != 200) {
+							failures.add("status " + response.statusCode());
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> sender : senders) {
+				sender.get(5, TimeUnit.MINUTES);
+			}
+			long elapsedNanos = System.nanoTime() - start;
+			clients.shutdown();
+
+			long[] measured = Arrays.copyOfRange(nanos, warmup, total);
+			Arrays.sort(measured);
+			System.out.printf("autocomplete http : %d entries , %d requests at %d/s target (done at %.0f/s) ,"
+					+ " p50 %.2f ms p99 %.2f ms p99.9 %.2f ms max %.2f ms%n",
+					ctx.getBean(AutocompleteIndex.class).size(), total, RATE, total * 1e9 / elapsedNanos,
+					percentile(measured, 0.50) / 1e6, percentile(measured, 0.99) / 1e6,
+					percentile(measured, 0.999) / 1e6, measured[measured.length - 1] / 1e6);
+
+			assertEquals(0, failures.size(), () -> failures.subList(0, Math.min(10, failures.size())).toString());
+		}
+	}
+
+	// the catalog and the users typing ; the index is rebuilt from it as at startup
+	private static List<String> seed(ConfigurableApplicationContext ctx, Random random) {
+		List<Movie> movies = new ArrayList<>();
+		for (int i = 0; i < MOVIES; i++) {
+			movies.add(new Movie(null, randomName(random), LocalDate.now(), "UA", "English", "Drama", "2h"));
+		}
+		ctx.getBean(MovieRepository.class).saveAll(movies);
+		List<Theater> theaters = new ArrayList<>();
+		for (int i = 0; i < THEATERS; i++) {
+			theaters.add(new Theater(null, randomName(random), WORDS[random.nextInt(WORDS.length)], 100));
+		}
+		ctx.getBean(TheaterRepository.class).saveAll(theaters);
+		ctx.getBean(AutocompleteIndex.class).load();
+
+		JWTUtils jwt = ctx.getBean(JWTUtils.class);
+		TestData data = new TestData(ctx);
+		List<String> tokens = new ArrayList<>();
+		for (int u = 0; u < USERS; u++) {
+			String email = data.user("typist." + u + "@test.com").getEmail();
+			tokens.add(jwt.generateToken(email, Role.USER.name()));
+		}
+		return tokens;
+	}
+
+	private static String randomName(Random random) {
+		StringBuilder name = new StringBuilder();
+		for (int w = 1 + random.nextInt(3); w > 0; w--) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			name.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+			if (w > 1) {
+				name.append(' ');
+			}
+		}
+		return name.toString();
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+	}
+}
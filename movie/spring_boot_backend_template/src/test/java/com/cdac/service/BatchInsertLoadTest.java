@@ -0,0 +1,140 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.dto.SeatReqDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Insert batching load harness (pooled table ids , hibernate.jdbc.batch_size) - prepared
+ * statements and latency per addSeats of SEATS seats and per bookShow of 1 / 10 seats ,
+ * counted with Hibernate statistics. Prints the numbers ; asserts only that seat
+ * inserts are batched and that a booking's statements do not grow with its seats.
+ * H2 latency says little about MySQL round trips - the statement counts are the figure.
+ * The same two checks , one run each , are in BatchInsertTest.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchInsertLoadTest {
+
+	private static final int SEATS = 400;
+	private static final int RUNS = 10;
+
+	@Autowired
+	private SeatService seatService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private ApplicationContext context;
+
+	private Statistics statistics;
+	private TestData data;
+	private Movie movie;
+	private Theater theater;
+	private String email;
+	private int shows;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		data = new TestData(context);
+		movie = data.movie("Batch " + run);
+		theater = data.theater("Hall " + run, SEATS);
+		email = data.user("batch." + run + "@test.com").getEmail();
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void addSeatsStatementsAndLatency() {
+		long[] statements = new long[RUNS];
+		long[] micros = new long[RUNS];
+		for (int r = 0; r < RUNS; r++) {
+			SeatReqDto dto = seats(newShow(), SEATS);
+			statistics.clear();
+			long start = System.nanoTime();
+			assertEquals(SEATS, seatService.addSeats(dto).size());
+			micros[r] = (System.nanoTime() - start) / 1000;
+			statements[r] = statistics.getPrepareStatementCount();
+		}
+
+		System.out.printf("batching : addSeats of %d seats - statements %s , warm mean %d us (first %d us)%n",
+				SEATS, Arrays.toString(statements), mean(Arrays.copyOfRange(micros, 1, RUNS)), micros[0]);
+		assertTrue(Arrays.stream(statements).max().getAsLong() < SEATS / 10, "seat inserts are not batched");
+	}
+
+	@Test
+	void bookShowStatementsDoNotGrowWithSeats() {
+		long[] one = new long[RUNS];
+		long[] ten = new long[RUNS];
+		long[] tenMicros = new long[RUNS];
+		for (int r = 0; r < RUNS; r++) {
+			Show show = newShow();
+			seatService.addSeats(seats(show, 20));
+			one[r] = bookingStatements(show, List.of("A1"));
+			long start = System.nanoTime();
+			ten[r] = bookingStatements(show, List.of("A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9", "A10", "A11"));
+			tenMicros[r] = (System.nanoTime() - start) / 1000;
+		}
+
+		System.out.printf("batching : bookShow statements - 1 seat %s , 10 seats %s , 10 seat warm mean %d us%n",
+				Arrays.toString(one), Arrays.toString(ten), mean(Arrays.copyOfRange(tenMicros, 1, RUNS)));
+		// an id block refill (every 50 ids of a table) may add a statement or two to a run
+		for (int r = 0; r < RUNS; r++) {
+			assertTrue(ten[r] <= one[r] + 3, "10 seat booking prepared " + ten[r] + " statements , 1 seat " + one[r]);
+		}
+	}
+
+	private long bookingStatements(Show show, List<String> seatNos) {
+		statistics.clear();
+		bookingService.bookShow(new BookingUserReqDto(show.getShowId(), seatNos, "UPI", 0), email);
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Show newShow() {
+		return data.show(movie, theater, LocalDateTime.now().plusDays(60).plusHours(4L * shows++));
+	}
+
+	private static SeatReqDto seats(Show show, int count) {
+		List<SeatReqDto.SeatData> seats = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			seats.add(new SeatReqDto.SeatData("A" + i, 200.0, false));
+		}
+		return new SeatReqDto(show.getShowId(), seats);
+	}
+
+	private static long mean(long[] samples) {
+		return Arrays.stream(samples).sum() / samples.length;
+	}
+}
@@ -0,0 +1,111 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.dto.SeatReqDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Insert batching (pooled table ids , hibernate.jdbc.batch_size) - prepared statements
+ * counted with Hibernate statistics : seat inserts go in batches , and a booking's
+ * statements do not grow with its seats. BatchInsertLoadTest times the same calls.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchInsertTest {
+
+	private static final int SEATS = 400;
+
+	@Autowired
+	private SeatService seatService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private ApplicationContext context;
+
+	private Statistics statistics;
+	private TestData data;
+	private Movie movie;
+	private Theater theater;
+	private String email;
+	private int shows;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		data = new TestData(context);
+		movie = data.movie("Batch " + run);
+		theater = data.theater("Hall " + run, SEATS);
+		email = data.user("batch." + run + "@test.com").getEmail();
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void seatInsertsAreBatched() {
+		SeatReqDto dto = seats(newShow(), SEATS);
+		statistics.clear();
+
+		assertEquals(SEATS, seatService.addSeats(dto).size());
+		assertTrue(statistics.getPrepareStatementCount() < SEATS / 10,
+				"addSeats of " + SEATS + " seats prepared " + statistics.getPrepareStatementCount() + " statements");
+	}
+
+	@Test
+	void bookShowStatementsDoNotGrowWithSeats() {
+		Show show = newShow();
+		seatService.addSeats(seats(show, 20));
+
+		long one = bookingStatements(show, List.of("A1"));
+		long ten = bookingStatements(show, List.of("A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9", "A10", "A11"));
+
+		// an id block refill (every 50 ids of a table) may add a statement or two
+		assertTrue(ten <= one + 3, "10 seat booking prepared " + ten + " statements , 1 seat " + one);
+	}
+
+	private long bookingStatements(Show show, List<String> seatNos) {
+		statistics.clear();
+		bookingService.bookShow(new BookingUserReqDto(show.getShowId(), seatNos, "UPI", 0), email);
+		return statistics.getPrepareStatementCount();
+	}
+
+	private Show newShow() {
+		return data.show(movie, theater, LocalDateTime.now().plusDays(60).plusHours(4L * shows++));
+	}
+
+	private static SeatReqDto seats(Show show, int count) {
+		List<SeatReqDto.SeatData> seats = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			seats.add(new SeatReqDto.SeatData("A" + i, 200.0, false));
+		}
+		return new SeatReqDto(show.getShowId(), seats);
+	}
+}
@@ -0,0 +1,166 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.BookingRespDto;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.BookingSeat;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.repository.BookingSeatRepository;
+import com.cdac.repository.SeatRepository;
+
+/*
+ * Double booking stress test of the conditional bulk claim - many threads book
+ * overlapping seat sets of one show against the embedded db , every seat must end
+ * up in at most one booking and the seat rows must agree with the bookings. Prints the
+ * attempted and successful bookings per second (mostly rejections once the 30 seats go).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS_PER_THREAD = 40;
+	private static final int SEATS = 30;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private SeatRepository seatRepo;
+	@Autowired
+	private BookingSeatRepository bookingSeatRepo;
+	@Autowired
+	private ApplicationContext context;
+
+	private Show show;
+	private final List<String> users = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		show = data.showWithSeats("Stress " + run, SEATS);
+		users.clear();
+		for (int i = 0; i < THREADS; i++) {
+			users.add(data.user("stress" + i + "." + run + "@test.com").getEmail());
+		}
+	}
+
+	@Test
+	void concurrentBookingsNeverShareASeat() throws Exception {
+		Map<String, Long> owner = new ConcurrentHashMap<>();
+		AtomicInteger doubleBooked = new AtomicInteger();
+		AtomicInteger booked = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			String username = users.get(t);
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					BookingUserReqDto dto = new BookingUserReqDto(show.getShowId(), randomSeats(), "UPI", 0);
+					try {
+						BookingRespDto resp = bookingService.bookShow(dto, username);
+						booked.incrementAndGet();
+						for (String seatNo : resp.getBookedSeats()) {
+							if (owner.putIfAbsent(seatNo, resp.getBookingId()) != null) {
+								doubleBooked.incrementAndGet();
+							}
+						}
+					} catch (IllegalArgumentException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		long started = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(2, TimeUnit.MINUTES);
+		}
+		double seconds = (System.nanoTime() - started) / 1e9;
+		pool.shutdown();
+
+		System.out.printf("booking stress : %d threads , %d attempts in %.2f s - %.0f attempts/s ,"
+				+ " %d booked (%.0f bookings/s) , %d rejected%n",
+				THREADS, THREADS * ATTEMPTS_PER_THREAD, seconds, THREADS * ATTEMPTS_PER_THREAD / seconds,
+				booked.get(), booked.get() / seconds, rejected.get());
+
+		assertEquals(0, doubleBooked.get());
+		assertEquals(THREADS * ATTEMPTS_PER_THREAD, booked.get() + rejected.get());
+		assertTrue(booked.get() > 0);
+
+		// the db agrees - one booking_seats row per booked seat , and exactly those seats flagged
+		Map<Long, Integer> rowsPerSeat = new HashMap<>();
+		for (BookingSeat bs : bookingSeatRepo.findAll()) {
+			if (bs.getShow().getShowId().equals(show.getShowId())) {
+				rowsPerSeat.merge(bs.getSeat().getId(), 1, Integer::sum);
+			}
+		}
+		assertTrue(rowsPerSeat.values().stream().allMatch(n -> n == 1));
+		long flagged = seatRepo.findByShowShowId(show.getShowId()).stream().filter(Seat::isBooked).count();
+		assertEquals(owner.size(), flagged);
+		assertEquals(owner.size(), rowsPerSeat.size());
+	}
+
+	@Test
+	void unknownSeatNumberIsNotFound() {
+		BookingUserReqDto dto = new BookingUserReqDto(show.getShowId(), List.of("A1", "Z99"), "UPI", 0);
+
+		ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+				() -> bookingService.bookShow(dto, users.get(0)));
+
+		assertEquals("Selected seats not found", e.getMessage());
+		assertTrue(seatRepo.findByShowShowId(show.getShowId()).stream().noneMatch(Seat::isBooked));
+	}
+
+	@Test
+	void bookedSeatIsAConflict() {
+		bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1"), "UPI", 0), users.get(0));
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> bookingService
+				.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1", "A2"), "UPI", 0), users.get(1)));
+
+		assertEquals("One or more seats are already booked", e.getMessage());
+	}
+
+	// one to three distinct seats out of the show
+	private static List<String> randomSeats() {
+		List<String> all = new ArrayList<>();
+		for (int i = 1; i <= SEATS; i++) {
+			all.add("A" + i);
+		}
+		Collections.shuffle(all, ThreadLocalRandom.current());
+		return List.copyOf(all.subList(0, 1 + ThreadLocalRandom.current().nextInt(3)));
+	}
+}
@@ -0,0 +1,103 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.BookingRespDto;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Seat;
+import com.cdac.repository.BookingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookingSequencerTest {
+
+	private static final Long SHOW = 3L;
+
+	private final BookingService bookingService = mock(BookingService.class);
+	private final SeatInventory seatInventory = mock(SeatInventory.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private BookingSequencer sequencer;
+
+	@BeforeEach
+	void setUp() {
+		sequencer = new BookingSequencer(bookingService, mock(BookingRepository.class), seatInventory,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), registry);
+		ReflectionTestUtils.setField(sequencer, "enabled", true);
+		ReflectionTestUtils.setField(sequencer, "shardCount", 1);
+		ReflectionTestUtils.setField(sequencer, "batchSize", 1);
+		ReflectionTestUtils.setField(sequencer, "queueCapacity", 100);
+		ReflectionTestUtils.setField(sequencer, "timeoutSeconds", 1L);
+		sequencer.start();
+
+		Seat a1 = new Seat();
+		a1.setId(1L);
+		a1.setSeatNo("A1");
+		Seat a2 = new Seat();
+		a2.setId(2L);
+		a2.setSeatNo("A2");
+		when(seatInventory.get(SHOW)).thenReturn(new ShowSeatMap(SHOW, List.of(a1, a2)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		sequencer.stop();
+	}
+
+	@Test
+	void commandQueuedPastTheCallerTimeoutNeverRuns() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BookingRespDto first = new BookingRespDto();
+		when(bookingService.bookShow(any(), eq("slow"))).thenAnswer(inv -> {
+			release.await(5, TimeUnit.SECONDS);
+			return first;
+		});
+
+		// the shard is busy with "slow" for longer than one timeout , "late" is still queued
+		CompletableFuture<BookingRespDto> slow = CompletableFuture
+				.supplyAsync(() -> sequencer.bookShow(request("A1"), "slow"));
+		Thread.sleep(100);
+		RuntimeException e = assertThrows(RuntimeException.class, () -> sequencer.bookShow(request("A2"), "late"));
+		assertTrue(e.getMessage().contains("nothing was booked"));
+
+		release.countDown();
+		// the running command is waited for once more and its result still reaches its caller
+		assertSame(first, slow.get(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		verify(bookingService, never()).bookShow(any(), eq("late"));
+		assertEquals(1.0, registry.counter("booking.sequencer.cancelled", "shard", "0").count());
+	}
+
+	@Test
+	void unknownSeatIsNotFound() {
+		ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+				() -> sequencer.bookShow(request("Z9"), "user"));
+
+		assertEquals("Selected seats not found", e.getMessage());
+	}
+
+	private static BookingUserReqDto request(String seatNo) {
+		return new BookingUserReqDto(SHOW, List.of(seatNo), "UPI", 0);
+	}
+}
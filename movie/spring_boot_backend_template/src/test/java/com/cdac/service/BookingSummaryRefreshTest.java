@@ -0,0 +1,120 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.dto.MovieReqDto;
+import com.cdac.dto.ShowReqDto;
+import com.cdac.dto.TheaterReqDto;
+import com.cdac.dto.UpdateUserProfileRequestDTO;
+import com.cdac.entities.BookingSummary;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.entities.User;
+import com.cdac.repository.BookingSummaryRepository;
+import com.cdac.repository.MovieRepository;
+
+/*
+ * The copied columns of a booking summary follow edits of the movie , theater ,
+ * show and user they were copied from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingSummaryRefreshTest {
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private MovieService movieService;
+	@Autowired
+	private TheaterService theaterService;
+	@Autowired
+	private ShowService showService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private BookingSummaryRepository summaryRepo;
+	@Autowired
+	private MovieRepository movieRepo;
+	@Autowired
+	private ApplicationContext context;
+
+	private String run;
+	private Movie movie;
+	private Theater theater;
+	private Show show;
+	private User user;
+	private Long bookingId;
+
+	@BeforeEach
+	void setUp() {
+		run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		movie = data.movie("Before " + run);
+		theater = data.theater("Hall " + run, 10);
+		show = data.show(movie, theater, LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MINUTES));
+		data.seats(show, 1);
+		user = data.user("summary." + run + "@test.com");
+
+		bookingId = bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1"), "UPI", 0),
+				user.getEmail()).getBookingId();
+	}
+
+	@Test
+	void movieRenameReachesTheSummary() {
+		movieService.updateMovie(movie.getMovieId(), new MovieReqDto("After " + run, null, null, null, null, null));
+
+		assertEquals("After " + run, summary().getShowTitle());
+	}
+
+	@Test
+	void theaterRenameReachesTheSummary() {
+		theaterService.updateTheater(theater.getTheaterId(), new TheaterReqDto("Renamed " + run, "Pune", 10));
+
+		assertEquals("Renamed " + run, summary().getTheaterName());
+	}
+
+	@Test
+	void showEditReachesTheSummary() {
+		Movie other = movieRepo.save(new Movie(null, "Other " + run, LocalDate.now(), "UA", "English", "Drama", "2h"));
+		LocalDateTime later = show.getStartTime().plusHours(5);
+		showService.updateShow(show.getShowId(), new ShowReqDto(other.getMovieId(), theater.getTheaterId(),
+				"ignored", later, later.plusHours(2), BigDecimal.valueOf(200)));
+
+		BookingSummary summary = summary();
+		assertEquals("Other " + run, summary.getShowTitle());
+		assertEquals(theater.getName(), summary.getTheaterName());
+		assertEquals(later, summary.getShowStartTime());
+	}
+
+	@Test
+	void userRenameReachesTheSummary() {
+		UpdateUserProfileRequestDTO dto = new UpdateUserProfileRequestDTO();
+		dto.setName("New Name");
+		dto.setEmail(user.getEmail());
+		dto.setPhone(user.getPhone());
+		userService.updateUserProfile(new UsernamePasswordAuthenticationToken(user.getEmail(), null), dto);
+
+		assertEquals("New Name", summary().getUserName());
+	}
+
+	private BookingSummary summary() {
+		return summaryRepo.findById(bookingId).orElseThrow();
+	}
+}
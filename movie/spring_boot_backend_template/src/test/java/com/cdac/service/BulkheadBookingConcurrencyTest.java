@@ -0,0 +1,41 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/*
+ * The double booking stress test again with the jdbc bulkhead wrapping the DataSource
+ * (virtual thread mode) - the nested pool must still sit under it , or the id block
+ * fetches of concurrent bookings queue on the main pool.
+ */
+@SpringBootTest(properties = "jdbc.bulkhead.enabled=true")
+@ActiveProfiles("test")
+class BulkheadBookingConcurrencyTest extends BookingConcurrencyTest {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void nestedCheckoutsBypassTheMainPool() throws Exception {
+		HikariDataSource main = dataSource.unwrap(HikariDataSource.class);
+
+		try (Connection outer = dataSource.getConnection()) {
+			int active = main.getHikariPoolMXBean().getActiveConnections();
+			try (Connection inner = dataSource.getConnection()) {
+				assertTrue(inner.isValid(1));
+				assertEquals(active, main.getHikariPoolMXBean().getActiveConnections());
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.TestData;
+import com.cdac.dto.UpdateUserProfileRequestDTO;
+import com.cdac.repository.TokenRevocationRepository;
+import com.cdac.repository.UserRepository;
+import com.cdac.security.RevokedTokens;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * An email change voids the tokens naming the old email - on this node at once , and
+ * on a node started afterwards (a fresh RevokedTokens loaded from the db) , which
+ * claims-auth relies on since it never looks the user up.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailChangeRevocationTest {
+
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private RevokedTokens revokedTokens;
+	@Autowired
+	private UserRepository userRepo;
+	@Autowired
+	private TokenRevocationRepository revocationRepo;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void oldEmailTokensStayRevokedAfterARestart() throws Exception {
+		String run = Long.toString(System.nanoTime());
+		new TestData(context).user("old." + run + "@test.com");
+		long issuedBefore = System.currentTimeMillis() - 60_000;
+
+		UpdateUserProfileRequestDTO dto = new UpdateUserProfileRequestDTO();
+		dto.setName("Mover");
+		dto.setEmail("new." + run + "@test.com");
+		dto.setPhone("9000000000");
+		userService.updateUserProfile(new UsernamePasswordAuthenticationToken("old." + run + "@test.com", null), dto);
+
+		assertTrue(revokedTokens.isRevoked("old." + run + "@test.com", issuedBefore));
+		assertNotNull(userRepo.findByEmail("new." + run + "@test.com").orElseThrow().getTokensRevokedAt());
+
+		RevokedTokens restarted = new RevokedTokens(userRepo, revocationRepo, new SimpleMeterRegistry(), 100, 0.01, 0);
+		restarted.ensureLoaded();
+
+		assertTrue(restarted.isRevoked("old." + run + "@test.com", issuedBefore));
+		assertFalse(restarted.isRevoked("new." + run + "@test.com", System.currentTimeMillis() + 2000));
+	}
+
+	@Test
+	void rolledBackEmailChangeRevokesNothing() {
+		String run = Long.toString(System.nanoTime());
+		new TestData(context).user("stay." + run + "@test.com");
+		long issuedBefore = System.currentTimeMillis() - 60_000;
+
+		UpdateUserProfileRequestDTO dto = new UpdateUserProfileRequestDTO();
+		dto.setName("Stayer");
+		dto.setEmail("moved." + run + "@test.com");
+		dto.setPhone("9000000000");
+		transactionTemplate.executeWithoutResult(status -> {
+			userService.updateUserProfile(new UsernamePasswordAuthenticationToken("stay." + run + "@test.com", null),
+					dto);
+			status.setRollbackOnly();
+		});
+
+		assertFalse(revokedTokens.isRevoked("stay." + run + "@test.com", issuedBefore));
+		assertTrue(userRepo.findByEmail("stay." + run + "@test.com").isPresent());
+	}
+}
@@ -0,0 +1,119 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiryWheelTest {
+
+	private static final long TICK = 10;
+
+	private final Map<String, Long> expired = new ConcurrentHashMap<>();
+
+	@Test
+	void firesOnlyOnceTheDeadlinePassed() throws InterruptedException {
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 64, TICK, expired::put);
+		long deadline = System.currentTimeMillis() + 100;
+		wheel.schedule("hold", deadline);
+
+		wheel.advance();
+		assertTrue(expired.isEmpty());
+
+		sleepUntil(deadline + TICK);
+		wheel.advance();
+		assertEquals(Map.of("hold", deadline), expired);
+	}
+
+	@Test
+	void advanceBeforeTheDeadlineWithinItsTickDoesNotDelayTheEntry() throws InterruptedException {
+		// the deadline sits in the middle of a tick and the first advance lands at the start of that tick
+		long tick = 50;
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 64, tick, expired::put);
+		long tickStart = (System.currentTimeMillis() / tick + 2) * tick;
+		long deadline = tickStart + tick / 2;
+		wheel.schedule("mid", deadline);
+
+		sleepUntil(tickStart + 5);
+		wheel.advance();
+		assertTrue(expired.isEmpty());
+
+		sleepUntil(tickStart + tick + 5);
+		wheel.advance();
+		assertEquals(deadline, expired.get("mid"));
+	}
+
+	@Test
+	void entryMoreThanOneRotationAwayWaitsForItsDeadline() throws InterruptedException {
+		// 4 buckets x 10 ms - the bucket of a 200 ms deadline comes round about five times first
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 4, TICK, expired::put);
+		long deadline = System.currentTimeMillis() + 200;
+		wheel.schedule("far", deadline);
+
+		while (System.currentTimeMillis() < deadline - 2 * TICK) {
+			Thread.sleep(TICK);
+			wheel.advance();
+			assertTrue(expired.isEmpty());
+		}
+		sleepUntil(deadline + TICK);
+		wheel.advance();
+		assertEquals(deadline, expired.get("far"));
+	}
+
+	@Test
+	void pastDeadlineFiresOnTheNextTick() throws InterruptedException {
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 64, TICK, expired::put);
+		long deadline = System.currentTimeMillis() - 1000;
+		wheel.schedule("late", deadline);
+
+		Thread.sleep(2 * TICK);
+		wheel.advance();
+		assertEquals(deadline, expired.get("late"));
+	}
+
+	@Test
+	void failingCallbackDoesNotStopOtherEntries() throws InterruptedException {
+		List<String> seen = new CopyOnWriteArrayList<>();
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 64, TICK, (key, deadline) -> {
+			seen.add(key);
+			if (key.equals("bad")) {
+				throw new IllegalStateException("boom");
+			}
+		});
+		long deadline = System.currentTimeMillis() + 20;
+		wheel.schedule("bad", deadline);
+		wheel.schedule("good", deadline);
+
+		sleepUntil(deadline + TICK);
+		wheel.advance();
+		assertEquals(List.of("bad", "good"), seen);
+	}
+
+	@Test
+	void tickerThreadExpiresEntries() throws InterruptedException {
+		ExpiryWheel<String> wheel = new ExpiryWheel<>("test-wheel", 64, TICK, expired::put);
+		wheel.start();
+		try {
+			wheel.schedule("auto", System.currentTimeMillis() + 30);
+			long giveUp = System.currentTimeMillis() + 2000;
+			while (!expired.containsKey("auto") && System.currentTimeMillis() < giveUp) {
+				Thread.sleep(TICK);
+			}
+			assertTrue(expired.containsKey("auto"));
+		} finally {
+			wheel.stop();
+		}
+	}
+
+	private static void sleepUntil(long millis) throws InterruptedException {
+		long wait = millis - System.currentTimeMillis();
+		if (wait > 0) {
+			Thread.sleep(wait);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.entities.IdempotencyRecord;
+import com.cdac.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+	public record Resp(int n) {
+	}
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+	@Autowired
+	private IdempotencyRecordRepository recordRepo;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private EntityManager entityManager;
+
+	private final AtomicInteger runs = new AtomicInteger();
+
+	@Test
+	void replayReturnsTheFirstResponseWithoutRunningAgain() {
+		String key = UUID.randomUUID().toString();
+
+		Resp first = idempotencyService.execute("test", "u", key, "body", Resp.class, () -> new Resp(runs.incrementAndGet()));
+		Resp second = idempotencyService.execute("test", "u", key, "body", Resp.class, () -> new Resp(runs.incrementAndGet()));
+
+		assertEquals(first, second);
+		assertEquals(1, runs.get());
+		assertFalse(recordRepo.findById("test:u:" + key).orElseThrow().getResponseBody().isEmpty());
+	}
+
+	@Test
+	void failedActionLeavesNoRecord() {
+		String key = UUID.randomUUID().toString();
+
+		assertThrows(IllegalStateException.class, () -> idempotencyService.execute("test", "u", key, "body",
+				Resp.class, () -> {
+					runs.incrementAndGet();
+					throw new IllegalStateException("payment declined");
+				}));
+
+		assertTrue(recordRepo.findById("test:u:" + key).isEmpty());
+		Resp retried = idempotencyService.execute("test", "u", key, "body", Resp.class, () -> new Resp(runs.incrementAndGet()));
+		assertEquals(2, retried.n());
+	}
+
+	@Test
+	void reusedKeyWithAnotherBodyIsRejected() {
+		String key = UUID.randomUUID().toString();
+		idempotencyService.execute("test", "u", key, "body", Resp.class, () -> new Resp(1));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> idempotencyService.execute("test", "u", key, "other", Resp.class, () -> new Resp(2)));
+	}
+
+	// a second service instance stands in for another node - no shared memory , only the table
+	@Test
+	void concurrentDuplicateOnAnotherNodeReplaysInsteadOfRunningTwice() throws Exception {
+		IdempotencyService otherNode = new IdempotencyService(recordRepo, objectMapper, transactionTemplate,
+				new SimpleMeterRegistry(), 100);
+		ReflectionTestUtils.setField(otherNode, "entityManager", entityManager);
+		ReflectionTestUtils.setField(otherNode, "ttlHours", 24L);
+		ReflectionTestUtils.setField(otherNode, "waitSeconds", 15L);
+		String key = UUID.randomUUID().toString();
+		CountDownLatch claimed = new CountDownLatch(1);
+
+		CompletableFuture<Resp> first = CompletableFuture.supplyAsync(() -> idempotencyService.execute("test", "u",
+				key, "body", Resp.class, () -> {
+					claimed.countDown();
+					sleep(500); // still inside the claiming transaction
+					return new Resp(runs.incrementAndGet());
+				}));
+		assertTrue(claimed.await(5, TimeUnit.SECONDS));
+		Resp second = otherNode.execute("test", "u", key, "body", Resp.class, () -> new Resp(runs.incrementAndGet()));
+
+		assertEquals(first.get(5, TimeUnit.SECONDS), second);
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	void purgeDropsExpiredRecords() {
+		String expired = "test:u:" + UUID.randomUUID();
+		String fresh = "test:u:" + UUID.randomUUID();
+		recordRepo.save(new IdempotencyRecord(expired, "f", "{}", LocalDateTime.now().minusHours(48)));
+		recordRepo.save(new IdempotencyRecord(fresh, "f", "{}", LocalDateTime.now()));
+
+		idempotencyService.purge();
+
+		assertTrue(recordRepo.findById(expired).isEmpty());
+		assertTrue(recordRepo.findById(fresh).isPresent());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
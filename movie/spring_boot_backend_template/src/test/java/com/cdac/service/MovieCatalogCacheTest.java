@@ -0,0 +1,138 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MovieCatalogCacheTest {
+
+	private static final LocalDate TODAY = LocalDate.now();
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final MovieCatalogCache cache = new MovieCatalogCache(registry, 16);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+	}
+
+	@Test
+	void anEntryIsReloadedOnceItAges() {
+		assertEquals("all 1", all());
+		assertEquals("all 1", all());
+		assertEquals(1, loads.get());
+
+		ReflectionTestUtils.setField(cache, "ttlMinutes", 0L);
+		assertEquals("all 2", all());
+		assertEquals(1.0, registry.counter("movie.catalog.cache.evictions", "cause", "ttl").count());
+	}
+
+	@Test
+	void aWriteDropsOnlyTheEntriesThatCanHoldTheMovie() {
+		nowShowing();
+		upcoming();
+		all();
+		movie(1L);
+		movie(2L);
+
+		// movie 1 released within the now showing window
+		cache.invalidate(1L, TODAY.minusDays(3));
+
+		assertEquals(5, loads.get());
+		assertEquals("upcoming 2", upcoming());
+		assertEquals("movie 5", movie(2L));
+		assertEquals(5, loads.get());
+		assertEquals("nowShowing 6", nowShowing());
+		assertEquals("all 7", all());
+		assertEquals("movie 8", movie(1L));
+		assertEquals(3.0, registry.counter("movie.catalog.cache.evictions", "cause", "invalidation").count());
+	}
+
+	@Test
+	void aMovieMovedAcrossWindowsDropsBoth() {
+		nowShowing();
+		upcoming();
+
+		// release date moved from last week to next week
+		cache.invalidate(1L, TODAY.minusDays(7), TODAY.plusDays(7));
+
+		assertEquals("nowShowing 3", nowShowing());
+		assertEquals("upcoming 4", upcoming());
+	}
+
+	@Test
+	void invalidationInsideATransactionWaitsForTheCommit() {
+		all();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.invalidate(1L, TODAY);
+			// the write is not visible yet - readers keep the committed catalog
+			assertEquals("all 1", all());
+			for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+				sync.afterCommit();
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals("all 2", all());
+	}
+
+	@Test
+	void aLoadThatRacedWithAWriteIsNotStored() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch written = new CountDownLatch(1);
+		CompletableFuture<String> stale = CompletableFuture.supplyAsync(() -> cache.all("allMovies", () -> {
+			loading.countDown();
+			await(written);
+			return "all " + loads.incrementAndGet();
+		}));
+
+		// the catalog changes while the load is reading it
+		loading.await(5, TimeUnit.SECONDS);
+		cache.invalidate(1L, TODAY);
+		written.countDown();
+
+		assertEquals("all 1", stale.get(5, TimeUnit.SECONDS));
+		// the stale result went to its caller only - the next read loads again
+		assertEquals("all 2", all());
+		assertEquals("all 2", all());
+	}
+
+	private String all() {
+		return cache.all("allMovies", () -> "all " + loads.incrementAndGet());
+	}
+
+	private String nowShowing() {
+		return cache.window("nowShowing", TODAY.minusDays(30), TODAY, () -> "nowShowing " + loads.incrementAndGet());
+	}
+
+	private String upcoming() {
+		return cache.window("upcoming", TODAY.plusDays(1), null, () -> "upcoming " + loads.incrementAndGet());
+	}
+
+	private String movie(Long movieId) {
+		return cache.movie(movieId, () -> "movie " + loads.incrementAndGet());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
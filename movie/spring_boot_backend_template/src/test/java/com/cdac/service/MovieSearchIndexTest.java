@@ -0,0 +1,173 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import com.cdac.dto.DtoMapper;
+import com.cdac.dto.MovieRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.repository.MovieRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MovieSearchIndexTest {
+
+	private static final String[] GENRES = { "Drama", "Action", "Comedy", "Sci-Fi", "Romantic Comedy" };
+	private static final String[] LANGUAGES = { "English", "Hindi", "Marathi", "Tamil" };
+	private static final String[] WORDS = { "dark", "knight", "night", "rise", "return", "of", "the", "king",
+			"kingdom", "star", "wars", "a", "new", "hope", "space", "odyssey", "lost", "city", "ci", "ty" };
+
+	private final MovieRepository movieRepo = mock(MovieRepository.class);
+
+	@Test
+	void substringIgnoreCaseOnEveryField() {
+		MovieSearchIndex index = index(List.of(
+				movie(1, "The Dark Knight", "English", "Action"),
+				movie(2, "Dark City", "English", "Sci-Fi"),
+				movie(3, "Knight and Day", "Hindi", "Romantic Comedy"),
+				movie(4, null, "English", "Drama"),
+				movie(5, "Untitled", null, "Drama")));
+
+		assertEquals(List.of(3L, 1L), ids(index.search("KNIG", null, null, 0, null)));
+		assertEquals(List.of(2L), ids(index.search("ark", "sci", null, 0, null)));
+		assertEquals(List.of(3L), ids(index.search(null, "comedy", "hin", 0, null)));
+		assertEquals(List.of(), ids(index.search("xyz", null, null, 0, null)));
+		// like the LIKE query , a movie with no title / language never matches
+		assertEquals(List.of(1L, 2L, 3L), ids(index.search("", null, null, 0, null)));
+		assertEquals(List.of(), ids(index.search(null, "drama", null, 0, null)));
+	}
+
+	@Test
+	void exactThenPrefixThenWordPrefixThenAnywhere() {
+		MovieSearchIndex index = index(List.of(
+				movie(1, "Nightcrawler", "English", "Drama"),
+				movie(2, "The Night", "English", "Drama"),
+				movie(3, "Knight", "English", "Drama"),
+				movie(4, "Night", "English", "Drama"),
+				movie(5, "Fortnight", "English", "Drama")));
+
+		assertEquals(List.of(4L, 1L, 2L, 3L, 5L), ids(index.search("night", null, null, 0, null)));
+		assertEquals(List.of(2L, 3L), ids(index.search("night", null, null, 1, 2)));
+		assertEquals(List.of(), ids(index.search("night", null, null, 7, 2)));
+	}
+
+	@Test
+	void writesAreVisibleAndRemovedMoviesAreGone() {
+		MovieSearchIndex index = index(List.of(movie(1, "Old Title", "English", "Drama")));
+		index.search(null, null, null, 0, null); // loads
+
+		index.put(movie(1, "New Title", "English", "Drama"));
+		index.put(movie(2, "Another Title", "Hindi", "Action"));
+		assertEquals(List.of(), ids(index.search("old", null, null, 0, null)));
+		assertEquals(List.of(1L, 2L), ids(index.search("title", null, null, 0, null)));
+
+		index.remove(1L);
+		assertEquals(List.of(2L), ids(index.search("title", null, null, 0, null)));
+		assertEquals(1, index.size());
+	}
+
+	// random titles , random terms - always the same hits , in the same order , as a plain scan
+	@Test
+	void matchesABruteForceScanAcrossCompactions() {
+		Random random = new Random(42);
+		List<Movie> movies = new ArrayList<>();
+		for (int i = 1; i <= 3000; i++) {
+			movies.add(randomMovie(random, i));
+		}
+		MovieSearchIndex index = index(movies);
+		index.search(null, null, null, 0, null);
+
+		List<Movie> live = new ArrayList<>(movies);
+		for (int round = 0; round < 6; round++) {
+			// removals past the compaction threshold , plus renames
+			for (int i = 0; i < 400; i++) {
+				Movie gone = live.remove(random.nextInt(live.size()));
+				index.remove(gone.getMovieId());
+			}
+			for (int i = 0; i < 200; i++) {
+				int at = random.nextInt(live.size());
+				Movie renamed = randomMovie(random, live.get(at).getMovieId());
+				live.set(at, renamed);
+				index.put(renamed);
+			}
+			for (int q = 0; q < 300; q++) {
+				String title = random.nextInt(4) == 0 ? null : randomTerm(random);
+				String genre = random.nextInt(3) == 0 ? GENRES[random.nextInt(GENRES.length)].substring(0, 3) : null;
+				String language = random.nextInt(4) == 0 ? "i" : null;
+				assertEquals(ids(scan(live, title, genre, language)), ids(index.search(title, genre, language, 0, null)),
+						"title=" + title + " genre=" + genre + " language=" + language);
+			}
+		}
+		assertEquals(live.size(), index.size());
+	}
+
+	private MovieSearchIndex index(List<Movie> movies) {
+		when(movieRepo.findAll()).thenReturn(movies);
+		return new MovieSearchIndex(movieRepo, Mappers.getMapper(DtoMapper.class), new SimpleMeterRegistry());
+	}
+
+	// the reference - substring , ignore case , ranked like the index
+	private static List<MovieRespDto> scan(List<Movie> movies, String title, String genre, String language) {
+		String t = fold(title), g = fold(genre), l = fold(language);
+		DtoMapper mapper = Mappers.getMapper(DtoMapper.class);
+		return movies.stream()
+				.filter(m -> m.getTitle() != null && fold(m.getTitle()).contains(t))
+				.filter(m -> m.getGenre() != null && fold(m.getGenre()).contains(g))
+				.filter(m -> m.getLanguage() != null && fold(m.getLanguage()).contains(l))
+				.sorted(Comparator.<Movie>comparingInt(m -> rank(fold(m.getTitle()), t)).thenComparing(Movie::getMovieId))
+				.map(mapper::toMovieResp)
+				.toList();
+	}
+
+	private static int rank(String title, String term) {
+		if (term.isEmpty() || title.equals(term)) {
+			return 0;
+		}
+		if (title.startsWith(term)) {
+			return 1;
+		}
+		return title.contains(" " + term) || title.contains("-" + term) ? 2 : 3;
+	}
+
+	private static Movie randomMovie(Random random, long id) {
+		StringBuilder title = new StringBuilder();
+		for (int w = 1 + random.nextInt(4); w > 0; w--) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			title.append(random.nextBoolean() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+			if (w > 1) {
+				title.append(random.nextInt(8) == 0 ? "-" : " ");
+			}
+		}
+		return movie(id, title.toString(), LANGUAGES[random.nextInt(LANGUAGES.length)],
+				GENRES[random.nextInt(GENRES.length)]);
+	}
+
+	private static String randomTerm(Random random) {
+		String word = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+		int from = random.nextInt(word.length());
+		return word.substring(from, Math.min(word.length(), from + 1 + random.nextInt(7))).toUpperCase(Locale.ROOT);
+	}
+
+	private static Movie movie(long id, String title, String language, String genre) {
+		return new Movie(id, title, LocalDate.of(2024, 1, 1), "UA", language, genre, "2h");
+	}
+
+	private static String fold(String s) {
+		return s == null ? "" : s.toLowerCase(Locale.ROOT);
+	}
+
+	private static List<Long> ids(List<MovieRespDto> movies) {
+		return movies.stream().map(MovieRespDto::getMovieId).toList();
+	}
+}
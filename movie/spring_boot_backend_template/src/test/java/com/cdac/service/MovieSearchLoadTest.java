@@ -0,0 +1,166 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.Application;
+import com.cdac.dto.DtoMapper;
+import com.cdac.dto.MovieRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.repository.MovieRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Movie search load harness - MOVIES movies in H2 (jdbc batches) , then each term
+ * searched through the index and through the query search ran before it : the derived
+ * findByTitleContainingIgnoreCaseAndGenreContainingIgnoreCaseAndLanguageContainingIgnoreCase
+ * (removed with the index - its jpql is below) , each in a read only transaction and
+ * mapped to dtos like the service did. Prints the index build time and p50 / p99 of
+ * both per term ; asserts only that both find the same movies.
+ */
+@Tag("load")
+class MovieSearchLoadTest {
+
+	private static final int MOVIES = 100_000;
+	private static final int INDEX_ROUNDS = 500;
+	private static final int QUERY_ROUNDS = 20;
+	private static final int BATCH = 5_000;
+
+	private static final String[] GENRES = { "Drama", "Action", "Comedy", "Sci-Fi", "Romantic Comedy" };
+	private static final String[] LANGUAGES = { "English", "Hindi", "Marathi", "Tamil" };
+	private static final String[] WORDS = { "dark", "knight", "night", "rise", "return", "of", "the", "king",
+			"kingdom", "star", "wars", "a", "new", "hope", "space", "odyssey", "lost", "city", "ci", "ty" };
+	private static final String[] TERMS = { "knight", "dark ni", "star wars", "ty", "odyssey lost", "q", "kingdom of" };
+
+	// what Spring Data generated for the three ContainingIgnoreCase parts
+	private static final String LIKE_QUERY = "SELECT m FROM Movie m WHERE UPPER(m.title) LIKE UPPER(:title)"
+			+ " AND UPPER(m.genre) LIKE UPPER(:genre) AND UPPER(m.language) LIKE UPPER(:language)";
+
+	@Test
+	void indexAgainstTheLikeQuery() throws Exception {
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:movie-search-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--booking.waiting-room.enabled=false",
+						"--spring.jmx.enabled=false")) {
+			insertMovies(ctx.getBean(DataSource.class), new Random(7));
+			DtoMapper dtoMapper = ctx.getBean(DtoMapper.class);
+			EntityManager entityManager = SharedEntityManagerCreator
+					.createSharedEntityManager(ctx.getBean(EntityManagerFactory.class));
+			TransactionTemplate readOnly = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+			readOnly.setReadOnly(true);
+
+			// the app's index loaded the empty table at startup - a fresh one reads the 100k rows
+			MovieSearchIndex index = new MovieSearchIndex(ctx.getBean(MovieRepository.class), dtoMapper,
+					new SimpleMeterRegistry());
+			long buildStart = System.nanoTime();
+			index.ensureLoaded();
+			System.out.printf("movie search : index over %d movies built in %d ms%n", index.size(),
+					(System.nanoTime() - buildStart) / 1_000_000);
+
+			for (String term : TERMS) {
+				List<MovieRespDto> byQuery = likeQuery(readOnly, entityManager, dtoMapper, term);
+				List<MovieRespDto> byIndex = index.search(term, null, null, 0, null);
+				assertEquals(ids(byQuery), ids(byIndex), term);
+
+				long[] indexNanos = new long[INDEX_ROUNDS];
+				int page = 0;
+				for (int r = 0; r < INDEX_ROUNDS; r++) {
+					long t = System.nanoTime();
+					page = index.search(term, null, null, 0, 20).size();
+					indexNanos[r] = System.nanoTime() - t;
+				}
+				long[] queryNanos = new long[QUERY_ROUNDS];
+				for (int r = 0; r < QUERY_ROUNDS; r++) {
+					long t = System.nanoTime();
+					likeQuery(readOnly, entityManager, dtoMapper, term);
+					queryNanos[r] = System.nanoTime() - t;
+				}
+				Arrays.sort(indexNanos);
+				Arrays.sort(queryNanos);
+				System.out.printf("  %-14s %6d hits , index p50 %8.1f us p99 %8.1f us (page of %d) ,"
+						+ " like query p50 %6.1f ms p99 %6.1f ms%n", "\"" + term + "\"", byQuery.size(),
+						percentile(indexNanos, 0.50) / 1e3, percentile(indexNanos, 0.99) / 1e3, page,
+						percentile(queryNanos, 0.50) / 1e6, percentile(queryNanos, 0.99) / 1e6);
+			}
+		}
+	}
+
+	// searchMovies(term , null , null) as it was - null filters became "" , so LIKE '%%'
+	private static List<MovieRespDto> likeQuery(TransactionTemplate readOnly, EntityManager entityManager,
+			DtoMapper dtoMapper, String term) {
+		return readOnly.execute(status -> entityManager.createQuery(LIKE_QUERY, Movie.class)
+				.setParameter("title", "%" + term + "%")
+				.setParameter("genre", "%%")
+				.setParameter("language", "%%")
+				.getResultList().stream()
+				.map(dtoMapper::toMovieResp)
+				.toList());
+	}
+
+	// random 1 to 4 word titles out of WORDS , some words capitalised , some joined by a dash
+	private static void insertMovies(DataSource dataSource, Random random) throws SQLException {
+		try (Connection con = dataSource.getConnection();
+				PreparedStatement insert = con.prepareStatement("INSERT INTO movies (title, release_date, rating,"
+						+ " language, genre, duration) VALUES (?, ?, ?, ?, ?, ?)")) {
+			con.setAutoCommit(false);
+			for (int i = 1; i <= MOVIES; i++) {
+				StringBuilder title = new StringBuilder();
+				for (int w = 1 + random.nextInt(4); w > 0; w--) {
+					String word = WORDS[random.nextInt(WORDS.length)];
+					title.append(random.nextBoolean() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+					if (w > 1) {
+						title.append(random.nextInt(8) == 0 ? "-" : " ");
+					}
+				}
+				insert.setString(1, title.toString());
+				insert.setDate(2, Date.valueOf(LocalDate.of(2024, 1, 1)));
+				insert.setString(3, "UA");
+				insert.setString(4, LANGUAGES[random.nextInt(LANGUAGES.length)]);
+				insert.setString(5, GENRES[random.nextInt(GENRES.length)]);
+				insert.setString(6, "2h");
+				insert.addBatch();
+				if (i % BATCH == 0) {
+					insert.executeBatch();
+					con.commit();
+				}
+			}
+		}
+	}
+
+	// the query is unordered , the index ranks - same movies is the contract
+	private static TreeSet<Long> ids(List<MovieRespDto> movies) {
+		TreeSet<Long> ids = new TreeSet<>();
+		movies.forEach(m -> ids.add(m.getMovieId()));
+		return ids;
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+	}
+}
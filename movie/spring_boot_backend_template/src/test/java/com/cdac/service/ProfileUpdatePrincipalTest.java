@@ -0,0 +1,98 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.TestData;
+import com.cdac.dto.UpdateUserProfileRequestDTO;
+import com.cdac.entities.Role;
+import com.cdac.entities.User;
+import com.cdac.repository.UserRepository;
+import com.cdac.security.PrincipalCache;
+
+/*
+ * A profile update drops the cached principals of the old and the new email , once it
+ * has committed - a principal reloaded while the update was in flight is not kept.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfileUpdatePrincipalTest {
+
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private PrincipalCache principalCache;
+	@Autowired
+	private UserRepository userRepo;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private ApplicationContext context;
+
+	private TestData data;
+	private String oldEmail;
+	private String newEmail;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		oldEmail = "before." + run + "@test.com";
+		newEmail = "after." + run + "@test.com";
+		data = new TestData(context);
+		data.user(oldEmail);
+	}
+
+	@Test
+	void bothEmailsAreDropped() {
+		// the new email was cached for an account deleted since (not through UserService)
+		User previousOwner = data.user(newEmail, Role.ADMIN);
+		principalCache.get(oldEmail);
+		assertEquals("ROLE_ADMIN", role(principalCache.get(newEmail)));
+		userRepo.delete(previousOwner);
+
+		userService.updateUserProfile(new UsernamePasswordAuthenticationToken(oldEmail, null), profile(newEmail));
+
+		assertEquals("ROLE_USER", role(principalCache.get(newEmail)));
+		assertThrows(UsernameNotFoundException.class, () -> principalCache.get(oldEmail));
+	}
+
+	@Test
+	void aPrincipalReloadedBeforeTheCommitIsDropped() {
+		transactionTemplate.executeWithoutResult(status -> {
+			userService.updateUserProfile(new UsernamePasswordAuthenticationToken(oldEmail, null), profile(newEmail));
+			// another request reads the committed row - the old email , still active
+			UserDetails reloaded = CompletableFuture.supplyAsync(() -> principalCache.get(oldEmail))
+					.orTimeout(10, TimeUnit.SECONDS).join();
+			assertEquals(oldEmail, reloaded.getUsername());
+		});
+
+		assertThrows(UsernameNotFoundException.class, () -> principalCache.get(oldEmail));
+		assertEquals(newEmail, principalCache.get(newEmail).getUsername());
+	}
+
+	private static UpdateUserProfileRequestDTO profile(String email) {
+		UpdateUserProfileRequestDTO dto = new UpdateUserProfileRequestDTO();
+		dto.setName("Mover");
+		dto.setEmail(email);
+		dto.setPhone("9000000000");
+		return dto;
+	}
+
+	private static String role(UserDetails principal) {
+		return principal.getAuthorities().iterator().next().getAuthority();
+	}
+}
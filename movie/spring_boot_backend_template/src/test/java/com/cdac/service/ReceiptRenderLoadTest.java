@@ -0,0 +1,127 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Show;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Receipt render load harness - 50 pre-renders of one booking one after the other (db
+ * read , iText , store) , then 2000 downloads that hit the store. Prints mean / p99 of
+ * both and whether two renders of the same booking came out byte identical - they do
+ * not , iText stamps each with its time and a fresh document id , which is why the
+ * store does not dedupe. Asserts only that every hit served the stored receipt.
+ * Same context as ReceiptRenderTest (pre-renders on , its own database).
+ */
+@Tag("load")
+@SpringBootTest(properties = { "receipt.prerender.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:receipts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000" })
+@ActiveProfiles("test")
+class ReceiptRenderLoadTest {
+
+	@Autowired
+	private ReceiptService receiptService;
+	@Autowired
+	private ReceiptStore receiptStore;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private MeterRegistry registry;
+	@Autowired
+	private ApplicationContext context;
+
+	private Long bookingId;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		Show show = data.showWithSeats("Receipt " + run, 1);
+		String email = data.user("receipt." + run + "@test.com").getEmail();
+
+		// the booking's own pre-render is let finish , so it does not land in the timings
+		double prerendered = prerenderCount();
+		bookingId = bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1"), "UPI", 0),
+				email).getBookingId();
+		awaitPrerenders(prerendered + 1);
+	}
+
+	@Test
+	void renderAndHitLatency() throws Exception {
+		long[] renderMicros = new long[50];
+		List<String> hashes = new ArrayList<>();
+		for (int i = 0; i < renderMicros.length; i++) {
+			double prerendered = prerenderCount();
+			long start = System.nanoTime();
+			receiptService.prerender(bookingId);
+			awaitPrerenders(prerendered + 1);
+			renderMicros[i] = (System.nanoTime() - start) / 1000;
+			hashes.add(receiptStore.find(bookingId).orElseThrow().hash());
+		}
+
+		String etag = "\"" + receiptStore.find(bookingId).orElseThrow().hash() + "\"";
+		long[] hitMicros = new long[2000];
+		for (int i = 0; i < hitMicros.length; i++) {
+			long start = System.nanoTime();
+			MockHttpServletResponse response = download(null);
+			hitMicros[i] = (System.nanoTime() - start) / 1000;
+			assertEquals(etag, response.getHeader("ETag"));
+		}
+
+		System.out.printf("receipt : render+store mean %d us p99 %d us , hit mean %d us p99 %d us ,"
+				+ " %d distinct objects from %d renders%n",
+				mean(renderMicros), p99(renderMicros), mean(hitMicros), p99(hitMicros),
+				hashes.stream().distinct().count(), hashes.size());
+	}
+
+	private MockHttpServletResponse download(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/receipt/" + bookingId);
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		receiptService.downloadInvoice(bookingId, request, response);
+		return response;
+	}
+
+	private double prerenderCount() {
+		return registry.counter("receipt.prerender", "result", "done").count();
+	}
+
+	private void awaitPrerenders(double count) throws InterruptedException {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (prerenderCount() < count) {
+			assertTrue(System.nanoTime() < end, "pre-render did not finish");
+			Thread.sleep(1);
+		}
+	}
+
+	private static long mean(long[] samples) {
+		return Arrays.stream(samples).sum() / samples.length;
+	}
+
+	private static long p99(long[] samples) {
+		long[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		return sorted[(int) (sorted.length * 0.99)];
+	}
+}
@@ -0,0 +1,168 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Show;
+import com.cdac.service.ReceiptStore.Receipt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Receipt downloads against the real renderer - a booking pre-rendered on commit , a
+ * download racing the pre-render of the same booking , and replaced receipts. The
+ * render / hit latency harness is ReceiptRenderLoadTest.
+ */
+// pre-renders on , on a database of its own - a second context on testdb would recreate
+// the tables and id generators under the first one
+@SpringBootTest(properties = { "receipt.prerender.enabled=true",
+		"spring.datasource.url=jdbc:h2:mem:receipts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000" })
+@ActiveProfiles("test")
+class ReceiptRenderTest {
+
+	@Autowired
+	private ReceiptService receiptService;
+	@Autowired
+	private ReceiptStore receiptStore;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private MeterRegistry registry;
+	@Autowired
+	private ApplicationContext context;
+
+	private Long bookingId;
+	private String email;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		Show show = data.showWithSeats("Receipt " + run, 1);
+		email = data.user("receipt." + run + "@test.com").getEmail();
+
+		// the booking's own pre-render is let finish , so the tests below start from a stored receipt
+		double prerendered = prerenderCount();
+		bookingId = bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1"), "UPI", 0),
+				email).getBookingId();
+		awaitPrerenders(prerendered + 1);
+	}
+
+	@Test
+	void aBookingIsPrerenderedOnceItCommits() {
+		double misses = registry.counter("receipt.requests", "result", "miss").count();
+
+		assertTrue(receiptStore.find(bookingId).isPresent());
+		assertEquals(200, download(null).getStatus());
+		assertEquals(misses, registry.counter("receipt.requests", "result", "miss").count());
+	}
+
+	@Test
+	void downloadRacingThePrerenderServesOneStoredReceipt() throws Exception {
+		double renders = renderCount();
+		double prerendered = prerenderCount();
+		ExecutorService clients = Executors.newFixedThreadPool(4);
+
+		receiptService.prerender(bookingId); // no transaction - queued at once
+		List<Future<MockHttpServletResponse>> downloads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			downloads.add(clients.submit(() -> download(null)));
+		}
+		List<String> etags = new ArrayList<>();
+		for (Future<MockHttpServletResponse> d : downloads) {
+			MockHttpServletResponse response = d.get();
+			assertEquals(200, response.getStatus());
+			assertTrue(new String(response.getContentAsByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF"));
+			etags.add(response.getHeader("ETag"));
+		}
+		clients.shutdown();
+		awaitPrerenders(prerendered + 1);
+
+		// the downloads rendered at most once among them , the pre-render once
+		assertTrue(renderCount() - renders <= 2, "rendered " + (renderCount() - renders) + " times");
+		Receipt stored = receiptStore.find(bookingId).orElseThrow();
+		assertEquals("\"" + stored.hash() + "\"", download(null).getHeader("ETag"));
+		assertEquals(304, download(download(null).getHeader("ETag")).getStatus());
+		assertTrue(etags.stream().distinct().count() <= 2);
+	}
+
+	@Test
+	void aReplacedReceiptCanStillBeSent() throws Exception {
+		Receipt first = receiptStore.find(bookingId).orElseThrow();
+		byte[] firstBytes = Files.readAllBytes(first.file());
+		double prerendered = prerenderCount();
+
+		receiptService.prerender(bookingId);
+		awaitPrerenders(prerendered + 1);
+
+		assertArrayEquals(firstBytes, Files.readAllBytes(first.file()));
+		assertEquals("\"" + receiptStore.find(bookingId).orElseThrow().hash() + "\"", download(null).getHeader("ETag"));
+	}
+
+	@Test
+	void aCancelledBookingsReceiptIsNoLongerServed() throws Exception {
+		assertEquals(200, download(null).getStatus());
+		assertTrue(receiptStore.find(bookingId).isPresent());
+
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null));
+		try {
+			bookingService.cancelBooking(bookingId);
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+
+		assertTrue(receiptStore.find(bookingId).isEmpty());
+		RuntimeException e = assertThrows(RuntimeException.class, () -> download(null));
+		assertEquals("Booking not found", e.getMessage());
+	}
+
+	private MockHttpServletResponse download(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/receipt/" + bookingId);
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		receiptService.downloadInvoice(bookingId, request, response);
+		return response;
+	}
+
+	private double renderCount() {
+		return registry.timer("receipt.render").count();
+	}
+
+	private double prerenderCount() {
+		return registry.counter("receipt.prerender", "result", "done").count();
+	}
+
+	private void awaitPrerenders(double count) throws InterruptedException {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (prerenderCount() < count) {
+			assertTrue(System.nanoTime() < end, "pre-render did not finish");
+			Thread.sleep(1);
+		}
+	}
+}
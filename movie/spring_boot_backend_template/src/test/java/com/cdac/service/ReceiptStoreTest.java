@@ -0,0 +1,138 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.cdac.service.ReceiptStore.Receipt;
+
+class ReceiptStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void storedReceiptsAreFoundAgainAfterARestart() throws Exception {
+		ReceiptStore store = new ReceiptStore(dir.toString(), 100);
+		Receipt stored = store.store(7L, () -> pdf("seven"));
+
+		assertSame(stored, store.find(7L).orElseThrow());
+		Receipt reloaded = new ReceiptStore(dir.toString(), 100).find(7L).orElseThrow();
+		assertEquals(stored.hash(), reloaded.hash());
+		assertEquals(stored.size(), reloaded.size());
+		assertArrayEquals(pdf("seven"), Files.readAllBytes(reloaded.file()));
+		assertTrue(store.find(8L).isEmpty());
+	}
+
+	@Test
+	void concurrentMissesOfOneBookingRenderOnce() throws Exception {
+		ReceiptStore store = new ReceiptStore(dir.toString(), 100);
+		AtomicInteger renders = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<Future<Receipt>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return store.findOrStore(1L, () -> {
+					renders.incrementAndGet();
+					sleep(20);
+					return pdf("render " + renders.get()); // every render differs , like iText's
+				});
+			}));
+		}
+		start.countDown();
+		String hash = null;
+		for (Future<Receipt> r : results) {
+			String h = r.get().hash();
+			assertTrue(hash == null || hash.equals(h), "two receipts served for one booking");
+			hash = h;
+		}
+		pool.shutdown();
+
+		assertEquals(1, renders.get());
+	}
+
+	@Test
+	void aReplacedReceiptStaysReadable() throws Exception {
+		ReceiptStore store = new ReceiptStore(dir.toString(), 100);
+		Receipt before = store.store(3L, () -> pdf("failed payment"));
+
+		Receipt after = store.store(3L, () -> pdf("paid by card"));
+
+		assertNotEquals(before.hash(), after.hash());
+		assertSame(after, store.find(3L).orElseThrow());
+		// a send that started with the old receipt can still finish
+		assertArrayEquals(pdf("failed payment"), Files.readAllBytes(before.file()));
+	}
+
+	@Test
+	void aRemovedReceiptIsGoneAfterARestartToo() throws Exception {
+		ReceiptStore store = new ReceiptStore(dir.toString(), 100);
+		Receipt stored = store.store(5L, () -> pdf("five"));
+
+		store.remove(5L);
+
+		assertTrue(store.find(5L).isEmpty());
+		assertTrue(new ReceiptStore(dir.toString(), 100).find(5L).isEmpty());
+		assertTrue(Files.exists(stored.file())); // a send in flight can still finish
+		store.remove(5L); // nothing left to remove
+	}
+
+	/*
+	 * Downloads missing at the same time as pre-renders replacing the receipt - at the
+	 * end the memo , the ref on disk and the last stored receipt agree , and every
+	 * receipt handed out is still on disk.
+	 */
+	@Test
+	void memoAndRefAgreeUnderRacingStores() throws Exception {
+		ReceiptStore store = new ReceiptStore(dir.toString(), 100);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		AtomicInteger version = new AtomicInteger();
+		for (int round = 0; round < 50; round++) {
+			long bookingId = 100 + round;
+			List<Future<Receipt>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				boolean prerender = i % 4 == 0;
+				results.add(pool.submit(() -> prerender
+						? store.store(bookingId, () -> pdf("v" + version.incrementAndGet()))
+						: store.findOrStore(bookingId, () -> pdf("v" + version.incrementAndGet()))));
+			}
+			for (Future<Receipt> r : results) {
+				assertTrue(Files.exists(r.get().file()));
+			}
+			Receipt memo = store.find(bookingId).orElseThrow();
+			Receipt onDisk = new ReceiptStore(dir.toString(), 100).find(bookingId).orElseThrow();
+			assertEquals(memo.hash(), onDisk.hash());
+		}
+		pool.shutdown();
+	}
+
+	private static byte[] pdf(String content) {
+		return ("%PDF-1.4 " + content).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.ShowReqDto;
+import com.cdac.dto.ShowScheduleReqDto;
+import com.cdac.dto.ShowScheduleRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.repository.ShowRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * ShowService.scheduleShows end to end - conflicts reject the whole batch before
+ * anything is saved , a batch longer than the flush / clear interval (500) keeps every
+ * slot it claimed , and a batch that rolls back gives all of them back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScheduleShowsTest {
+
+	// 3 theaters x 200 days x 2 slots = 1200 shows , two flush / clear rounds and a tail
+	private static final int THEATERS = 3;
+	private static final int DAYS = 200;
+	private static final List<LocalTime> SLOTS = List.of(LocalTime.of(10, 0), LocalTime.of(15, 0));
+	private static final int SHOWS = THEATERS * DAYS * 2;
+
+	@Autowired
+	private ShowService showService;
+	@Autowired
+	private ShowSchedule schedule;
+	@Autowired
+	private ShowCalendar calendar;
+	@Autowired
+	private ShowRepository showRepo;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private ApplicationContext context;
+
+	private Statistics statistics;
+	private Movie movie;
+	private final List<Long> theaterIds = new ArrayList<>();
+	private LocalDate firstDay;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		movie = data.movie("Schedule " + run);
+		theaterIds.clear();
+		for (int i = 0; i < THEATERS; i++) {
+			theaterIds.add(data.theater("Schedule " + i + " " + run, 100).getTheaterId());
+		}
+		firstDay = LocalDate.now().plusYears(2);
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void aBatchOverlappingItselfIsRejected() {
+		int before = schedule.size();
+		// 10:00 - 12:00 and 11:00 - 13:00 in the same theater , every day
+		ShowScheduleReqDto dto = request(theaterIds, 3, List.of(LocalTime.of(10, 0), LocalTime.of(11, 0)), false);
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> showService.scheduleShows(dto));
+
+		assertTrue(e.getMessage().startsWith(THEATERS * 3 + " of " + THEATERS * 3 * 2 + " shows conflict"), e.getMessage());
+		assertNothingSaved(before);
+	}
+
+	@Test
+	void aBatchOverlappingAnExistingShowIsRejected() {
+		Long theaterId = theaterIds.get(1);
+		LocalDateTime existing = firstDay.plusDays(2).atTime(16, 0);
+		showService.addShow(new ShowReqDto(movie.getMovieId(), theaterId, "Existing", existing, existing.plusHours(2),
+				BigDecimal.valueOf(200)));
+		int before = schedule.size();
+
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> showService.scheduleShows(request(theaterIds, 5, SLOTS, false)));
+
+		assertTrue(e.getMessage().startsWith("1 of " + THEATERS * 5 * 2 + " shows conflict , first : theater "
+				+ theaterId + " at " + firstDay.plusDays(2).atTime(15, 0)), e.getMessage());
+		assertEquals(before, schedule.size());
+		assertEquals(1, showRepo.findViewsByTheaterId(theaterId).size());
+		assertTrue(showRepo.findViewsByTheaterId(theaterIds.get(0)).isEmpty());
+	}
+
+	@Test
+	void slotsStayClaimedAcrossFlushAndClear() {
+		int before = schedule.size();
+		statistics.clear();
+
+		ShowScheduleRespDto resp = showService.scheduleShows(request(theaterIds, DAYS, SLOTS, false));
+
+		assertEquals(SHOWS, resp.getShowsCreated());
+		assertEquals(SHOWS, resp.getShowIds().stream().distinct().count());
+		assertTrue(statistics.getFlushCount() >= SHOWS / 500, "flushes " + statistics.getFlushCount());
+		assertEquals(before + SHOWS, schedule.size());
+		for (Long theaterId : theaterIds) {
+			assertEquals(DAYS * 2, showRepo.findViewsByTheaterId(theaterId).size());
+		}
+		assertEquals(THEATERS * 2, calendar.onDate(firstDay.plusDays(DAYS - 1), null, "Pune").stream()
+				.filter(show -> show.getMovieTitle().equals(movie.getTitle())).count());
+		// the first show (persisted before the first clear) and the last still hold their screen time
+		LocalDateTime first = firstDay.atTime(11, 0);
+		LocalDateTime last = firstDay.plusDays(DAYS - 1).atTime(16, 0);
+		assertThrows(IllegalArgumentException.class, () -> showService.addShow(new ShowReqDto(movie.getMovieId(),
+				theaterIds.get(0), "Early", first, first.plusHours(2), BigDecimal.valueOf(200))));
+		assertThrows(IllegalArgumentException.class, () -> showService.addShow(new ShowReqDto(movie.getMovieId(),
+				theaterIds.get(THEATERS - 1), "Late", last, last.plusHours(2), BigDecimal.valueOf(200))));
+		assertFalse(showService.validateSchedule(List.of(new ShowReqDto(movie.getMovieId(), theaterIds.get(1), null,
+				first, first.plusHours(2), BigDecimal.valueOf(200)))).isValid());
+	}
+
+	@Test
+	void aRolledBackBatchReleasesEverySlot() {
+		int before = schedule.size();
+
+		// no seat layout for these theaters - seat generation fails after every show was persisted and claimed
+		assertThrows(ResourceNotFoundException.class,
+				() -> showService.scheduleShows(request(theaterIds, DAYS, SLOTS, true)));
+
+		assertNothingSaved(before);
+		// the same schedule goes through once the rolled back claims are gone
+		assertEquals(SHOWS, showService.scheduleShows(request(theaterIds, DAYS, SLOTS, false)).getShowsCreated());
+		assertEquals(before + SHOWS, schedule.size());
+	}
+
+	private void assertNothingSaved(int scheduledBefore) {
+		assertEquals(scheduledBefore, schedule.size());
+		for (Long theaterId : theaterIds) {
+			assertTrue(showRepo.findViewsByTheaterId(theaterId).isEmpty());
+			assertTrue(calendar.onDate(firstDay, theaterId, null).isEmpty());
+		}
+	}
+
+	private ShowScheduleReqDto request(List<Long> theaters, int days, List<LocalTime> slots, boolean generateSeats) {
+		return new ShowScheduleReqDto(movie.getMovieId(), theaters, firstDay, firstDay.plusDays(days - 1L), null,
+				slots, 120, BigDecimal.valueOf(200), null, generateSeats);
+	}
+}
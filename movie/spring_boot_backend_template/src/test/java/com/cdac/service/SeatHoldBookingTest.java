@@ -0,0 +1,111 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.BookingReqDto;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.repository.SeatRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * A seat held by one user can not be booked by another , by seat id or by seat number -
+ * the booking is refused before the seat is claimed , so the seat stays free for its holder.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatHoldBookingTest {
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private SeatHoldService seatHoldService;
+	@Autowired
+	private SeatRepository seatRepo;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private ApplicationContext context;
+
+	private Statistics statistics;
+	private Show show;
+	private List<Seat> seats;
+	private String holder;
+	private String other;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		show = data.show(data.movie("Held " + run), data.theater("Hall " + run, 2), LocalDateTime.now().plusDays(1));
+		seats = data.seats(show, 2);
+		holder = data.user("holder." + run + "@test.com").getEmail();
+		other = data.user("other." + run + "@test.com").getEmail();
+		seatHoldService.hold(show.getShowId(), List.of("A1"), holder);
+
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void bookingAHeldSeatByIdIsRefusedBeforeTheClaim() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> bookingService.bookSeats(byId(seats.get(0), seats.get(1)), other));
+		assertEquals("One or more seats are held by another user", e.getMessage());
+		// the user , the show and the seats - no claim that is then rolled back
+		assertEquals(3, statistics.getPrepareStatementCount());
+		assertFalse(booked(seats.get(0)));
+		assertFalse(booked(seats.get(1)));
+
+		bookingService.bookSeats(byId(seats.get(0)), holder);
+		assertTrue(booked(seats.get(0)));
+	}
+
+	@Test
+	void bookingAHeldSeatByNumberIsRefusedBeforeTheClaim() {
+		assertThrows(IllegalArgumentException.class,
+				() -> bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A1"), "UPI", 0), other));
+		assertFalse(booked(seats.get(0)));
+
+		bookingService.bookShow(new BookingUserReqDto(show.getShowId(), List.of("A2"), "UPI", 0), other);
+		assertTrue(booked(seats.get(1)));
+	}
+
+	private BookingReqDto byId(Seat... selected) {
+		BookingReqDto dto = new BookingReqDto();
+		dto.setShowId(show.getShowId());
+		dto.setSeatIds(Arrays.stream(selected).map(Seat::getId).toList());
+		dto.setPaymentMode("UPI");
+		return dto;
+	}
+
+	private boolean booked(Seat seat) {
+		return seatRepo.findById(seat.getId()).orElseThrow().isBooked();
+	}
+}
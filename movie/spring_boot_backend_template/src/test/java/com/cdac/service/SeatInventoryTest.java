@@ -0,0 +1,96 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.entities.Seat;
+import com.cdac.repository.SeatRepository;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SeatInventoryTest {
+
+	private SeatRepository seatRepository;
+	private SeatInventory inventory;
+
+	@BeforeEach
+	void setUp() {
+		seatRepository = mock(SeatRepository.class);
+		inventory = new SeatInventory(seatRepository, mock(ShowRepository.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(inventory, "idleMinutes", 60L);
+		ReflectionTestUtils.setField(inventory, "maxShows", 5000);
+	}
+
+	@Test
+	void bookingCommittedDuringColdLoadIsNotLost() {
+		AtomicInteger loads = new AtomicInteger();
+		when(seatRepository.findByShowShowId(1L)).thenAnswer(inv -> {
+			if (loads.incrementAndGet() == 1) {
+				// rows read before the booking commits , the commit lands before the map is installed
+				List<Seat> before = List.of(seat(1, "A1", false), seat(2, "A2", false));
+				inventory.markBooked(1L, List.of("A1"));
+				return before;
+			}
+			return List.of(seat(1, "A1", true), seat(2, "A2", false));
+		});
+
+		ShowSeatMap map = inventory.get(1L);
+
+		assertTrue(map.isBooked("A1"));
+		assertFalse(map.isBooked("A2"));
+		assertEquals(2, loads.get());
+		assertTrue(inventory.get(1L).isBooked("A1"));
+	}
+
+	@Test
+	void evictDropsTheMap() {
+		when(seatRepository.findByShowShowId(1L)).thenReturn(List.of(seat(1, "A1", false)));
+		ShowSeatMap first = inventory.get(1L);
+
+		inventory.evict(1L);
+
+		assertFalse(inventory.snapshot().containsKey(1L));
+		assertTrue(first != inventory.get(1L));
+	}
+
+	@Test
+	void sweepDropsIdleAndLeastRecentlyReadShows() throws InterruptedException {
+		for (long showId = 1; showId <= 3; showId++) {
+			when(seatRepository.findByShowShowId(showId)).thenReturn(List.of(seat(showId, "A1", false)));
+			inventory.get(showId);
+			Thread.sleep(5);
+		}
+		inventory.get(1L);
+		ReflectionTestUtils.setField(inventory, "maxShows", 2);
+
+		inventory.sweep();
+
+		assertEquals(2, inventory.snapshot().size());
+		assertFalse(inventory.snapshot().containsKey(2L));
+
+		ReflectionTestUtils.setField(inventory, "idleMinutes", -1L);
+		inventory.sweep();
+
+		assertTrue(inventory.snapshot().isEmpty());
+	}
+
+	private static Seat seat(long id, String seatNo, boolean booked) {
+		Seat seat = new Seat();
+		seat.setId(id);
+		seat.setSeatNo(seatNo);
+		seat.setBooked(booked);
+		seat.setPrice(150.0);
+		return seat;
+	}
+}
@@ -0,0 +1,179 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cdac.TestData;
+import com.cdac.custom_exception.ResourceNotFoundException;
+import com.cdac.dto.SeatGenerationRespDto;
+import com.cdac.dto.SeatLayoutReqDto;
+import com.cdac.dto.SeatLayoutRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Seat;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.SeatRepository;
+import com.cdac.repository.ShowRepository;
+import com.cdac.repository.TheaterRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/*
+ * Seats generated from a theater layout - numbering around aisles , tier prices over the
+ * show's price , shows that already have seats skipped , and layouts checked on save.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatLayoutServiceTest {
+
+	@Autowired
+	private SeatLayoutService seatLayoutService;
+	@Autowired
+	private SeatInventory seatInventory;
+	@Autowired
+	private TheaterRepository theaterRepo;
+	@Autowired
+	private ShowRepository showRepo;
+	@Autowired
+	private SeatRepository seatRepo;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private ApplicationContext context;
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private TestData data;
+	private Movie movie;
+	private Theater theater;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		data = new TestData(context);
+		movie = data.movie("Layout " + run);
+		theater = data.theater("Layout " + run, 100);
+	}
+
+	@Test
+	void seatsFollowTheLayout() {
+		// 3 rows of 5 , column 3 an aisle , the front row priced on its own
+		SeatLayoutRespDto layout = seatLayoutService.saveLayout(theater.getTheaterId(), new SeatLayoutReqDto(3, 5,
+				List.of(3), List.of(new SeatLayoutReqDto.PriceTierData(1, 1, 500))));
+		assertEquals(12, layout.getTotalSeats());
+		assertEquals(12, theaterRepo.findById(theater.getTheaterId()).orElseThrow().getTotalSeats());
+
+		Show show = show();
+		// a seat map read before the seats exist is not kept
+		assertEquals(0, seatInventory.get(show.getShowId()).size());
+
+		SeatGenerationRespDto generated = seatLayoutService.generateSeats(List.of(show.getShowId()));
+		assertEquals(1, generated.getShowsProcessed());
+		assertEquals(12, generated.getSeatsInserted());
+		assertEquals(List.of(), generated.getSkippedShowIds());
+
+		Map<String, Double> prices = seatRepo.findByShowShowId(show.getShowId()).stream()
+				.collect(Collectors.toMap(Seat::getSeatNo, Seat::getPrice));
+		assertEquals(List.of("A1", "A2", "A4", "A5", "B1", "B2", "B4", "B5", "C1", "C2", "C4", "C5"),
+				prices.keySet().stream().sorted().toList());
+		assertEquals(500.0, prices.get("A4"));
+		assertEquals(200.0, prices.get("B1"));
+		assertEquals(12, seatInventory.get(show.getShowId()).size());
+	}
+
+	@Test
+	void showsWithSeatsAreSkipped() {
+		seatLayoutService.saveLayout(theater.getTheaterId(), new SeatLayoutReqDto(2, 2, null, null));
+		Show first = show();
+		seatLayoutService.generateSeats(List.of(first.getShowId()));
+		Show second = show();
+
+		SeatGenerationRespDto generated = seatLayoutService.generateSeats(List.of(first.getShowId(), second.getShowId()));
+
+		assertEquals(1, generated.getShowsProcessed());
+		assertEquals(4, generated.getSeatsInserted());
+		assertEquals(List.of(first.getShowId()), generated.getSkippedShowIds());
+		assertEquals(4, seatRepo.findByShowShowId(first.getShowId()).size());
+		assertEquals(4, seatRepo.findByShowShowId(second.getShowId()).size());
+	}
+
+	@Test
+	void aLargeLayoutIsInsertedAcrossFlushes() {
+		// past row Z the labels go AA , AB - and 1120 seats span several flush + detach rounds
+		seatLayoutService.saveLayout(theater.getTheaterId(), new SeatLayoutReqDto(28, 40, null, null));
+		Show show = show();
+
+		assertEquals(1120, seatLayoutService.generateSeats(List.of(show.getShowId())).getSeatsInserted());
+
+		List<Seat> seats = seatRepo.findByShowShowId(show.getShowId());
+		assertEquals(1120, seats.size());
+		assertEquals(1120, seats.stream().map(Seat::getSeatNo).distinct().count());
+		assertEquals(1, seatRepo.findByShowShowIdAndSeatNoIn(show.getShowId(), List.of("AB40")).size());
+	}
+
+	@Test
+	void newShowSeatsLeaveTheCallersEntitiesManaged() {
+		seatLayoutService.saveLayout(theater.getTheaterId(), new SeatLayoutReqDto(28, 40, null, null));
+		Long showId = show().getShowId();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			Show show = entityManager.find(Show.class, showId);
+			assertEquals(1120, seatLayoutService.generateSeatsForNewShows(List.of(show)));
+			assertTrue(entityManager.contains(show));
+			// a change after the seats still reaches the db
+			show.setTitle("Renamed");
+		});
+
+		assertEquals("Renamed", showRepo.findById(showId).orElseThrow().getTitle());
+		assertEquals(1120, seatRepo.findByShowShowId(showId).size());
+	}
+
+	@Test
+	void invalidLayoutsAreRejected() {
+		Long theaterId = theater.getTheaterId();
+		assertThrows(IllegalArgumentException.class,
+				() -> seatLayoutService.saveLayout(theaterId, new SeatLayoutReqDto(0, 10, null, null)));
+		assertThrows(IllegalArgumentException.class,
+				() -> seatLayoutService.saveLayout(theaterId, new SeatLayoutReqDto(5, 10, List.of(11), null)));
+		assertThrows(IllegalArgumentException.class, () -> seatLayoutService.saveLayout(theaterId,
+				new SeatLayoutReqDto(5, 10, null, List.of(new SeatLayoutReqDto.PriceTierData(4, 6, 300)))));
+		// every column an aisle
+		assertThrows(IllegalArgumentException.class,
+				() -> seatLayoutService.saveLayout(theaterId, new SeatLayoutReqDto(5, 2, List.of(1, 2), null)));
+		assertThrows(ResourceNotFoundException.class,
+				() -> seatLayoutService.saveLayout(-1L, new SeatLayoutReqDto(5, 10, null, null)));
+	}
+
+	@Test
+	void generationNeedsAShowAndALayout() {
+		Show show = show();
+		assertThrows(ResourceNotFoundException.class, () -> seatLayoutService.generateSeats(List.of(show.getShowId())));
+		assertThrows(ResourceNotFoundException.class, () -> seatLayoutService.generateSeats(List.of(-1L)));
+		assertThrows(IllegalArgumentException.class, () -> seatLayoutService.generateSeats(List.of()));
+		assertFalse(seatRepo.existsByShowShowId(show.getShowId()));
+
+		seatLayoutService.saveLayout(theater.getTheaterId(), new SeatLayoutReqDto(1, 1, null, null));
+		seatLayoutService.generateSeats(List.of(show.getShowId()));
+		assertTrue(seatRepo.existsByShowShowId(show.getShowId()));
+	}
+
+	private Show show() {
+		return data.show(movie, theater, LocalDateTime.now().plusDays(1));
+	}
+}
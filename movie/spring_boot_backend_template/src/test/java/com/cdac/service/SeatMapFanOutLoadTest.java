@@ -0,0 +1,102 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * In process seat map fan out harness - 100 deltas to 10k subscribers of one show ,
+ * through the queue / sender path (serialize once , queue per subscriber , drain)
+ * without sockets. Prints the event rate ; asserts only that every subscriber got
+ * every delta with no overflow. The same over real connections is SeatMapStreamLoadTest.
+ */
+@Tag("load")
+class SeatMapFanOutLoadTest {
+
+	private static final Long SHOW = 7L;
+	private static final int SUBSCRIBERS = 10_000;
+	private static final int DELTAS = 100;
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void tenThousandSubscribersReceiveEveryDelta() throws InterruptedException {
+		SeatMapStream stream = new SeatMapStream(mock(SeatInventory.class), new ObjectMapper(), registry, 2, 16) {
+			@Override
+			SseEmitter newEmitter() {
+				return new CountingEmitter();
+			}
+		};
+		ReflectionTestUtils.setField(stream, "queueSize", 128);
+		ReflectionTestUtils.setField(stream, "timeoutMinutes", 30L);
+		try {
+			List<CountingEmitter> emitters = new ArrayList<>();
+			for (int i = 0; i < SUBSCRIBERS; i++) {
+				emitters.add((CountingEmitter) stream.subscribe(SHOW, List::of));
+			}
+			awaitTrue(() -> emitters.stream().allMatch(e -> e.events.get() == 1));
+
+			long start = System.nanoTime();
+			for (int i = 0; i < DELTAS; i++) {
+				stream.seatsBooked(SHOW, List.of("A" + i));
+			}
+			awaitTrue(() -> emitters.stream().allMatch(e -> e.events.get() == DELTAS + 1));
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			assertEquals(SUBSCRIBERS, stream.connectionCount());
+			assertEquals(0.0, registry.counter("seatmap.stream.overflows").count());
+			System.out.printf("seat map fan out : %d subscribers x %d deltas in %d ms (%.0f events/s)%n",
+					SUBSCRIBERS, DELTAS, millis, SUBSCRIBERS * (double) DELTAS * 1000 / Math.max(1, millis));
+		} finally {
+			stream.shutdown();
+		}
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long giveUp = System.currentTimeMillis() + 20_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < giveUp, "condition not met in time");
+			Thread.sleep(5);
+		}
+	}
+
+	// counts the events sent to it instead of writing a response ; heartbeats are not events
+	private static class CountingEmitter extends SseEmitter {
+		final AtomicInteger events = new AtomicInteger();
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			StringBuilder frame = new StringBuilder();
+			items.forEach(item -> frame.append(item.getData()));
+			if (!frame.toString().contains(":heartbeat")) {
+				events.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void complete() {
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+		}
+	}
+}
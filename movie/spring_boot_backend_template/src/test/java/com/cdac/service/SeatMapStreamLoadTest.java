@@ -0,0 +1,179 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cdac.Application;
+import com.cdac.TestData;
+import com.cdac.dto.BookingUserReqDto;
+import com.cdac.entities.Role;
+import com.cdac.entities.Show;
+import com.cdac.security.JWTUtils;
+
+/*
+ * Live seat map load harness - boots the app on a random port , opens SUBSCRIBERS
+ * server sent event streams of one show over real http connections , then books
+ * DELTAS seats one at a time. Prints the time to the last snapshot , delivery latency
+ * (booking call -> delta read by a client) p50 / p99 / max and the event rate ;
+ * asserts only that every subscriber got its snapshot and every delta , in order.
+ * Client and server share this jvm , so each stream takes two file descriptors - 10k
+ * streams need an open files limit above 20k (-Dseatmap.load.subscribers=N to run fewer).
+ */
+@Tag("load")
+class SeatMapStreamLoadTest {
+
+	private static final int SUBSCRIBERS = Integer.getInteger("seatmap.load.subscribers", 10_000);
+	private static final int DELTAS = 50;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void manySubscribersGetEveryDelta() throws Exception {
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:sse-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--booking.waiting-room.enabled=false",
+						// streams the clients dropped stay open server side until a heartbeat fails
+						"--server.shutdown=immediate",
+						"--spring.jmx.enabled=false")) {
+			int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+			Long showId = seed(ctx);
+			String token = ctx.getBean(JWTUtils.class).generateToken("stream.user@test.com", Role.USER.name());
+			URI uri = URI.create("http://localhost:" + port + "/api/user/shows/" + showId + "/seats/stream");
+
+			long[][] arrivals = new long[SUBSCRIBERS][DELTAS];
+			AtomicInteger outOfOrder = new AtomicInteger();
+			List<String> failures = new CopyOnWriteArrayList<>();
+			CountDownLatch snapshots = new CountDownLatch(SUBSCRIBERS);
+			CountDownLatch done = new CountDownLatch(SUBSCRIBERS);
+			ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+			long start = System.nanoTime();
+			for (int s = 0; s < SUBSCRIBERS; s++) {
+				long[] arrived = arrivals[s];
+				readers.execute(() -> {
+					// counted once , on the snapshot or on a failure before it
+					AtomicBoolean counted = new AtomicBoolean();
+					Runnable snapshot = () -> {
+						if (counted.compareAndSet(false, true)) {
+							snapshots.countDown();
+						}
+					};
+					try {
+						read(uri, token, arrived, snapshot, outOfOrder);
+					} catch (Exception e) {
+						failures.add(e.toString());
+					} finally {
+						snapshot.run();
+						done.countDown();
+					}
+				});
+			}
+			assertTrue(snapshots.await(2, TimeUnit.MINUTES), "snapshots missing : " + snapshots.getCount());
+			long subscribedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			int connections = ctx.getBean(SeatMapStream.class).connectionCount();
+
+			BookingService bookings = ctx.getBean(BookingService.class);
+			long[] booked = new long[DELTAS];
+			long firstBooking = System.nanoTime();
+			for (int d = 0; d < DELTAS; d++) {
+				booked[d] = System.nanoTime();
+				bookings.bookShow(new BookingUserReqDto(showId, List.of("A" + (d + 1)), "UPI", 0), "stream.user@test.com");
+				Thread.sleep(10);
+			}
+			assertTrue(done.await(2, TimeUnit.MINUTES), "subscribers still waiting : " + done.getCount());
+			long deliveryNanos = System.nanoTime() - firstBooking;
+			readers.shutdown();
+
+			List<Long> latencies = new ArrayList<>();
+			int received = 0;
+			for (long[] arrived : arrivals) {
+				for (int d = 0; d < DELTAS; d++) {
+					if (arrived[d] != 0) {
+						received++;
+						latencies.add(arrived[d] - booked[d]);
+					}
+				}
+			}
+			long[] micros = latencies.stream().mapToLong(n -> n / 1000).sorted().toArray();
+			System.out.printf("seat map stream : %d subscribers connected in %d ms (%d open) , %d deltas -> %d events"
+					+ " in %d ms (%.0f events/s) , delivery p50 %.1f ms p99 %.1f ms max %.1f ms%n",
+					SUBSCRIBERS, subscribedMillis, connections, DELTAS, received,
+					TimeUnit.NANOSECONDS.toMillis(deliveryNanos), received * 1e9 / deliveryNanos,
+					percentile(micros, 0.50) / 1000.0, percentile(micros, 0.99) / 1000.0,
+					micros[micros.length - 1] / 1000.0);
+
+			assertEquals(List.of(), failures);
+			assertEquals(SUBSCRIBERS, connections);
+			assertEquals(SUBSCRIBERS * DELTAS, received);
+			assertEquals(0, outOfOrder.get());
+		}
+	}
+
+	// reads one stream until its snapshot and DELTAS deltas arrived , stamping each delta
+	private void read(URI uri, String token, long[] arrived, Runnable snapshot, AtomicInteger outOfOrder)
+			throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token)
+				.header("Accept", "text/event-stream").GET().build();
+		HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("status " + response.statusCode());
+		}
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+			String event = null;
+			int deltas = 0;
+			String line;
+			while (deltas < DELTAS && (line = in.readLine()) != null) {
+				if (line.startsWith("event:")) {
+					event = line.substring(6);
+				} else if (line.startsWith("data:") && "snapshot".equals(event)) {
+					snapshot.run();
+				} else if (line.startsWith("data:") && "delta".equals(event)) {
+					arrived[deltas] = System.nanoTime();
+					// the n-th delta books seat A<n>
+					if (!line.contains("\"A" + (deltas + 1) + "\"")) {
+						outOfOrder.incrementAndGet();
+					}
+					deltas++;
+				}
+			}
+		}
+	}
+
+	// one show with DELTAS seats , and the user booking them
+	private static Long seed(ConfigurableApplicationContext ctx) {
+		TestData data = new TestData(ctx);
+		Show show = data.showWithSeats("Stream", DELTAS);
+		data.user("stream.user@test.com");
+		return show.getShowId();
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+	}
+}
@@ -0,0 +1,176 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SeatMapStreamTest {
+
+	private static final Long SHOW = 7L;
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+	private final List<RecordingEmitter> created = new ArrayList<>();
+	private volatile CountDownLatch stall;
+	private SeatMapStream stream;
+
+	@AfterEach
+	void tearDown() {
+		if (stall != null) {
+			stall.countDown();
+		}
+		stream.shutdown();
+	}
+
+	@Test
+	void stalledSubscriberIsDisconnectedWithoutHoldingUpOthers() throws InterruptedException {
+		stream = newStream(1, 4, 16);
+		RecordingEmitter fast = subscribe();
+		stall = new CountDownLatch(1);
+		RecordingEmitter stalled = subscribe();
+		awaitTrue(() -> fast.events.get() == 1);
+
+		// bursts the fast client keeps up with , while the other one never returns from send
+		for (int burst = 0; burst < 10; burst++) {
+			for (int i = 0; i < 10; i++) {
+				stream.seatsBooked(SHOW, List.of("A" + (burst * 10 + i)));
+			}
+			int expected = 1 + (burst + 1) * 10;
+			awaitTrue(() -> fast.events.get() == expected);
+		}
+		// unregistered at once ; the emitter completes once the stuck send returns (socket timeout)
+		assertEquals(1.0, registry.counter("seatmap.stream.overflows").count());
+		assertEquals(1, stream.connectionCount());
+		stream.seatsReleased(SHOW, List.of("A0"));
+		awaitTrue(() -> fast.events.get() == 102);
+
+		stall.countDown();
+		awaitTrue(() -> stalled.completed);
+	}
+
+	@Test
+	void burstLargerThanTheQueueDisconnects() throws InterruptedException {
+		stream = newStream(1, 1, 4);
+		stall = new CountDownLatch(1);
+		RecordingEmitter emitter = subscribe();
+
+		for (int i = 0; i < 10; i++) {
+			stream.seatsBooked(SHOW, List.of("A" + i));
+		}
+
+		awaitTrue(() -> stream.connectionCount() == 0);
+		stall.countDown();
+		awaitTrue(() -> emitter.completed);
+	}
+
+	@Test
+	void snapshotIsSentBeforeTheEmitterIsReturned() {
+		stream = newStream(1, 2, 8);
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(SHOW, List::of);
+
+		assertEquals(1, emitter.events.get());
+	}
+
+	@Test
+	void idleSubscribersGetAHeartbeatComment() throws InterruptedException {
+		stream = newStream(1, 2, 8);
+		RecordingEmitter emitter = subscribe();
+		awaitTrue(() -> emitter.events.get() == 1);
+
+		stream.sendHeartbeats();
+
+		awaitTrue(() -> emitter.frames.stream().anyMatch(f -> f.contains(":heartbeat")));
+	}
+
+	private SeatMapStream newStream(int threads, int sendThreads, int queueSize) {
+		SeatMapStream s = new SeatMapStream(mock(SeatInventory.class), new ObjectMapper(), registry, threads,
+				sendThreads) {
+			@Override
+			SseEmitter newEmitter() {
+				RecordingEmitter emitter = new RecordingEmitter(stall);
+				created.add(emitter);
+				return emitter;
+			}
+		};
+		ReflectionTestUtils.setField(s, "queueSize", queueSize);
+		ReflectionTestUtils.setField(s, "timeoutMinutes", 30L);
+		return s;
+	}
+
+	private RecordingEmitter subscribe() {
+		RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(SHOW, List::of);
+		// handed to MVC - from here on sends go to the socket
+		emitter.initialized = true;
+		return emitter;
+	}
+
+	private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+		long giveUp = System.currentTimeMillis() + 20_000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < giveUp, "condition not met in time");
+			Thread.sleep(5);
+		}
+	}
+
+	/*
+	 * Records frames instead of writing a response ; a stall latch makes send block like
+	 * a full socket. Sends before initialized are buffered by MVC in a real emitter , so
+	 * they never stall.
+	 */
+	private static class RecordingEmitter extends SseEmitter {
+		final AtomicInteger events = new AtomicInteger();
+		final List<String> frames = new java.util.concurrent.CopyOnWriteArrayList<>();
+		final CountDownLatch stall;
+		volatile boolean initialized;
+		volatile boolean completed;
+
+		RecordingEmitter(CountDownLatch stall) {
+			this.stall = stall;
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			if (stall != null && initialized) {
+				try {
+					stall.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return;
+			}
+			StringBuilder frame = new StringBuilder();
+			items.forEach(item -> frame.append(item.getData()));
+			frames.add(frame.toString());
+			if (!frame.toString().contains(":heartbeat")) {
+				events.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		@Override
+		public void completeWithError(Throwable ex) {
+			completed = true;
+		}
+	}
+}
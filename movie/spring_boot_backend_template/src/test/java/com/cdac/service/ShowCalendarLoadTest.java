@@ -0,0 +1,129 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.ShowRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.ShowRepository;
+
+import jakarta.persistence.EntityManager;
+
+/*
+ * Show calendar load harness - ShowCalendar against the range queries it replaced
+ * (SHOW_VIEW ... BETWEEN / = startTime), over SHOWS shows spread across DAYS days and
+ * THEATERS theaters. Prints the mean latency of each per lookup ; asserts only that both return the same shows for every
+ * day and every start time (restricted to this run's theaters - other tests save
+ * shows behind the calendar's back). H2 in memory flatters the queries ; on MySQL
+ * each one is a round trip too.
+ */
+@Tag("load")
+@SpringBootTest
+@ActiveProfiles("test")
+class ShowCalendarLoadTest {
+
+	private static final int SHOWS = 3000;
+	private static final int DAYS = 30;
+	private static final int THEATERS = 20;
+	private static final int ROUNDS = 5;
+
+	// the queries searchShowsByDate / searchShowsByStartTime ran before the calendar
+	private static final String BY_DATE = ShowRepository.SHOW_VIEW
+			+ "WHERE s.startTime BETWEEN :start AND :end ORDER BY s.showId";
+	private static final String BY_START_TIME = ShowRepository.SHOW_VIEW
+			+ "WHERE s.startTime = :startTime ORDER BY s.showId";
+
+	@Autowired
+	private ShowCalendar calendar;
+	@Autowired
+	private EntityManager em;
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void calendarMatchesTheRangeQueries() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		Movie movie = data.movie("Calendar " + run);
+		Set<String> ours = new TreeSet<>();
+		List<Theater> theaters = new ArrayList<>();
+		for (int i = 0; i < THEATERS; i++) {
+			Theater theater = data.theater("Calendar " + i + " " + run, "City " + i % 4, 100);
+			theaters.add(theater);
+			ours.add(theater.getName());
+		}
+		// a year out , on the quarter hour so several theaters share each start time
+		LocalDate firstDay = LocalDate.now().plusYears(1);
+		List<Show> shows = new ArrayList<>();
+		for (int i = 0; i < SHOWS; i++) {
+			LocalDateTime start = firstDay.plusDays(i % DAYS).atTime(9, 0).plusMinutes(15L * (i / DAYS % 60));
+			shows.add(data.show(movie, theaters.get(i % THEATERS), start));
+		}
+		// saved straight through the repository , so handed to the calendar here (no transaction - applied at once)
+		calendar.putAll(shows);
+
+		long[] queryDay = new long[ROUNDS];
+		long[] calendarDay = new long[ROUNDS];
+		long[] queryStart = new long[ROUNDS];
+		long[] calendarStart = new long[ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int d = 0; d < DAYS; d++) {
+				LocalDate day = firstDay.plusDays(d);
+				List<ShowRespDto> byQuery = timed(queryDay, r, () -> em.createQuery(BY_DATE, ShowRespDto.class)
+						.setParameter("start", day.atStartOfDay())
+						.setParameter("end", day.atTime(LocalTime.MAX))
+						.getResultList());
+				List<ShowRespDto> byCalendar = timed(calendarDay, r, () -> calendar.onDate(day, null, null));
+				assertEquals(ids(byQuery, ours), ids(byCalendar, ours), "shows on " + day);
+
+				LocalDateTime start = day.atTime(9, 0).plusMinutes(15L * d);
+				byQuery = timed(queryStart, r, () -> em.createQuery(BY_START_TIME, ShowRespDto.class)
+						.setParameter("startTime", start)
+						.getResultList());
+				byCalendar = timed(calendarStart, r, () -> calendar.startingBetween(start, start));
+				assertEquals(ids(byQuery, ours), ids(byCalendar, ours), "shows at " + start);
+			}
+		}
+
+		System.out.printf("calendar : %d shows over %d days - by date query %d us , calendar %d ns ;"
+				+ " by start time query %d us , calendar %d ns (mean per lookup , rounds after the first)%n",
+				SHOWS, DAYS, perLookup(queryDay) / 1000, perLookup(calendarDay), perLookup(queryStart) / 1000,
+				perLookup(calendarStart));
+	}
+
+	private static <T> T timed(long[] nanos, int round, Supplier<T> lookup) {
+		long start = System.nanoTime();
+		T result = lookup.get();
+		nanos[round] += System.nanoTime() - start;
+		return result;
+	}
+
+	private static long perLookup(long[] nanos) {
+		return Arrays.stream(nanos, 1, ROUNDS).sum() / ((ROUNDS - 1L) * DAYS);
+	}
+
+	private static Set<Long> ids(List<ShowRespDto> shows, Set<String> theaters) {
+		Set<Long> ids = new TreeSet<>();
+		shows.stream().filter(show -> theaters.contains(show.getTheaterName())).forEach(show -> ids.add(show.getShowId()));
+		return ids;
+	}
+}
@@ -0,0 +1,130 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import com.cdac.dto.DtoMapper;
+import com.cdac.dto.ShowRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Show;
+import com.cdac.entities.Theater;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShowCalendarTest {
+
+	private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+	private final ShowRepository showRepo = mock(ShowRepository.class);
+	private final Movie movie = new Movie(1L, "Dune", DAY, "UA", "English", "Drama", "2h");
+	private final Theater punePlex = new Theater(10L, "Pune Plex", "Pune", 100);
+	private final Theater puneTalkies = new Theater(11L, "Talkies", "pune", 100);
+	private final Theater mumbaiScreen = new Theater(12L, "Screen", "Mumbai", 100);
+
+	@Test
+	void onDateFiltersByTheaterCityOrBoth() {
+		ShowCalendar calendar = calendar(
+				show(1, punePlex, DAY.atTime(18, 0)),
+				show(2, puneTalkies, DAY.atTime(10, 0)),
+				show(3, mumbaiScreen, DAY.atTime(12, 0)),
+				show(4, punePlex, DAY.atTime(9, 0)),
+				show(5, punePlex, DAY.plusDays(1).atTime(9, 0)));
+
+		assertEquals(List.of(4L, 2L, 3L, 1L), ids(calendar.onDate(DAY, null, null)));
+		assertEquals(List.of(4L, 1L), ids(calendar.onDate(DAY, 10L, null)));
+		// the city matches case insensitively , across theaters
+		assertEquals(List.of(4L, 2L, 1L), ids(calendar.onDate(DAY, null, " PUNE ")));
+		assertEquals(List.of(3L), ids(calendar.onDate(DAY, null, "mumbai")));
+		assertEquals(List.of(4L, 1L), ids(calendar.onDate(DAY, 10L, "pune")));
+		assertEquals(List.of(), ids(calendar.onDate(DAY, 12L, "Pune")));
+		assertEquals(List.of(), ids(calendar.onDate(DAY, 99L, null)));
+		assertEquals(List.of(), ids(calendar.onDate(DAY.minusDays(1), null, null)));
+	}
+
+	@Test
+	void startingBetweenCrossesDayBoundaries() {
+		ShowCalendar calendar = calendar(
+				show(1, punePlex, DAY.atTime(22, 0)),
+				show(2, puneTalkies, DAY.atTime(23, 30)),
+				show(3, punePlex, DAY.plusDays(1).atTime(0, 15)),
+				show(4, mumbaiScreen, DAY.plusDays(1).atTime(9, 0)),
+				show(5, punePlex, DAY.plusDays(3).atTime(10, 0)));
+
+		// both ends inclusive , across midnight
+		assertEquals(List.of(2L, 3L, 4L), ids(calendar.startingBetween(DAY.atTime(23, 0), DAY.plusDays(1).atTime(9, 0))));
+		// an empty day in the middle of the range
+		assertEquals(List.of(4L, 5L), ids(calendar.startingBetween(DAY.plusDays(1).atTime(1, 0), DAY.plusDays(3).atTime(10, 0))));
+		assertEquals(List.of(3L), ids(calendar.startingBetween(DAY.plusDays(1).atTime(0, 15), DAY.plusDays(1).atTime(0, 15))));
+		assertEquals(List.of(), ids(calendar.startingBetween(DAY.plusDays(2).atStartOfDay(), DAY.plusDays(2).atTime(23, 59))));
+		assertEquals(List.of(), ids(calendar.startingBetween(DAY.plusDays(1).atTime(9, 0), DAY.atTime(22, 0))));
+	}
+
+	@Test
+	void putAllMovesAShowToAnotherDay() {
+		Show moving = show(1, punePlex, DAY.atTime(18, 0));
+		ShowCalendar calendar = calendar(moving, show(2, punePlex, DAY.plusDays(1).atTime(18, 0)));
+		assertEquals(2, calendar.dayCount());
+
+		moving.setStartTime(DAY.plusDays(1).atTime(10, 0));
+		moving.setEndTime(DAY.plusDays(1).atTime(12, 0));
+		calendar.putAll(List.of(moving, show(3, mumbaiScreen, DAY.plusDays(1).atTime(14, 0))));
+
+		// the old day is gone with its last show , the new one is rebuilt once with both
+		assertEquals(List.of(), ids(calendar.onDate(DAY, null, null)));
+		assertEquals(1, calendar.dayCount());
+		assertEquals(3, calendar.size());
+		assertEquals(List.of(1L, 3L, 2L), ids(calendar.onDate(DAY.plusDays(1), null, null)));
+		assertEquals(List.of(1L, 2L), ids(calendar.onDate(DAY.plusDays(1), 10L, null)));
+		assertEquals(List.of(3L), ids(calendar.onDate(DAY.plusDays(1), null, "Mumbai")));
+	}
+
+	@Test
+	void renamesAndRemovalsReachTheListings() {
+		ShowCalendar calendar = calendar(show(1, punePlex, DAY.atTime(18, 0)), show(2, mumbaiScreen, DAY.atTime(20, 0)));
+
+		calendar.movieChanged(new Movie(1L, "Dune Part Two", DAY, "UA", "English", "Drama", "2h"));
+		calendar.theaterChanged(new Theater(12L, "Screen", "Navi Mumbai", 100));
+		calendar.remove(1L);
+
+		List<ShowRespDto> shows = calendar.onDate(DAY, null, null);
+		assertEquals(List.of(2L), ids(shows));
+		assertEquals("Dune Part Two", shows.get(0).getMovieTitle());
+		assertEquals(List.of(2L), ids(calendar.onDate(DAY, null, "navi mumbai")));
+		assertTrue(calendar.onDate(DAY, null, "Mumbai").isEmpty());
+	}
+
+	private ShowCalendar calendar(Show... shows) {
+		when(showRepo.findAllWithMovieAndTheater()).thenReturn(new ArrayList<>(List.of(shows)));
+		ShowCalendar calendar = new ShowCalendar(showRepo, Mappers.getMapper(DtoMapper.class), new SimpleMeterRegistry());
+		calendar.ensureLoaded();
+		return calendar;
+	}
+
+	private Show show(long id, Theater theater, LocalDateTime start) {
+		Show show = new Show();
+		show.setShowId(id);
+		show.setMovie(movie);
+		show.setTheater(theater);
+		show.setTitle(movie.getTitle());
+		show.setStartTime(start);
+		show.setEndTime(start.plusHours(2));
+		show.setPricePerSeat(BigDecimal.valueOf(200));
+		return show;
+	}
+
+	private static List<Long> ids(List<ShowRespDto> shows) {
+		return shows.stream().map(ShowRespDto::getShowId).toList();
+	}
+}
@@ -0,0 +1,123 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.cdac.TestData;
+import com.cdac.dto.ShowReqDto;
+import com.cdac.dto.ShowRespDto;
+import com.cdac.entities.Movie;
+import com.cdac.entities.Theater;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/*
+ * Show listings / searches cost one statement per call however many shows they
+ * return (ShowRepository.SHOW_VIEW projections) - counted with Hibernate statistics.
+ * Date / start time searches are answered by the calendar and issue none.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShowListingQueriesTest {
+
+	private static final int SHOWS_PER_PAIR = 3;
+
+	@Autowired
+	private ShowService showService;
+	@Autowired
+	private EntityManagerFactory emf;
+	@Autowired
+	private ApplicationContext context;
+
+	private Statistics statistics;
+	private final List<Movie> movies = new ArrayList<>();
+	private final List<Theater> theaters = new ArrayList<>();
+	private LocalDateTime firstStart;
+
+	@BeforeEach
+	void setUp() {
+		String run = Long.toString(System.nanoTime());
+		TestData data = new TestData(context);
+		movies.clear();
+		theaters.clear();
+		for (int i = 0; i < 2; i++) {
+			movies.add(data.movie("Listing " + i + " " + run));
+			theaters.add(data.theater("Screen " + i + " " + run, "City " + run, 50));
+		}
+		// three shows of every movie in every theater , 4 hours apart from midnight - six on the first day
+		firstStart = LocalDate.now().plusDays(30).atStartOfDay();
+		int slot = 0;
+		for (Movie movie : movies) {
+			for (Theater theater : theaters) {
+				for (int i = 0; i < SHOWS_PER_PAIR; i++) {
+					LocalDateTime start = firstStart.plusHours(4L * slot++);
+					showService.addShow(new ShowReqDto(movie.getMovieId(), theater.getTheaterId(), movie.getTitle(),
+							start, start.plusHours(2), BigDecimal.valueOf(200)));
+				}
+			}
+		}
+		statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void listingsRunOneStatementEach() {
+		Movie movie = movies.get(0);
+		Theater theater = theaters.get(0);
+		Long showId = showService.getShowsByMovie(movie.getMovieId()).get(0).getShowId();
+
+		assertTrue(statements(showService::getAllShows).size() >= 4 * SHOWS_PER_PAIR);
+		assertEquals(2 * SHOWS_PER_PAIR, statements(() -> showService.getShowsByTheater(theater.getTheaterId())).size());
+		assertEquals(2 * SHOWS_PER_PAIR, statements(() -> showService.getShowsByMovie(movie.getMovieId())).size());
+		assertEquals(2 * SHOWS_PER_PAIR, statements(() -> showService.getShowsByMovieTitle(movie.getTitle())).size());
+		assertEquals(2 * SHOWS_PER_PAIR, statements(() -> showService.getShowsByTheaterName(theater.getName())).size());
+		assertEquals(showId, statements(() -> showService.getShowById(showId)).getShowId());
+		ShowRespDto details = statements(() -> showService.getShowDetails(showId));
+		assertEquals(theater.getLocation(), details.getTheaterLocation());
+	}
+
+	@Test
+	void dateSearchesRunNoStatement() {
+		statistics.clear();
+
+		List<ShowRespDto> onDay = showService.searchShowsByDate(firstStart.toLocalDate(), null,
+				theaters.get(0).getLocation());
+		List<ShowRespDto> atStart = showService.searchShowsByStartTime(firstStart);
+
+		assertEquals(2 * SHOWS_PER_PAIR, onDay.size());
+		// other tests' shows may start at the same time - every one returned does , ours among them
+		assertTrue(atStart.stream().allMatch(show -> show.getStartTime().equals(firstStart)));
+		assertTrue(atStart.stream().anyMatch(show -> show.getMovieTitle().equals(movies.get(0).getTitle())));
+		assertEquals(0, statistics.getPrepareStatementCount());
+	}
+
+	// runs the call , asserting it prepared exactly one statement
+	private <T> T statements(Supplier<T> call) {
+		statistics.clear();
+		T result = call.get();
+		assertEquals(1, statistics.getPrepareStatementCount(), "statements of one listing call");
+		return result;
+	}
+}
@@ -0,0 +1,157 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.cdac.dto.ScheduleConflictDto;
+import com.cdac.dto.ScheduleValidationRespDto;
+import com.cdac.dto.ShowReqDto;
+import com.cdac.repository.ShowRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShowScheduleTest {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+	private final ShowRepository showRepo = mock(ShowRepository.class);
+
+	// random intervals , inserts and removes - the treap agrees with a scan of the live intervals
+	@Test
+	void intervalTreeMatchesAScan() {
+		Random random = new Random(5);
+		ShowSchedule.IntervalTree tree = new ShowSchedule.IntervalTree();
+		Map<Long, long[]> live = new HashMap<>();
+		long nextId = 1;
+		for (int step = 0; step < 20_000; step++) {
+			if (live.isEmpty() || random.nextInt(3) > 0) {
+				long start = random.nextInt(100_000);
+				long end = start + 1 + random.nextInt(500);
+				long id = nextId++;
+				tree.insert(start, end, id);
+				live.put(id, new long[] { start, end });
+			} else {
+				List<Long> ids = new ArrayList<>(live.keySet());
+				long id = ids.get(random.nextInt(ids.size()));
+				tree.remove(live.remove(id)[0], id);
+			}
+			assertEquals(live.size(), tree.size());
+
+			long from = random.nextInt(100_000);
+			long to = from + 1 + random.nextInt(800);
+			long ignore = random.nextInt(4) == 0 && !live.isEmpty() ? live.keySet().iterator().next() : Long.MIN_VALUE;
+			long hit = tree.overlapping(from, to, ignore);
+			boolean any = live.entrySet().stream()
+					.anyMatch(e -> e.getKey() != ignore && e.getValue()[0] < to && e.getValue()[1] > from);
+			if (hit == Long.MIN_VALUE) {
+				assertFalse(any, "missed an overlap of [" + from + " , " + to + ")");
+			} else {
+				long[] slot = live.get(hit);
+				assertTrue(hit != ignore && slot[0] < to && slot[1] > from, "not an overlap : " + hit);
+			}
+		}
+	}
+
+	@Test
+	void claimKeepsTheCleaningBufferBetweenShows() {
+		ShowSchedule schedule = schedule(List.<Object[]>of(new Object[] { 1L, 7L, at(10, 0), at(12, 0) }));
+
+		// starts 10 minutes after show 1 ends - inside the 15 minute buffer
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> schedule.claim(2L, 7L, at(12, 10), at(14, 0)));
+		assertTrue(e.getMessage().contains("overlaps show 1"));
+		// exactly the buffer apart , or in another theater - fine
+		schedule.claim(2L, 7L, at(12, 15), at(14, 0));
+		schedule.claim(3L, 8L, at(10, 0), at(12, 0));
+		assertEquals(3, schedule.size());
+	}
+
+	@Test
+	void updateIgnoresTheShowsOwnSlotAndReleaseFreesIt() {
+		ShowSchedule schedule = schedule(List.<Object[]>of(new Object[] { 1L, 7L, at(10, 0), at(12, 0) }));
+
+		schedule.claim(1L, 7L, at(10, 30), at(12, 30)); // moved by half an hour , overlapping its old slot
+		schedule.claim(2L, 7L, at(8, 0), at(10, 0)); // fits before the moved show , not before the old one
+		assertThrows(IllegalArgumentException.class, () -> schedule.claim(3L, 7L, at(12, 0), at(13, 0)));
+
+		schedule.release(1L); // no transaction - freed at once
+		schedule.claim(3L, 7L, at(12, 0), at(13, 0));
+		assertEquals(2, schedule.size());
+	}
+
+	@Test
+	void rolledBackClaimRestoresThePreviousSlot() {
+		ShowSchedule schedule = schedule(List.<Object[]>of(new Object[] { 1L, 7L, at(10, 0), at(12, 0) }));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			schedule.claim(1L, 7L, at(18, 0), at(20, 0));
+			schedule.claim(2L, 7L, at(14, 0), at(16, 0));
+			for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+				sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(1, schedule.size());
+		// show 1 is back at 10:00 - 12:00 , 18:00 is free again
+		assertThrows(IllegalArgumentException.class, () -> schedule.claim(3L, 7L, at(11, 0), at(13, 0)));
+		schedule.claim(3L, 7L, at(18, 0), at(20, 0));
+	}
+
+	@Test
+	void validateReportsConflictsWithExistingAndEarlierProposedShows() {
+		ShowSchedule schedule = schedule(List.<Object[]>of(new Object[] { 1L, 7L, at(10, 0), at(12, 0) }));
+
+		ScheduleValidationRespDto resp = schedule.validate(List.of(
+				proposed(7L, at(11, 0), at(13, 0)),   // 0 : overlaps show 1
+				proposed(7L, at(14, 0), at(16, 0)),   // 1 : fine
+				proposed(7L, at(16, 5), at(18, 0)),   // 2 : too close to proposal 1
+				proposed(7L, at(19, 0), at(18, 0)),   // 3 : ends before it starts
+				proposed(8L, at(11, 0), at(13, 0)))); // 4 : other theater , fine
+
+		assertFalse(resp.isValid());
+		assertEquals(5, resp.getShowsChecked());
+		List<ScheduleConflictDto> conflicts = resp.getConflicts();
+		assertEquals(List.of(0, 2, 3), conflicts.stream().map(ScheduleConflictDto::getIndex).toList());
+		assertEquals(1L, conflicts.get(0).getConflictingShowId());
+		assertNull(conflicts.get(0).getConflictingIndex());
+		assertEquals(1, conflicts.get(1).getConflictingIndex());
+		// validation saves nothing
+		assertEquals(1, schedule.size());
+	}
+
+	private ShowSchedule schedule(List<Object[]> existing) {
+		when(showRepo.findScheduleSlots()).thenReturn(existing);
+		ShowSchedule schedule = new ShowSchedule(showRepo, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(schedule, "bufferMinutes", 15);
+		return schedule;
+	}
+
+	private static ShowReqDto proposed(Long theaterId, LocalDateTime start, LocalDateTime end) {
+		return new ShowReqDto(1L, theaterId, "Proposed", start, end, BigDecimal.valueOf(200));
+	}
+
+	private static LocalDateTime at(int hour, int minute) {
+		return DAY.plusHours(hour).plusMinutes(minute);
+	}
+}
@@ -0,0 +1,125 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.cdac.Application;
+import com.cdac.entities.Role;
+import com.cdac.security.JWTUtils;
+
+/*
+ * Waiting room burst harness - boots the app on a random port with an admission rate
+ * of RATE users / s , then USERS distinct users hit one show's waiting room poll
+ * (answered by WaitingRoomFilter) at the same moment and keep polling every POLL_MILLIS
+ * until admitted. Prints admissions per second , the longest wait and the poll
+ * latency p50 / p99 ; asserts only that everyone got in and that by any moment no more
+ * users were admitted than the first second's burst plus one RATE per tick since.
+ */
+@Tag("load")
+class WaitingRoomLoadTest {
+
+	private static final int USERS = 2000;
+	private static final int RATE = 200;
+	private static final long POLL_MILLIS = 250;
+	private static final long SHOW = 42L;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void aBurstIsAdmittedAtTheConfiguredRate() throws Exception {
+		try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Application.class)
+				.profiles("test")
+				// arguments , not builder properties - those are defaults the property files override
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:waiting-" + System.nanoTime()
+								+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+						"--booking.waiting-room.enabled=true",
+						"--booking.waiting-room.admits-per-second=" + RATE,
+						"--spring.jmx.enabled=false")) {
+			int port = Integer.parseInt(ctx.getEnvironment().getProperty("local.server.port"));
+			JWTUtils jwt = ctx.getBean(JWTUtils.class);
+			URI poll = URI.create("http://localhost:" + port + "/api/user/waiting-room/shows/" + SHOW);
+			List<String> tokens = new ArrayList<>();
+			for (int u = 0; u < USERS; u++) {
+				tokens.add(jwt.generateToken("burst." + u + "@test.com", Role.USER.name()));
+			}
+
+			long[] admittedAt = new long[USERS];
+			List<Long> pollMicros = new CopyOnWriteArrayList<>();
+			List<String> failures = new CopyOnWriteArrayList<>();
+			AtomicLong polls = new AtomicLong();
+			List<Future<?>> clients = new ArrayList<>();
+			long start = System.nanoTime();
+			try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int u = 0; u < USERS; u++) {
+					int user = u;
+					clients.add(users.submit(() -> {
+						HttpRequest request = HttpRequest.newBuilder(poll)
+								.header("Authorization", "Bearer " + tokens.get(user)).GET().build();
+						while (System.nanoTime() - start < TimeUnit.MINUTES.toNanos(2)) {
+							long t = System.nanoTime();
+							HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+							pollMicros.add((System.nanoTime() - t) / 1000);
+							polls.incrementAndGet();
+							if (response.statusCode() != 200) {
+								failures.add("status " + response.statusCode());
+								return null;
+							}
+							if (response.body().contains("\"admitted\":true")) {
+								admittedAt[user] = System.nanoTime() - start;
+								return null;
+							}
+							Thread.sleep(POLL_MILLIS);
+						}
+						failures.add("user " + user + " never admitted");
+						return null;
+					}));
+				}
+				for (Future<?> client : clients) {
+					client.get(3, TimeUnit.MINUTES);
+				}
+			}
+			long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+			long[] admitted = Arrays.stream(admittedAt).filter(t -> t > 0).sorted().toArray();
+			int[] perSecond = new int[(int) TimeUnit.NANOSECONDS.toSeconds(admitted[admitted.length - 1]) + 1];
+			for (long t : admitted) {
+				perSecond[(int) TimeUnit.NANOSECONDS.toSeconds(t)]++;
+			}
+			long[] micros = pollMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+			System.out.printf("waiting room : %d users at %d/s admitted in %d ms , per second %s , longest wait %d ms ,"
+					+ " %d polls (%.0f/s) , poll p50 %.1f ms p99 %.1f ms%n",
+					admitted.length, RATE, elapsedMillis, Arrays.toString(perSecond),
+					TimeUnit.NANOSECONDS.toMillis(admitted[admitted.length - 1]), polls.get(),
+					polls.get() * 1000.0 / elapsedMillis, micros[micros.length / 2] / 1000.0,
+					micros[(int) (micros.length * 0.99)] / 1000.0);
+
+			assertEquals(List.of(), failures);
+			assertEquals(USERS, admitted.length);
+			// the n-th admission at t seconds : at most the burst plus one RATE per tick (floor(t) + 1 of them)
+			for (int n = 1; n <= admitted.length; n++) {
+				long seconds = TimeUnit.NANOSECONDS.toSeconds(admitted[n - 1]);
+				assertTrue(n <= RATE * (seconds + 2), n + " admitted within " + (seconds + 1) + " s");
+			}
+		}
+	}
+}
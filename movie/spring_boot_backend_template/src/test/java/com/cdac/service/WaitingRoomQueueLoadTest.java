@@ -0,0 +1,91 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * Waiting room queue load harness - enter() of 200k distinct users and then 1M polls
+ * over 8 threads , all in memory. Prints the rates ; asserts only that the queue adds
+ * up. The queue over http is WaitingRoomLoadTest.
+ */
+@Tag("load")
+class WaitingRoomQueueLoadTest {
+
+	private WaitingRoom room;
+
+	@AfterEach
+	void tearDown() {
+		room.stop();
+	}
+
+	@Test
+	void enterAndPollThroughput() throws Exception {
+		room = newRoom(50, 120);
+		int threads = 8;
+		int usersPerThread = 25_000;
+		int pollsPerUser = 5;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		long start = System.nanoTime();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(pool.submit(() -> {
+				for (int i = 0; i < usersPerThread; i++) {
+					room.enter(1L, "t" + thread + "-" + i);
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		long issueNanos = System.nanoTime() - start;
+
+		futures.clear();
+		start = System.nanoTime();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(pool.submit(() -> {
+				for (int p = 0; p < pollsPerUser; p++) {
+					for (int i = 0; i < usersPerThread; i++) {
+						room.enter(1L, "t" + thread + "-" + i);
+					}
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		long pollNanos = System.nanoTime() - start;
+		pool.shutdown();
+
+		int users = threads * usersPerThread;
+		assertEquals(users - 50, room.queueLength());
+		System.out.printf("waiting room : %d tickets in %d ms (%.0f/s) , %d polls in %d ms (%.0f/s)%n",
+				users, TimeUnit.NANOSECONDS.toMillis(issueNanos), users * 1e9 / issueNanos,
+				users * pollsPerUser, TimeUnit.NANOSECONDS.toMillis(pollNanos),
+				users * (double) pollsPerUser * 1e9 / pollNanos);
+	}
+
+	private static WaitingRoom newRoom(long admitsPerSecond, long ticketTtlSeconds) {
+		WaitingRoom r = new WaitingRoom(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(r, "enabled", true);
+		ReflectionTestUtils.setField(r, "admitsPerSecond", admitsPerSecond);
+		ReflectionTestUtils.setField(r, "passMinutes", 15L);
+		ReflectionTestUtils.setField(r, "ticketTtlSeconds", ticketTtlSeconds);
+		return r;
+	}
+}
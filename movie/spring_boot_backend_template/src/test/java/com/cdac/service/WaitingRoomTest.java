@@ -0,0 +1,133 @@
+package com.cdac.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cdac.dto.WaitingRoomStatusDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WaitingRoomTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private WaitingRoom room;
+
+	@AfterEach
+	void tearDown() {
+		room.stop();
+	}
+
+	@Test
+	void usersOverTheRateQueueInArrivalOrder() {
+		room = newRoom(2, 120);
+
+		assertTrue(room.enter(1L, "a").isAdmitted());
+		assertTrue(room.enter(1L, "b").isAdmitted());
+		WaitingRoomStatusDto c = room.enter(1L, "c");
+		WaitingRoomStatusDto d = room.enter(1L, "d");
+
+		assertFalse(c.isAdmitted());
+		assertEquals(1, c.getPosition());
+		assertEquals(2, d.getPosition());
+		// the same ticket on every poll
+		assertEquals(2, room.enter(1L, "d").getPosition());
+
+		room.admitNext();
+		assertTrue(room.enter(1L, "c").isAdmitted());
+		assertTrue(room.enter(1L, "d").isAdmitted());
+		// an admitted user holds a pass
+		assertTrue(room.enter(1L, "c").isAdmitted());
+	}
+
+	@Test
+	void pollingKeepsATicketAlivePastItsTtl() throws Exception {
+		room = newRoom(1, 1);
+		long issued = System.currentTimeMillis();
+		room.enter(1L, "first");
+		room.enter(1L, "second");
+
+		// the ttl entry of the ticket comes due , but the user polled since - kept
+		Thread.sleep(50);
+		room.enter(1L, "second");
+		room.expire("1:second", issued + 1000);
+		assertEquals(1, room.enter(1L, "second").getPosition());
+		assertEquals(1, room.queueLength());
+	}
+
+	@Test
+	void abandonedTicketIsDropped() {
+		room = newRoom(1, 1);
+		room.enter(1L, "first");
+		room.enter(1L, "gone");
+
+		room.expire("1:gone", System.currentTimeMillis() + 5_000);
+
+		// a poll after expiry gets a new ticket at the back of the queue
+		room.enter(1L, "later");
+		assertEquals(3, room.enter(1L, "gone").getPosition());
+	}
+
+	/*
+	 * A queue far longer than admits-per-second x ticket-ttl - users who keep polling
+	 * must all get in , each with the position it was first given or better.
+	 */
+	@Test
+	void longQueueDrainsWhileUsersPoll() throws Exception {
+		room = newRoom(5, 1);
+		room.start();
+		int users = 25; // about 5 s of admissions at 5 / s , five times the ticket ttl
+		List<Long> firstPositions = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			firstPositions.add(room.enter(1L, "u" + i).getPosition());
+		}
+
+		ExecutorService pollers = Executors.newFixedThreadPool(users);
+		List<Future<Boolean>> outcomes = new ArrayList<>();
+		for (int i = 0; i < users; i++) {
+			String user = "u" + i;
+			long first = firstPositions.get(i);
+			outcomes.add(pollers.submit(() -> {
+				long last = first;
+				long giveUp = System.currentTimeMillis() + 30_000;
+				while (System.currentTimeMillis() < giveUp) {
+					WaitingRoomStatusDto status = room.enter(1L, user);
+					if (status.isAdmitted()) {
+						return true;
+					}
+					if (status.getPosition() > last) {
+						return false; // lost the ticket and went to the back
+					}
+					last = status.getPosition();
+					Thread.sleep(250);
+				}
+				return false;
+			}));
+		}
+		for (Future<Boolean> outcome : outcomes) {
+			assertTrue(outcome.get(40, TimeUnit.SECONDS));
+		}
+		pollers.shutdown();
+		assertEquals(users, (long) registry.counter("waiting.room.admitted").count());
+	}
+
+	private WaitingRoom newRoom(long admitsPerSecond, long ticketTtlSeconds) {
+		WaitingRoom r = new WaitingRoom(registry);
+		ReflectionTestUtils.setField(r, "enabled", true);
+		ReflectionTestUtils.setField(r, "admitsPerSecond", admitsPerSecond);
+		ReflectionTestUtils.setField(r, "passMinutes", 15L);
+		ReflectionTestUtils.setField(r, "ticketTtlSeconds", ticketTtlSeconds);
+		return r;
+	}
+}